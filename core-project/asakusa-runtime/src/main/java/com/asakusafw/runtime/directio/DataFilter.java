@@ -25,6 +25,7 @@ import java.util.Map;
  * To use batch arguments, please implement {@link #initialize(Context)} and obtain them from the context object.
  * @param <T> the target data model type
  * @since 0.7.3
+ * @version 0.9.2
  */
 public abstract class DataFilter<T> {
 
@@ -54,6 +55,17 @@ public abstract class DataFilter<T> {
         return true;
     }
 
+    /**
+     * Returns a declarative predicate which every data accepted by {@link #acceptsData(Object)} must satisfy.
+     * Data formats may use it to skip reading blocks of data (e.g. ORCFile stripes or Parquet row groups),
+     * but {@link #acceptsData(Object)} is still applied to the rest of data.
+     * @return the predicate, or {@code null} if it is not defined
+     * @since 0.9.2
+     */
+    public DataPredicate getPredicate() {
+        return null;
+    }
+
     /**
      * Context object for {@link DataFilter}.
      */
@@ -0,0 +1,451 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.directio;
+
+import java.math.BigDecimal;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import com.asakusafw.runtime.value.Date;
+import com.asakusafw.runtime.value.DateTime;
+
+/**
+ * A declarative predicate on data model properties, which is provided from {@link DataFilter#getPredicate()}.
+ * Data formats may evaluate this predicate against their block statistics, and skip reading the blocks which
+ * never satisfy it.
+ *
+ * Predicates follow the SQL three-valued logic: comparisons with absent ({@code null}) properties are never
+ * satisfied.
+ *
+ * Available literal types are:
+ * <ul>
+ * <li> {@link Boolean} </li>
+ * <li> {@link Byte}, {@link Short}, {@link Integer}, and {@link Long} </li>
+ * <li> {@link Float} and {@link Double} </li>
+ * <li> {@link BigDecimal} </li>
+ * <li> {@link String} </li>
+ * <li> {@link Date} and {@link DateTime} </li>
+ * </ul>
+ * @since 0.9.2
+ */
+public final class DataPredicate {
+
+    private final Kind kind;
+
+    private final String propertyName;
+
+    private final List<Object> values;
+
+    private final List<DataPredicate> operands;
+
+    private DataPredicate(Kind kind, String propertyName, List<Object> values, List<DataPredicate> operands) {
+        this.kind = kind;
+        this.propertyName = propertyName;
+        this.values = values;
+        this.operands = operands;
+    }
+
+    private static DataPredicate leaf(Kind kind, String propertyName, Object... values) {
+        Objects.requireNonNull(propertyName);
+        List<Object> literals = new ArrayList<>();
+        for (Object value : values) {
+            if (isSupportedLiteral(value) == false) {
+                throw new IllegalArgumentException(MessageFormat.format(
+                        "unsupported literal for predicate: {0} ({1})",
+                        value,
+                        value == null ? null : value.getClass().getName()));
+            }
+            literals.add(value);
+        }
+        return new DataPredicate(kind, propertyName, Collections.unmodifiableList(literals), Collections.emptyList());
+    }
+
+    private static DataPredicate group(Kind kind, DataPredicate... operands) {
+        if (operands.length == 0) {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "{0} requires at least one operand",
+                    kind));
+        }
+        for (DataPredicate operand : operands) {
+            Objects.requireNonNull(operand);
+        }
+        return new DataPredicate(
+                kind, null, Collections.emptyList(), Collections.unmodifiableList(Arrays.asList(operands.clone())));
+    }
+
+    private static boolean isSupportedLiteral(Object value) {
+        return value instanceof Boolean
+                || value instanceof Byte
+                || value instanceof Short
+                || value instanceof Integer
+                || value instanceof Long
+                || value instanceof Float
+                || value instanceof Double
+                || value instanceof BigDecimal
+                || value instanceof String
+                || value instanceof Date
+                || value instanceof DateTime;
+    }
+
+    /**
+     * Returns a predicate {@code property = value}.
+     * @param propertyName the target property name
+     * @param value the literal value
+     * @return the created predicate
+     * @throws IllegalArgumentException if the literal type is not supported
+     */
+    public static DataPredicate equal(String propertyName, Object value) {
+        return leaf(Kind.EQUAL, propertyName, value);
+    }
+
+    /**
+     * Returns a predicate {@code property <> value}.
+     * @param propertyName the target property name
+     * @param value the literal value
+     * @return the created predicate
+     * @throws IllegalArgumentException if the literal type is not supported
+     */
+    public static DataPredicate notEqual(String propertyName, Object value) {
+        return leaf(Kind.NOT_EQUAL, propertyName, value);
+    }
+
+    /**
+     * Returns a predicate {@code property < value}.
+     * @param propertyName the target property name
+     * @param value the literal value
+     * @return the created predicate
+     * @throws IllegalArgumentException if the literal type is not supported
+     */
+    public static DataPredicate lessThan(String propertyName, Object value) {
+        return leaf(Kind.LESS_THAN, propertyName, value);
+    }
+
+    /**
+     * Returns a predicate {@code property <= value}.
+     * @param propertyName the target property name
+     * @param value the literal value
+     * @return the created predicate
+     * @throws IllegalArgumentException if the literal type is not supported
+     */
+    public static DataPredicate lessThanOrEqual(String propertyName, Object value) {
+        return leaf(Kind.LESS_THAN_OR_EQUAL, propertyName, value);
+    }
+
+    /**
+     * Returns a predicate {@code property > value}.
+     * @param propertyName the target property name
+     * @param value the literal value
+     * @return the created predicate
+     * @throws IllegalArgumentException if the literal type is not supported
+     */
+    public static DataPredicate greaterThan(String propertyName, Object value) {
+        return leaf(Kind.GREATER_THAN, propertyName, value);
+    }
+
+    /**
+     * Returns a predicate {@code property >= value}.
+     * @param propertyName the target property name
+     * @param value the literal value
+     * @return the created predicate
+     * @throws IllegalArgumentException if the literal type is not supported
+     */
+    public static DataPredicate greaterThanOrEqual(String propertyName, Object value) {
+        return leaf(Kind.GREATER_THAN_OR_EQUAL, propertyName, value);
+    }
+
+    /**
+     * Returns a predicate {@code property BETWEEN lower AND upper} (both inclusive).
+     * @param propertyName the target property name
+     * @param lower the lower bound literal
+     * @param upper the upper bound literal
+     * @return the created predicate
+     * @throws IllegalArgumentException if the literal type is not supported
+     */
+    public static DataPredicate between(String propertyName, Object lower, Object upper) {
+        return leaf(Kind.BETWEEN, propertyName, lower, upper);
+    }
+
+    /**
+     * Returns a predicate {@code property IN (values...)}.
+     * @param propertyName the target property name
+     * @param values the literal values
+     * @return the created predicate
+     * @throws IllegalArgumentException if the literal type is not supported, or values are empty
+     */
+    public static DataPredicate in(String propertyName, Object... values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("IN predicate requires at least one value"); //$NON-NLS-1$
+        }
+        return leaf(Kind.IN, propertyName, values);
+    }
+
+    /**
+     * Returns a predicate {@code property IS NULL}.
+     * @param propertyName the target property name
+     * @return the created predicate
+     */
+    public static DataPredicate isNull(String propertyName) {
+        return leaf(Kind.IS_NULL, propertyName);
+    }
+
+    /**
+     * Returns a predicate {@code property IS NOT NULL}.
+     * @param propertyName the target property name
+     * @return the created predicate
+     */
+    public static DataPredicate isNotNull(String propertyName) {
+        return leaf(Kind.IS_NOT_NULL, propertyName);
+    }
+
+    /**
+     * Returns a conjunction of the given predicates.
+     * @param operands the operands
+     * @return the created predicate
+     * @throws IllegalArgumentException if operands are empty
+     */
+    public static DataPredicate and(DataPredicate... operands) {
+        return group(Kind.AND, operands);
+    }
+
+    /**
+     * Returns a disjunction of the given predicates.
+     * @param operands the operands
+     * @return the created predicate
+     * @throws IllegalArgumentException if operands are empty
+     */
+    public static DataPredicate or(DataPredicate... operands) {
+        return group(Kind.OR, operands);
+    }
+
+    /**
+     * Returns a negation of the given predicate.
+     * @param operand the operand
+     * @return the created predicate
+     */
+    public static DataPredicate not(DataPredicate operand) {
+        return group(Kind.NOT, operand);
+    }
+
+    /**
+     * Returns the kind of this predicate.
+     * @return the kind
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the target property name.
+     * @return the target property name, or {@code null} if this is not a property predicate
+     */
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    /**
+     * Returns the literal values.
+     * @return the literal values, or an empty list if this does not have any literals
+     */
+    public List<Object> getValues() {
+        return values;
+    }
+
+    /**
+     * Returns the operand predicates.
+     * @return the operand predicates, or an empty list if this is not a logical operator
+     */
+    public List<DataPredicate> getOperands() {
+        return operands;
+    }
+
+    /**
+     * Returns an equivalent predicate without any {@link Kind#NOT} operators.
+     * Negations are pushed down to the property predicates, for example, {@code NOT (a < 1 AND b = 2)} is
+     * rewritten to {@code a >= 1 OR b <> 2}.
+     * This is equivalent under the three-valued logic.
+     * @return the normalized predicate
+     */
+    public DataPredicate normalize() {
+        return normalize(false);
+    }
+
+    private DataPredicate normalize(boolean negate) {
+        switch (kind) {
+        case AND:
+            return group(negate ? Kind.OR : Kind.AND, normalizeOperands(negate));
+        case OR:
+            return group(negate ? Kind.AND : Kind.OR, normalizeOperands(negate));
+        case NOT:
+            return operands.get(0).normalize(negate == false);
+        default:
+            return negate ? negateLeaf() : this;
+        }
+    }
+
+    private DataPredicate[] normalizeOperands(boolean negate) {
+        return operands.stream()
+                .map(p -> p.normalize(negate))
+                .toArray(DataPredicate[]::new);
+    }
+
+    private DataPredicate negateLeaf() {
+        switch (kind) {
+        case EQUAL:
+            return notEqual(propertyName, values.get(0));
+        case NOT_EQUAL:
+            return equal(propertyName, values.get(0));
+        case LESS_THAN:
+            return greaterThanOrEqual(propertyName, values.get(0));
+        case LESS_THAN_OR_EQUAL:
+            return greaterThan(propertyName, values.get(0));
+        case GREATER_THAN:
+            return lessThanOrEqual(propertyName, values.get(0));
+        case GREATER_THAN_OR_EQUAL:
+            return lessThan(propertyName, values.get(0));
+        case BETWEEN:
+            return or(lessThan(propertyName, values.get(0)), greaterThan(propertyName, values.get(1)));
+        case IN:
+            return and(values.stream()
+                    .map(v -> notEqual(propertyName, v))
+                    .toArray(DataPredicate[]::new));
+        case IS_NULL:
+            return isNotNull(propertyName);
+        case IS_NOT_NULL:
+            return isNull(propertyName);
+        default:
+            throw new AssertionError(kind);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, propertyName, values, operands);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        DataPredicate other = (DataPredicate) obj;
+        return kind == other.kind
+                && Objects.equals(propertyName, other.propertyName)
+                && values.equals(other.values)
+                && operands.equals(other.operands);
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+        case AND:
+        case OR:
+            return operands.stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(" " + kind + " ", "(", ")")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        case NOT:
+            return "NOT " + operands.get(0); //$NON-NLS-1$
+        default:
+            return MessageFormat.format(
+                    "{0} {1} {2}", //$NON-NLS-1$
+                    propertyName,
+                    kind,
+                    values);
+        }
+    }
+
+    /**
+     * Represents a kind of {@link DataPredicate}.
+     * @since 0.9.2
+     */
+    public enum Kind {
+
+        /**
+         * {@code property = value}.
+         */
+        EQUAL,
+
+        /**
+         * {@code property <> value}.
+         */
+        NOT_EQUAL,
+
+        /**
+         * {@code property < value}.
+         */
+        LESS_THAN,
+
+        /**
+         * {@code property <= value}.
+         */
+        LESS_THAN_OR_EQUAL,
+
+        /**
+         * {@code property > value}.
+         */
+        GREATER_THAN,
+
+        /**
+         * {@code property >= value}.
+         */
+        GREATER_THAN_OR_EQUAL,
+
+        /**
+         * {@code property BETWEEN lower AND upper}.
+         */
+        BETWEEN,
+
+        /**
+         * {@code property IN (values...)}.
+         */
+        IN,
+
+        /**
+         * {@code property IS NULL}.
+         */
+        IS_NULL,
+
+        /**
+         * {@code property IS NOT NULL}.
+         */
+        IS_NOT_NULL,
+
+        /**
+         * Conjunction of operands.
+         */
+        AND,
+
+        /**
+         * Disjunction of operands.
+         */
+        OR,
+
+        /**
+         * Negation of the operand.
+         */
+        NOT,
+    }
+}
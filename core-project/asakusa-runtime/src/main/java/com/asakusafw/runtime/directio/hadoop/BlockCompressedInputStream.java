@@ -0,0 +1,199 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.directio.hadoop;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.hadoop.io.compress.CodecPool;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionInputStream;
+import org.apache.hadoop.io.compress.Decompressor;
+
+/**
+ * Reads uncompressed contents from a sequence of independently compressed blocks.
+ * This starts reading from the head of the specified block, and continues until the end of file.
+ * @since 0.9.2
+ * @see BlockCompressedOutputStream
+ */
+public class BlockCompressedInputStream extends InputStream {
+
+    private final InputStream input;
+
+    private final CompressionCodec codec;
+
+    private final Decompressor decompressor;
+
+    private final BlockIndex index;
+
+    private int nextBlock;
+
+    private CompressionInputStream current;
+
+    private boolean closed;
+
+    /**
+     * Creates a new instance.
+     * @param input the source input stream, which must be positioned at the head of the first block
+     * @param codec the compression codec
+     * @param index the block index of the source file
+     * @param firstBlock the first block index
+     */
+    public BlockCompressedInputStream(
+            InputStream input, CompressionCodec codec,
+            BlockIndex index, int firstBlock) {
+        if (firstBlock < 0 || firstBlock > index.getBlockCount()) {
+            throw new IllegalArgumentException("firstBlock is out of range"); //$NON-NLS-1$
+        }
+        this.input = input;
+        this.codec = codec;
+        this.decompressor = CodecPool.getDecompressor(codec);
+        this.index = index;
+        this.nextBlock = firstBlock;
+    }
+
+    @Override
+    public int read() throws IOException {
+        while (prepare()) {
+            int c = current.read();
+            if (c >= 0) {
+                return c;
+            }
+            finishBlock();
+        }
+        return -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (prepare()) {
+            int read = current.read(b, off, len);
+            if (read > 0) {
+                return read;
+            }
+            finishBlock();
+        }
+        return -1;
+    }
+
+    private boolean prepare() throws IOException {
+        if (current != null) {
+            return true;
+        }
+        if (closed || nextBlock >= index.getBlockCount()) {
+            return false;
+        }
+        long length = index.getCompressedOffset(nextBlock + 1) - index.getCompressedOffset(nextBlock);
+        nextBlock++;
+        InputStream block = new LimitedInputStream(input, length);
+        if (decompressor != null) {
+            decompressor.reset();
+            current = codec.createInputStream(block, decompressor);
+        } else {
+            current = codec.createInputStream(block);
+        }
+        return true;
+    }
+
+    private void finishBlock() throws IOException {
+        assert current != null;
+        // never closes the source stream
+        current.close();
+        current = null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (current != null) {
+                finishBlock();
+            }
+        } finally {
+            if (decompressor != null) {
+                CodecPool.returnDecompressor(decompressor);
+            }
+            input.close();
+        }
+    }
+
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private long rest;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.rest = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (rest <= 0) {
+                return -1;
+            }
+            int c = in.read();
+            if (c >= 0) {
+                rest--;
+            }
+            return c;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (rest <= 0) {
+                return -1;
+            }
+            int read = in.read(b, off, (int) Math.min(len, rest));
+            if (read > 0) {
+                rest -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(Math.min(n, rest));
+            rest -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), rest);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // skips the rest of the current block
+            byte[] buf = new byte[4096];
+            while (read(buf) >= 0) {
+                continue;
+            }
+        }
+    }
+}
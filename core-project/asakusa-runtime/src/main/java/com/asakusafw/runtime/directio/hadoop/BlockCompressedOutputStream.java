@@ -0,0 +1,194 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.directio.hadoop;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.io.compress.CodecPool;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.hadoop.io.compress.Compressor;
+
+/**
+ * Writes contents as a sequence of independently compressed blocks, and builds their {@link BlockIndex}.
+ * The resulting file is a concatenation of compressed streams, which most codecs (e.g. gzip or bzip2) can
+ * read as the original contents.
+ * @since 0.9.2
+ */
+public class BlockCompressedOutputStream extends OutputStream {
+
+    private final PositionOutputStream output;
+
+    private final CompressionCodec codec;
+
+    private final Compressor compressor;
+
+    private final long blockSize;
+
+    private final List<Long> compressedOffsets = new ArrayList<>();
+
+    private final List<Long> uncompressedOffsets = new ArrayList<>();
+
+    private CompressionOutputStream current;
+
+    private long currentSize;
+
+    private long uncompressedPosition;
+
+    private BlockIndex index;
+
+    /**
+     * Creates a new instance.
+     * @param output the destination output stream
+     * @param codec the compression codec
+     * @param blockSize the uncompressed size of each block in bytes
+     */
+    public BlockCompressedOutputStream(OutputStream output, CompressionCodec codec, long blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be positive"); //$NON-NLS-1$
+        }
+        this.output = new PositionOutputStream(output);
+        this.codec = codec;
+        this.compressor = CodecPool.getCompressor(codec);
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        prepare().write(b);
+        currentSize++;
+        uncompressedPosition++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        int offset = off;
+        int rest = len;
+        while (rest > 0) {
+            CompressionOutputStream stream = prepare();
+            int count = (int) Math.min(rest, blockSize - currentSize);
+            stream.write(b, offset, count);
+            currentSize += count;
+            uncompressedPosition += count;
+            offset += count;
+            rest -= count;
+        }
+    }
+
+    private CompressionOutputStream prepare() throws IOException {
+        if (current != null && currentSize >= blockSize) {
+            finishBlock();
+        }
+        if (current == null) {
+            compressedOffsets.add(output.position);
+            uncompressedOffsets.add(uncompressedPosition);
+            if (compressor != null) {
+                compressor.reset();
+                current = codec.createOutputStream(output, compressor);
+            } else {
+                current = codec.createOutputStream(output);
+            }
+            currentSize = 0;
+        }
+        return current;
+    }
+
+    private void finishBlock() throws IOException {
+        assert current != null;
+        // never closes the destination stream
+        current.close();
+        current = null;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (current != null) {
+            current.flush();
+        }
+        output.flush();
+    }
+
+    /**
+     * Returns the index of the written blocks.
+     * @return the block index
+     * @throws IllegalStateException if this stream is not closed yet
+     */
+    public BlockIndex getIndex() {
+        if (index == null) {
+            throw new IllegalStateException();
+        }
+        return index;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (index != null) {
+            return;
+        }
+        try {
+            if (current != null) {
+                finishBlock();
+            }
+            index = new BlockIndex(
+                    toArray(compressedOffsets), toArray(uncompressedOffsets),
+                    output.position, uncompressedPosition);
+        } finally {
+            if (compressor != null) {
+                CodecPool.returnCompressor(compressor);
+            }
+            output.closeInternal();
+        }
+    }
+
+    private static long[] toArray(List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static final class PositionOutputStream extends FilterOutputStream {
+
+        long position;
+
+        PositionOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            position++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            position += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // closing each block must not close the destination
+            out.flush();
+        }
+
+        void closeInternal() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,316 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.directio.hadoop;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.WritableUtils;
+
+/**
+ * An index of independently compressed blocks in a file.
+ * Each index is stored as a hidden sidecar file next to the indexed file (see {@link #getIndexPath(Path)}).
+ * @since 0.9.2
+ * @see BlockCompressedOutputStream
+ * @see BlockCompressedInputStream
+ */
+public final class BlockIndex {
+
+    static final Log LOG = LogFactory.getLog(BlockIndex.class);
+
+    private static final String PREFIX = "."; //$NON-NLS-1$
+
+    private static final String SUFFIX = ".blockindex"; //$NON-NLS-1$
+
+    private static final int MAGIC = 0x41424958; // "ABIX"
+
+    private static final int VERSION_1 = 1;
+
+    private static final int VERSION_2 = 2;
+
+    private static final int VERSION = 3;
+
+    private static final int TAIL_LENGTH = 64;
+
+    private static final long UNKNOWN_CHECKSUM = -1L;
+
+    private final long[] compressedOffsets;
+
+    private final long[] uncompressedOffsets;
+
+    private final long compressedLength;
+
+    private final long uncompressedLength;
+
+    private final long tailChecksum;
+
+    /**
+     * Creates a new instance.
+     * @param compressedOffsets the start offset of each block in the compressed file
+     * @param uncompressedOffsets the start offset of each block in the uncompressed contents
+     * @param compressedLength the total length of the compressed file
+     * @param uncompressedLength the total length of the uncompressed contents
+     */
+    public BlockIndex(
+            long[] compressedOffsets, long[] uncompressedOffsets,
+            long compressedLength, long uncompressedLength) {
+        this(compressedOffsets, uncompressedOffsets, compressedLength, uncompressedLength, UNKNOWN_CHECKSUM);
+    }
+
+    private BlockIndex(
+            long[] compressedOffsets, long[] uncompressedOffsets,
+            long compressedLength, long uncompressedLength,
+            long tailChecksum) {
+        if (compressedOffsets.length != uncompressedOffsets.length) {
+            throw new IllegalArgumentException("the number of offsets must be same"); //$NON-NLS-1$
+        }
+        this.compressedOffsets = compressedOffsets.clone();
+        this.uncompressedOffsets = uncompressedOffsets.clone();
+        this.compressedLength = compressedLength;
+        this.uncompressedLength = uncompressedLength;
+        this.tailChecksum = tailChecksum;
+    }
+
+    /**
+     * Returns the number of blocks.
+     * @return the number of blocks
+     */
+    public int getBlockCount() {
+        return compressedOffsets.length;
+    }
+
+    /**
+     * Returns the start offset of the block in the compressed file.
+     * @param block the block index, or the {@link #getBlockCount() number of blocks} for the end of file
+     * @return the start offset
+     */
+    public long getCompressedOffset(int block) {
+        return block == compressedOffsets.length ? compressedLength : compressedOffsets[block];
+    }
+
+    /**
+     * Returns the start offset of the block in the uncompressed contents.
+     * @param block the block index, or the {@link #getBlockCount() number of blocks} for the end of contents
+     * @return the start offset
+     */
+    public long getUncompressedOffset(int block) {
+        return block == uncompressedOffsets.length ? uncompressedLength : uncompressedOffsets[block];
+    }
+
+    /**
+     * Returns the total length of the compressed file.
+     * @return the compressed file length
+     */
+    public long getCompressedLength() {
+        return compressedLength;
+    }
+
+    /**
+     * Returns the total length of the uncompressed contents.
+     * @return the uncompressed length
+     */
+    public long getUncompressedLength() {
+        return uncompressedLength;
+    }
+
+    /**
+     * Returns the first block which starts at or after the given offset in the compressed file.
+     * @param offset the offset in the compressed file
+     * @return the block index, or the {@link #getBlockCount() number of blocks} if there are no such blocks
+     */
+    public int findBlock(long offset) {
+        int found = Arrays.binarySearch(compressedOffsets, offset);
+        return found >= 0 ? found : -(found + 1);
+    }
+
+    /**
+     * Returns the index file path for the target file.
+     * @param file the target file
+     * @return the corresponded index file path
+     */
+    public static Path getIndexPath(Path file) {
+        return new Path(file.getParent(), PREFIX + file.getName() + SUFFIX);
+    }
+
+    /**
+     * Returns whether or not the given path represents an index file.
+     * @param path the target path
+     * @return {@code true} if it is an index file, otherwise {@code false}
+     */
+    public static boolean isIndexFile(Path path) {
+        String name = path.getName();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    /**
+     * Returns the index of the target file.
+     * @param fs the file system
+     * @param file the target file
+     * @return the index, or {@code null} if it does not exist or is obsolete
+     * @throws IOException if failed to load the index
+     */
+    public static BlockIndex find(FileSystem fs, Path file) throws IOException {
+        return find(fs, file, null);
+    }
+
+    /**
+     * Returns the index of the target file.
+     * @param fs the file system
+     * @param stat the target file status
+     * @return the index, or {@code null} if it does not exist or is obsolete
+     * @throws IOException if failed to load the index
+     */
+    public static BlockIndex find(FileSystem fs, FileStatus stat) throws IOException {
+        return find(fs, stat.getPath(), stat);
+    }
+
+    private static BlockIndex find(FileSystem fs, Path file, FileStatus stat) throws IOException {
+        Path path = getIndexPath(file);
+        BlockIndex index;
+        try (FSDataInputStream input = fs.open(path)) {
+            index = read(input);
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+        FileStatus actual = stat != null ? stat : fs.getFileStatus(file);
+        if (index.compressedLength != actual.getLen()) {
+            LOG.warn(MessageFormat.format(
+                    "block index is obsolete: {0} (expected length={1}, actual length={2})",
+                    path,
+                    index.compressedLength,
+                    actual.getLen()));
+            return null;
+        }
+        if (index.tailChecksum != UNKNOWN_CHECKSUM) {
+            long checksum = computeTailChecksum(fs, file, actual.getLen());
+            if (index.tailChecksum != checksum) {
+                LOG.warn(MessageFormat.format(
+                        "block index is obsolete: {0} (expected checksum={1}, actual checksum={2})",
+                        path,
+                        Long.toHexString(index.tailChecksum),
+                        Long.toHexString(checksum)));
+                return null;
+            }
+        }
+        return index;
+    }
+
+    private static long computeTailChecksum(FileSystem fs, Path file, long length) throws IOException {
+        byte[] buf = new byte[(int) Math.min(length, TAIL_LENGTH)];
+        try (FSDataInputStream input = fs.open(file)) {
+            input.readFully(length - buf.length, buf);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buf);
+        return crc.getValue();
+    }
+
+    /**
+     * Writes this index for the target file.
+     * The index also keeps a checksum of the trailing bytes of the target file, and it will be treated as
+     * obsolete if the file is modified after this.
+     * Note that the modification time is not kept, because copying the file (e.g. from a local temporary
+     * directory) changes it without modifying the contents.
+     * @param fs the file system
+     * @param file the target file, which must be already closed
+     * @throws IOException if failed to write the index
+     */
+    public void write(FileSystem fs, Path file) throws IOException {
+        Path path = getIndexPath(file);
+        long checksum = computeTailChecksum(fs, file, compressedLength);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(MessageFormat.format(
+                    "writing block index: {0} (blocks={1}, checksum={2})", //$NON-NLS-1$
+                    path,
+                    getBlockCount(),
+                    Long.toHexString(checksum)));
+        }
+        try (FSDataOutputStream output = fs.create(path, true)) {
+            write(output, checksum);
+        }
+    }
+
+    private void write(DataOutputStream output, long checksum) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        WritableUtils.writeVInt(output, compressedOffsets.length);
+        long lastCompressed = 0;
+        long lastUncompressed = 0;
+        for (int i = 0; i < compressedOffsets.length; i++) {
+            WritableUtils.writeVLong(output, compressedOffsets[i] - lastCompressed);
+            WritableUtils.writeVLong(output, uncompressedOffsets[i] - lastUncompressed);
+            lastCompressed = compressedOffsets[i];
+            lastUncompressed = uncompressedOffsets[i];
+        }
+        WritableUtils.writeVLong(output, compressedLength);
+        WritableUtils.writeVLong(output, uncompressedLength);
+        output.writeLong(checksum);
+    }
+
+    private static BlockIndex read(DataInputStream input) throws IOException {
+        if (input.readInt() != MAGIC) {
+            throw new IOException("invalid block index format");
+        }
+        int version = input.readInt();
+        if (version != VERSION && version != VERSION_2 && version != VERSION_1) {
+            throw new IOException(MessageFormat.format(
+                    "unsupported block index version: {0}",
+                    version));
+        }
+        int count = WritableUtils.readVInt(input);
+        long[] compressed = new long[count];
+        long[] uncompressed = new long[count];
+        long lastCompressed = 0;
+        long lastUncompressed = 0;
+        for (int i = 0; i < count; i++) {
+            lastCompressed += WritableUtils.readVLong(input);
+            lastUncompressed += WritableUtils.readVLong(input);
+            compressed[i] = lastCompressed;
+            uncompressed[i] = lastUncompressed;
+        }
+        long compressedLength = WritableUtils.readVLong(input);
+        long uncompressedLength = WritableUtils.readVLong(input);
+        long checksum = UNKNOWN_CHECKSUM;
+        if (version == VERSION_2) {
+            // version 2 keeps the modification time, which is not preserved by copying the file
+            input.readLong();
+        } else if (version == VERSION) {
+            checksum = input.readLong();
+        }
+        return new BlockIndex(compressed, uncompressed, compressedLength, uncompressedLength, checksum);
+    }
+
+    @Override
+    public String toString() {
+        return MessageFormat.format(
+                "BlockIndex(blocks={0}, compressed={1}, uncompressed={2})", //$NON-NLS-1$
+                getBlockCount(),
+                compressedLength,
+                uncompressedLength);
+    }
+}
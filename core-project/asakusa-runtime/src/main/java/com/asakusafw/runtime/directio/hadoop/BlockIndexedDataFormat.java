@@ -0,0 +1,33 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.directio.hadoop;
+
+import com.asakusafw.runtime.directio.FragmentableDataFormat;
+
+/**
+ * A {@link FragmentableDataFormat} which can read fragments of block compressed files.
+ * Each of such files must have its {@link BlockIndex}.
+ * @param <T> the type of target data model
+ * @since 0.9.2
+ */
+public interface BlockIndexedDataFormat<T> extends FragmentableDataFormat<T> {
+
+    /**
+     * Returns whether or not this format can read fragments of files which have {@link BlockIndex}.
+     * @return {@code true} if this can read such fragments, otherwise {@code false}
+     */
+    boolean isBlockIndexSupported();
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.directio.hadoop;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.FileStatus;
+
+/**
+ * Caches file listing results for each execution.
+ * The cached results of an execution are invalidated whenever the data sources in this process delete files or
+ * commit outputs in the execution.
+ * @since 0.9.2
+ */
+final class FileListCache {
+
+    static final Log LOG = LogFactory.getLog(FileListCache.class);
+
+    static final int DEFAULT_CAPACITY = 256;
+
+    private static final FileListCache INSTANCE = new FileListCache(DEFAULT_CAPACITY);
+
+    private final Map<Key, List<FileStatus>> entries;
+
+    FileListCache(int capacity) {
+        this.entries = new LinkedHashMap<Key, List<FileStatus>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<FileStatus>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the shared instance.
+     * @return the shared instance
+     */
+    static FileListCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached listing result.
+     * @param key the cache key
+     * @return the cached result, or {@code null} if it is not cached
+     */
+    synchronized List<FileStatus> find(Key key) {
+        List<FileStatus> result = entries.get(key);
+        if (result != null && LOG.isDebugEnabled()) {
+            LOG.debug(MessageFormat.format(
+                    "reuse cached file list: {0} (files={1})", //$NON-NLS-1$
+                    key,
+                    result.size()));
+        }
+        return result;
+    }
+
+    /**
+     * Puts a listing result.
+     * @param key the cache key
+     * @param result the listing result
+     * @return the cached result
+     */
+    synchronized List<FileStatus> put(Key key, List<FileStatus> result) {
+        List<FileStatus> copy = Collections.unmodifiableList(new ArrayList<>(result));
+        entries.put(key, copy);
+        return copy;
+    }
+
+    /**
+     * Removes all cached results in the execution.
+     * @param executionId the target execution ID
+     */
+    synchronized void invalidate(String executionId) {
+        for (Iterator<Key> iter = entries.keySet().iterator(); iter.hasNext();) {
+            if (iter.next().executionId.equals(executionId)) {
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * A cache key.
+     */
+    static final class Key {
+
+        final String executionId;
+
+        private final String fileSystem;
+
+        private final String base;
+
+        private final String pattern;
+
+        Key(String executionId, String fileSystem, String base, String pattern) {
+            this.executionId = executionId;
+            this.fileSystem = fileSystem;
+            this.base = base;
+            this.pattern = pattern;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(executionId, fileSystem, base, pattern);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return executionId.equals(other.executionId)
+                    && fileSystem.equals(other.fileSystem)
+                    && base.equals(other.base)
+                    && pattern.equals(other.pattern);
+        }
+
+        @Override
+        public String toString() {
+            return MessageFormat.format(
+                    "{0}/{1} ({2})", //$NON-NLS-1$
+                    base,
+                    pattern,
+                    executionId);
+        }
+    }
+}
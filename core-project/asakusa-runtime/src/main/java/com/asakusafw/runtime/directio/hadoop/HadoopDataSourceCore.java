@@ -19,7 +19,17 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -46,7 +56,7 @@ import com.asakusafw.runtime.io.ModelOutput;
 /**
  * An implementation of {@link DirectDataSource} using {@link FileSystem}.
  * @since 0.2.5
- * @version 0.7.0
+ * @version 0.9.2
  */
 public class HadoopDataSourceCore implements DirectDataSource {
 
@@ -56,8 +66,15 @@ public class HadoopDataSourceCore implements DirectDataSource {
 
     private static final String STAGING_AREA = "staging"; //$NON-NLS-1$
 
+    private static final String MANIFEST_AREA = "manifests"; //$NON-NLS-1$
+
+    private static final String INTENT_AREA = "intents"; //$NON-NLS-1$
+
     private final HadoopDataSourceProfile profile;
 
+    // only for avoiding duplicate intents: the committer may use another object
+    private final Map<Path, OutputManifest> directOutputs = new ConcurrentHashMap<>();
+
     /**
      * Creates a new instance.
      * @param profile profile of target data source
@@ -92,66 +109,111 @@ public class HadoopDataSourceCore implements DirectDataSource {
         }
         FilePattern pattern = validate(resourcePattern);
         HadoopDataSourceProfile p = profile;
-        FileSystem fs = p.getFileSystem();
-        Path root = p.getFileSystemPath();
-        Path base = append(root, basePath);
-        Path temporary = p.getTemporaryFileSystemPath();
-        List<FileStatus> stats = HadoopDataSourceUtil.search(fs, base, pattern);
-        stats = filesOnly(stats, temporary);
-        if (LOG.isDebugEnabled()) {
-            LOG.debug(MessageFormat.format(
-                    "Process finding input (id={0}, path={1}, resource={2}, files={3})", //$NON-NLS-1$
-                    profile.getId(),
-                    basePath,
-                    resourcePattern,
-                    stats.size()));
-        }
-        if (LOG.isTraceEnabled()) {
-            for (FileStatus stat : stats) {
-                LOG.trace(MessageFormat.format(
-                        "Input found (path={0}, length={1})", //$NON-NLS-1$
-                        stat.getPath(),
-                        stat.getLen()));
+        ExecutorService executor = HadoopDataSourceUtil.createSearchExecutor(p.getSearchThreads());
+        try {
+            FileSystem fs = p.getFileSystem();
+            Path root = p.getFileSystemPath();
+            Path base = append(root, basePath);
+            Path temporary = p.getTemporaryFileSystemPath();
+            List<FileStatus> stats = search(fs, base, pattern, executor);
+            stats = filesOnly(stats, temporary);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(MessageFormat.format(
+                        "Process finding input (id={0}, path={1}, resource={2}, files={3})", //$NON-NLS-1$
+                        profile.getId(),
+                        basePath,
+                        resourcePattern,
+                        stats.size()));
+            }
+            if (LOG.isTraceEnabled()) {
+                for (FileStatus stat : stats) {
+                    LOG.trace(MessageFormat.format(
+                            "Input found (path={0}, length={1})", //$NON-NLS-1$
+                            stat.getPath(),
+                            stat.getLen()));
+                }
+            }
+            DataFilter<?> filter = definition.getDataFilter();
+            if (filter != null) {
+                stats = applyFilter(stats, filter);
             }
-        }
-        DataFilter<?> filter = definition.getDataFilter();
-        if (filter != null) {
-            stats = applyFilter(stats, filter);
-        }
 
-        DataFormat<T> format = definition.getDataFormat();
-        Class<? extends T> dataType = definition.getDataClass();
-        List<DirectInputFragment> results;
-        if (format instanceof StripedDataFormat<?>) {
-            StripedDataFormat.InputContext context = new StripedDataFormat.InputContext(
-                    dataType,
-                    stats, fs,
-                    p.getMinimumFragmentSize(), p.getPreferredFragmentSize(),
-                    p.isSplitBlocks(), p.isCombineBlocks());
-            StripedDataFormat<T> sformat = (StripedDataFormat<T>) format;
-            results = sformat.computeInputFragments(context);
-        } else if (format instanceof FragmentableDataFormat<?>) {
-            FragmentableDataFormat<T> sformat = (FragmentableDataFormat<T>) format;
-            FragmentComputer optimizer = new FragmentComputer(
-                    p.getMinimumFragmentSize(sformat), p.getPreferredFragmentSize(sformat),
-                    p.isCombineBlocks(), p.isSplitBlocks());
-            results = computeInputFragments(optimizer, stats);
-        } else {
-            FragmentComputer optimizer = new FragmentComputer();
-            results = computeInputFragments(optimizer, stats);
+            DataFormat<T> format = definition.getDataFormat();
+            Class<? extends T> dataType = definition.getDataClass();
+            List<DirectInputFragment> results;
+            if (format instanceof StripedDataFormat<?>) {
+                StripedDataFormat.InputContext context = new StripedDataFormat.InputContext(
+                        dataType,
+                        stats, fs,
+                        p.getMinimumFragmentSize(), p.getPreferredFragmentSize(),
+                        p.isSplitBlocks(), p.isCombineBlocks());
+                StripedDataFormat<T> sformat = (StripedDataFormat<T>) format;
+                results = sformat.computeInputFragments(context);
+            } else if (isBlockIndexSupported(format)) {
+                FragmentableDataFormat<T> sformat = (FragmentableDataFormat<T>) format;
+                FragmentComputer optimizer = new FragmentComputer(
+                        p.getMinimumFragmentSize(sformat), p.getPreferredFragmentSize(sformat),
+                        p.isCombineBlocks(), p.isSplitBlocks());
+                FragmentComputer indexed = new FragmentComputer(
+                        p.getMinimumFragmentSize(), p.getPreferredFragmentSize(),
+                        p.isCombineBlocks(), p.isSplitBlocks());
+                results = computeInputFragments(optimizer, indexed, stats, executor);
+            } else if (format instanceof FragmentableDataFormat<?>) {
+                FragmentableDataFormat<T> sformat = (FragmentableDataFormat<T>) format;
+                FragmentComputer optimizer = new FragmentComputer(
+                        p.getMinimumFragmentSize(sformat), p.getPreferredFragmentSize(sformat),
+                        p.isCombineBlocks(), p.isSplitBlocks());
+                results = computeInputFragments(optimizer, stats, executor);
+            } else {
+                FragmentComputer optimizer = new FragmentComputer();
+                results = computeInputFragments(optimizer, stats, executor);
+            }
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(MessageFormat.format(
+                        "Finish finding input (id={0}, path={1}, resource={2}, fragments={3})", //$NON-NLS-1$
+                        profile.getId(),
+                        basePath,
+                        resourcePattern,
+                        results.size()));
+            }
+            return results;
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
         }
+    }
 
-        if (LOG.isDebugEnabled()) {
-            LOG.debug(MessageFormat.format(
-                    "Finish finding input (id={0}, path={1}, resource={2}, fragments={3})", //$NON-NLS-1$
-                    profile.getId(),
-                    basePath,
-                    resourcePattern,
-                    results.size()));
+    private List<FileStatus> search(
+            FileSystem fs, Path base, FilePattern pattern,
+            ExecutorService executor) throws IOException {
+        FileListCache.Key key = null;
+        if (profile.isSearchCache() && profile.getExecutionId() != null) {
+            key = new FileListCache.Key(
+                    profile.getExecutionId(),
+                    HadoopDataSourceProfile.getFsIdentity(fs),
+                    base.toString(),
+                    pattern.toString());
+            List<FileStatus> cached = FileListCache.getInstance().find(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        List<FileStatus> results = HadoopDataSourceUtil.search(fs, base, pattern, executor);
+        if (key != null) {
+            results = FileListCache.getInstance().put(key, results);
         }
         return results;
     }
 
+    private void invalidateSearchCache() {
+        // any changes of the visible files make the cached listings of this execution obsolete
+        if (profile.isSearchCache() && profile.getExecutionId() != null) {
+            FileListCache.getInstance().invalidate(profile.getExecutionId());
+        }
+    }
+
     private List<FileStatus> applyFilter(List<FileStatus> stats, DataFilter<?> filter) {
         List<FileStatus> results = new ArrayList<>();
         for (FileStatus stat : stats) {
@@ -183,7 +245,10 @@ public class HadoopDataSourceCore implements DirectDataSource {
     private List<FileStatus> filesOnly(List<FileStatus> stats, Path temporary) {
         List<FileStatus> results = new ArrayList<>();
         for (FileStatus stat : stats) {
-            if (stat.isDirectory() == false && isIn(stat, temporary) == false) {
+            if (stat.isDirectory() == false
+                    && isIn(stat, temporary) == false
+                    && BlockIndex.isIndexFile(stat.getPath()) == false
+                    && OutputManifest.isTemporaryFile(stat.getPath()) == false) {
                 results.add(stat);
             }
         }
@@ -192,12 +257,15 @@ public class HadoopDataSourceCore implements DirectDataSource {
 
     private List<DirectInputFragment> computeInputFragments(
             FragmentComputer fragmentComputer,
-            List<FileStatus> stats) throws IOException {
+            List<FileStatus> stats,
+            ExecutorService executor) throws IOException {
+        List<List<BlockInfo>> blockLists = computeBlocks(stats, executor);
         List<DirectInputFragment> results = new ArrayList<>();
-        for (FileStatus stat : stats) {
+        for (int i = 0, n = stats.size(); i < n; i++) {
+            FileStatus stat = stats.get(i);
             String path = stat.getPath().toString();
             long fileSize = stat.getLen();
-            List<BlockInfo> blocks = BlockMap.computeBlocks(profile.getFileSystem(), stat);
+            List<BlockInfo> blocks = blockLists.get(i);
             if (LOG.isTraceEnabled()) {
                 for (BlockInfo block : blocks) {
                     LOG.trace(MessageFormat.format(
@@ -224,6 +292,121 @@ public class HadoopDataSourceCore implements DirectDataSource {
         return results;
     }
 
+    private static boolean isBlockIndexSupported(DataFormat<?> format) {
+        return format instanceof BlockIndexedDataFormat<?>
+                && ((BlockIndexedDataFormat<?>) format).isBlockIndexSupported();
+    }
+
+    private List<DirectInputFragment> computeInputFragments(
+            FragmentComputer fragmentComputer,
+            FragmentComputer indexedFragmentComputer,
+            List<FileStatus> stats,
+            ExecutorService executor) throws IOException {
+        List<Boolean> indexed = findBlockIndices(stats, executor);
+        List<FileStatus> plain = new ArrayList<>();
+        List<FileStatus> splittable = new ArrayList<>();
+        for (int i = 0, n = stats.size(); i < n; i++) {
+            if (indexed.get(i)) {
+                splittable.add(stats.get(i));
+            } else {
+                plain.add(stats.get(i));
+            }
+        }
+        if (LOG.isDebugEnabled() && splittable.isEmpty() == false) {
+            LOG.debug(MessageFormat.format(
+                    "Process finding input [block indexed] (id={0}, files={1})", //$NON-NLS-1$
+                    profile.getId(),
+                    splittable.size()));
+        }
+        List<DirectInputFragment> results = new ArrayList<>();
+        results.addAll(computeInputFragments(fragmentComputer, plain, executor));
+        results.addAll(computeInputFragments(indexedFragmentComputer, splittable, executor));
+        return results;
+    }
+
+    private List<Boolean> findBlockIndices(
+            List<FileStatus> stats,
+            ExecutorService executor) throws IOException {
+        FileSystem fs = profile.getFileSystem();
+        // lists each directory only once, instead of trying to open index files of every input file
+        Set<Path> indices = findIndexFiles(fs, stats, executor);
+        if (indices.isEmpty()) {
+            return stats.stream().map(stat -> false).collect(Collectors.toList());
+        }
+        if (executor == null) {
+            List<Boolean> results = new ArrayList<>();
+            for (FileStatus stat : stats) {
+                results.add(hasBlockIndex(fs, indices, stat));
+            }
+            return results;
+        }
+        return HadoopDataSourceUtil.collect(executor, stats.stream()
+                .map(stat -> (Callable<Boolean>) () -> hasBlockIndex(fs, indices, stat))
+                .collect(Collectors.toList()));
+    }
+
+    private static boolean hasBlockIndex(FileSystem fs, Set<Path> indices, FileStatus stat) throws IOException {
+        return indices.contains(BlockIndex.getIndexPath(stat.getPath())) && BlockIndex.find(fs, stat) != null;
+    }
+
+    private static Set<Path> findIndexFiles(
+            FileSystem fs,
+            List<FileStatus> stats,
+            ExecutorService executor) throws IOException {
+        Set<Path> directories = stats.stream()
+                .map(stat -> stat.getPath().getParent())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        List<List<Path>> lists;
+        if (executor == null) {
+            lists = new ArrayList<>();
+            for (Path directory : directories) {
+                lists.add(listIndexFiles(fs, directory));
+            }
+        } else {
+            lists = HadoopDataSourceUtil.collect(executor, directories.stream()
+                    .map(directory -> (Callable<List<Path>>) () -> listIndexFiles(fs, directory))
+                    .collect(Collectors.toList()));
+        }
+        Set<Path> results = new HashSet<>();
+        lists.forEach(results::addAll);
+        return results;
+    }
+
+    private static List<Path> listIndexFiles(FileSystem fs, Path directory) throws IOException {
+        FileStatus[] children;
+        try {
+            children = fs.listStatus(directory);
+        } catch (FileNotFoundException e) {
+            return Collections.emptyList();
+        }
+        if (children == null) {
+            return Collections.emptyList();
+        }
+        List<Path> results = new ArrayList<>();
+        for (FileStatus child : children) {
+            if (child.isDirectory() == false && BlockIndex.isIndexFile(child.getPath())) {
+                results.add(child.getPath());
+            }
+        }
+        return results;
+    }
+
+    private List<List<BlockInfo>> computeBlocks(
+            List<FileStatus> stats,
+            ExecutorService executor) throws IOException {
+        FileSystem fs = profile.getFileSystem();
+        if (executor == null) {
+            List<List<BlockInfo>> results = new ArrayList<>();
+            for (FileStatus stat : stats) {
+                results.add(BlockMap.computeBlocks(fs, stat));
+            }
+            return results;
+        }
+        return HadoopDataSourceUtil.collect(executor, stats.stream()
+                .map(stat -> (Callable<List<BlockInfo>>) () -> BlockMap.computeBlocks(fs, stat))
+                .collect(Collectors.toList()));
+    }
+
     @Override
     public <T> ModelInput<T> openInput(
             DataDefinition<T> definition,
@@ -246,7 +429,8 @@ public class HadoopDataSourceCore implements DirectDataSource {
                 new Path(fragment.getPath()),
                 fragment.getOffset(),
                 fragment.getSize(),
-                counter);
+                counter,
+                filter == null ? null : filter.getPredicate());
         if (LOG.isDebugEnabled()) {
             LOG.debug(MessageFormat.format(
                     "Finish opening input (id={0}, path={1}, offset={2}, size={3})", //$NON-NLS-1$
@@ -269,6 +453,9 @@ public class HadoopDataSourceCore implements DirectDataSource {
             String basePath,
             String resourcePath,
             Counter counter) throws IOException, InterruptedException {
+        if (profile.isOutputDirect()) {
+            return openDirectOutput(context, definition, basePath, resourcePath, counter);
+        }
         boolean local = isLocalAttemptOutput();
         if (LOG.isDebugEnabled()) {
             LOG.debug(MessageFormat.format(
@@ -296,8 +483,43 @@ public class HadoopDataSourceCore implements DirectDataSource {
         return output;
     }
 
+    private <T> ModelOutput<T> openDirectOutput(
+            OutputAttemptContext context,
+            DataDefinition<T> definition,
+            String basePath,
+            String resourcePath,
+            Counter counter) throws IOException, InterruptedException {
+        OutputManifest manifest = directOutputs.computeIfAbsent(
+                getAttemptOutput(context),
+                k -> new OutputManifest());
+        Path target = append(append(profile.getFileSystemPath(), basePath), resourcePath);
+        Path directory = OutputManifest.getTemporaryDirectory(target.getParent(), context.getAttemptId());
+        synchronized (manifest) {
+            if (manifest.addDirectory(directory, target.getParent())) {
+                // records the directory before creating any files in it, for cleaning up killed attempts
+                OutputManifest.writeIntent(
+                        profile.getFileSystem(),
+                        getIntentOutput(context.getTransactionContext()),
+                        context.getAttemptId(),
+                        directory);
+            }
+        }
+        Path file = new Path(directory, target.getName());
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(MessageFormat.format(
+                    "Open direct output (id={0}, path={1}, resource={2}, file={3})", //$NON-NLS-1$
+                    profile.getId(),
+                    basePath,
+                    resourcePath,
+                    file));
+        }
+        HadoopFileFormat<T> fileFormat = convertFormat(definition.getDataFormat());
+        return fileFormat.createOutput(definition.getDataClass(), profile.getFileSystem(), file, counter);
+    }
+
     boolean isLocalAttemptOutput() {
-        return profile.isOutputStreaming() == false
+        return profile.isOutputDirect() == false
+                && profile.isOutputStreaming() == false
                 && HadoopDataSourceUtil.isLocalAttemptOutputDefined(profile.getLocalFileSystem());
     }
 
@@ -379,6 +601,7 @@ public class HadoopDataSourceCore implements DirectDataSource {
         FileSystem fs = p.getFileSystem();
         Path root = p.getFileSystemPath();
         Path base = append(root, basePath);
+        invalidateSearchCache();
         List<FileStatus> stats = HadoopDataSourceUtil.search(fs, base, pattern);
         Path temporary = p.getTemporaryFileSystemPath();
         stats = normalize(stats, root, temporary);
@@ -446,6 +669,10 @@ public class HadoopDataSourceCore implements DirectDataSource {
 
     @Override
     public void setupAttemptOutput(OutputAttemptContext context) throws IOException, InterruptedException {
+        if (profile.isOutputDirect()) {
+            directOutputs.put(getAttemptOutput(context), new OutputManifest());
+            return;
+        }
         if (profile.isOutputStreaming() == false && isLocalAttemptOutput() == false) {
             LOG.warn(MessageFormat.format(
                     "Streaming output is disabled but the local temporary directory ({1}) is not defined (id={0})",
@@ -477,6 +704,11 @@ public class HadoopDataSourceCore implements DirectDataSource {
 
     @Override
     public void commitAttemptOutput(OutputAttemptContext context) throws IOException, InterruptedException {
+        invalidateSearchCache();
+        if (profile.isOutputDirect()) {
+            commitDirectAttemptOutput(context);
+            return;
+        }
         Path target;
         if (profile.isOutputStaging()) {
             target = getStagingOutput(context.getTransactionContext());
@@ -507,8 +739,75 @@ public class HadoopDataSourceCore implements DirectDataSource {
         }
     }
 
+    private void commitDirectAttemptOutput(OutputAttemptContext context) throws IOException, InterruptedException {
+        Path attempt = getAttemptOutput(context);
+        directOutputs.remove(attempt);
+        FileSystem fs = profile.getFileSystem();
+        // the outputs may have been written by other data source objects in the same attempt
+        OutputManifest manifest = OutputManifest.readIntents(
+                fs, getIntentOutput(context.getTransactionContext()), context.getAttemptId());
+        if (manifest.isEmpty()) {
+            return;
+        }
+        manifest.resolve(fs);
+        if (profile.isOutputStaging()) {
+            // publishes the attempt manifest, and the files will be renamed in the transaction commit
+            Path published = getPublishedManifest(context);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(MessageFormat.format(
+                        "Publish output manifest (id={0}, path={1}, files={2})", //$NON-NLS-1$
+                        profile.getId(),
+                        published,
+                        manifest.getFiles().size()));
+            }
+            manifest.write(fs, attempt);
+            fs.mkdirs(published.getParent());
+            if (fs.rename(attempt, published) == false) {
+                throw new IOException(MessageFormat.format(
+                        "failed to publish output manifest (id={0}, from={1}, to={2})",
+                        profile.getId(),
+                        attempt,
+                        published));
+            }
+        } else {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(MessageFormat.format(
+                        "Commit direct outputs (id={0}, attempt={1}, files={2})", //$NON-NLS-1$
+                        profile.getId(),
+                        context.getAttemptId(),
+                        manifest.getFiles().size()));
+            }
+            HadoopDataSourceUtil.moveFiles(
+                    context.getCounter(), fs, manifest.getFiles(), profile.getRollforwardThreads());
+            manifest.deleteTemporaryFiles(fs);
+        }
+    }
+
     @Override
     public void cleanupAttemptOutput(OutputAttemptContext context) throws IOException, InterruptedException {
+        if (profile.isOutputDirect()) {
+            invalidateSearchCache();
+            Path attempt = getAttemptOutput(context);
+            directOutputs.remove(attempt);
+            FileSystem fs = profile.getFileSystem();
+            if (fs.exists(getPublishedManifest(context))) {
+                // the committed outputs will be moved in the transaction commit
+                fs.delete(attempt, true);
+                return;
+            }
+            OutputManifest manifest = OutputManifest.readIntents(
+                    fs, getIntentOutput(context.getTransactionContext()), context.getAttemptId());
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(MessageFormat.format(
+                        "Delete uncommitted direct outputs (id={0}, attempt={1}, directories={2})", //$NON-NLS-1$
+                        profile.getId(),
+                        context.getAttemptId(),
+                        manifest.getDirectories().size()));
+            }
+            manifest.deleteTemporaryFiles(fs);
+            fs.delete(attempt, true);
+            return;
+        }
         if (isLocalAttemptOutput()) {
             Path attempt = getLocalAttemptOutput(context);
             if (LOG.isDebugEnabled()) {
@@ -534,7 +833,7 @@ public class HadoopDataSourceCore implements DirectDataSource {
 
     @Override
     public void setupTransactionOutput(OutputTransactionContext context) throws IOException, InterruptedException {
-        if (profile.isOutputStaging()) {
+        if (profile.isOutputStaging() && profile.isOutputDirect() == false) {
             FileSystem fs = profile.getFileSystem();
             Path staging = getStagingOutput(context);
             if (LOG.isDebugEnabled()) {
@@ -549,7 +848,28 @@ public class HadoopDataSourceCore implements DirectDataSource {
 
     @Override
     public void commitTransactionOutput(OutputTransactionContext context) throws IOException, InterruptedException {
-        if (profile.isOutputStaging()) {
+        invalidateSearchCache();
+        if (profile.isOutputDirect()) {
+            FileSystem fs = profile.getFileSystem();
+            Path manifests = getManifestOutput(context);
+            Map<Path, Path> files = new LinkedHashMap<>();
+            List<OutputManifest> published = OutputManifest.readAll(fs, manifests);
+            for (OutputManifest manifest : published) {
+                files.putAll(manifest.getFiles());
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(MessageFormat.format(
+                        "Commit direct outputs (id={0}, path={1}, files={2})", //$NON-NLS-1$
+                        profile.getId(),
+                        manifests,
+                        files.size()));
+            }
+            HadoopDataSourceUtil.moveFiles(context.getCounter(), fs, files, profile.getRollforwardThreads());
+            for (OutputManifest manifest : published) {
+                manifest.deleteTemporaryFiles(fs);
+            }
+            fs.delete(manifests, true);
+        } else if (profile.isOutputStaging()) {
             FileSystem fs = profile.getFileSystem();
             Path staging = getStagingOutput(context);
             Path target = profile.getFileSystemPath();
@@ -566,6 +886,11 @@ public class HadoopDataSourceCore implements DirectDataSource {
     @Override
     public void cleanupTransactionOutput(OutputTransactionContext context) throws IOException, InterruptedException {
         FileSystem fs = profile.getFileSystem();
+        if (profile.isOutputDirect()) {
+            // deletes the remaining temporary directories of all attempts in this transaction,
+            // including attempts which were killed or never published their manifests
+            OutputManifest.deleteIntents(fs, getIntentOutput(context));
+        }
         Path path = getTemporaryOutput(context);
         if (LOG.isDebugEnabled()) {
             LOG.debug(MessageFormat.format(
@@ -613,6 +938,25 @@ public class HadoopDataSourceCore implements DirectDataSource {
         return append(tempPath, suffix);
     }
 
+    Path getManifestOutput(OutputTransactionContext context) {
+        assert context != null;
+        Path tempPath = getTemporaryOutput(context);
+        String suffix = MANIFEST_AREA;
+        return append(tempPath, suffix);
+    }
+
+    private Path getPublishedManifest(OutputAttemptContext context) {
+        assert context != null;
+        return new Path(getManifestOutput(context.getTransactionContext()), context.getAttemptId());
+    }
+
+    Path getIntentOutput(OutputTransactionContext context) {
+        assert context != null;
+        Path tempPath = getTemporaryOutput(context);
+        String suffix = INTENT_AREA;
+        return append(tempPath, suffix);
+    }
+
     Path getAttemptOutput(OutputAttemptContext context) {
         assert context != null;
         Path tempPath = getTemporaryOutput(context.getTransactionContext());
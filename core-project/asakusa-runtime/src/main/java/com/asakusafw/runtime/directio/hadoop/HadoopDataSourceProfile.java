@@ -30,11 +30,12 @@ import org.apache.hadoop.fs.Path;
 
 import com.asakusafw.runtime.directio.DirectDataSourceProfile;
 import com.asakusafw.runtime.directio.FragmentableDataFormat;
+import com.asakusafw.runtime.stage.StageConstants;
 
 /**
  * A structured profile for {@link HadoopDataSource}.
  * @since 0.2.5
- * @version 0.9.0
+ * @version 0.9.2
  */
 public class HadoopDataSourceProfile {
 
@@ -65,6 +66,12 @@ public class HadoopDataSourceProfile {
      */
     public static final String KEY_OUTPUT_STREAMING = "output.streaming"; //$NON-NLS-1$
 
+    /**
+     * The property key name for {@link #isOutputDirect()}.
+     * @since 0.9.2
+     */
+    public static final String KEY_OUTPUT_DIRECT = "output.direct"; //$NON-NLS-1$
+
     /**
      * The property key name for {@link #getMinimumFragmentSize(FragmentableDataFormat)}.
      */
@@ -97,12 +104,26 @@ public class HadoopDataSourceProfile {
      */
     public static final String KEY_ROLLFORWARD_THREADS = "threads.commit"; //$NON-NLS-1$
 
+    /**
+     * The property key name of number of threads for listing files and their blocks in input discovery.
+     * @since 0.9.2
+     */
+    public static final String KEY_SEARCH_THREADS = "threads.search"; //$NON-NLS-1$
+
+    /**
+     * The property key name for {@link #isSearchCache()}.
+     * @since 0.9.2
+     */
+    public static final String KEY_SEARCH_CACHE = "search.cache"; //$NON-NLS-1$
+
     private static final String DEFAULT_TEMP_SUFFIX = "_directio_temp"; //$NON-NLS-1$
 
     private static final boolean DEFAULT_OUTPUT_STAGING = true;
 
     private static final boolean DEFAULT_OUTPUT_STREAMING = true;
 
+    private static final boolean DEFAULT_OUTPUT_DIRECT = false;
+
     private static final long DEFAULT_MIN_FRAGMENT = 16 * 1024 * 1024;
 
     private static final long DEFAULT_PREF_FRAGMENT = 64 * 1024 * 1024;
@@ -115,6 +136,10 @@ public class HadoopDataSourceProfile {
 
     private static final int DEFAULT_ROLLFORWARD_THREADS = 1;
 
+    private static final int DEFAULT_SEARCH_THREADS = 1;
+
+    private static final boolean DEFAULT_SEARCH_CACHE = false;
+
     private final String id;
 
     private final String contextPath;
@@ -127,6 +152,8 @@ public class HadoopDataSourceProfile {
 
     private boolean outputStreaming = DEFAULT_OUTPUT_STREAMING;
 
+    private boolean outputDirect = DEFAULT_OUTPUT_DIRECT;
+
     private long minimumFragmentSize = DEFAULT_MIN_FRAGMENT;
 
     private long preferredFragmentSize = DEFAULT_PREF_FRAGMENT;
@@ -139,6 +166,12 @@ public class HadoopDataSourceProfile {
 
     private int rollforwardThreads = DEFAULT_ROLLFORWARD_THREADS;
 
+    private int searchThreads = DEFAULT_SEARCH_THREADS;
+
+    private boolean searchCache = DEFAULT_SEARCH_CACHE;
+
+    private final String executionId;
+
     private final FileSystem fileSystem;
 
     private final LocalFileSystem localFileSystem;
@@ -165,6 +198,7 @@ public class HadoopDataSourceProfile {
         this.temporaryPath = temporaryPath;
         this.fileSystem = fileSystemPath.getFileSystem(conf);
         this.localFileSystem = FileSystem.getLocal(conf);
+        this.executionId = conf.get(StageConstants.PROP_EXECUTION_ID);
     }
 
     /**
@@ -361,6 +395,30 @@ public class HadoopDataSourceProfile {
         this.outputStreaming = required;
     }
 
+    /**
+     * Returns whether outputs are directly written into their final locations.
+     * If this is enabled, each output file (and its side files) is written into a hidden temporary directory
+     * next to its final location, and committing outputs only publishes their manifest and renames the files.
+     * The temporary directories which were left by failed or killed attempts are removed when the transaction
+     * is cleaned up.
+     * This avoids copying the output contents from the attempt area, and
+     * {@link #isOutputStreaming() output streaming} setting is ignored.
+     * @return {@code true} to write outputs directly, otherwise {@code false}
+     * @since 0.9.2
+     */
+    public boolean isOutputDirect() {
+        return outputDirect;
+    }
+
+    /**
+     * Sets whether outputs are directly written into their final locations.
+     * @param direct {@code true} to write outputs directly, otherwise {@code false}
+     * @since 0.9.2
+     */
+    public void setOutputDirect(boolean direct) {
+        this.outputDirect = direct;
+    }
+
     /**
      * Returns keep-alive interval.
      * @return keep-alive interval in ms, or {@code 0} if keep-alive is disabled
@@ -397,6 +455,50 @@ public class HadoopDataSourceProfile {
         this.rollforwardThreads = threads;
     }
 
+    /**
+     * Returns the number of threads to list files and their blocks in input discovery.
+     * @return the number of threads
+     * @since 0.9.2
+     */
+    public int getSearchThreads() {
+        return searchThreads;
+    }
+
+    /**
+     * Sets the number of threads to list files and their blocks in input discovery.
+     * @param threads the number of threads
+     * @since 0.9.2
+     */
+    public void setSearchThreads(int threads) {
+        this.searchThreads = threads;
+    }
+
+    /**
+     * Returns whether or not the input discovery reuses the previous listing results in the same execution.
+     * @return {@code true} to reuse the previous results, otherwise {@code false}
+     * @since 0.9.2
+     */
+    public boolean isSearchCache() {
+        return searchCache;
+    }
+
+    /**
+     * Sets whether or not the input discovery reuses the previous listing results in the same execution.
+     * @param enable {@code true} to reuse the previous results, otherwise {@code false}
+     * @since 0.9.2
+     */
+    public void setSearchCache(boolean enable) {
+        this.searchCache = enable;
+    }
+
+    /**
+     * Returns the current execution ID.
+     * @return the current execution ID, or {@code null} if it is not defined
+     */
+    String getExecutionId() {
+        return executionId;
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
@@ -412,6 +514,8 @@ public class HadoopDataSourceProfile {
         builder.append(outputStaging);
         builder.append(", outputStreaming="); //$NON-NLS-1$
         builder.append(outputStreaming);
+        builder.append(", outputDirect="); //$NON-NLS-1$
+        builder.append(outputDirect);
         builder.append(", minimumFragmentSize="); //$NON-NLS-1$
         builder.append(minimumFragmentSize);
         builder.append(", preferredFragmentSize="); //$NON-NLS-1$
@@ -424,6 +528,10 @@ public class HadoopDataSourceProfile {
         builder.append(keepAliveInterval);
         builder.append(", rollforwardThreads="); //$NON-NLS-1$
         builder.append(rollforwardThreads);
+        builder.append(", searchThreads="); //$NON-NLS-1$
+        builder.append(searchThreads);
+        builder.append(", searchCache="); //$NON-NLS-1$
+        builder.append(searchCache);
         builder.append(", fileSystem="); //$NON-NLS-1$
         builder.append(fileSystem);
         builder.append(", localFileSystem="); //$NON-NLS-1$
@@ -481,12 +589,16 @@ public class HadoopDataSourceProfile {
         result.setPreferredFragmentSize(prefFragment);
         result.setOutputStaging(takeBoolean(profile, attributes, KEY_OUTPUT_STAGING, DEFAULT_OUTPUT_STAGING));
         result.setOutputStreaming(takeBoolean(profile, attributes, KEY_OUTPUT_STREAMING, DEFAULT_OUTPUT_STREAMING));
+        result.setOutputDirect(takeBoolean(profile, attributes, KEY_OUTPUT_DIRECT, DEFAULT_OUTPUT_DIRECT));
         result.setSplitBlocks(takeBoolean(profile, attributes, KEY_SPLIT_BLOCKS, DEFAULT_SPLIT_BLOCKS));
         result.setCombineBlocks(takeBoolean(profile, attributes, KEY_COMBINE_BLOCKS, DEFAULT_COMBINE_BLOCKS));
         result.setKeepAliveInterval(
                 takePositive(profile, attributes, KEY_KEEPALIVE_INTERVAL, DEFAULT_KEEPALIVE_INTERVAL));
         result.setRollforwardThreads(
                 takePositive(profile, attributes, KEY_ROLLFORWARD_THREADS, DEFAULT_ROLLFORWARD_THREADS));
+        result.setSearchThreads(
+                takePositive(profile, attributes, KEY_SEARCH_THREADS, DEFAULT_SEARCH_THREADS));
+        result.setSearchCache(takeBoolean(profile, attributes, KEY_SEARCH_CACHE, DEFAULT_SEARCH_CACHE));
 
         if (attributes.isEmpty() == false) {
             throw new IOException(MessageFormat.format(
@@ -17,6 +17,7 @@ package com.asakusafw.runtime.directio.hadoop;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -80,7 +81,7 @@ import com.asakusafw.runtime.stage.output.BridgeOutputFormat;
 /**
  * Utilities for Direct data access facilities on Hadoop.
  * @since 0.2.5
- * @version 0.9.1
+ * @version 0.9.2
  */
 public final class HadoopDataSourceUtil {
 
@@ -98,6 +99,16 @@ public final class HadoopDataSourceUtil {
         }
     };
 
+    private static final ThreadFactory SEARCH_THREAD_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            t.setName(String.format("DirectIO-SEARCH-%d", THREAD_COUNTER.incrementAndGet())); //$NON-NLS-1$
+            return t;
+        }
+    };
+
     /**
      * The key prefix of data sources.
      */
@@ -473,6 +484,61 @@ public final class HadoopDataSourceUtil {
      * @throws IllegalArgumentException if some parameters were {@code null}
      */
     public static List<FileStatus> search(FileSystem fs, Path base, FilePattern pattern) throws IOException {
+        return search(fs, base, pattern, (ExecutorService) null);
+    }
+
+    /**
+     * Searches file/directories by pattern.
+     * @param fs target file system
+     * @param base base path
+     * @param pattern search pattern
+     * @param threads the number of threads for listing each directory
+     * @return found files, or an empty list if not found
+     * @throws IOException if failed to search by I/O error
+     * @throws InterruptedException if interrupted while searching files
+     * @throws IllegalArgumentException if some parameters were {@code null}
+     * @since 0.9.2
+     */
+    public static List<FileStatus> search(
+            FileSystem fs, Path base, FilePattern pattern,
+            int threads) throws IOException, InterruptedException {
+        ExecutorService executor = createSearchExecutor(threads);
+        if (executor == null) {
+            return search(fs, base, pattern);
+        }
+        try {
+            return search(fs, base, pattern, executor);
+        } catch (InterruptedIOException e) {
+            throw (InterruptedException) new InterruptedException(e.getMessage()).initCause(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates a new executor for searching files.
+     * @param threads the number of threads
+     * @return the created executor, or {@code null} if the search should be performed serially
+     */
+    static ExecutorService createSearchExecutor(int threads) {
+        if (threads <= 1) {
+            return null;
+        }
+        return Executors.newFixedThreadPool(threads, SEARCH_THREAD_FACTORY);
+    }
+
+    /**
+     * Searches file/directories by pattern.
+     * @param fs target file system
+     * @param base base path
+     * @param pattern search pattern
+     * @param executor the executor for listing each directory, or {@code null} to list them serially
+     * @return found files, or an empty list if not found
+     * @throws IOException if failed to search by I/O error
+     */
+    static List<FileStatus> search(
+            FileSystem fs, Path base, FilePattern pattern,
+            ExecutorService executor) throws IOException {
         if (fs == null) {
             throw new IllegalArgumentException("fs must not be null"); //$NON-NLS-1$
         }
@@ -500,10 +566,14 @@ public final class HadoopDataSourceUtil {
         while (segments.isEmpty() == false) {
             if (segments.getFirst().isTraverse()) {
                 segments.removeFirst();
-                current = recursiveStep(fs, current);
+                current = executor == null
+                        ? recursiveStep(fs, current)
+                        : recursiveStep(fs, current, executor);
             } else {
                 List<Path> step = consumeStep(segments);
-                current = globStep(fs, current, step);
+                current = executor == null
+                        ? globStep(fs, current, step)
+                        : globStep(fs, current, step, executor);
             }
             steps++;
         }
@@ -653,6 +723,86 @@ public final class HadoopDataSourceUtil {
         return results;
     }
 
+    private static List<FileStatus> recursiveStep(
+            FileSystem fs,
+            List<FileStatus> current,
+            ExecutorService executor) throws IOException {
+        assert fs != null;
+        assert current != null;
+        assert executor != null;
+        // breadth-first search as same as the serial version, but lists each level in parallel
+        Set<Path> paths = new HashSet<>();
+        List<FileStatus> results = new ArrayList<>();
+        List<FileStatus> level = current;
+        while (level.isEmpty() == false) {
+            List<Path> directories = new ArrayList<>();
+            for (FileStatus next : level) {
+                Path path = next.getPath();
+                if (paths.contains(path) == false) {
+                    paths.add(path);
+                    results.add(next);
+                    if (next.isDirectory()) {
+                        directories.add(path);
+                    }
+                }
+            }
+            List<FileStatus[]> children = collect(executor, directories.stream()
+                    .map(path -> (Callable<FileStatus[]>) () -> {
+                        try {
+                            return fs.listStatus(path);
+                        } catch (FileNotFoundException e) {
+                            if (LOG.isDebugEnabled()) {
+                                LOG.debug(MessageFormat.format("Target file is not found: {0}", path), e); //$NON-NLS-1$
+                            }
+                            return null;
+                        }
+                    })
+                    .collect(Collectors.toList()));
+            level = new ArrayList<>();
+            for (FileStatus[] stats : children) {
+                if (stats != null) {
+                    Collections.addAll(level, stats);
+                }
+            }
+        }
+        return results;
+    }
+
+    private static List<FileStatus> globStep(
+            FileSystem fs,
+            List<FileStatus> current,
+            List<Path> expressions,
+            ExecutorService executor) throws IOException {
+        assert fs != null;
+        assert current != null;
+        assert expressions != null;
+        assert executor != null;
+        List<Callable<FileStatus[]>> tasks = new ArrayList<>();
+        for (FileStatus status : current) {
+            if (status.isDirectory() == false) {
+                continue;
+            }
+            for (Path expression : expressions) {
+                Path path = new Path(status.getPath(), expression);
+                tasks.add(() -> fs.globStatus(path));
+            }
+        }
+        Set<Path> paths = new HashSet<>();
+        List<FileStatus> results = new ArrayList<>();
+        for (FileStatus[] expanded : collect(executor, tasks)) {
+            if (expanded != null) {
+                for (FileStatus s : expanded) {
+                    Path p = s.getPath();
+                    if (paths.contains(p) == false) {
+                        paths.add(p);
+                        results.add(s);
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
     private static List<FileStatus> globStep(
             FileSystem fs,
             List<FileStatus> current,
@@ -874,6 +1024,83 @@ public final class HadoopDataSourceUtil {
         }
     }
 
+    /**
+     * Moves individual files on the same file system.
+     * Each target file is overwritten if it already exists, and files which have been already moved are skipped.
+     * @param counter counter which accepts operations count
+     * @param fs the file system
+     * @param files the map of source file path to target file path
+     * @param threads the number of threads for moving files
+     * @throws IOException if failed to move files
+     * @throws InterruptedException if interrupted while moving files
+     * @since 0.9.2
+     */
+    static void moveFiles(
+            Counter counter, FileSystem fs,
+            Map<Path, Path> files, int threads) throws IOException, InterruptedException {
+        if (files.isEmpty()) {
+            return;
+        }
+        boolean parallel = threads > 1 && files.size() >= PARALLEL_MOVE_MIN;
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(MessageFormat.format(
+                    "Process moving individual files (count={0}, parallel={1})", //$NON-NLS-1$
+                    files.size(),
+                    parallel ? threads : "N/A")); //$NON-NLS-1$
+        }
+        if (parallel) {
+            ExecutorService executor = Executors.newFixedThreadPool(
+                    Math.min(threads, files.size()),
+                    DAEMON_THREAD_FACTORY);
+            try {
+                parallel(executor, files.entrySet().stream()
+                        .map(entry -> (Callable<?>) () -> {
+                            overwriteFile(fs, entry.getKey(), entry.getValue());
+                            counter.add(1);
+                            return null;
+                        })
+                        .collect(Collectors.toList()));
+            } finally {
+                executor.shutdownNow();
+            }
+        } else {
+            for (Map.Entry<Path, Path> entry : files.entrySet()) {
+                overwriteFile(fs, entry.getKey(), entry.getValue());
+                counter.add(1);
+            }
+        }
+    }
+
+    private static void overwriteFile(FileSystem fs, Path sourceFile, Path targetFile) throws IOException {
+        // try rename at first, because checking file existence may be expensive on some file systems
+        if (fs.rename(sourceFile, targetFile)) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(MessageFormat.format(
+                        "moved file: {0} -> {1}", //$NON-NLS-1$
+                        sourceFile, targetFile));
+            }
+            return;
+        }
+        if (fs.exists(sourceFile) == false) {
+            if (fs.exists(targetFile)) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug(MessageFormat.format(
+                            "file has been already moved: {0} -> {1}", //$NON-NLS-1$
+                            sourceFile, targetFile));
+                }
+                return;
+            }
+            throw new FileNotFoundException(sourceFile.toString());
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(MessageFormat.format(
+                    "deleting file: {0}", //$NON-NLS-1$
+                    targetFile));
+        }
+        fs.delete(targetFile, true);
+        moveFile(fs, sourceFile, targetFile, false);
+    }
+
     private static void moveSerial(
             Counter counter,
             FileSystem fromFs, FileSystem toFs,
@@ -1018,15 +1245,35 @@ public final class HadoopDataSourceUtil {
                 .collect(Collectors.toList()));
     }
 
-    private static void parallel(
+    /**
+     * Executes the tasks on the executor, and returns their results in order.
+     * @param <T> the result type
+     * @param executor the executor
+     * @param tasks the tasks
+     * @return the task results
+     * @throws IOException if I/O error was occurred while executing the tasks
+     * @throws InterruptedIOException if interrupted while executing the tasks
+     */
+    static <T> List<T> collect(
             ExecutorService executor,
-            Collection<? extends Callable<?>> tasks) throws IOException, InterruptedException {
-        List<Future<?>> futures = tasks.stream()
+            Collection<? extends Callable<T>> tasks) throws IOException {
+        try {
+            return parallel(executor, tasks);
+        } catch (InterruptedException e) {
+            throw (InterruptedIOException) new InterruptedIOException(e.getMessage()).initCause(e);
+        }
+    }
+
+    private static <T> List<T> parallel(
+            ExecutorService executor,
+            Collection<? extends Callable<? extends T>> tasks) throws IOException, InterruptedException {
+        List<Future<? extends T>> futures = tasks.stream()
                 .map(task -> executor.submit(task))
                 .collect(Collectors.toList());
-        for (Future<?> future : futures) {
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<? extends T> future : futures) {
             try {
-                future.get();
+                results.add(future.get());
             } catch (CancellationException | InterruptedException e) {
                 cancel(futures);
                 throw e;
@@ -1041,6 +1288,7 @@ public final class HadoopDataSourceUtil {
                 }
             }
         }
+        return results;
     }
 
     private static void cancel(List<? extends Future<?>> futures) {
@@ -25,6 +25,7 @@ import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 
 import com.asakusafw.runtime.directio.Counter;
+import com.asakusafw.runtime.directio.DataPredicate;
 import com.asakusafw.runtime.directio.FragmentableDataFormat;
 import com.asakusafw.runtime.io.ModelInput;
 import com.asakusafw.runtime.io.ModelOutput;
@@ -34,7 +35,7 @@ import com.asakusafw.runtime.io.ModelOutput;
  * This implementation class must have a public constructor without any parameters.
  * @param <T> the type of target data model
  * @since 0.2.6
- * @version 0.9.1
+ * @version 0.9.2
  */
 public abstract class HadoopFileFormat<T> extends Configured implements FragmentableDataFormat<T> {
 
@@ -96,6 +97,36 @@ public abstract class HadoopFileFormat<T> extends Configured implements Fragment
             long fragmentSize,
             Counter counter) throws IOException, InterruptedException;
 
+    /**
+     * Creates a new {@link ModelInput} for the specified properties.
+     * The created reader may skip contents which never satisfy the given predicate, but it is not required to
+     * filter out each data.
+     * This does not use the predicate by default.
+     * @param dataType the target data type
+     * @param fileSystem the file system to open the target path
+     * @param path the path to the target file
+     * @param offset starting stream offset
+     * @param fragmentSize suggested fragment bytes count, or {@code -1} as infinite
+     * @param counter the current counter
+     * @param predicate the predicate hint for the contents, or {@code null} if it is not defined
+     * @return the created reader
+     * @throws IOException if failed to create reader
+     * @throws InterruptedException if interrupted
+     * @throws IllegalArgumentException if this does not support target property sequence,
+     *     or any parameter is {@code null}
+     * @since 0.9.2
+     */
+    public ModelInput<T> createInput(
+            Class<? extends T> dataType,
+            FileSystem fileSystem,
+            Path path,
+            long offset,
+            long fragmentSize,
+            Counter counter,
+            DataPredicate predicate) throws IOException, InterruptedException {
+        return createInput(dataType, fileSystem, path, offset, fragmentSize, counter);
+    }
+
     /**
      * Creates a new {@link ModelOutput} for the specified properties.
      * @param dataType the target data type
@@ -0,0 +1,333 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.directio.hadoop;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * A manifest of output files which are directly written into their final locations.
+ * Each attempt writes its files into hidden temporary directories next to their final locations
+ * ({@code <parent>/.directio-<attempt-id>/<name>}), and they will be moved to their parent directories
+ * when the output is committed.
+ * Because the manifest tracks the temporary directories instead of individual files, it also covers
+ * the side files which data formats create next to their output files (e.g. rolled over files or block indices).
+ * @since 0.9.2
+ * @see HadoopDataSourceProfile#isOutputDirect()
+ */
+final class OutputManifest {
+
+    static final Log LOG = LogFactory.getLog(OutputManifest.class);
+
+    private static final String TEMPORARY_PREFIX = ".directio-"; //$NON-NLS-1$
+
+    private static final int MAGIC = 0x41444d46; // "ADMF"
+
+    private static final int VERSION = 2;
+
+    private static final String INTENT_SEPARATOR = "-"; //$NON-NLS-1$
+
+    // UUID without separators
+    private static final int INTENT_ID_LENGTH = 32;
+
+    private final Map<Path, Path> directories = new LinkedHashMap<>();
+
+    private final Map<Path, Path> files = new LinkedHashMap<>();
+
+    /**
+     * Returns the temporary directory for the target directory.
+     * @param directory the target directory
+     * @param attemptId the current attempt ID
+     * @return the temporary directory
+     */
+    static Path getTemporaryDirectory(Path directory, String attemptId) {
+        return new Path(directory, TEMPORARY_PREFIX + attemptId);
+    }
+
+    /**
+     * Adds a temporary directory into this manifest.
+     * @param temporary the temporary directory
+     * @param target the target directory
+     * @return {@code true} if the temporary directory is newly added, otherwise {@code false}
+     */
+    synchronized boolean addDirectory(Path temporary, Path target) {
+        return directories.putIfAbsent(temporary, target) == null;
+    }
+
+    /**
+     * Collects the files in the temporary directories of this manifest.
+     * @param fs the target file system
+     * @throws IOException if failed to list the files
+     */
+    synchronized void resolve(FileSystem fs) throws IOException {
+        files.clear();
+        for (Map.Entry<Path, Path> entry : directories.entrySet()) {
+            FileStatus[] stats;
+            try {
+                stats = fs.listStatus(entry.getKey());
+            } catch (FileNotFoundException e) {
+                continue;
+            }
+            if (stats == null) {
+                continue;
+            }
+            for (FileStatus stat : stats) {
+                if (stat.isDirectory()) {
+                    continue;
+                }
+                files.put(stat.getPath(), new Path(entry.getValue(), stat.getPath().getName()));
+            }
+        }
+    }
+
+    /**
+     * Returns whether or not this manifest is empty.
+     * @return {@code true} if this is empty, otherwise {@code false}
+     */
+    synchronized boolean isEmpty() {
+        return directories.isEmpty();
+    }
+
+    /**
+     * Returns the output files in this manifest.
+     * This is only available after {@link #resolve(FileSystem)} was invoked.
+     * @return the map of temporary location to final location
+     */
+    synchronized Map<Path, Path> getFiles() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(files));
+    }
+
+    /**
+     * Returns the temporary directories in this manifest.
+     * @return the temporary directories
+     */
+    synchronized List<Path> getDirectories() {
+        return new ArrayList<>(directories.keySet());
+    }
+
+    /**
+     * Returns whether or not the given path is a temporary output file or directory.
+     * @param path the target path
+     * @return {@code true} if it is a temporary output file or directory, otherwise {@code false}
+     */
+    static boolean isTemporaryFile(Path path) {
+        if (path.getName().startsWith(TEMPORARY_PREFIX)) {
+            return true;
+        }
+        Path parent = path.getParent();
+        return parent != null && parent.getName().startsWith(TEMPORARY_PREFIX);
+    }
+
+    /**
+     * Deletes the temporary directories in this manifest.
+     * @param fs the target file system
+     * @throws IOException if failed to delete the directories
+     */
+    void deleteTemporaryFiles(FileSystem fs) throws IOException {
+        for (Path path : getDirectories()) {
+            deleteTemporaryDirectory(fs, path);
+        }
+    }
+
+    private static void deleteTemporaryDirectory(FileSystem fs, Path path) throws IOException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(MessageFormat.format(
+                    "deleting temporary output: {0}", //$NON-NLS-1$
+                    path));
+        }
+        fs.delete(path, true);
+    }
+
+    /**
+     * Writes this manifest into the given file.
+     * @param fs the target file system
+     * @param path the target file path
+     * @throws IOException if failed to write the manifest
+     */
+    void write(FileSystem fs, Path path) throws IOException {
+        Map<Path, Path> entries = getFiles();
+        List<Path> temporaries = getDirectories();
+        try (DataOutputStream output = fs.create(path, true)) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(entries.size());
+            for (Map.Entry<Path, Path> entry : entries.entrySet()) {
+                output.writeUTF(entry.getKey().toString());
+                output.writeUTF(entry.getValue().toString());
+            }
+            output.writeInt(temporaries.size());
+            for (Path temporary : temporaries) {
+                output.writeUTF(temporary.toString());
+            }
+        }
+    }
+
+    /**
+     * Reads a manifest from the given file.
+     * @param fs the target file system
+     * @param path the manifest file path
+     * @return the loaded manifest
+     * @throws IOException if failed to read the manifest
+     */
+    static OutputManifest read(FileSystem fs, Path path) throws IOException {
+        OutputManifest result = new OutputManifest();
+        try (DataInputStream input = fs.open(path)) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException(MessageFormat.format(
+                        "invalid output manifest: {0}",
+                        path));
+            }
+            int fileCount = input.readInt();
+            for (int i = 0; i < fileCount; i++) {
+                Path temporary = new Path(input.readUTF());
+                Path target = new Path(input.readUTF());
+                result.files.put(temporary, target);
+            }
+            int directoryCount = input.readInt();
+            for (int i = 0; i < directoryCount; i++) {
+                Path temporary = new Path(input.readUTF());
+                result.directories.put(temporary, temporary.getParent());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads all manifests in the given directory.
+     * @param fs the target file system
+     * @param directory the manifest directory
+     * @return the loaded manifests, or an empty list if the directory does not exist
+     * @throws IOException if failed to read the manifests
+     */
+    static List<OutputManifest> readAll(FileSystem fs, Path directory) throws IOException {
+        List<OutputManifest> results = new ArrayList<>();
+        for (FileStatus stat : listFiles(fs, directory)) {
+            results.add(read(fs, stat.getPath()));
+        }
+        return results;
+    }
+
+    /**
+     * Records that an attempt is going to use the temporary directory.
+     * The recorded directories will be deleted in {@link #deleteIntents(FileSystem, Path)} even if the attempt
+     * was killed before publishing its manifest, and they are collected in
+     * {@link #readIntents(FileSystem, Path, String)} when the attempt is committed.
+     * Each intent has a unique name, because the individual data source objects in the same attempt may
+     * record their temporary directories independently.
+     * @param fs the target file system
+     * @param intents the intent directory
+     * @param attemptId the current attempt ID
+     * @param temporary the temporary directory
+     * @throws IOException if failed to record the intent
+     */
+    static void writeIntent(
+            FileSystem fs, Path intents,
+            String attemptId, Path temporary) throws IOException {
+        String id = UUID.randomUUID().toString().replace("-", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        Path path = new Path(intents, attemptId + INTENT_SEPARATOR + id);
+        try (DataOutputStream output = fs.create(path, false)) {
+            output.writeUTF(temporary.toString());
+        }
+    }
+
+    /**
+     * Restores the manifest of the attempt from its intents.
+     * The resulting manifest contains the all temporary directories which were recorded by the attempt,
+     * even if they were recorded by other data source objects.
+     * @param fs the target file system
+     * @param intents the intent directory
+     * @param attemptId the target attempt ID
+     * @return the restored manifest, which may be empty
+     * @throws IOException if failed to read the intents
+     */
+    static OutputManifest readIntents(FileSystem fs, Path intents, String attemptId) throws IOException {
+        OutputManifest result = new OutputManifest();
+        String prefix = attemptId + INTENT_SEPARATOR;
+        for (FileStatus stat : listFiles(fs, intents)) {
+            String name = stat.getPath().getName();
+            if (name.startsWith(prefix) == false || isIntentId(name.substring(prefix.length())) == false) {
+                continue;
+            }
+            Path temporary = readIntent(fs, stat.getPath());
+            result.directories.put(temporary, temporary.getParent());
+        }
+        return result;
+    }
+
+    private static boolean isIntentId(String id) {
+        if (id.length() != INTENT_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0, n = id.length(); i < n; i++) {
+            if (Character.digit(id.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Path readIntent(FileSystem fs, Path path) throws IOException {
+        try (DataInputStream input = fs.open(path)) {
+            return new Path(input.readUTF());
+        }
+    }
+
+    /**
+     * Deletes the all temporary directories which are recorded in the intent directory.
+     * @param fs the target file system
+     * @param intents the intent directory
+     * @throws IOException if failed to delete the temporary directories
+     */
+    static void deleteIntents(FileSystem fs, Path intents) throws IOException {
+        for (FileStatus stat : listFiles(fs, intents)) {
+            deleteTemporaryDirectory(fs, readIntent(fs, stat.getPath()));
+        }
+    }
+
+    private static List<FileStatus> listFiles(FileSystem fs, Path directory) throws IOException {
+        FileStatus[] stats;
+        try {
+            stats = fs.listStatus(directory);
+        } catch (FileNotFoundException e) {
+            return Collections.emptyList();
+        }
+        if (stats == null) {
+            return Collections.emptyList();
+        }
+        List<FileStatus> results = new ArrayList<>();
+        for (FileStatus stat : stats) {
+            if (stat.isDirectory() == false && stat.getPath().getName().startsWith(".") == false) { //$NON-NLS-1$
+                results.add(stat);
+            }
+        }
+        return results;
+    }
+}
@@ -33,26 +33,64 @@ import java.util.Arrays;
 import org.apache.hadoop.io.Writable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xerial.snappy.Snappy;
 
+import com.asakusafw.runtime.core.ResourceConfiguration;
+import com.asakusafw.runtime.core.legacy.RuntimeResource;
 import com.asakusafw.runtime.io.util.DataIoUtils;
 
 /**
  * An implementation of {@link ListBuffer} which may spill contents into backing temporary files.
+ * <p>
+ * The backing store can be configured by the following properties in the stage configuration:
+ * </p>
+ * <ul>
+ * <li> {@link #KEY_STORE} - {@code "channel"} (default) or {@code "mapped"} </li>
+ * <li> {@link #KEY_COMPRESSION} - {@code "none"} (default) or {@code "snappy"}, only for {@code "mapped"} store </li>
+ * </ul>
+ * <p>
+ * These properties are loaded by {@link Initializer} for each task, and they affect only the buffers which are
+ * created in the same thread.
+ * </p>
  * @param <E> the element type
  * @since 0.1.0
- * @version 0.9.1
+ * @version 0.9.2
  */
 public class FileMapListBuffer<E extends Writable> extends AbstractList<E> implements ListBuffer<E> {
 
-    private static final int DEFAULT_BUFFER_SIZE = 256;
+    /**
+     * The configuration key of the backing store kind.
+     * @since 0.9.2
+     */
+    public static final String KEY_STORE = FileMapListBuffer.class.getName() + ".store"; //$NON-NLS-1$
+
+    /**
+     * The configuration key of the compression kind for the backing store.
+     * @since 0.9.2
+     */
+    public static final String KEY_COMPRESSION = FileMapListBuffer.class.getName() + ".compression"; //$NON-NLS-1$
+
+    static final String STORE_CHANNEL = "channel"; //$NON-NLS-1$
+
+    static final String STORE_MAPPED = "mapped"; //$NON-NLS-1$
+
+    static final String COMPRESSION_NONE = "none"; //$NON-NLS-1$
+
+    static final String COMPRESSION_SNAPPY = "snappy"; //$NON-NLS-1$
+
+    static final int DEFAULT_BUFFER_SIZE = 256;
 
     private static final int MINIMUM_BUFFER_SIZE = 32;
 
-    private static final int DEFAULT_BUFFER_SOFT_LIMIT = 1 * 1024 * 1024;
+    static final int DEFAULT_BUFFER_SOFT_LIMIT = 1 * 1024 * 1024;
+
+    static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
 
     static final Logger LOG = LoggerFactory.getLogger(FileMapListBuffer.class);
 
-    private final Store<E> store;
+    static final ThreadLocal<Settings> SETTINGS = ThreadLocal.withInitial(() -> Settings.DEFAULT);
+
+    final Store<E> store;
 
     private final E[] elements;
 
@@ -85,15 +123,34 @@ public class FileMapListBuffer<E extends Writable> extends AbstractList<E> imple
      * @param bufferSoftLimit the buffer size soft limit in bytes
      * @since 0.9.1
      */
-    @SuppressWarnings("unchecked")
     public FileMapListBuffer(int cacheSize, int bufferSoftLimit) {
-        this.store = new Store<>(bufferSoftLimit);
+        this(cacheSize, createStore(bufferSoftLimit));
+    }
+
+    @SuppressWarnings("unchecked")
+    FileMapListBuffer(int cacheSize, Store<E> store) {
+        this.store = store;
         this.elements = (E[]) new Writable[Math.max(cacheSize, MINIMUM_BUFFER_SIZE)];
         this.sizeInList = 0;
         this.currentPageIndex = 0;
         this.advanceCursorInPage = -1;
     }
 
+    private static <T extends Writable> Store<T> createStore(int bufferSoftLimit) {
+        Settings settings = SETTINGS.get();
+        switch (settings.storeKind) {
+        case STORE_CHANNEL:
+            return new ChannelStore<>(bufferSoftLimit);
+        case STORE_MAPPED:
+            return new MappedStore<>(bufferSoftLimit, DEFAULT_SEGMENT_SIZE, settings.compression);
+        default:
+            throw new IllegalStateException(MessageFormat.format(
+                    "unknown spill store kind: {0}={1}",
+                    KEY_STORE,
+                    settings.storeKind));
+        }
+    }
+
     @Override
     public void begin() {
         store.reset();
@@ -153,7 +210,7 @@ public class FileMapListBuffer<E extends Writable> extends AbstractList<E> imple
         if (currentPageIndex != pageIndex) {
             int count = Math.min(sizeInList - pageIndex * windowSize, windowSize);
             try {
-                store.getPage(pageIndex, elements, count);
+                store.getPage(pageIndex, elements, count, pageIndex == currentPageIndex + 1);
             } catch (IOException e) {
                 throw new IllegalStateException(e);
             }
@@ -176,15 +233,111 @@ public class FileMapListBuffer<E extends Writable> extends AbstractList<E> imple
         }
     }
 
-    private static class Store<T extends Writable> implements Closeable {
+    /**
+     * Loads the settings of {@link FileMapListBuffer} from the current stage configuration.
+     * @since 0.9.2
+     */
+    public static class Initializer implements RuntimeResource {
 
-        private static final LinkOption[] LINK_OPTS = {
-                LinkOption.NOFOLLOW_LINKS,
-        };
+        @Override
+        public void setup(ResourceConfiguration configuration) throws IOException, InterruptedException {
+            String storeKind = configuration.get(KEY_STORE, STORE_CHANNEL);
+            if (storeKind.equals(STORE_CHANNEL) == false && storeKind.equals(STORE_MAPPED) == false) {
+                throw new IllegalArgumentException(MessageFormat.format(
+                        "unknown spill store kind: {0}={1}",
+                        KEY_STORE,
+                        storeKind));
+            }
+            String compression = configuration.get(KEY_COMPRESSION, COMPRESSION_NONE);
+            if (compression.equals(COMPRESSION_NONE) == false && compression.equals(COMPRESSION_SNAPPY) == false) {
+                throw new IllegalArgumentException(MessageFormat.format(
+                        "unknown spill compression kind: {0}={1}",
+                        KEY_COMPRESSION,
+                        compression));
+            }
+            SETTINGS.set(new Settings(storeKind, compression.equals(COMPRESSION_SNAPPY)));
+        }
 
-        private static final int[] EMPTY_INTS = new int[0];
+        @Override
+        public void cleanup(ResourceConfiguration configuration) throws IOException, InterruptedException {
+            SETTINGS.remove();
+        }
+    }
 
-        private static final long[] EMPTY_LONGS = new long[0];
+    static final class Settings {
+
+        static final Settings DEFAULT = new Settings(STORE_CHANNEL, false);
+
+        final String storeKind;
+
+        final boolean compression;
+
+        Settings(String storeKind, boolean compression) {
+            this.storeKind = storeKind;
+            this.compression = compression;
+        }
+    }
+
+    /**
+     * A backing store of spilled pages.
+     * @param <T> the element type
+     */
+    interface Store<T extends Writable> extends Closeable {
+
+        /**
+         * Discards all pages in this store.
+         */
+        void reset();
+
+        /**
+         * Puts a page into this store.
+         * Pages must be put in order of their index, from {@code 0}.
+         * @param index the page index
+         * @param elements the page elements
+         * @param count the number of available elements in the page
+         * @throws IOException if I/O error was occurred while putting the page
+         */
+        void putPage(int index, T[] elements, int count) throws IOException;
+
+        /**
+         * Restores a page from this store.
+         * @param index the page index
+         * @param elements the destination page elements
+         * @param count the number of elements in the page
+         * @param sequential {@code true} if the previous page is just restored, otherwise {@code false}
+         * @throws IOException if I/O error was occurred while restoring the page
+         */
+        void getPage(int index, T[] elements, int count, boolean sequential) throws IOException;
+    }
+
+    static void deleteTemporaryFile(Path path) throws IOException {
+        if (Files.exists(path, LINK_OPTS)
+                && Files.deleteIfExists(path) == false
+                && Files.exists(path, LINK_OPTS)) {
+            LOG.warn(MessageFormat.format(
+                    "failed to delete a temporary file: {0}",
+                    path));
+        }
+    }
+
+    static final LinkOption[] LINK_OPTS = {
+            LinkOption.NOFOLLOW_LINKS,
+    };
+
+    static final int[] EMPTY_INTS = new int[0];
+
+    static final long[] EMPTY_LONGS = new long[0];
+
+    static final boolean[] EMPTY_BOOLEANS = new boolean[0];
+
+    /**
+     * A {@link Store} which reads and writes pages via {@link FileChannel}.
+     * If pages are restored sequentially, this reads the following pages together.
+     * @param <T> the element type
+     */
+    static class ChannelStore<T extends Writable> implements Store<T> {
+
+        private static final int READ_AHEAD_FACTOR = 4;
 
         private final int bufferSoftLimit;
 
@@ -202,15 +355,28 @@ public class FileMapListBuffer<E extends Writable> extends AbstractList<E> imple
 
         private final ResizableNioDataBuffer buffer = new ResizableNioDataBuffer();
 
-        Store(int bufferSoftLimit) {
+        private ByteBuffer readAhead = ResizableNioDataBuffer.EMPTY_BUFFER;
+
+        private long readAheadBegin;
+
+        private long readAheadEnd;
+
+        private long storeEnd;
+
+        ChannelStore(int bufferSoftLimit) {
             this.bufferSoftLimit = bufferSoftLimit;
         }
 
-        void reset() {
+        @Override
+        public void reset() {
             this.fragmentTableLimit = 0;
+            this.readAheadBegin = 0L;
+            this.readAheadEnd = 0L;
+            this.storeEnd = 0L;
         }
 
-        void putPage(int index, T[] elements, int count) throws IOException {
+        @Override
+        public void putPage(int index, T[] elements, int count) throws IOException {
             if (path == null) {
                 path = Files.createTempFile("spill-", ".bin");
                 if (LOG.isDebugEnabled()) {
@@ -240,6 +406,8 @@ public class FileMapListBuffer<E extends Writable> extends AbstractList<E> imple
             }
             long end = putContents(offset, buffer.contents);
             offsets[index] = end;
+            storeEnd = end;
+            readAheadEnd = readAheadBegin;
         }
 
         private long putFragment(long begin, int elementCount, ByteBuffer contents) throws IOException {
@@ -269,18 +437,56 @@ public class FileMapListBuffer<E extends Writable> extends AbstractList<E> imple
             return offset;
         }
 
-        void getPage(int index, T[] elements, int count) throws IOException {
+        @Override
+        public void getPage(int index, T[] elements, int count, boolean sequential) throws IOException {
             long offset = index == 0 ? 0L : offsets[index - 1];
             long end = offsets[index];
             long length = end - offset;
             ByteBuffer buf = buffer.contents;
-            if (buf.capacity() >= length) {
+            if (sequential && length <= (long) bufferSoftLimit * READ_AHEAD_FACTOR) {
+                readAhead(offset, end, elements, count);
+            } else if (buf.capacity() >= length) {
                 readFragment(offset, end, elements, 0, count);
             } else {
                 getPageFragments(offset, end, elements, count);
             }
         }
 
+        private void readAhead(long begin, long end, T[] elements, int count) throws IOException {
+            if (begin < readAheadBegin || end > readAheadEnd) {
+                // reads the following pages together
+                long limit = Math.min(Math.max(end, begin + (long) bufferSoftLimit * READ_AHEAD_FACTOR), storeEnd);
+                int size = (int) (limit - begin);
+                if (readAhead.capacity() < size) {
+                    readAhead = ByteBuffer.allocateDirect(size).order(readAhead.order());
+                }
+                readAhead.clear().limit(size);
+                if (LOG.isTraceEnabled()) {
+                    LOG.trace(String.format("reading ahead: %s@%,d+%,d", path, begin, size)); //$NON-NLS-1$
+                }
+                long offset = begin;
+                while (readAhead.hasRemaining()) {
+                    int read = channel.read(readAhead, offset);
+                    if (read < 0) {
+                        throw new IllegalStateException();
+                    }
+                    offset += read;
+                }
+                readAheadBegin = begin;
+                readAheadEnd = limit;
+            }
+            readAhead.limit((int) (end - readAheadBegin)).position((int) (begin - readAheadBegin));
+            ByteBuffer saved = buffer.contents;
+            buffer.contents = readAhead;
+            try {
+                for (int i = 0; i < count; i++) {
+                    elements[i].readFields(buffer);
+                }
+            } finally {
+                buffer.contents = saved;
+            }
+        }
+
         private void getPageFragments(long begin, long end, T[] elements, int count) throws IOException {
             long fileOffset = begin;
             int arrayOffset = 0;
@@ -340,18 +546,407 @@ public class FileMapListBuffer<E extends Writable> extends AbstractList<E> imple
             if (channel != null) {
                 channel.close(); // DELETE_ON_CLOSE
                 channel = null;
-                if (Files.exists(path, LINK_OPTS)
-                        && Files.deleteIfExists(path) == false
-                        && Files.exists(path, LINK_OPTS)) {
-                    LOG.warn(MessageFormat.format(
-                            "failed to delete a temporary file: {0}",
-                            path));
-                }
+                deleteTemporaryFile(path);
                 path = null;
             }
         }
     }
 
+    /**
+     * An abstract implementation of {@link Store} which puts pages onto fixed size segments.
+     * Each page consists of one or more blocks, which may be compressed individually.
+     * @param <T> the element type
+     */
+    abstract static class SegmentedStore<T extends Writable> implements Store<T> {
+
+        private static final int INITIAL_TABLE_SIZE = 256;
+
+        private final int bufferSoftLimit;
+
+        final int segmentSize;
+
+        private final boolean compress;
+
+        private boolean prepared;
+
+        private ByteBuffer[] segments = new ByteBuffer[0];
+
+        private int segmentCount;
+
+        private long storeEnd;
+
+        private int[] pageBlockEnds = EMPTY_INTS;
+
+        private long[] blockOffsets = EMPTY_LONGS;
+
+        private int[] blockSizes = EMPTY_INTS;
+
+        private int[] blockElementCounts = EMPTY_INTS;
+
+        private boolean[] blockCompressed = EMPTY_BOOLEANS;
+
+        private int blockTableLimit;
+
+        private final ResizableNioDataBuffer buffer = new ResizableNioDataBuffer();
+
+        private ByteBuffer work = ResizableNioDataBuffer.EMPTY_BUFFER;
+
+        private ByteBuffer compressed = ResizableNioDataBuffer.EMPTY_BUFFER;
+
+        SegmentedStore(int bufferSoftLimit, int segmentSize, boolean compress) {
+            this.bufferSoftLimit = bufferSoftLimit;
+            this.segmentSize = segmentSize;
+            this.compress = compress;
+        }
+
+        /**
+         * Prepares the backing storage.
+         * @throws IOException if I/O error was occurred while preparing the storage
+         */
+        abstract void prepare() throws IOException;
+
+        /**
+         * Creates a new segment.
+         * @param index the segment index
+         * @return the created segment
+         * @throws IOException if I/O error was occurred while creating the segment
+         */
+        abstract ByteBuffer createSegment(int index) throws IOException;
+
+        /**
+         * Releases the backing storage.
+         * @throws IOException if I/O error was occurred while releasing the storage
+         */
+        abstract void release() throws IOException;
+
+        /**
+         * Returns the number of bytes in this store.
+         * @return the number of bytes
+         */
+        final long getStoreEnd() {
+            return storeEnd;
+        }
+
+        @Override
+        public void reset() {
+            this.blockTableLimit = 0;
+            this.storeEnd = 0L;
+        }
+
+        @Override
+        public void putPage(int index, T[] elements, int count) throws IOException {
+            if (prepared == false) {
+                prepare();
+                prepared = true;
+                if (pageBlockEnds.length == 0) {
+                    pageBlockEnds = new int[INITIAL_TABLE_SIZE];
+                }
+            }
+            if (index >= pageBlockEnds.length) {
+                pageBlockEnds = Arrays.copyOf(pageBlockEnds, pageBlockEnds.length * 2);
+            }
+            int blockBegin = 0;
+            buffer.contents.clear();
+            for (int i = 0; i < count; i++) {
+                if (buffer.contents.position() > bufferSoftLimit) {
+                    // write block if buffer was exceeded
+                    assert i > blockBegin;
+                    putBlock(i - blockBegin, buffer.contents);
+                    buffer.contents.clear();
+                    blockBegin = i;
+                }
+                elements[i].write(buffer);
+            }
+            putBlock(count - blockBegin, buffer.contents);
+            pageBlockEnds[index] = blockTableLimit;
+        }
+
+        private void putBlock(int elementCount, ByteBuffer contents) throws IOException {
+            assert elementCount > 0;
+            if (blockTableLimit >= blockOffsets.length) {
+                int size = Math.max(blockOffsets.length * 2, INITIAL_TABLE_SIZE);
+                blockOffsets = Arrays.copyOf(blockOffsets, size);
+                blockSizes = Arrays.copyOf(blockSizes, size);
+                blockElementCounts = Arrays.copyOf(blockElementCounts, size);
+                blockCompressed = Arrays.copyOf(blockCompressed, size);
+            }
+            contents.flip();
+            ByteBuffer data = contents;
+            boolean dataCompressed = false;
+            if (compress) {
+                int rawSize = contents.remaining();
+                compressed = ensureCapacity(compressed, Snappy.maxCompressedLength(rawSize));
+                compressed.clear();
+                int size = Snappy.compress(contents, compressed);
+                if (size < rawSize) {
+                    compressed.position(0).limit(size);
+                    data = compressed;
+                    dataCompressed = true;
+                } else {
+                    contents.position(0).limit(rawSize);
+                }
+            }
+            int size = data.remaining();
+            long offset = storeEnd;
+            long segmentRest = segmentSize - offset % segmentSize;
+            if (size > segmentRest && size <= segmentSize) {
+                // avoid splitting blocks into multiple segments
+                offset += segmentRest;
+            }
+            if (LOG.isTraceEnabled()) {
+                LOG.trace(String.format("writing block: %s@%,d+%,d", this, offset, size)); //$NON-NLS-1$
+            }
+            prepareSegments(offset + size);
+            for (long cursor = offset; data.hasRemaining();) {
+                ByteBuffer segment = segments[(int) (cursor / segmentSize)];
+                int segmentOffset = (int) (cursor % segmentSize);
+                int chunk = Math.min(data.remaining(), segmentSize - segmentOffset);
+                ByteBuffer source = data.duplicate();
+                source.limit(source.position() + chunk);
+                segment.position(segmentOffset);
+                segment.put(source);
+                data.position(data.position() + chunk);
+                cursor += chunk;
+            }
+            blockOffsets[blockTableLimit] = offset;
+            blockSizes[blockTableLimit] = size;
+            blockElementCounts[blockTableLimit] = elementCount;
+            blockCompressed[blockTableLimit] = dataCompressed;
+            blockTableLimit++;
+            storeEnd = offset + size;
+        }
+
+        private void prepareSegments(long end) throws IOException {
+            while ((long) segmentCount * segmentSize < end) {
+                if (segmentCount >= segments.length) {
+                    segments = Arrays.copyOf(segments, Math.max(segments.length * 2, 4));
+                }
+                if (segments[segmentCount] == null) {
+                    segments[segmentCount] = createSegment(segmentCount);
+                    segments[segmentCount].order(ByteOrder.nativeOrder());
+                }
+                segmentCount++;
+            }
+        }
+
+        @Override
+        public void getPage(int index, T[] elements, int count, boolean sequential) throws IOException {
+            int blockBegin = index == 0 ? 0 : pageBlockEnds[index - 1];
+            int blockEnd = pageBlockEnds[index];
+            int arrayOffset = 0;
+            ByteBuffer saved = buffer.contents;
+            try {
+                for (int i = blockBegin; i < blockEnd; i++) {
+                    buffer.contents = readBlock(i);
+                    int arrayEnd = arrayOffset + blockElementCounts[i];
+                    for (int j = arrayOffset; j < arrayEnd; j++) {
+                        elements[j].readFields(buffer);
+                    }
+                    arrayOffset = arrayEnd;
+                }
+            } finally {
+                buffer.contents = saved;
+            }
+            assert arrayOffset == count;
+        }
+
+        private ByteBuffer readBlock(int blockIndex) throws IOException {
+            long offset = blockOffsets[blockIndex];
+            int size = blockSizes[blockIndex];
+            if (LOG.isTraceEnabled()) {
+                LOG.trace(String.format("reading block: %s@%,d+%,d", this, offset, size)); //$NON-NLS-1$
+            }
+            ByteBuffer data;
+            int segmentOffset = (int) (offset % segmentSize);
+            if (segmentOffset + size <= segmentSize) {
+                // refers the mapped segment directly
+                data = segments[(int) (offset / segmentSize)].duplicate();
+                data.order(ByteOrder.nativeOrder());
+                data.limit(segmentOffset + size).position(segmentOffset);
+            } else {
+                ByteBuffer destination = blockCompressed[blockIndex] ? compressed : work;
+                destination = ensureCapacity(destination, size);
+                destination.clear();
+                for (long cursor = offset; cursor < offset + size;) {
+                    ByteBuffer segment = segments[(int) (cursor / segmentSize)].duplicate();
+                    int start = (int) (cursor % segmentSize);
+                    int chunk = (int) Math.min(offset + size - cursor, segmentSize - start);
+                    segment.limit(start + chunk).position(start);
+                    destination.put(segment);
+                    cursor += chunk;
+                }
+                destination.flip();
+                if (blockCompressed[blockIndex]) {
+                    compressed = destination;
+                } else {
+                    work = destination;
+                }
+                data = destination;
+            }
+            if (blockCompressed[blockIndex] == false) {
+                return data;
+            }
+            int rawSize = Snappy.uncompressedLength(data);
+            work = ensureCapacity(work, rawSize);
+            work.clear();
+            Snappy.uncompress(data, work);
+            work.position(0).limit(rawSize);
+            return work;
+        }
+
+        private static ByteBuffer ensureCapacity(ByteBuffer buf, int size) {
+            if (buf.capacity() >= size) {
+                return buf;
+            }
+            return ByteBuffer.allocateDirect(Math.max(size, buf.capacity() * 2)).order(ByteOrder.nativeOrder());
+        }
+
+        /**
+         * Discards segments.
+         * @param retain the number of segments to be retained
+         */
+        final void discardSegments(int retain) {
+            for (int i = retain; i < segments.length; i++) {
+                segments[i] = null;
+            }
+            segmentCount = Math.min(segmentCount, retain);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (prepared) {
+                prepared = false;
+                release();
+            }
+        }
+    }
+
+    /**
+     * A {@link Store} which puts pages onto memory-mapped segments of a temporary file.
+     * @param <T> the element type
+     */
+    static class MappedStore<T extends Writable> extends SegmentedStore<T> {
+
+        private Path path;
+
+        private FileChannel channel;
+
+        MappedStore(int bufferSoftLimit, int segmentSize, boolean compress) {
+            super(bufferSoftLimit, segmentSize, compress);
+        }
+
+        @Override
+        void prepare() throws IOException {
+            path = Files.createTempFile("spill-", ".bin");
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("generating mapped list spill: {}", path);
+            }
+            channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        }
+
+        @Override
+        ByteBuffer createSegment(int index) throws IOException {
+            return channel.map(FileChannel.MapMode.READ_WRITE, (long) index * segmentSize, segmentSize);
+        }
+
+        @Override
+        void release() throws IOException {
+            discardSegments(0);
+            channel.close(); // DELETE_ON_CLOSE
+            channel = null;
+            deleteTemporaryFile(path);
+            path = null;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(path);
+        }
+    }
+
+    /**
+     * A {@link Store} which puts pages onto direct buffers, and spills the rest pages into another store
+     * if the total size exceeds the limit.
+     * @param <T> the element type
+     */
+    static class DirectStore<T extends Writable> extends SegmentedStore<T> {
+
+        final long limit;
+
+        private final Store<T> spill;
+
+        private int spillBegin = -1;
+
+        DirectStore(int bufferSoftLimit, int segmentSize, long limit, Store<T> spill) {
+            super(bufferSoftLimit, segmentSize, false);
+            this.limit = limit;
+            this.spill = spill;
+        }
+
+        @Override
+        void prepare() {
+            return;
+        }
+
+        @Override
+        ByteBuffer createSegment(int index) {
+            return ByteBuffer.allocateDirect(segmentSize);
+        }
+
+        @Override
+        void release() {
+            // keeps the first segment for the next group
+            discardSegments(1);
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            spill.reset();
+            spillBegin = -1;
+        }
+
+        @Override
+        public void putPage(int index, T[] elements, int count) throws IOException {
+            if (spillBegin < 0 && getStoreEnd() >= limit) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("off-heap list buffer exceeds the limit: {}", limit); //$NON-NLS-1$
+                }
+                spillBegin = index;
+            }
+            if (spillBegin >= 0) {
+                spill.putPage(index - spillBegin, elements, count);
+            } else {
+                super.putPage(index, elements, count);
+            }
+        }
+
+        @Override
+        public void getPage(int index, T[] elements, int count, boolean sequential) throws IOException {
+            if (spillBegin >= 0 && index >= spillBegin) {
+                spill.getPage(index - spillBegin, elements, count, sequential && index > spillBegin);
+            } else {
+                super.getPage(index, elements, count, sequential);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                spill.close();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "off-heap"; //$NON-NLS-1$
+        }
+    }
+
     private static final class ResizableNioDataBuffer implements DataInput, DataOutput {
 
         static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocateDirect(0).order(ByteOrder.nativeOrder());
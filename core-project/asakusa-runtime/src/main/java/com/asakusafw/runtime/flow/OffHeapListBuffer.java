@@ -0,0 +1,107 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.flow;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+
+import org.apache.hadoop.io.Writable;
+
+import com.asakusafw.runtime.core.ResourceConfiguration;
+import com.asakusafw.runtime.core.legacy.RuntimeResource;
+
+/**
+ * An implementation of {@link ListBuffer} which keeps serialized contents on off-heap memory.
+ * If the total size of the contents exceeds the limit, the rest contents will be spilled into temporary files.
+ * <p>
+ * The default limit can be configured by the property {@link #KEY_LIMIT} (in bytes) in the stage configuration.
+ * This property is loaded by {@link Initializer} for each task, and it affects only the buffers which are
+ * created in the same thread.
+ * </p>
+ * @param <E> the element type
+ * @since 0.9.2
+ */
+public class OffHeapListBuffer<E extends Writable> extends FileMapListBuffer<E> {
+
+    /**
+     * The configuration key of the off-heap memory limit in bytes for each buffer.
+     */
+    public static final String KEY_LIMIT = OffHeapListBuffer.class.getName() + ".limit"; //$NON-NLS-1$
+
+    static final long DEFAULT_LIMIT = 64L * 1024 * 1024;
+
+    static final int DEFAULT_SEGMENT_SIZE = 1 * 1024 * 1024;
+
+    static final ThreadLocal<Long> LIMIT = ThreadLocal.withInitial(() -> DEFAULT_LIMIT);
+
+    /**
+     * Creates a new instance.
+     */
+    public OffHeapListBuffer() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param cacheSize the number of objects should be cached on Java heap
+     */
+    public OffHeapListBuffer(int cacheSize) {
+        this(cacheSize, LIMIT.get());
+    }
+
+    /**
+     * Creates a new instance.
+     * @param cacheSize the number of objects should be cached on Java heap
+     * @param limit the off-heap memory limit in bytes
+     */
+    public OffHeapListBuffer(int cacheSize, long limit) {
+        super(cacheSize, new DirectStore<>(
+                DEFAULT_BUFFER_SOFT_LIMIT,
+                DEFAULT_SEGMENT_SIZE,
+                limit,
+                new ChannelStore<>(DEFAULT_BUFFER_SOFT_LIMIT)));
+    }
+
+    /**
+     * Loads the settings of {@link OffHeapListBuffer} from the current stage configuration.
+     */
+    public static class Initializer implements RuntimeResource {
+
+        @Override
+        public void setup(ResourceConfiguration configuration) throws IOException, InterruptedException {
+            String value = configuration.get(KEY_LIMIT, null);
+            if (value == null) {
+                LIMIT.remove();
+                return;
+            }
+            long limit;
+            try {
+                limit = Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(MessageFormat.format(
+                        "off-heap buffer limit must be an integer: {0}={1}",
+                        KEY_LIMIT,
+                        value), e);
+            }
+            LIMIT.set(limit);
+        }
+
+        @Override
+        public void cleanup(ResourceConfiguration configuration) throws IOException, InterruptedException {
+            LIMIT.remove();
+        }
+    }
+}
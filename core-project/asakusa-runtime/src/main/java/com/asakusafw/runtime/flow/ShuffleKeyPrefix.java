@@ -0,0 +1,148 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.flow;
+
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.WritableComparator;
+
+import com.asakusafw.runtime.value.DateOption;
+import com.asakusafw.runtime.value.IntOption;
+import com.asakusafw.runtime.value.LongOption;
+import com.asakusafw.runtime.value.StringOption;
+
+/**
+ * Utilities about normalized prefix of shuffle keys.
+ * The prefix is a fixed-width {@code long} value, which consists of the following parts:
+ * <ul>
+ * <li> upper 16 bits - the element ID of the shuffle segment </li>
+ * <li> lower 48 bits - an order-preserving encoding of the leading grouping property </li>
+ * </ul>
+ * If two prefixes are different, comparing them as unsigned integers has the same result as
+ * comparing the original shuffle keys. Otherwise, the shuffle keys must be compared by their contents.
+ * @since 0.9.2
+ */
+public final class ShuffleKeyPrefix {
+
+    /**
+     * The number of bytes of serialized prefix.
+     */
+    public static final int BYTES = Long.BYTES;
+
+    /**
+     * The max element ID which can be represented in prefix.
+     */
+    public static final int MAX_ELEMENT_ID = 0xffff;
+
+    static final int ELEMENT_SHIFT = 48;
+
+    static final long PRESENT_INT = 1L << 32;
+
+    static final long PRESENT_WIDE = 1L << 47;
+
+    static final int LONG_SHIFT = 17;
+
+    static final int STRING_PREFIX_BYTES = 5;
+
+    private ShuffleKeyPrefix() {
+        return;
+    }
+
+    /**
+     * Returns a prefix which consists of only the element ID.
+     * @param elementId the element ID
+     * @return the prefix
+     */
+    public static long of(int elementId) {
+        assert 0 <= elementId && elementId <= MAX_ELEMENT_ID;
+        return (long) elementId << ELEMENT_SHIFT;
+    }
+
+    /**
+     * Returns a prefix of the element ID and its leading grouping property.
+     * @param elementId the element ID
+     * @param value the leading grouping property
+     * @return the prefix
+     */
+    public static long of(int elementId, IntOption value) {
+        if (value.isNull()) {
+            return of(elementId);
+        }
+        return of(elementId) | PRESENT_INT | (value.get() ^ Integer.MIN_VALUE) & 0xffffffffL;
+    }
+
+    /**
+     * Returns a prefix of the element ID and its leading grouping property.
+     * @param elementId the element ID
+     * @param value the leading grouping property
+     * @return the prefix
+     */
+    public static long of(int elementId, DateOption value) {
+        if (value.isNull()) {
+            return of(elementId);
+        }
+        return of(elementId) | PRESENT_INT | (value.get().getElapsedDays() ^ Integer.MIN_VALUE) & 0xffffffffL;
+    }
+
+    /**
+     * Returns a prefix of the element ID and its leading grouping property.
+     * @param elementId the element ID
+     * @param value the leading grouping property
+     * @return the prefix
+     */
+    public static long of(int elementId, LongOption value) {
+        if (value.isNull()) {
+            return of(elementId);
+        }
+        // keeps only the upper 47 bits
+        return of(elementId) | PRESENT_WIDE | (value.get() ^ Long.MIN_VALUE) >>> LONG_SHIFT;
+    }
+
+    /**
+     * Returns a prefix of the element ID and its leading grouping property.
+     * @param elementId the element ID
+     * @param value the leading grouping property
+     * @return the prefix
+     */
+    public static long of(int elementId, StringOption value) {
+        if (value.isNull()) {
+            return of(elementId);
+        }
+        // keeps only the leading bytes, and pads with 0x00 - this preserves the lexicographic order
+        Text text = value.get();
+        byte[] bytes = text.getBytes();
+        int length = Math.min(text.getLength(), STRING_PREFIX_BYTES);
+        long bits = 0;
+        for (int i = 0; i < STRING_PREFIX_BYTES; i++) {
+            bits <<= 8;
+            if (i < length) {
+                bits |= bytes[i] & 0xff;
+            }
+        }
+        return of(elementId) | PRESENT_WIDE | bits;
+    }
+
+    /**
+     * Compares between the two serialized prefixes.
+     * @param b1 the first byte array
+     * @param s1 the offset of the first prefix in {@code b1}
+     * @param b2 the second byte array
+     * @param s2 the offset of the second prefix in {@code b2}
+     * @return the comparison result, or {@code 0} if the original keys must be compared by their contents
+     */
+    public static int compareBytes(byte[] b1, int s1, byte[] b2, int s2) {
+        return Long.compareUnsigned(WritableComparator.readLong(b1, s1), WritableComparator.readLong(b2, s2));
+    }
+}
@@ -33,17 +33,36 @@ import com.asakusafw.runtime.stage.temporary.TemporaryStorage;
 
 /**
  * An abstract implementation of resource for providing lookup table.
+ * <p>
+ * If {@link #KEY_CACHE_LIMIT} is set to a positive value, the built lookup tables are shared between tasks
+ * in the same JVM. Currently, only {@link OffHeapLookUpTable off-heap tables} are shared, because the other tables
+ * return the stored objects themselves.
+ * </p>
  * @param <L> the left value type (provides lookup table for this type)
  * @param <R> the right value type (looking up using this type)
+ * @since 0.1.0
+ * @version 0.9.2
  */
 public abstract class JoinResource<L extends Writable, R> implements FlowResource {
 
     static final Log LOG = LogFactory.getLog(JoinResource.class);
 
+    /**
+     * The Hadoop configuration key of the max total size of lookup tables which are shared in the current JVM.
+     * The size of each table is estimated from the size of its distributed cache files.
+     * If this is {@code 0}, lookup tables will not be shared.
+     * @since 0.9.2
+     */
+    public static final String KEY_CACHE_LIMIT = "com.asakusafw.join.cache.limit"; //$NON-NLS-1$
+
+    static final long DEFAULT_CACHE_LIMIT = 0L;
+
     private final LookUpKey lookupKeyBuffer = new LookUpKey();
 
     private LookUpTable<L> table;
 
+    private LookUpTableCache.Reference<L> cached;
+
     @Override
     public void setup(JobContext context) throws IOException, InterruptedException {
         if (LOG.isDebugEnabled()) {
@@ -65,7 +84,17 @@ public abstract class JoinResource<L extends Writable, R> implements FlowResourc
                         paths));
             }
             try {
-                table = createTable(driver, paths);
+                long limit = driver.getConfiguration().getLong(KEY_CACHE_LIMIT, DEFAULT_CACHE_LIMIT);
+                if (limit > 0) {
+                    LookUpTableCache.Key key = LookUpTableCache.Key.of(
+                            getClass().getName(),
+                            driver.getConfiguration(),
+                            paths);
+                    cached = LookUpTableCache.getInstance().acquire(key, limit, () -> createTable(driver, paths));
+                    table = cached.getTable();
+                } else {
+                    table = createTable(driver, paths);
+                }
             } catch (IOException e) {
                 throw new IOException(MessageFormat.format(
                         "Failed to build a join table from \"{0}\"",
@@ -78,6 +107,16 @@ public abstract class JoinResource<L extends Writable, R> implements FlowResourc
             }
         }
     }
+
+    @Override
+    public void cleanup(JobContext context) throws IOException, InterruptedException {
+        if (cached != null) {
+            cached.close();
+            cached = null;
+            table = null;
+        }
+    }
+
     private LookUpTable<L> createTable(
             StageResourceDriver driver,
             List<Path> paths) throws IOException {
@@ -110,6 +149,8 @@ public abstract class JoinResource<L extends Writable, R> implements FlowResourc
 
     /**
      * Returns a builder for building a new lookup table.
+     * If {@link #KEY_CACHE_LIMIT} is enabled and this returns {@link OffHeapLookUpTable.Builder},
+     * the built table is shared between threads through an independent view for each task.
      * @return the created builder
      */
     protected LookUpTable.Builder<L> createLookUpTable() {
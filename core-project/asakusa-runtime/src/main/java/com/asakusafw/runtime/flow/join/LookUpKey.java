@@ -25,7 +25,7 @@ import com.asakusafw.runtime.io.util.DataBuffer;
 /**
  * A key for {@link LookUpTable}.
  * @since 0.1.0
- * @version 0.8.0
+ * @version 0.9.2
  */
 public class LookUpKey {
 
@@ -84,6 +84,10 @@ public class LookUpKey {
         return result;
     }
 
+    DataBuffer getBuffer() {
+        return buffer;
+    }
+
     /**
      * Returns a direct view of this key.
      * @return a direct view
@@ -0,0 +1,320 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.flow.join;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * A process-wide cache of built {@link LookUpTable}s.
+ * <p>
+ * Each table is identified by its owner and the identity of the source files, and it is shared between tasks
+ * in the same JVM while it is referred. Unreferenced tables are evicted in LRU order when the total size of
+ * the cached tables exceeds the limit, where the size of each table is estimated from its source files.
+ * </p>
+ * <p>
+ * Only tables which can provide an independent view for each task (e.g. {@link OffHeapLookUpTable}) are shared.
+ * Other tables like {@link VolatileLookUpTable} return the stored objects themselves, and sharing them would
+ * expose the same mutable objects to concurrent tasks. Such tables are built for each task as before.
+ * </p>
+ * @since 0.9.2
+ */
+final class LookUpTableCache {
+
+    static final Log LOG = LogFactory.getLog(LookUpTableCache.class);
+
+    private static final LookUpTableCache INSTANCE = new LookUpTableCache();
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalSize;
+
+    LookUpTableCache() {
+        return;
+    }
+
+    /**
+     * Returns the process-wide instance.
+     * @return the instance
+     */
+    static LookUpTableCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Acquires a cached table, or builds and caches a new table if it is not cached.
+     * @param <T> the element type
+     * @param key the cache key
+     * @param limit the max total size of cached tables in bytes
+     * @param loader the table loader
+     * @return the reference of the table, which must be closed after it was used
+     * @throws IOException if failed to build the table
+     */
+    <T> Reference<T> acquire(Key key, long limit, Loader<T> loader) throws IOException {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(key);
+                entries.put(key, entry);
+            }
+            entry.references++;
+        }
+        boolean success = false;
+        try {
+            LookUpTable<?> table;
+            if (entry.unshareable) {
+                LookUpTable<T> own = loader.load();
+                success = true;
+                return new Reference<>(this, entry, limit, own);
+            }
+            synchronized (entry) {
+                table = entry.table;
+                if (table == null) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug(MessageFormat.format(
+                                "building shared join table: {0}", //$NON-NLS-1$
+                                key));
+                    }
+                    LookUpTable<T> built = loader.load();
+                    table = built;
+                    if (isShareable(table) == false) {
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug(MessageFormat.format(
+                                    "join table is not shareable: {0} ({1})", //$NON-NLS-1$
+                                    key,
+                                    table.getClass().getName()));
+                        }
+                        entry.unshareable = true;
+                        success = true;
+                        return new Reference<>(this, entry, limit, built);
+                    }
+                    synchronized (this) {
+                        entry.table = table;
+                        totalSize += key.size;
+                        evict(limit);
+                    }
+                } else if (LOG.isDebugEnabled()) {
+                    LOG.debug(MessageFormat.format(
+                            "reusing shared join table: {0}", //$NON-NLS-1$
+                            key));
+                }
+            }
+            success = true;
+            @SuppressWarnings("unchecked")
+            LookUpTable<T> view = (LookUpTable<T>) newView(table);
+            return new Reference<>(this, entry, limit, view);
+        } finally {
+            if (success == false) {
+                release(entry, limit);
+            }
+        }
+    }
+
+    private static boolean isShareable(LookUpTable<?> table) {
+        return table instanceof OffHeapLookUpTable<?>;
+    }
+
+    private static LookUpTable<?> newView(LookUpTable<?> table) {
+        assert isShareable(table);
+        return ((OffHeapLookUpTable<?>) table).newView();
+    }
+
+    synchronized void release(Entry entry, long limit) {
+        assert entry.references > 0;
+        entry.references--;
+        if (entry.references == 0 && entry.table == null) {
+            entries.remove(entry.key);
+        }
+        evict(limit);
+    }
+
+    private void evict(long limit) {
+        assert Thread.holdsLock(this);
+        for (Iterator<Entry> iter = entries.values().iterator(); iter.hasNext() && totalSize > limit;) {
+            Entry entry = iter.next();
+            if (entry.references == 0 && entry.table != null) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug(MessageFormat.format(
+                            "evicting shared join table: {0}", //$NON-NLS-1$
+                            entry.key));
+                }
+                iter.remove();
+                totalSize -= entry.key.size;
+                entry.table = null;
+            }
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Builds a {@link LookUpTable}.
+     * @param <T> the element type
+     */
+    @FunctionalInterface
+    interface Loader<T> {
+
+        /**
+         * Builds a new table.
+         * @return the built table
+         * @throws IOException if failed to build the table
+         */
+        LookUpTable<T> load() throws IOException;
+    }
+
+    /**
+     * A reference of the cached table.
+     * @param <T> the element type
+     */
+    static final class Reference<T> implements Closeable {
+
+        private final LookUpTableCache owner;
+
+        private final Entry entry;
+
+        private final long limit;
+
+        private final LookUpTable<T> table;
+
+        private boolean closed;
+
+        Reference(LookUpTableCache owner, Entry entry, long limit, LookUpTable<T> table) {
+            this.owner = owner;
+            this.entry = entry;
+            this.limit = limit;
+            this.table = table;
+        }
+
+        /**
+         * Returns the referred table.
+         * @return the table
+         */
+        LookUpTable<T> getTable() {
+            return table;
+        }
+
+        @Override
+        public void close() {
+            if (closed == false) {
+                closed = true;
+                owner.release(entry, limit);
+            }
+        }
+    }
+
+    /**
+     * A key of cached tables.
+     */
+    static final class Key {
+
+        final String owner;
+
+        final List<String> files;
+
+        final long size;
+
+        Key(String owner, List<String> files, long size) {
+            this.owner = owner;
+            this.files = files;
+            this.size = size;
+        }
+
+        /**
+         * Creates a new instance from the source files.
+         * @param owner the owner ID
+         * @param conf the current configuration
+         * @param paths the source files
+         * @return the created instance
+         * @throws IOException if failed to resolve the source files
+         */
+        static Key of(String owner, Configuration conf, List<Path> paths) throws IOException {
+            List<String> files = new ArrayList<>();
+            long size = 0;
+            for (Path path : paths) {
+                FileStatus stat = path.getFileSystem(conf).getFileStatus(path);
+                files.add(MessageFormat.format(
+                        "{0}:{1}:{2}", //$NON-NLS-1$
+                        stat.getPath(),
+                        String.valueOf(stat.getLen()),
+                        String.valueOf(stat.getModificationTime())));
+                size += stat.getLen();
+            }
+            return new Key(owner, files, size);
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + owner.hashCode();
+            result = prime * result + files.hashCode();
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return owner.equals(other.owner) && files.equals(other.files);
+        }
+
+        @Override
+        public String toString() {
+            return MessageFormat.format(
+                    "{0}{1}", //$NON-NLS-1$
+                    owner,
+                    files);
+        }
+    }
+
+    private static final class Entry {
+
+        final Key key;
+
+        int references;
+
+        volatile LookUpTable<?> table;
+
+        volatile boolean unshareable;
+
+        Entry(Key key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,412 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.flow.join;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.text.MessageFormat;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hadoop.io.Writable;
+
+import com.asakusafw.runtime.io.util.DataBuffer;
+
+/**
+ * An implementation of {@link LookUpTable} that holds serialized objects on the off-heap memory.
+ * <p>
+ * This keeps only the serialized form of each object in direct buffers, and looks up them by an open-addressing
+ * hash index of the key bytes, which is also placed on the off-heap memory.
+ * The found objects are deserialized into reusable buffers, and the list returned from {@link #get(LookUpKey)}
+ * is only valid until the next invocation of the method.
+ * </p>
+ * <p>
+ * This class is not thread-safe: {@link #get(LookUpKey)} reuses the result list and moves the positions of
+ * the off-heap pages. Each thread must use its own view, which shares the off-heap contents but has its own
+ * buffers (see {@link LookUpTableCache}).
+ * </p>
+ * <p>
+ * Note that, the total size of direct buffers is limited by the {@code -XX:MaxDirectMemorySize} option.
+ * </p>
+ * @param <T> the element type
+ * @since 0.9.2
+ */
+public class OffHeapLookUpTable<T extends Writable> implements LookUpTable<T> {
+
+    static final int DEFAULT_PAGE_SIZE = 16 * 1024 * 1024;
+
+    static final int INITIAL_INDEX_CAPACITY = 1024;
+
+    static final int MAX_INDEX_CAPACITY = 1 << 27;
+
+    static final int SLOT_SIZE = Long.BYTES;
+
+    // key entry: [hash:int][key-length:int][first-value:long][last-value:long][key-bytes]
+    static final int KEY_HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES * 2;
+
+    static final int KEY_OFFSET_FIRST = Integer.BYTES * 2;
+
+    static final int KEY_OFFSET_LAST = KEY_OFFSET_FIRST + Long.BYTES;
+
+    // value entry: [next-value:long][value-length:int][value-bytes]
+    static final int VALUE_HEADER_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final Arena arena;
+
+    private final ByteBuffer index;
+
+    private final int mask;
+
+    private final Class<? extends T> valueClass;
+
+    private final Results<T> results = new Results<>();
+
+    private final DataBuffer input = new DataBuffer(0);
+
+    private byte[] scratch = new byte[256];
+
+    OffHeapLookUpTable(Arena arena, ByteBuffer index, int capacity, Class<? extends T> valueClass) {
+        this.arena = arena;
+        this.index = index;
+        this.mask = capacity - 1;
+        this.valueClass = valueClass;
+    }
+
+    @Override
+    public List<T> get(LookUpKey key) throws IOException {
+        if (key == null) {
+            throw new IllegalArgumentException("key must not be null"); //$NON-NLS-1$
+        }
+        DataBuffer k = key.getBuffer();
+        long entry = find(arena, index, mask, k);
+        if (entry == 0L) {
+            return Collections.emptyList();
+        }
+        results.size = 0;
+        for (long value = arena.getLong(entry, KEY_OFFSET_FIRST); value != 0L; value = arena.getLong(value, 0)) {
+            int length = arena.getInt(value, Long.BYTES);
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            arena.get(value, VALUE_HEADER_SIZE, scratch, length);
+            input.reset(scratch, 0, length);
+            T object = results.next();
+            if (object == null) {
+                object = newValueObject();
+                results.append(object);
+            }
+            object.readFields(input);
+        }
+        return results;
+    }
+
+    /**
+     * Returns a new view of this table, which shares the contents but has its own lookup buffers and
+     * {@link ByteBuffer#duplicate() duplicated} pages.
+     * The returned view can be used from another thread, but it must not be shared between threads either.
+     * @return the created view
+     */
+    OffHeapLookUpTable<T> newView() {
+        return new OffHeapLookUpTable<>(arena.newView(), index.duplicate(), mask + 1, valueClass);
+    }
+
+    private T newValueObject() {
+        try {
+            return valueClass.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new LookUpException(MessageFormat.format(
+                    "Failed to create a value object: {0}",
+                    valueClass.getName()), e);
+        }
+    }
+
+    static int hash(DataBuffer key) {
+        int h = LookUpKey.hashCodeInBytes(key.getData(), key.getReadPosition(), key.getReadLimit());
+        return h ^ (h >>> 16);
+    }
+
+    static long find(Arena arena, ByteBuffer index, int mask, DataBuffer key) {
+        int hash = hash(key);
+        for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+            long entry = index.getLong(slot * SLOT_SIZE);
+            if (entry == 0L) {
+                return 0L;
+            }
+            if (matches(arena, entry, hash, key)) {
+                return entry;
+            }
+        }
+    }
+
+    static boolean matches(Arena arena, long entry, int hash, DataBuffer key) {
+        if (arena.getInt(entry, 0) != hash) {
+            return false;
+        }
+        int length = arena.getInt(entry, Integer.BYTES);
+        if (length != key.getReadRemaining()) {
+            return false;
+        }
+        byte[] bytes = key.getData();
+        int offset = key.getReadPosition();
+        for (int i = 0; i < length; i++) {
+            if (arena.getByte(entry, KEY_HEADER_SIZE + i) != bytes[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A builder for {@link OffHeapLookUpTable}.
+     * @param <T> the element type
+     * @since 0.9.2
+     */
+    public static class Builder<T extends Writable> implements LookUpTable.Builder<T> {
+
+        private final Class<? extends T> valueClass;
+
+        private final Arena arena;
+
+        private final DataBuffer output = new DataBuffer();
+
+        private ByteBuffer index;
+
+        private int capacity;
+
+        private int size;
+
+        /**
+         * Creates a new instance.
+         * @param valueClass the element type, which must have a public default constructor
+         */
+        public Builder(Class<? extends T> valueClass) {
+            this(valueClass, DEFAULT_PAGE_SIZE);
+        }
+
+        /**
+         * Creates a new instance.
+         * @param valueClass the element type, which must have a public default constructor
+         * @param pageSize the off-heap page size in bytes
+         */
+        public Builder(Class<? extends T> valueClass, int pageSize) {
+            if (valueClass == null) {
+                throw new IllegalArgumentException("valueClass must not be null"); //$NON-NLS-1$
+            }
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("pageSize must be > 0"); //$NON-NLS-1$
+            }
+            this.valueClass = valueClass;
+            this.arena = new Arena(pageSize);
+            this.capacity = INITIAL_INDEX_CAPACITY;
+            this.index = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+        }
+
+        @Override
+        public void add(LookUpKey key, T value) throws IOException {
+            if (key == null) {
+                throw new IllegalArgumentException("key must not be null"); //$NON-NLS-1$
+            }
+            if (value == null) {
+                throw new IllegalArgumentException("value must not be null"); //$NON-NLS-1$
+            }
+            DataBuffer k = key.getBuffer();
+            long entry = find(arena, index, capacity - 1, k);
+            if (entry == 0L) {
+                entry = putKey(k);
+            }
+            output.reset(0, 0);
+            value.write(output);
+            int length = output.getReadRemaining();
+            long address = arena.allocate(VALUE_HEADER_SIZE + length);
+            arena.putLong(address, 0, 0L);
+            arena.putInt(address, Long.BYTES, length);
+            arena.put(address, VALUE_HEADER_SIZE, output.getData(), output.getReadPosition(), length);
+            long last = arena.getLong(entry, KEY_OFFSET_LAST);
+            if (last == 0L) {
+                arena.putLong(entry, KEY_OFFSET_FIRST, address);
+            } else {
+                arena.putLong(last, 0, address);
+            }
+            arena.putLong(entry, KEY_OFFSET_LAST, address);
+        }
+
+        private long putKey(DataBuffer key) throws IOException {
+            if (size + 1 > capacity / 2) {
+                grow();
+            }
+            int length = key.getReadRemaining();
+            int hash = hash(key);
+            long entry = arena.allocate(KEY_HEADER_SIZE + length);
+            arena.putInt(entry, 0, hash);
+            arena.putInt(entry, Integer.BYTES, length);
+            arena.putLong(entry, KEY_OFFSET_FIRST, 0L);
+            arena.putLong(entry, KEY_OFFSET_LAST, 0L);
+            arena.put(entry, KEY_HEADER_SIZE, key.getData(), key.getReadPosition(), length);
+            insert(index, capacity - 1, hash, entry);
+            size++;
+            return entry;
+        }
+
+        private void grow() throws IOException {
+            if (capacity >= MAX_INDEX_CAPACITY) {
+                throw new IOException(MessageFormat.format(
+                        "Too many distinct keys in off-heap join table: {0}",
+                        size));
+            }
+            int newCapacity = capacity * 2;
+            ByteBuffer newIndex = ByteBuffer.allocateDirect(newCapacity * SLOT_SIZE);
+            for (int slot = 0; slot < capacity; slot++) {
+                long entry = index.getLong(slot * SLOT_SIZE);
+                if (entry != 0L) {
+                    insert(newIndex, newCapacity - 1, arena.getInt(entry, 0), entry);
+                }
+            }
+            this.index = newIndex;
+            this.capacity = newCapacity;
+        }
+
+        private static void insert(ByteBuffer target, int mask, int hash, long entry) {
+            for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+                if (target.getLong(slot * SLOT_SIZE) == 0L) {
+                    target.putLong(slot * SLOT_SIZE, entry);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public LookUpTable<T> build() throws IOException {
+            return new OffHeapLookUpTable<>(arena, index, capacity, valueClass);
+        }
+    }
+
+    /**
+     * A list of off-heap pages.
+     * Each address consists of {@code (page-index + 1) << 32 | offset-in-page}, so that {@code 0} is never used.
+     */
+    static final class Arena {
+
+        private final int pageSize;
+
+        private final List<ByteBuffer> pages = new ArrayList<>();
+
+        private ByteBuffer current;
+
+        private int currentOffset;
+
+        Arena(int pageSize) {
+            this.pageSize = pageSize;
+        }
+
+        Arena newView() {
+            Arena result = new Arena(pageSize);
+            for (ByteBuffer page : pages) {
+                result.pages.add(page.duplicate());
+            }
+            return result;
+        }
+
+        long allocate(int size) {
+            if (current == null || current.capacity() - currentOffset < size) {
+                current = ByteBuffer.allocateDirect(Math.max(pageSize, size));
+                currentOffset = 0;
+                pages.add(current);
+            }
+            int offset = currentOffset;
+            currentOffset += size;
+            return ((long) pages.size() << 32) | offset;
+        }
+
+        private ByteBuffer page(long address) {
+            return pages.get((int) (address >>> 32) - 1);
+        }
+
+        private static int offset(long address, int delta) {
+            return (int) address + delta;
+        }
+
+        byte getByte(long address, int delta) {
+            return page(address).get(offset(address, delta));
+        }
+
+        int getInt(long address, int delta) {
+            return page(address).getInt(offset(address, delta));
+        }
+
+        long getLong(long address, int delta) {
+            return page(address).getLong(offset(address, delta));
+        }
+
+        void get(long address, int delta, byte[] destination, int length) {
+            ByteBuffer page = page(address);
+            page.position(offset(address, delta));
+            page.get(destination, 0, length);
+        }
+
+        void putInt(long address, int delta, int value) {
+            page(address).putInt(offset(address, delta), value);
+        }
+
+        void putLong(long address, int delta, long value) {
+            page(address).putLong(offset(address, delta), value);
+        }
+
+        void put(long address, int delta, byte[] source, int sourceOffset, int length) {
+            ByteBuffer page = page(address);
+            page.position(offset(address, delta));
+            page.put(source, sourceOffset, length);
+        }
+    }
+
+    private static final class Results<T> extends AbstractList<T> {
+
+        private final List<T> elements = new ArrayList<>();
+
+        int size;
+
+        Results() {
+            return;
+        }
+
+        T next() {
+            if (size == elements.size()) {
+                return null;
+            }
+            return elements.get(size++);
+        }
+
+        void append(T element) {
+            assert size == elements.size();
+            elements.add(element);
+            size++;
+        }
+
+        @Override
+        public T get(int i) {
+            if (i < 0 || i >= size) {
+                throw new IndexOutOfBoundsException(String.valueOf(i));
+            }
+            return elements.get(i);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
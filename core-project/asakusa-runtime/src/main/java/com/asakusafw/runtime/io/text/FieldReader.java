@@ -21,6 +21,7 @@ import java.io.IOException;
 /**
  * An abstract super interface which extracting records and their fields.
  * @since 0.9.1
+ * @version 0.9.2
  */
 public interface FieldReader extends Closeable {
 
@@ -43,6 +44,20 @@ public interface FieldReader extends Closeable {
      */
     boolean nextField() throws IOException;
 
+    /**
+     * Advances the cursor and returns whether or not the next field exists in the current record,
+     * without building the content of the field.
+     * After this method was invoked, the content of the current field is not available until
+     * {@link #nextField()} is invoked.
+     * @return {@code true} if the next field exists, otherwise {@code false}
+     * @throws IOException if I/O error occurred while reading the next field
+     * @throws TextFormatException if text format is not valid
+     * @since 0.9.2
+     */
+    default boolean skipField() throws IOException {
+        return nextField();
+    }
+
     /**
      * Rewinds the cursor to the head of the current record.
      * @throws IOException if I/O error occurred while rewinding fields
@@ -58,6 +73,51 @@ public interface FieldReader extends Closeable {
      */
     CharSequence getContent();
 
+    /**
+     * Returns whether or not the content of the current field is available as UTF-8 encoded bytes.
+     * If this returns {@code true}, clients can use {@link #getUtf8ContentBytes()},
+     * {@link #getUtf8ContentOffset()}, and {@link #getUtf8ContentLength()} instead of {@link #getContent()}.
+     * This always returns {@code false} if the current field represents {@code NULL}.
+     * @return {@code true} if the UTF-8 encoded content is available, otherwise {@code false}
+     * @throws TextFormatException if text format is not valid
+     * @since 0.9.2
+     */
+    default boolean hasUtf8Content() {
+        return false;
+    }
+
+    /**
+     * Returns the byte array which contains the UTF-8 encoded content of the current field.
+     * The array is shared by this reader, clients must not modify it.
+     * This method may change the previous result contents by {@link #nextRecord()} or {@link #nextField()}.
+     * @return the byte array
+     * @throws UnsupportedOperationException if {@link #hasUtf8Content()} is {@code false}
+     * @since 0.9.2
+     */
+    default byte[] getUtf8ContentBytes() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the offset of the UTF-8 encoded content in {@link #getUtf8ContentBytes()}.
+     * @return the content offset in bytes
+     * @throws UnsupportedOperationException if {@link #hasUtf8Content()} is {@code false}
+     * @since 0.9.2
+     */
+    default int getUtf8ContentOffset() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the length of the UTF-8 encoded content in {@link #getUtf8ContentBytes()}.
+     * @return the content length in bytes
+     * @throws UnsupportedOperationException if {@link #hasUtf8Content()} is {@code false}
+     * @since 0.9.2
+     */
+    default int getUtf8ContentLength() {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * Returns the number of line where the current <em>RECORD</em> starts.
      * @return the line number (0-origin), or {@code -1} if it is not sure
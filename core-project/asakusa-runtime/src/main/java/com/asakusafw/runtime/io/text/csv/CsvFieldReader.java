@@ -16,8 +16,11 @@
 package com.asakusafw.runtime.io.text.csv;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
 import java.util.function.UnaryOperator;
 
@@ -30,6 +33,7 @@ import com.asakusafw.runtime.io.text.TextUtil;
 /**
  * A {@link FieldReader} for RFC4180 style CSV files.
  * @since 0.9.1
+ * @version 0.9.2
  */
 public class CsvFieldReader implements FieldReader {
 
@@ -37,6 +41,8 @@ public class CsvFieldReader implements FieldReader {
 
     private static final int EOF = -1;
 
+    private static final int ASCII_LIMIT = 0x80;
+
     private final LineCursor lineCursor;
 
     private final char fieldSeparator;
@@ -49,6 +55,28 @@ public class CsvFieldReader implements FieldReader {
 
     private final StringBuilder fieldBuffer = new StringBuilder();
 
+    private final boolean byteMode;
+
+    private byte[] currentBytes;
+
+    private int currentLength;
+
+    private byte[] fieldBytes;
+
+    private int fieldLength;
+
+    private boolean fieldCopied;
+
+    private int runStart;
+
+    private int runEnd;
+
+    private int scanIndex;
+
+    private String decodedContent;
+
+    private boolean skipping;
+
     private int nextReadIndex = -1;
 
     private long currentRecordIndex = -1;
@@ -70,18 +98,78 @@ public class CsvFieldReader implements FieldReader {
             char fieldSeparator, char quoteCharacter,
             boolean allowLineFeed,
             UnaryOperator<CharSequence> transformer) {
-        this.lineCursor = new LineCursor(reader, quoteCharacter, fieldSeparator, allowLineFeed);
+        this(new LineCursor(reader, quoteCharacter, fieldSeparator, allowLineFeed),
+                fieldSeparator, quoteCharacter, transformer);
+    }
+
+    /**
+     * Creates a new instance which directly scans the given UTF-8 (or US-ASCII) encoded input.
+     * The field separator and quote character must be ASCII characters.
+     * @param input the source input
+     * @param fieldSeparator the field separator character
+     * @param quoteCharacter the quote character
+     * @param allowLineFeed {@code true} to allow LF in field, otherwise {@code false}
+     * @throws IllegalArgumentException if the field separator or quote character is not supported
+     * @see #isByteInputSupported(char, char)
+     * @since 0.9.2
+     */
+    public CsvFieldReader(
+            InputStream input,
+            char fieldSeparator, char quoteCharacter,
+            boolean allowLineFeed) {
+        this(buildLineCursor(input, fieldSeparator, quoteCharacter, allowLineFeed),
+                fieldSeparator, quoteCharacter, null);
+    }
+
+    private CsvFieldReader(
+            LineCursor lineCursor,
+            char fieldSeparator, char quoteCharacter,
+            UnaryOperator<CharSequence> transformer) {
+        this.lineCursor = lineCursor;
+        this.byteMode = lineCursor.isByteMode();
+        this.fieldBytes = byteMode ? new byte[256] : null;
         this.fieldSeparator = fieldSeparator;
         this.quoteCharacter = quoteCharacter;
         this.transformer = transformer == null ? UnaryOperator.identity() : transformer;
     }
 
+    /**
+     * Returns whether or not the byte oriented reader supports the given settings.
+     * @param fieldSeparator the field separator character
+     * @param quoteCharacter the quote character
+     * @return {@code true} if it is supported, otherwise {@code false}
+     * @since 0.9.2
+     */
+    public static boolean isByteInputSupported(char fieldSeparator, char quoteCharacter) {
+        return fieldSeparator < ASCII_LIMIT && quoteCharacter < ASCII_LIMIT;
+    }
+
+    private static LineCursor buildLineCursor(
+            InputStream input,
+            char fieldSeparator, char quoteCharacter,
+            boolean allowLineFeed) {
+        if (isByteInputSupported(fieldSeparator, quoteCharacter) == false) {
+            throw new IllegalArgumentException(String.format(
+                    "byte input requires ASCII field separator and quote character: %s, %s", //$NON-NLS-1$
+                    fieldSeparator,
+                    quoteCharacter));
+        }
+        return new LineCursor(input, quoteCharacter, fieldSeparator, allowLineFeed);
+    }
+
     @Override
     public boolean nextRecord() throws IOException {
         lastState = State.BEFORE_RECORD;
         currentLine = null;
         currentFieldIndex = -1;
         while (lineCursor.next()) {
+            if (byteMode) {
+                currentBytes = lineCursor.getBytes();
+                currentLength = lineCursor.getLength();
+                nextReadIndex = 0;
+                currentRecordIndex++;
+                return true;
+            }
             CharSequence s = transformer.apply(lineCursor.getContent());
             if (s == null) {
                 continue;
@@ -97,6 +185,16 @@ public class CsvFieldReader implements FieldReader {
 
     @Override
     public boolean nextField() throws IOException {
+        return advanceField(false);
+    }
+
+    @Override
+    public boolean skipField() throws IOException {
+        return advanceField(true);
+    }
+
+    private boolean advanceField(boolean skip) throws IOException {
+        skipping = skip;
         if (lastState.moreFields == false) {
             nextReadIndex = -1;
             currentFieldIndex = -1;
@@ -105,11 +203,27 @@ public class CsvFieldReader implements FieldReader {
         }
         State state = State.BEGIN_FIELD;
         CharSequence line = currentLine;
-        assert line != null;
-        fieldBuffer.setLength(0);
+        byte[] bytes = currentBytes;
+        assert line != null || byteMode;
         int index = nextReadIndex;
+        int limit;
+        if (byteMode) {
+            limit = currentLength;
+            resetBytes(index);
+        } else {
+            limit = line.length();
+            fieldBuffer.setLength(0);
+        }
         do {
-            int c = index == line.length() ? EOF : line.charAt(index++);
+            int c;
+            if (index == limit) {
+                c = EOF;
+            } else if (byteMode) {
+                c = bytes[index++] & 0xff;
+                scanIndex = index;
+            } else {
+                c = line.charAt(index++);
+            }
             switch (state) {
             case BEGIN_FIELD:
                 state = doBeginField(c);
@@ -209,14 +323,59 @@ public class CsvFieldReader implements FieldReader {
     }
 
     private void emit(int c) {
-        fieldBuffer.append((char) c);
+        if (skipping) {
+            return;
+        } else if (byteMode) {
+            emitByte(c);
+        } else {
+            fieldBuffer.append((char) c);
+        }
+    }
+
+    private void resetBytes(int start) {
+        fieldLength = 0;
+        fieldCopied = false;
+        runStart = start;
+        runEnd = start;
+        scanIndex = start;
+        decodedContent = null;
+    }
+
+    private void emitByte(int c) {
+        assert 0 <= c && c < 0x100;
+        if (fieldCopied == false) {
+            // keeps the field as a slice of the current line as long as possible
+            if (runStart == runEnd) {
+                runStart = Math.max(scanIndex - 1, 0);
+                runEnd = runStart;
+            }
+            if (runEnd < currentLength && currentBytes[runEnd] == (byte) c) {
+                runEnd++;
+                return;
+            }
+            fieldCopied = true;
+            fieldLength = 0;
+            for (int i = runStart; i < runEnd; i++) {
+                appendByte(currentBytes[i]);
+            }
+        }
+        appendByte((byte) c);
+    }
+
+    private void appendByte(byte b) {
+        if (fieldLength == fieldBytes.length) {
+            fieldBytes = Arrays.copyOf(fieldBytes, fieldBytes.length * 2);
+        }
+        fieldBytes[fieldLength++] = b;
     }
 
     private void error(ErrorCode code) {
         LOG.warn(MessageFormat.format(
                 "code={0}, contents={1}, column={2}",
                 code,
-                TextUtil.quote(currentLine),
+                TextUtil.quote(byteMode
+                        ? new String(currentBytes, 0, currentLength, StandardCharsets.UTF_8)
+                        : currentLine),
                 nextReadIndex + 1));
     }
 
@@ -232,6 +391,21 @@ public class CsvFieldReader implements FieldReader {
         switch (lastState) {
         case END_OF_FIELD:
         case END_OF_RECORD:
+            if (skipping) {
+                throw new IllegalStateException(String.format(
+                        "field content was skipped: line-number=%,d, record-index=%,d, field-index=%,d", //$NON-NLS-1$
+                        getRecordLineNumber(),
+                        getRecordIndex(),
+                        getFieldIndex()));
+            }
+            if (byteMode) {
+                if (decodedContent == null) {
+                    decodedContent = new String(
+                            getUtf8ContentBytes(), getUtf8ContentOffset(), getUtf8ContentLength(),
+                            StandardCharsets.UTF_8);
+                }
+                return decodedContent;
+            }
             return fieldBuffer;
         case BEFORE_RECORD:
         case AFTER_RECORD:
@@ -246,6 +420,35 @@ public class CsvFieldReader implements FieldReader {
         }
     }
 
+    @Override
+    public boolean hasUtf8Content() {
+        return byteMode && skipping == false && (lastState == State.END_OF_FIELD || lastState == State.END_OF_RECORD);
+    }
+
+    @Override
+    public byte[] getUtf8ContentBytes() {
+        checkUtf8Content();
+        return fieldCopied ? fieldBytes : currentBytes;
+    }
+
+    @Override
+    public int getUtf8ContentOffset() {
+        checkUtf8Content();
+        return fieldCopied ? 0 : runStart;
+    }
+
+    @Override
+    public int getUtf8ContentLength() {
+        checkUtf8Content();
+        return fieldCopied ? fieldLength : runEnd - runStart;
+    }
+
+    private void checkUtf8Content() {
+        if (hasUtf8Content() == false) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     @Override
     public long getRecordLineNumber() {
         return lineCursor.getLineNumber();
@@ -264,6 +467,7 @@ public class CsvFieldReader implements FieldReader {
     @Override
     public void close() throws IOException {
         currentLine = null;
+        currentBytes = null;
         currentFieldIndex = -1;
         currentRecordIndex = -1;
         lastState = State.AFTER_RECORD;
@@ -34,7 +34,10 @@ import com.asakusafw.runtime.io.text.TextFormat;
 
 /**
  * An implementation of {@link TextFormat} for  RFC4180 style CSV files.
+ * If the charset is UTF-8 or US-ASCII, and neither input transformer nor non-ASCII separators are specified,
+ * {@link #open(InputStream)} directly scans the input bytes instead of decoding them into characters.
  * @since 0.9.1
+ * @version 0.9.2
  */
 public class CsvTextFormat implements TextFormat {
 
@@ -114,7 +117,17 @@ public class CsvTextFormat implements TextFormat {
 
     @Override
     public CsvFieldReader open(InputStream input) throws IOException {
-        return open(new InputStreamReader(input, charset));
+        UnaryOperator<CharSequence> transformer = inputTransformer.get();
+        if (transformer == null
+                && isAsciiCompatible(charset)
+                && CsvFieldReader.isByteInputSupported(fieldSeparator, quoteCharacter)) {
+            return new CsvFieldReader(input, fieldSeparator, quoteCharacter, allowLineFeedInField);
+        }
+        return open(new InputStreamReader(input, charset), transformer);
+    }
+
+    private static boolean isAsciiCompatible(Charset cs) {
+        return cs.equals(StandardCharsets.UTF_8) || cs.equals(StandardCharsets.US_ASCII);
     }
 
     @Override
@@ -124,10 +137,14 @@ public class CsvTextFormat implements TextFormat {
 
     @Override
     public CsvFieldReader open(Reader input) throws IOException {
+        return open(input, inputTransformer.get());
+    }
+
+    private CsvFieldReader open(Reader input, UnaryOperator<CharSequence> transformer) {
         return new CsvFieldReader(input,
                 fieldSeparator, quoteCharacter,
                 allowLineFeedInField,
-                inputTransformer.get());
+                transformer);
     }
 
     @Override
@@ -17,8 +17,11 @@ package com.asakusafw.runtime.io.text.csv;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
+import java.util.Arrays;
 
 import com.asakusafw.runtime.io.text.TextFormatException;
 import com.asakusafw.runtime.io.text.TextUtil;
@@ -26,6 +29,7 @@ import com.asakusafw.runtime.io.text.TextUtil;
 /**
  * Extracts records delimited by line separator characters.
  * @since 0.9.1
+ * @version 0.9.2
  */
 final class LineCursor implements Closeable {
 
@@ -35,6 +39,8 @@ final class LineCursor implements Closeable {
 
     private final Reader reader;
 
+    private final InputStream input;
+
     private final char quoteCharacter;
 
     private final char fieldSeparator;
@@ -43,7 +49,13 @@ final class LineCursor implements Closeable {
 
     private final StringBuilder lineBuffer = new StringBuilder();
 
-    private final char[] readBuffer = new char[READ_BUFFER_SIZE];
+    private final char[] readBuffer;
+
+    private final byte[] readBytes;
+
+    private byte[] lineBytes;
+
+    private int lineLength;
 
     private int readOffset = 0;
 
@@ -58,7 +70,30 @@ final class LineCursor implements Closeable {
     private boolean sawInvalidLineFeed = false;
 
     LineCursor(Reader reader, char quoteCharacter, char fieldSeparator, boolean allowLineFeed) {
+        this(reader, null, quoteCharacter, fieldSeparator, allowLineFeed);
+    }
+
+    /**
+     * Creates a new instance which directly reads bytes from the given input.
+     * The quote character and field separator must be ASCII characters, and the input must be encoded in
+     * ASCII compatible way (e.g. UTF-8): each line content is provided as raw bytes.
+     * @param input the source input
+     * @param quoteCharacter the quote character
+     * @param fieldSeparator the field separator
+     * @param allowLineFeed {@code true} to allow LF in field, otherwise {@code false}
+     */
+    LineCursor(InputStream input, char quoteCharacter, char fieldSeparator, boolean allowLineFeed) {
+        this(null, input, quoteCharacter, fieldSeparator, allowLineFeed);
+    }
+
+    private LineCursor(
+            Reader reader, InputStream input,
+            char quoteCharacter, char fieldSeparator, boolean allowLineFeed) {
         this.reader = reader;
+        this.input = input;
+        this.readBuffer = reader == null ? null : new char[READ_BUFFER_SIZE];
+        this.readBytes = input == null ? null : new byte[READ_BUFFER_SIZE];
+        this.lineBytes = input == null ? null : new byte[READ_BUFFER_SIZE];
         this.quoteCharacter = quoteCharacter;
         this.fieldSeparator = fieldSeparator;
         this.denyLineFeedInQuote = allowLineFeed == false;
@@ -67,6 +102,7 @@ final class LineCursor implements Closeable {
     public boolean next() throws IOException {
         State state = State.BEGIN_RECORD;
         lineBuffer.setLength(0);
+        lineLength = 0;
         currentLineNumber = nextLineNumber;
         do {
             int c = get();
@@ -100,7 +136,9 @@ final class LineCursor implements Closeable {
             sawInvalidLineFeed = false;
             throw new TextFormatException(MessageFormat.format(
                     "no line-feed in quote is allowed: {0}",
-                    TextUtil.quote(lineBuffer)));
+                    TextUtil.quote(readBytes != null
+                            ? new String(lineBytes, 0, lineLength, StandardCharsets.UTF_8)
+                            : lineBuffer)));
         }
         return state == State.END_OF_RECORD;
     }
@@ -274,6 +312,9 @@ final class LineCursor implements Closeable {
 
     private int get() throws IOException {
         if (prepareBuffer()) {
+            if (readBytes != null) {
+                return readBytes[readOffset++] & 0xff;
+            }
             return readBuffer[readOffset++];
         }
         return EOF;
@@ -294,8 +335,13 @@ final class LineCursor implements Closeable {
             // some characters were already emitted
             int dropCount = emitOffset - flushLimit;
             if (dropCount > 0) {
-                assert lineBuffer.length() >= dropCount;
-                lineBuffer.delete(lineBuffer.length() - dropCount, lineBuffer.length());
+                if (readBytes != null) {
+                    assert lineLength >= dropCount;
+                    lineLength -= dropCount;
+                } else {
+                    assert lineBuffer.length() >= dropCount;
+                    lineBuffer.delete(lineBuffer.length() - dropCount, lineBuffer.length());
+                }
             }
         }
         emitOffset = readOffset;
@@ -305,6 +351,9 @@ final class LineCursor implements Closeable {
         if (readOffset < readLimit) {
             return true;
         }
+        if (readBytes != null) {
+            return prepareBytes();
+        }
         // is read buffer full?
         if (readLimit == readBuffer.length) {
             flush(readLimit);
@@ -330,11 +379,45 @@ final class LineCursor implements Closeable {
         }
     }
 
+    private boolean prepareBytes() throws IOException {
+        // is read buffer full?
+        if (readLimit == readBytes.length) {
+            flush(readLimit);
+            emitOffset = 0;
+            readLimit = 0;
+            readOffset = 0;
+        }
+        // read to buffer
+        int count = input.read(readBytes, readLimit, readBytes.length - readLimit);
+        if (count < 0) {
+            return false;
+        } else if (count > 0) {
+            readLimit += count;
+            return true;
+        }
+        int c = input.read();
+        if (c < 0) {
+            return false;
+        } else {
+            readBytes[readLimit++] = (byte) c;
+            return true;
+        }
+    }
+
     private void flush(int end) {
         int offset = emitOffset;
         assert offset <= end;
         if (offset < end) {
-            lineBuffer.append(readBuffer, offset, end - offset);
+            if (readBytes != null) {
+                int count = end - offset;
+                if (lineLength + count > lineBytes.length) {
+                    lineBytes = Arrays.copyOf(lineBytes, Math.max(lineBytes.length * 2, lineLength + count));
+                }
+                System.arraycopy(readBytes, offset, lineBytes, lineLength, count);
+                lineLength += count;
+            } else {
+                lineBuffer.append(readBuffer, offset, end - offset);
+            }
         }
         emitOffset = end;
     }
@@ -344,13 +427,46 @@ final class LineCursor implements Closeable {
     }
 
     public CharSequence getContent() {
+        assert readBytes == null;
         return lineBuffer;
     }
 
+    /**
+     * Returns whether or not this cursor reads raw bytes instead of characters.
+     * @return {@code true} if this reads raw bytes, otherwise {@code false}
+     */
+    public boolean isByteMode() {
+        return readBytes != null;
+    }
+
+    /**
+     * Returns the byte array which contains the current line.
+     * This is only available in byte mode.
+     * @return the byte array, the contents start from the head
+     */
+    public byte[] getBytes() {
+        assert readBytes != null;
+        return lineBytes;
+    }
+
+    /**
+     * Returns the number of bytes in the current line.
+     * This is only available in byte mode.
+     * @return the byte length
+     */
+    public int getLength() {
+        assert readBytes != null;
+        return lineLength;
+    }
+
     @Override
     public void close() throws IOException {
         currentLineNumber = -1;
-        reader.close();
+        if (readBytes != null) {
+            input.close();
+        } else {
+            reader.close();
+        }
     }
 
     private enum State {
@@ -18,15 +18,25 @@ package com.asakusafw.runtime.io.text.directio;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.text.MessageFormat;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.hadoop.util.ReflectionUtils;
 
+import com.asakusafw.runtime.directio.hadoop.BlockCompressedInputStream;
+import com.asakusafw.runtime.directio.hadoop.BlockCompressedOutputStream;
+import com.asakusafw.runtime.directio.hadoop.BlockIndex;
+import com.asakusafw.runtime.directio.hadoop.BlockIndexedDataFormat;
 import com.asakusafw.runtime.directio.hadoop.ConfigurableBinaryStreamFormat;
 import com.asakusafw.runtime.io.ModelInput;
 import com.asakusafw.runtime.io.ModelOutput;
@@ -42,8 +52,28 @@ import com.asakusafw.runtime.value.StringOption;
  * An abstract implementation of Direct I/O data format for formatted text files.
  * @param <T> the data type
  * @since 0.9.1
+ * @version 0.9.2
  */
-public abstract class AbstractTextStreamFormat<T> extends ConfigurableBinaryStreamFormat<T> {
+public abstract class AbstractTextStreamFormat<T> extends ConfigurableBinaryStreamFormat<T>
+        implements BlockIndexedDataFormat<T> {
+
+    /**
+     * The configuration key prefix of the input projection.
+     * The rest of key must be the format class name, and its value is a comma separated field names
+     * which are actually required in the input.
+     * @see #getInputProjection()
+     * @since 0.9.2
+     */
+    public static final String KEY_INPUT_PROJECTION_PREFIX = "com.asakusafw.input.text.projection."; //$NON-NLS-1$
+
+    /**
+     * The configuration key of the uncompressed block size of compressed outputs.
+     * If this is positive, each compressed output is split into independently compressed blocks, and
+     * its {@link BlockIndex} is written next to the output file.
+     * @see #getOutputBlockSize()
+     * @since 0.9.2
+     */
+    public static final String KEY_OUTPUT_BLOCK_SIZE = "com.asakusafw.output.text.block.size"; //$NON-NLS-1$
 
     private static final Set<InputOption> INPUT_OPTS_HEAD =
             Collections.unmodifiableSet(EnumSet.of(InputOption.FROM_FILE_HEAD));
@@ -70,6 +100,8 @@ public abstract class AbstractTextStreamFormat<T> extends ConfigurableBinaryStre
 
     /**
      * Returns the input splitter of this format.
+     * If {@link #getCompressionCodecClass() compression} is enabled, this splits the uncompressed contents of
+     * the files which have {@link BlockIndex}, and the other compressed files are never split.
      * @return the input splitter, or {@code null} is input split is disabled
      */
     protected InputSplitter getInputSplitter() {
@@ -84,6 +116,33 @@ public abstract class AbstractTextStreamFormat<T> extends ConfigurableBinaryStre
         return null;
     }
 
+    /**
+     * Returns the uncompressed block size of compressed outputs.
+     * This returns the {@link #KEY_OUTPUT_BLOCK_SIZE configured} size by default.
+     * @return the block size in bytes, or {@code <= 0} if the outputs are not split into blocks
+     * @since 0.9.2
+     */
+    protected long getOutputBlockSize() {
+        return getConf().getLong(KEY_OUTPUT_BLOCK_SIZE, -1L);
+    }
+
+    /**
+     * Returns the names of fields which are actually required in the input.
+     * The other fields are skipped without parsing their contents, and their properties always become
+     * {@code null}.
+     * This returns the {@link #KEY_INPUT_PROJECTION_PREFIX configured} field names by default.
+     * @return the required field names, or {@code null} if all fields are required
+     * @since 0.9.2
+     */
+    protected Set<String> getInputProjection() {
+        Configuration conf = getConf();
+        String key = KEY_INPUT_PROJECTION_PREFIX + getClass().getName();
+        if (conf.get(key) == null) {
+            return null;
+        }
+        return new LinkedHashSet<>(Arrays.asList(conf.getTrimmedStrings(key)));
+    }
+
     /**
      * Processes the data object, which has filled the current record data.
      * @param model the data object
@@ -129,10 +188,15 @@ public abstract class AbstractTextStreamFormat<T> extends ConfigurableBinaryStre
         return cache.get();
     }
 
+    @Override
+    public final boolean isBlockIndexSupported() {
+        return getInputSplitter() != null && getCompressionCodecClass() != null;
+    }
+
     @Override
     public final long getPreferredFragmentSize() {
         InputSplitter splitter = getInputSplitter();
-        if (splitter != null) {
+        if (splitter != null && getCompressionCodecClass() == null) {
             return splitter.getPreferredSize();
         } else {
             return -1L;
@@ -142,7 +206,7 @@ public abstract class AbstractTextStreamFormat<T> extends ConfigurableBinaryStre
     @Override
     public final long getMinimumFragmentSize() {
         InputSplitter splitter = getInputSplitter();
-        if (splitter != null) {
+        if (splitter != null && getCompressionCodecClass() == null) {
             return splitter.getLowerLimitSize();
         } else {
             return -1L;
@@ -157,8 +221,12 @@ public abstract class AbstractTextStreamFormat<T> extends ConfigurableBinaryStre
             long offset, long fragmentSize) throws IOException, InterruptedException {
         TextFormat format = getTextFormat();
         RecordDefinition<T> record = getRecordDefinition();
+        Set<String> projection = getInputProjection();
+        if (projection != null) {
+            record = record.withProjection(projection);
+        }
         Set<InputOption> options = offset == 0 ? INPUT_OPTS_HEAD : INPUT_OPTS_REST;
-        InputStream source = decorate(stream, offset, fragmentSize);
+        InputStream source = decorate(path, stream, offset, fragmentSize);
         return new DecoratedInput(record.newInput(format.open(source), path, options), new StringOption(path));
     }
 
@@ -170,24 +238,77 @@ public abstract class AbstractTextStreamFormat<T> extends ConfigurableBinaryStre
         TextFormat format = getTextFormat();
         RecordDefinition<T> record = getRecordDefinition();
         Set<OutputOption> options = OUTPUT_OPTS;
+        Class<? extends CompressionCodec> codecClass = getCompressionCodecClass();
+        long blockSize = getOutputBlockSize();
+        if (codecClass != null && blockSize > 0) {
+            CompressionCodec codec = ReflectionUtils.newInstance(codecClass, getConf());
+            BlockCompressedOutputStream destination = new BlockCompressedOutputStream(stream, codec, blockSize);
+            TextOutput<T> output = record.newOutput(format.open(destination), path, options);
+            return new DecoratedOutput(output, new StringOption(path)) {
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    Path file = new Path(path);
+                    destination.getIndex().write(file.getFileSystem(getConf()), file);
+                }
+            };
+        }
         OutputStream destination = decorate(stream);
         return new DecoratedOutput(record.newOutput(format.open(destination), path, options), new StringOption(path));
     }
 
-    private InputStream decorate(InputStream stream, long offset, long splitSize) throws IOException {
+    private InputStream decorate(
+            String path, InputStream stream,
+            long offset, long splitSize) throws IOException {
         InputSplitter splitter = getInputSplitter();
-        if (splitter != null) {
-            assert getCompressionCodecClass() == null;
-            return splitter.trim(stream, offset, splitSize != -1L ? splitSize : Long.MAX_VALUE);
-        }
         Class<? extends CompressionCodec> codecClass = getCompressionCodecClass();
         if (codecClass != null) {
             CompressionCodec codec = ReflectionUtils.newInstance(codecClass, getConf());
+            if (splitter != null) {
+                Path file = new Path(path);
+                FileSystem fs = file.getFileSystem(getConf());
+                BlockIndex index = BlockIndex.find(fs, file);
+                if (index != null) {
+                    return decorate(splitter, codec, index, stream, offset, splitSize);
+                }
+            }
+            if (offset != 0) {
+                throw new IOException(MessageFormat.format(
+                        "compressed text cannot be split without block index: {0} (offset={1})",
+                        path,
+                        offset));
+            }
             return codec.createInputStream(stream);
         }
+        if (splitter != null) {
+            return splitter.trim(stream, offset, splitSize != -1L ? splitSize : Long.MAX_VALUE);
+        }
         return stream;
     }
 
+    private static InputStream decorate(
+            InputSplitter splitter, CompressionCodec codec, BlockIndex index,
+            InputStream stream, long offset, long splitSize) throws IOException {
+        // the current fragment owns blocks which start in its range
+        int first = index.findBlock(offset);
+        int last = splitSize != -1L ? index.findBlock(offset + splitSize) : index.getBlockCount();
+        long skip = index.getCompressedOffset(first) - offset;
+        while (skip > 0) {
+            long skipped = stream.skip(skip);
+            if (skipped <= 0) {
+                if (stream.read() < 0) {
+                    throw new IOException("unexpected end of block compressed file");
+                }
+                skipped = 1;
+            }
+            skip -= skipped;
+        }
+        long start = index.getUncompressedOffset(first);
+        long length = index.getUncompressedOffset(last) - start;
+        InputStream contents = new BlockCompressedInputStream(stream, codec, index, first);
+        return splitter.trim(contents, start, length);
+    }
+
     private OutputStream decorate(OutputStream stream) throws IOException {
         Class<? extends CompressionCodec> codecClass = getCompressionCodecClass();
         if (codecClass != null) {
@@ -19,6 +19,7 @@ package com.asakusafw.runtime.io.text.driver;
  * An abstract super interface of converts field contents and properties each other.
  * @param <T> the property type
  * @since 0.9.1
+ * @version 0.9.2
  */
 public interface FieldAdapter<T> {
 
@@ -36,6 +37,23 @@ public interface FieldAdapter<T> {
      */
     void parse(CharSequence contents, T property);
 
+    /**
+     * Extracts the given UTF-8 encoded field content into the destination property.
+     * This is an optional operation: if this adapter does not support UTF-8 encoded contents,
+     * this returns {@code false} without any side effects, and then clients must use
+     * {@link #parse(CharSequence, Object)} instead.
+     * @param contents the byte array which contains the UTF-8 encoded field content
+     * @param offset the content offset in the byte array
+     * @param length the content length in bytes
+     * @param property the destination property
+     * @return {@code true} if the content was extracted, or {@code false} if this operation is not supported
+     * @throws MalformedFieldException if the field content is malformed
+     * @since 0.9.2
+     */
+    default boolean parse(byte[] contents, int offset, int length, T property) {
+        return false;
+    }
+
     /**
      * Extracts the given property value into the destination field.
      * @param property the property value
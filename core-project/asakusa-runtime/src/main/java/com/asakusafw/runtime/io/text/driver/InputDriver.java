@@ -137,21 +137,34 @@ final class InputDriver<T> implements TextInput<T> {
     private <P> boolean processField(T model, FieldDriver<T, P> field) throws IOException {
         P property = field.extractor.apply(model);
         FieldAdapter<? super P> adapter = field.adapter;
+        if (field.skipContent) {
+            adapter.clear(property);
+            return reader.skipField();
+        }
         while (reader.nextField()) {
+            if (field.trimInput == false && reader.hasUtf8Content()) {
+                int length = reader.getUtf8ContentLength();
+                if (length == 0 && field.skipEmptyInput) {
+                    traceSkipEmpty();
+                    continue;
+                }
+                try {
+                    if (adapter.parse(reader.getUtf8ContentBytes(), reader.getUtf8ContentOffset(), length, property)) {
+                        return true;
+                    }
+                } catch (MalformedFieldException e) {
+                    adapter.clear(property);
+                    handleMalformed(field, reader.getContent(), e);
+                    return true;
+                }
+            }
             CharSequence value = reader.getContent();
             if (value != null) {
                 if (field.trimInput) {
                     value = trimmer.wrap(value);
                 }
                 if (value.length() == 0 && field.skipEmptyInput) {
-                    if (LOG.isTraceEnabled()) {
-                        LOG.trace(String.format(
-                                "skip empty field: path=%s, line=%,d, row=%,d, column=%,d",
-                                path,
-                                getLineNumberMessage(),
-                                getRecordIndexMessage(),
-                                getFieldIndexMessage()));
-                    }
+                    traceSkipEmpty();
                     continue;
                 }
             }
@@ -167,6 +180,17 @@ final class InputDriver<T> implements TextInput<T> {
         return false;
     }
 
+    private void traceSkipEmpty() {
+        if (LOG.isTraceEnabled()) {
+            LOG.trace(String.format(
+                    "skip empty field: path=%s, line=%,d, row=%,d, column=%,d",
+                    path,
+                    getLineNumberMessage(),
+                    getRecordIndexMessage(),
+                    getFieldIndexMessage()));
+        }
+    }
+
     private void checkRest() throws IOException {
         if (onMoreInput == ErrorAction.IGNORE) {
             return;
@@ -403,18 +427,22 @@ final class InputDriver<T> implements TextInput<T> {
 
         final ErrorAction onMalformedInput;
 
+        final boolean skipContent;
+
         FieldDriver(
                 String name,
                 Function<? super TRecord, ? extends TProperty> extractor,
                 FieldAdapter<? super TProperty> adapter,
                 boolean trimInput, boolean skipEmptyInput,
-                ErrorAction onMalformedInput) {
+                ErrorAction onMalformedInput,
+                boolean skipContent) {
             this.name = name;
             this.extractor = extractor;
             this.adapter = adapter;
             this.trimInput = trimInput;
             this.skipEmptyInput = skipEmptyInput;
             this.onMalformedInput = onMalformedInput;
+            this.skipContent = skipContent;
         }
     }
 
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
@@ -32,6 +33,7 @@ import com.asakusafw.runtime.io.text.TextOutput;
  * A definition of record.
  * @param <T> the record type
  * @since 0.9.1
+ * @version 0.9.2
  */
 public final class RecordDefinition<T> {
 
@@ -57,6 +59,8 @@ public final class RecordDefinition<T> {
 
     private final ErrorAction onMoreInput;
 
+    private final Set<String> projection;
+
     RecordDefinition(
             Class<? extends T> dataType, List<FieldInfo<T, ?>> fields,
             HeaderType headerType,
@@ -72,6 +76,20 @@ public final class RecordDefinition<T> {
         this.onUnmappableOutput = onUnmappableOutput;
         this.onLessInput = onLessInput;
         this.onMoreInput = onMoreInput;
+        this.projection = null;
+    }
+
+    private RecordDefinition(RecordDefinition<T> base, Set<String> projection) {
+        this.dataType = base.dataType;
+        this.fields = base.fields;
+        this.headerType = base.headerType;
+        this.trimInput = base.trimInput;
+        this.skipEmptyInput = base.skipEmptyInput;
+        this.onMalformedInput = base.onMalformedInput;
+        this.onUnmappableOutput = base.onUnmappableOutput;
+        this.onLessInput = base.onLessInput;
+        this.onMoreInput = base.onMoreInput;
+        this.projection = projection;
     }
 
     /**
@@ -92,6 +110,20 @@ public final class RecordDefinition<T> {
         return fields.size();
     }
 
+    /**
+     * Returns a copy of this definition which only extracts the specified fields from the input.
+     * The other fields are still consumed from the input text, but their contents are never built nor parsed,
+     * and their properties always become {@code null}.
+     * Fields which skip empty inputs are always extracted, because their contents affect the field positions.
+     * This does not affect to the output.
+     * @param fieldNames the names of fields to extract
+     * @return the projected definition
+     * @since 0.9.2
+     */
+    public RecordDefinition<T> withProjection(Collection<String> fieldNames) {
+        return new RecordDefinition<>(this, new LinkedHashSet<>(fieldNames));
+    }
+
     /**
      * Creates a new {@link TextInput} from this definition with default options.
      * @param reader the formatted text reader
@@ -154,11 +186,14 @@ public final class RecordDefinition<T> {
 
     private <U> InputDriver.FieldDriver<T, U> toInput(FieldInfo<T, U> info) {
         FieldDefinition<U> def = info.definition;
+        boolean skipEmpty = def.getSkipEmptyInput().orElse(skipEmptyInput);
+        boolean skipContent = projection != null && skipEmpty == false && projection.contains(def.getName()) == false;
         return new InputDriver.FieldDriver<>(
                 def.getName(), info.extractor, def.getAdapterSupplier().get(),
                 def.getTrimInput().orElse(trimInput),
-                def.getSkipEmptyInput().orElse(skipEmptyInput),
-                def.getOnMalformedInput().orElse(onMalformedInput));
+                skipEmpty,
+                def.getOnMalformedInput().orElse(onMalformedInput),
+                skipContent);
     }
 
     private <U> OutputDriver.FieldDriver<T, U> toOutput(FieldInfo<T, U> info) {
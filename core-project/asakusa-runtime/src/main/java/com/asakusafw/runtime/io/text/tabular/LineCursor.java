@@ -17,11 +17,14 @@ package com.asakusafw.runtime.io.text.tabular;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
+import java.util.Arrays;
 
 /**
  * Parses lines in text.
  * @since 0.9.1
+ * @version 0.9.2
  */
 class LineCursor implements Closeable {
 
@@ -33,13 +36,21 @@ class LineCursor implements Closeable {
 
     private final Reader reader;
 
+    private final InputStream input;
+
     private final int escapeCharacter;
 
     private final boolean allowEscapeEscape;
 
     private final StringBuilder lineBuffer = new StringBuilder();
 
-    private final char[] readBuffer = new char[READ_BUFFER_SIZE];
+    private final char[] readBuffer;
+
+    private final byte[] readBytes;
+
+    private byte[] lineBytes;
+
+    private int lineLength;
 
     private int readOffset = 0;
 
@@ -52,7 +63,30 @@ class LineCursor implements Closeable {
     private long nextLineNumber = 0L;
 
     LineCursor(Reader reader, char escape, boolean allowEscape, boolean allowEscapeEscape) {
+        this(reader, null, escape, allowEscape, allowEscapeEscape);
+    }
+
+    /**
+     * Creates a new instance which directly reads bytes from the given input.
+     * The escape character must be an ASCII character, and the input must be encoded in ASCII compatible way
+     * (e.g. UTF-8): each line content is provided as raw bytes.
+     * @param input the source input
+     * @param escape the escape character
+     * @param allowEscape whether or not the escape character is enabled
+     * @param allowEscapeEscape whether or not the escape character can escape itself
+     */
+    LineCursor(InputStream input, char escape, boolean allowEscape, boolean allowEscapeEscape) {
+        this(null, input, escape, allowEscape, allowEscapeEscape);
+    }
+
+    private LineCursor(
+            Reader reader, InputStream input,
+            char escape, boolean allowEscape, boolean allowEscapeEscape) {
         this.reader = reader;
+        this.input = input;
+        this.readBuffer = reader == null ? null : new char[READ_BUFFER_SIZE];
+        this.readBytes = input == null ? null : new byte[READ_BUFFER_SIZE];
+        this.lineBytes = input == null ? null : new byte[READ_BUFFER_SIZE];
         this.escapeCharacter = allowEscape ? escape : ABSENT;
         this.allowEscapeEscape = allowEscape && allowEscapeEscape;
     }
@@ -60,6 +94,7 @@ class LineCursor implements Closeable {
     public boolean next() throws IOException {
         State state = State.INIT;
         lineBuffer.setLength(0);
+        lineLength = 0;
         currentLineNumber = nextLineNumber;
         do {
             int c = get();
@@ -88,7 +123,7 @@ class LineCursor implements Closeable {
         if (c < 0) {
             // EOF
             emit(0);
-            if (lineBuffer.length() == 0) {
+            if ((readBytes != null ? lineLength : lineBuffer.length()) == 0) {
                 // first character is EOF
                 currentLineNumber = -1L;
                 return State.END_OF_CONTENT;
@@ -187,6 +222,9 @@ class LineCursor implements Closeable {
 
     private int get() throws IOException {
         if (prepareBuffer()) {
+            if (readBytes != null) {
+                return readBytes[readOffset++] & 0xff;
+            }
             return readBuffer[readOffset++];
         }
         return EOF;
@@ -207,8 +245,13 @@ class LineCursor implements Closeable {
             // some characters were already emitted
             int dropCount = emitOffset - flushLimit;
             if (dropCount > 0) {
-                assert lineBuffer.length() >= dropCount;
-                lineBuffer.delete(lineBuffer.length() - dropCount, lineBuffer.length());
+                if (readBytes != null) {
+                    assert lineLength >= dropCount;
+                    lineLength -= dropCount;
+                } else {
+                    assert lineBuffer.length() >= dropCount;
+                    lineBuffer.delete(lineBuffer.length() - dropCount, lineBuffer.length());
+                }
             }
         }
         emitOffset = readOffset;
@@ -218,6 +261,9 @@ class LineCursor implements Closeable {
         if (readOffset < readLimit) {
             return true;
         }
+        if (readBytes != null) {
+            return prepareBytes();
+        }
         // is read buffer full?
         if (readLimit == readBuffer.length) {
             flush(readLimit);
@@ -243,11 +289,45 @@ class LineCursor implements Closeable {
         }
     }
 
+    private boolean prepareBytes() throws IOException {
+        // is read buffer full?
+        if (readLimit == readBytes.length) {
+            flush(readLimit);
+            emitOffset = 0;
+            readLimit = 0;
+            readOffset = 0;
+        }
+        // read to buffer
+        int count = input.read(readBytes, readLimit, readBytes.length - readLimit);
+        if (count < 0) {
+            return false;
+        } else if (count > 0) {
+            readLimit += count;
+            return true;
+        }
+        int c = input.read();
+        if (c < 0) {
+            return false;
+        } else {
+            readBytes[readLimit++] = (byte) c;
+            return true;
+        }
+    }
+
     private void flush(int end) {
         int offset = emitOffset;
         assert offset <= end;
         if (offset < end) {
-            lineBuffer.append(readBuffer, offset, end - offset);
+            if (readBytes != null) {
+                int count = end - offset;
+                if (lineLength + count > lineBytes.length) {
+                    lineBytes = Arrays.copyOf(lineBytes, Math.max(lineBytes.length * 2, lineLength + count));
+                }
+                System.arraycopy(readBytes, offset, lineBytes, lineLength, count);
+                lineLength += count;
+            } else {
+                lineBuffer.append(readBuffer, offset, end - offset);
+            }
         }
         emitOffset = end;
     }
@@ -257,13 +337,46 @@ class LineCursor implements Closeable {
     }
 
     public CharSequence getContent() {
+        assert readBytes == null;
         return lineBuffer;
     }
 
+    /**
+     * Returns whether or not this cursor reads raw bytes instead of characters.
+     * @return {@code true} if this reads raw bytes, otherwise {@code false}
+     */
+    public boolean isByteMode() {
+        return readBytes != null;
+    }
+
+    /**
+     * Returns the byte array which contains the current line.
+     * This is only available in byte mode.
+     * @return the byte array, the contents start from the head
+     */
+    public byte[] getBytes() {
+        assert readBytes != null;
+        return lineBytes;
+    }
+
+    /**
+     * Returns the number of bytes in the current line.
+     * This is only available in byte mode.
+     * @return the byte length
+     */
+    public int getLength() {
+        assert readBytes != null;
+        return lineLength;
+    }
+
     @Override
     public void close() throws IOException {
         currentLineNumber = -1;
-        reader.close();
+        if (readBytes != null) {
+            input.close();
+        } else {
+            reader.close();
+        }
     }
 
     private enum State {
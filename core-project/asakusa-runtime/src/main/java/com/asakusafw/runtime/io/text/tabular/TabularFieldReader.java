@@ -16,7 +16,10 @@
 package com.asakusafw.runtime.io.text.tabular;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
 import java.util.function.UnaryOperator;
 
@@ -25,6 +28,7 @@ import com.asakusafw.runtime.io.text.FieldReader;
 /**
  * A {@link FieldReader} for tabular-style text contents.
  * @since 0.9.1
+ * @version 0.9.2
  */
 public class TabularFieldReader implements FieldReader {
 
@@ -32,6 +36,8 @@ public class TabularFieldReader implements FieldReader {
 
     private static final int ABSENT = -2;
 
+    private static final int ASCII_LIMIT = 0x80;
+
     private final LineCursor lineCursor;
 
     private final char fieldSeparator;
@@ -48,6 +54,28 @@ public class TabularFieldReader implements FieldReader {
 
     private final StringBuilder fieldBuffer = new StringBuilder();
 
+    private final boolean byteMode;
+
+    private byte[] currentBytes;
+
+    private int currentLength;
+
+    private byte[] fieldBytes;
+
+    private int fieldLength;
+
+    private boolean fieldCopied;
+
+    private int runStart;
+
+    private int runEnd;
+
+    private int scanIndex;
+
+    private String decodedContent;
+
+    private boolean skipping;
+
     private int nextReadIndex = -1;
 
     private long currentRecordIndex = -1;
@@ -68,7 +96,34 @@ public class TabularFieldReader implements FieldReader {
             char fieldSeparator,
             EscapeSequence escapeSequences,
             UnaryOperator<CharSequence> transformer) {
-        this.lineCursor = buildLineCursor(reader, escapeSequences);
+        this(buildLineCursor(reader, escapeSequences), fieldSeparator, escapeSequences, transformer);
+    }
+
+    /**
+     * Creates a new instance which directly scans the given UTF-8 (or US-ASCII) encoded input.
+     * The field separator and characters in escape sequences must be ASCII characters.
+     * @param input the source input
+     * @param fieldSeparator the field separator character
+     * @param escapeSequences the escape sequences definition (nullable)
+     * @throws IllegalArgumentException if the field separator or escape sequences are not supported
+     * @see #isByteInputSupported(char, EscapeSequence)
+     * @since 0.9.2
+     */
+    public TabularFieldReader(
+            InputStream input,
+            char fieldSeparator,
+            EscapeSequence escapeSequences) {
+        this(buildLineCursor(input, fieldSeparator, escapeSequences), fieldSeparator, escapeSequences, null);
+    }
+
+    private TabularFieldReader(
+            LineCursor lineCursor,
+            char fieldSeparator,
+            EscapeSequence escapeSequences,
+            UnaryOperator<CharSequence> transformer) {
+        this.lineCursor = lineCursor;
+        this.byteMode = lineCursor.isByteMode();
+        this.fieldBytes = byteMode ? new byte[256] : null;
         this.fieldSeparator = fieldSeparator;
         this.escapeCharacter = escapeSequences == null ? ABSENT : escapeSequences.getEscapeCharacter();
         this.escapeDecode = escapeSequences == null ? CharMap.EMPTY : CharMap.forward(escapeSequences);
@@ -76,6 +131,40 @@ public class TabularFieldReader implements FieldReader {
         this.transformer = transformer == null ? UnaryOperator.identity() : transformer;
     }
 
+    /**
+     * Returns whether or not the byte oriented reader supports the given settings.
+     * @param fieldSeparator the field separator character
+     * @param escapeSequences the escape sequences definition (nullable)
+     * @return {@code true} if it is supported, otherwise {@code false}
+     * @since 0.9.2
+     */
+    public static boolean isByteInputSupported(char fieldSeparator, EscapeSequence escapeSequences) {
+        if (fieldSeparator >= ASCII_LIMIT) {
+            return false;
+        }
+        if (escapeSequences == null) {
+            return true;
+        }
+        if (escapeSequences.getEscapeCharacter() >= ASCII_LIMIT) {
+            return false;
+        }
+        return escapeSequences.getEntries().stream()
+                .allMatch(e -> e.from < ASCII_LIMIT && (e.to == null || e.to < ASCII_LIMIT));
+    }
+
+    private static LineCursor buildLineCursor(InputStream input, char fieldSeparator, EscapeSequence esc) {
+        if (isByteInputSupported(fieldSeparator, esc) == false) {
+            throw new IllegalArgumentException(String.format(
+                    "byte input requires ASCII field separator and escape sequences: %s", //$NON-NLS-1$
+                    fieldSeparator));
+        }
+        if (esc == null) {
+            return new LineCursor(input, '\0', false, false);
+        }
+        char e = esc.getEscapeCharacter();
+        return new LineCursor(input, e, esc.canEscapeLineSeparator(), esc.canEscape(e));
+    }
+
     private static LineCursor buildLineCursor(Reader reader, EscapeSequence esc) {
         if (esc == null) {
             return new LineCursor(reader, '\0', false, false);
@@ -92,6 +181,13 @@ public class TabularFieldReader implements FieldReader {
         currentLine = null;
         currentFieldIndex = -1;
         while (lineCursor.next()) {
+            if (byteMode) {
+                currentBytes = lineCursor.getBytes();
+                currentLength = lineCursor.getLength();
+                nextReadIndex = 0;
+                currentRecordIndex++;
+                return true;
+            }
             CharSequence s = transformer.apply(lineCursor.getContent());
             if (s == null) {
                 continue;
@@ -107,6 +203,16 @@ public class TabularFieldReader implements FieldReader {
 
     @Override
     public boolean nextField() throws IOException {
+        return advanceField(false);
+    }
+
+    @Override
+    public boolean skipField() throws IOException {
+        return advanceField(true);
+    }
+
+    private boolean advanceField(boolean skip) throws IOException {
+        skipping = skip;
         if (lastState.moreFields == false) {
             nextReadIndex = -1;
             currentFieldIndex = -1;
@@ -115,11 +221,27 @@ public class TabularFieldReader implements FieldReader {
         }
         State state = State.INIT;
         CharSequence line = currentLine;
-        assert line != null;
-        fieldBuffer.setLength(0);
+        byte[] bytes = currentBytes;
+        assert line != null || byteMode;
         int index = nextReadIndex;
+        int limit;
+        if (byteMode) {
+            limit = currentLength;
+            resetBytes(index);
+        } else {
+            limit = line.length();
+            fieldBuffer.setLength(0);
+        }
         do {
-            int c = index == line.length() ? EOF : line.charAt(index++);
+            int c;
+            if (index == limit) {
+                c = EOF;
+            } else if (byteMode) {
+                c = bytes[index++] & 0xff;
+                scanIndex = index;
+            } else {
+                c = line.charAt(index++);
+            }
             switch (state) {
             case INIT:
                 state = doInit(c);
@@ -238,11 +360,57 @@ public class TabularFieldReader implements FieldReader {
     }
 
     private boolean isEmitted() {
+        if (byteMode) {
+            return fieldCopied ? fieldLength != 0 : runEnd != runStart;
+        }
         return fieldBuffer.length() != 0;
     }
 
     private void emit(int c) {
-        fieldBuffer.append((char) c);
+        if (skipping) {
+            return;
+        } else if (byteMode) {
+            emitByte(c);
+        } else {
+            fieldBuffer.append((char) c);
+        }
+    }
+
+    private void resetBytes(int start) {
+        fieldLength = 0;
+        fieldCopied = false;
+        runStart = start;
+        runEnd = start;
+        scanIndex = start;
+        decodedContent = null;
+    }
+
+    private void emitByte(int c) {
+        assert 0 <= c && c < 0x100;
+        if (fieldCopied == false) {
+            // keeps the field as a slice of the current line as long as possible
+            if (runStart == runEnd) {
+                runStart = Math.max(scanIndex - 1, 0);
+                runEnd = runStart;
+            }
+            if (runEnd < currentLength && currentBytes[runEnd] == (byte) c) {
+                runEnd++;
+                return;
+            }
+            fieldCopied = true;
+            fieldLength = 0;
+            for (int i = runStart; i < runEnd; i++) {
+                appendByte(currentBytes[i]);
+            }
+        }
+        appendByte((byte) c);
+    }
+
+    private void appendByte(byte b) {
+        if (fieldLength == fieldBytes.length) {
+            fieldBytes = Arrays.copyOf(fieldBytes, fieldBytes.length * 2);
+        }
+        fieldBytes[fieldLength++] = b;
     }
 
     @Override
@@ -250,6 +418,21 @@ public class TabularFieldReader implements FieldReader {
         switch (lastState) {
         case END_OF_FIELD:
         case END_OF_RECORD:
+            if (skipping) {
+                throw new IllegalStateException(String.format(
+                        "field content was skipped: line-number=%,d, record-index=%,d, field-index=%,d", //$NON-NLS-1$
+                        getRecordLineNumber(),
+                        getRecordIndex(),
+                        getFieldIndex()));
+            }
+            if (byteMode) {
+                if (decodedContent == null) {
+                    decodedContent = new String(
+                            getUtf8ContentBytes(), getUtf8ContentOffset(), getUtf8ContentLength(),
+                            StandardCharsets.UTF_8);
+                }
+                return decodedContent;
+            }
             return fieldBuffer;
         case END_OF_FIELD_WITH_NULL:
         case END_OF_RECORD_WITH_NULL:
@@ -267,6 +450,35 @@ public class TabularFieldReader implements FieldReader {
         }
     }
 
+    @Override
+    public boolean hasUtf8Content() {
+        return byteMode && skipping == false && (lastState == State.END_OF_FIELD || lastState == State.END_OF_RECORD);
+    }
+
+    @Override
+    public byte[] getUtf8ContentBytes() {
+        checkUtf8Content();
+        return fieldCopied ? fieldBytes : currentBytes;
+    }
+
+    @Override
+    public int getUtf8ContentOffset() {
+        checkUtf8Content();
+        return fieldCopied ? 0 : runStart;
+    }
+
+    @Override
+    public int getUtf8ContentLength() {
+        checkUtf8Content();
+        return fieldCopied ? fieldLength : runEnd - runStart;
+    }
+
+    private void checkUtf8Content() {
+        if (hasUtf8Content() == false) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     @Override
     public long getRecordLineNumber() {
         return lineCursor.getLineNumber();
@@ -285,6 +497,7 @@ public class TabularFieldReader implements FieldReader {
     @Override
     public void close() throws IOException {
         currentLine = null;
+        currentBytes = null;
         currentFieldIndex = -1;
         currentRecordIndex = -1;
         lastState = State.AFTER_RECORD;
@@ -33,7 +33,10 @@ import com.asakusafw.runtime.io.text.TextFormat;
 
 /**
  * An implementation of {@link TextFormat} for tabular-style text files.
+ * If the charset is UTF-8 or US-ASCII, and neither input transformer nor non-ASCII separators are specified,
+ * {@link #open(InputStream)} directly scans the input bytes instead of decoding them into characters.
  * @since 0.9.1
+ * @version 0.9.2
  */
 public class TabularTextFormat implements TextFormat {
 
@@ -88,7 +91,17 @@ public class TabularTextFormat implements TextFormat {
 
     @Override
     public TabularFieldReader open(InputStream input) throws IOException {
-        return open(new InputStreamReader(input, charset));
+        UnaryOperator<CharSequence> transformer = inputTransformer.get();
+        if (transformer == null
+                && isAsciiCompatible(charset)
+                && TabularFieldReader.isByteInputSupported(fieldSeparator, escapeSequence)) {
+            return new TabularFieldReader(input, fieldSeparator, escapeSequence);
+        }
+        return open(new InputStreamReader(input, charset), transformer);
+    }
+
+    private static boolean isAsciiCompatible(Charset cs) {
+        return cs.equals(StandardCharsets.UTF_8) || cs.equals(StandardCharsets.US_ASCII);
     }
 
     @Override
@@ -98,10 +111,14 @@ public class TabularTextFormat implements TextFormat {
 
     @Override
     public TabularFieldReader open(Reader input) throws IOException {
+        return open(input, inputTransformer.get());
+    }
+
+    private TabularFieldReader open(Reader input, UnaryOperator<CharSequence> transformer) {
         return new TabularFieldReader(
                 input,
                 fieldSeparator, escapeSequence,
-                inputTransformer.get());
+                transformer);
     }
 
     @Override
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.io.text.value;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link CharSequence} view of ASCII bytes.
+ * @since 0.9.2
+ */
+final class AsciiSequence implements CharSequence {
+
+    private byte[] bytes;
+
+    private int offset;
+
+    private int length;
+
+    static boolean isAscii(byte[] contents, int offset, int length) {
+        for (int i = offset, n = offset + length; i < n; i++) {
+            if (contents[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    AsciiSequence wrap(byte[] contents, int contentsOffset, int contentsLength) {
+        this.bytes = contents;
+        this.offset = contentsOffset;
+        this.length = contentsLength;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException();
+        }
+        return (char) bytes[offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || start > end || end > length) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new String(bytes, offset + start, end - start, StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, offset, length, StandardCharsets.US_ASCII);
+    }
+}
@@ -31,6 +31,7 @@ import com.asakusafw.runtime.value.ValueOption;
  * An abstract implementation of {@link ValueOptionFieldAdapter} for numeric types.
  * @param <T> the property type
  * @since 0.9.1
+ * @version 0.9.2
  */
 public abstract class NumericOptionFieldAdapter<T extends ValueOption<T>> extends ValueOptionFieldAdapter<T> {
 
@@ -42,6 +43,8 @@ public abstract class NumericOptionFieldAdapter<T extends ValueOption<T>> extend
 
     private final FieldPosition fieldPosition = new FieldPosition(0);
 
+    private final AsciiSequence asciiBuffer = new AsciiSequence();
+
     NumericOptionFieldAdapter(String nullFormat, DecimalFormat numberFormat) {
         super(nullFormat);
         this.numberFormat = numberFormat;
@@ -68,6 +71,16 @@ public abstract class NumericOptionFieldAdapter<T extends ValueOption<T>> extend
         }
     }
 
+    @Override
+    protected final boolean doParse(byte[] contents, int offset, int length, T property) {
+        // only plain ASCII numbers are parsed directly, others are parsed via character sequences
+        if (numberFormat != null || AsciiSequence.isAscii(contents, offset, length) == false) {
+            return false;
+        }
+        doParseDefault(asciiBuffer.wrap(contents, offset, length), property);
+        return true;
+    }
+
     @Override
     protected final void doEmit(T property, StringBuilder output) {
         if (numberFormat == null) {
@@ -31,6 +31,7 @@ import com.asakusafw.runtime.value.StringOption;
 /**
  * An implementation of {@link FieldAdapter} which accepts {@link StringOption}.
  * @since 0.9.1
+ * @version 0.9.2
  */
 public final class StringOptionFieldAdapter extends ValueOptionFieldAdapter<StringOption> {
 
@@ -79,6 +80,13 @@ public final class StringOptionFieldAdapter extends ValueOptionFieldAdapter<Stri
         }
     }
 
+    @SuppressWarnings("deprecation")
+    @Override
+    protected boolean doParse(byte[] contents, int offset, int length, StringOption property) {
+        property.modify(contents, offset, length);
+        return true;
+    }
+
     @Override
     protected void doEmit(StringOption property, StringBuilder output) {
         property.appendTo(output);
@@ -15,6 +15,7 @@
  */
 package com.asakusafw.runtime.io.text.value;
 
+import java.nio.charset.StandardCharsets;
 import java.util.function.Supplier;
 
 import com.asakusafw.runtime.io.text.TextUtil;
@@ -27,6 +28,7 @@ import com.asakusafw.runtime.value.ValueOption;
  * An abstract implementation of {@link FieldAdapter} which accepts {@link ValueOption}.
  * @param <T> the value type
  * @since 0.9.1
+ * @version 0.9.2
  */
 public abstract class ValueOptionFieldAdapter<T extends ValueOption<T>> implements FieldAdapter<T> {
 
@@ -37,6 +39,8 @@ public abstract class ValueOptionFieldAdapter<T extends ValueOption<T>> implemen
 
     private String nullFormat;
 
+    private final byte[] nullFormatBytes;
+
     /**
      * Creates a new instance.
      */
@@ -50,6 +54,7 @@ public abstract class ValueOptionFieldAdapter<T extends ValueOption<T>> implemen
      */
     public ValueOptionFieldAdapter(String nullFormat) {
         this.nullFormat = nullFormat;
+        this.nullFormatBytes = nullFormat == null ? null : nullFormat.getBytes(StandardCharsets.UTF_8);
     }
 
     @SuppressWarnings("deprecation")
@@ -71,6 +76,33 @@ public abstract class ValueOptionFieldAdapter<T extends ValueOption<T>> implemen
         }
     }
 
+    @Override
+    public boolean parse(byte[] contents, int offset, int length, T property) {
+        if (isNullFormat(contents, offset, length)) {
+            clear(property);
+            return true;
+        }
+        try {
+            return doParse(contents, offset, length, property);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            throw new MalformedFieldException(
+                    TextUtil.quote(new String(contents, offset, length, StandardCharsets.UTF_8)), e);
+        }
+    }
+
+    private boolean isNullFormat(byte[] contents, int offset, int length) {
+        byte[] nf = nullFormatBytes;
+        if (nf == null || nf.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (nf[i] != contents[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void emit(T property, FieldOutput output) {
         if (property.isNull()) {
@@ -97,6 +129,21 @@ public abstract class ValueOptionFieldAdapter<T extends ValueOption<T>> implemen
      */
     protected abstract void doParse(CharSequence contents, T property);
 
+    /**
+     * Parses the given non-null UTF-8 encoded contents and set the parsed value into property.
+     * This is an optional operation, and returns {@code false} if it is not supported.
+     * @param contents the byte array which contains the contents
+     * @param offset the contents offset in the byte array
+     * @param length the contents length in bytes
+     * @param property the destination property
+     * @return {@code true} if the contents was parsed, otherwise {@code false}
+     * @throws IllegalArgumentException if the contents is malformed for this field
+     * @since 0.9.2
+     */
+    protected boolean doParse(byte[] contents, int offset, int length, T property) {
+        return false;
+    }
+
     /**
      * Emits the given non-null property value into the string builder.
      * @param property the property value, never {@code null} nor represents {@code null}
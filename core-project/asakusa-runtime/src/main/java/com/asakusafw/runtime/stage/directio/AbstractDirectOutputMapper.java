@@ -27,7 +27,7 @@ import com.asakusafw.runtime.model.DataModel;
  * This writes output for {@link DirectOutputReducer}.
  * @param <T> target data type
  * @since 0.2.5
- * @version 0.5.1
+ * @version 0.9.2
  */
 public abstract class AbstractDirectOutputMapper<T extends DataModel<T>> extends MapperWithRuntimeResource<
         Object, T,
@@ -62,4 +62,16 @@ public abstract class AbstractDirectOutputMapper<T extends DataModel<T>> extends
         outputValue.copyFrom(value);
         context.write(outputKey, outputValueUnion);
     }
+
+    /**
+     * Returns the shuffle key for the given value.
+     * The returned object will be reused in the next invocation.
+     * @param value the target value
+     * @return the shuffle key
+     * @since 0.9.2
+     */
+    AbstractDirectOutputKey toShuffleKey(T value) {
+        outputKey.setObject(value);
+        return outputKey;
+    }
 }
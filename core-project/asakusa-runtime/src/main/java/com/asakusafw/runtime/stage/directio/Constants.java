@@ -25,6 +25,15 @@ final class Constants {
     private static final String NAME_PORT_OUTPUT_STATS =
             "com.asakusafw.directio.output.port.Statistics"; //$NON-NLS-1$
 
+    private static final String NAME_OUTPUT_POOL_STATS =
+            "com.asakusafw.directio.output.pool.Statistics"; //$NON-NLS-1$
+
+    private static final String NAME_OPENED_FILES = "opened.files"; //$NON-NLS-1$
+
+    private static final String NAME_ASYNC_CLOSED_FILES = "async.closed.files"; //$NON-NLS-1$
+
+    private static final String NAME_CLOSE_WAIT_MILLIS = "close.wait.millis"; //$NON-NLS-1$
+
     private static final String SUFFIX_FILE_COUNT = ".files"; //$NON-NLS-1$
 
     private static final String SUFFIX_RECORD_COUNT = ".records"; //$NON-NLS-1$
@@ -39,6 +48,14 @@ final class Constants {
         putCounts0(context, NAME_PORT_OUTPUT_STATS, portId, fileCount, recordCount, byteCount);
     }
 
+    static void putPoolCounts(
+            TaskAttemptContext context,
+            long openedCount, long asyncClosedCount, long waitMillis) {
+        context.getCounter(NAME_OUTPUT_POOL_STATS, NAME_OPENED_FILES).increment(openedCount);
+        context.getCounter(NAME_OUTPUT_POOL_STATS, NAME_ASYNC_CLOSED_FILES).increment(asyncClosedCount);
+        context.getCounter(NAME_OUTPUT_POOL_STATS, NAME_CLOSE_WAIT_MILLIS).increment(waitMillis);
+    }
+
     private static void putCounts0(
             TaskAttemptContext context,
             String groupId, String itemId,
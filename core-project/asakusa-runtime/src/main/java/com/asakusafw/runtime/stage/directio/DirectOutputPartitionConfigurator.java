@@ -0,0 +1,163 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.stage.directio;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.hadoop.util.ReflectionUtils;
+
+import com.asakusafw.runtime.io.util.ShuffleKey;
+import com.asakusafw.runtime.model.DataModel;
+import com.asakusafw.runtime.stage.StageConfigurator;
+import com.asakusafw.runtime.stage.input.StageInputFormat;
+import com.asakusafw.runtime.stage.input.StageInputRecordReader;
+import com.asakusafw.runtime.stage.input.StageInputSplit;
+
+/**
+ * Configures {@link DirectOutputRangePartitioner} for Direct I/O output stages with reducers.
+ * This samples the stage inputs on the client side, as like {@code TotalOrderPartitioner} of Hadoop.
+ * @since 0.9.2
+ */
+public class DirectOutputPartitionConfigurator extends StageConfigurator {
+
+    static final Log LOG = LogFactory.getLog(DirectOutputPartitionConfigurator.class);
+
+    /**
+     * The configuration key of whether the range partitioning is enabled or not.
+     */
+    public static final String KEY_ENABLED = "com.asakusafw.directio.output.range.enabled"; //$NON-NLS-1$
+
+    /**
+     * The configuration key of the max number of sampled records.
+     */
+    public static final String KEY_SAMPLE_RECORDS = "com.asakusafw.directio.output.range.records"; //$NON-NLS-1$
+
+    /**
+     * The configuration key of the max number of sampled input splits.
+     */
+    public static final String KEY_SAMPLE_SPLITS = "com.asakusafw.directio.output.range.splits"; //$NON-NLS-1$
+
+    /**
+     * The default configuration value of {@link #KEY_ENABLED}.
+     */
+    public static final boolean DEFAULT_ENABLED = false;
+
+    /**
+     * The default configuration value of {@link #KEY_SAMPLE_RECORDS}.
+     */
+    public static final int DEFAULT_SAMPLE_RECORDS = 10000;
+
+    /**
+     * The default configuration value of {@link #KEY_SAMPLE_SPLITS}.
+     */
+    public static final int DEFAULT_SAMPLE_SPLITS = 10;
+
+    @Override
+    public void configure(Job job) throws IOException, InterruptedException {
+        Configuration conf = job.getConfiguration();
+        if (conf.getBoolean(KEY_ENABLED, DEFAULT_ENABLED) == false) {
+            return;
+        }
+        int partitions = job.getNumReduceTasks();
+        if (partitions <= 1 || isTarget(job) == false) {
+            return;
+        }
+        Class<? extends AbstractDirectOutputKey> keyClass =
+                job.getMapOutputKeyClass().asSubclass(AbstractDirectOutputKey.class);
+        AbstractDirectOutputKey prototype = ReflectionUtils.newInstance(keyClass, conf);
+        List<byte[]> samples = sample(job,
+                Math.max(1, conf.getInt(KEY_SAMPLE_RECORDS, DEFAULT_SAMPLE_RECORDS)),
+                Math.max(1, conf.getInt(KEY_SAMPLE_SPLITS, DEFAULT_SAMPLE_SPLITS)));
+        if (samples.isEmpty()) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(MessageFormat.format(
+                        "Direct I/O range partitioning is disabled for empty inputs: {0}", //$NON-NLS-1$
+                        job.getJobName()));
+            }
+            return;
+        }
+        Collections.sort(samples, DirectOutputRangePartitioner.getComparator(prototype));
+        List<byte[]> points = DirectOutputRangePartitioner.selectSplitPoints(samples, partitions);
+        DirectOutputRangePartitioner.putSplitPoints(conf, points);
+        job.setPartitionerClass(DirectOutputRangePartitioner.class);
+        LOG.info(MessageFormat.format(
+                "Direct I/O range partitioning is enabled ({0}): partitions={1}, samples={2}",
+                job.getJobName(),
+                partitions,
+                samples.size()));
+    }
+
+    private static boolean isTarget(Job job) {
+        try {
+            return job.getReducerClass() == DirectOutputReducer.class
+                    && job.getPartitionerClass() == ShuffleKey.Partitioner.class
+                    && AbstractDirectOutputKey.class.isAssignableFrom(job.getMapOutputKeyClass());
+        } catch (ClassNotFoundException e) {
+            LOG.debug("failed to resolve job classes", e); //$NON-NLS-1$
+            return false;
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static List<byte[]> sample(Job job, int maxRecords, int maxSplits)
+            throws IOException, InterruptedException {
+        Configuration conf = job.getConfiguration();
+        List<InputSplit> splits = new StageInputFormat().getSplits(job);
+        if (splits.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int count = Math.min(maxSplits, splits.size());
+        int quota = Math.max(1, maxRecords / count);
+        TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+        DataOutputBuffer buffer = new DataOutputBuffer();
+        List<byte[]> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // picks splits evenly from the whole inputs
+            StageInputSplit split = (StageInputSplit) splits.get((int) ((long) i * splits.size() / count));
+            Mapper<?, ?, ?, ?> mapper = ReflectionUtils.newInstance(split.getMapperClass(), conf);
+            if ((mapper instanceof AbstractDirectOutputMapper<?>) == false) {
+                continue;
+            }
+            AbstractDirectOutputMapper target = (AbstractDirectOutputMapper) mapper;
+            try (StageInputRecordReader reader = new StageInputRecordReader()) {
+                reader.initialize(split, context);
+                for (int n = 0; n < quota && reader.nextKeyValue(); n++) {
+                    AbstractDirectOutputKey key = target.toShuffleKey((DataModel) reader.getCurrentValue());
+                    buffer.reset();
+                    key.write(buffer);
+                    byte[] bytes = new byte[buffer.getLength()];
+                    System.arraycopy(buffer.getData(), 0, bytes, 0, bytes.length);
+                    results.add(bytes);
+                }
+            }
+        }
+        return results;
+    }
+}
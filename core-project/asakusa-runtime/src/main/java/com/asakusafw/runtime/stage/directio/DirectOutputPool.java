@@ -0,0 +1,187 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.stage.directio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.asakusafw.runtime.io.ModelOutput;
+
+/**
+ * Closes {@link ModelOutput}s on background threads.
+ * Callbacks for closed outputs are always invoked on the owner thread, in the order of their release.
+ * @since 0.9.2
+ */
+final class DirectOutputPool implements Closeable {
+
+    static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final ThreadFactory DAEMON_THREAD_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            t.setName(String.format("DirectIO-CLOSE-%d", THREAD_COUNTER.incrementAndGet())); //$NON-NLS-1$
+            return t;
+        }
+    };
+
+    private final int threads;
+
+    private final Deque<Entry> running = new ArrayDeque<>();
+
+    private ExecutorService executor;
+
+    private long releaseCount;
+
+    private long asyncCount;
+
+    private long waitNanos;
+
+    /**
+     * Creates a new instance.
+     * @param threads the number of background threads, or {@code 0} to close outputs on the owner thread
+     */
+    DirectOutputPool(int threads) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("threads must not be negative"); //$NON-NLS-1$
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Releases the given output.
+     * This may block while the number of outputs being closed reaches the number of threads.
+     * @param output the target output
+     * @param callback the callback which will be invoked after the output was closed
+     * @throws IOException if failed to close this or the previously released outputs
+     */
+    void release(ModelOutput<?> output, Runnable callback) throws IOException {
+        releaseCount++;
+        if (threads == 0) {
+            output.close();
+            callback.run();
+            return;
+        }
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(threads, DAEMON_THREAD_FACTORY);
+        }
+        drain(false);
+        long start = System.nanoTime();
+        while (running.size() >= threads) {
+            running.removeFirst().await();
+        }
+        waitNanos += System.nanoTime() - start;
+        asyncCount++;
+        running.addLast(new Entry(executor.submit(() -> {
+            output.close();
+            return null;
+        }), callback));
+    }
+
+    /**
+     * Waits for all released outputs are closed.
+     * @throws IOException if failed to close the released outputs
+     */
+    void flush() throws IOException {
+        long start = System.nanoTime();
+        drain(true);
+        waitNanos += System.nanoTime() - start;
+    }
+
+    private void drain(boolean all) throws IOException {
+        while (running.isEmpty() == false && (all || running.peekFirst().future.isDone())) {
+            running.removeFirst().await();
+        }
+    }
+
+    /**
+     * Returns the number of released outputs.
+     * @return the number of released outputs
+     */
+    long getReleaseCount() {
+        return releaseCount;
+    }
+
+    /**
+     * Returns the number of outputs which were closed on the background threads.
+     * @return the number of asynchronously closed outputs
+     */
+    long getAsyncCount() {
+        return asyncCount;
+    }
+
+    /**
+     * Returns the total time the owner thread was blocked for closing outputs.
+     * @return the elapsed time in milliseconds
+     */
+    long getWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        final Future<?> future;
+
+        final Runnable callback;
+
+        Entry(Future<?> future, Runnable callback) {
+            this.future = future;
+            this.callback = callback;
+        }
+
+        void await() throws IOException {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                throw (IOException) new InterruptedIOException().initCause(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IOException(cause);
+            }
+            callback.run();
+        }
+    }
+}
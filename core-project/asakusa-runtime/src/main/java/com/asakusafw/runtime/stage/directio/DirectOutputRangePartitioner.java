@@ -0,0 +1,283 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.stage.directio;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.hadoop.mapreduce.MRJobConfig;
+import org.apache.hadoop.mapreduce.Partitioner;
+import org.apache.hadoop.util.ReflectionUtils;
+
+import com.asakusafw.runtime.io.util.ShuffleKey;
+
+/**
+ * Partitions {@link AbstractDirectOutputKey} by ranges of the whole shuffle key, including its ordering.
+ * Unlike the default {@link ShuffleKey.Partitioner}, this can split a single output group into
+ * multiple reducers, and then each reducer writes a numbered part file for the group
+ * (see {@link #getPartPath(String, int)}). Output groups which are never split
+ * (see {@link #isSplitGroup(AbstractDirectOutputKey, int)}) keep their original resource paths.
+ * The split points are computed by {@link DirectOutputPartitionConfigurator} from sampled input records.
+ * @since 0.9.2
+ */
+public class DirectOutputRangePartitioner
+        extends Partitioner<AbstractDirectOutputKey, Object>
+        implements Configurable {
+
+    static final Log LOG = LogFactory.getLog(DirectOutputRangePartitioner.class);
+
+    /**
+     * The configuration key of the encoded split points.
+     */
+    static final String KEY_SPLIT_POINTS = "com.asakusafw.directio.output.range.points"; //$NON-NLS-1$
+
+    private final ShuffleKey.Partitioner fallback = new ShuffleKey.Partitioner();
+
+    private Configuration conf;
+
+    private final DataOutputBuffer buffer = new DataOutputBuffer();
+
+    private AbstractDirectOutputKey prototype;
+
+    private byte[][] splitPoints;
+
+    private boolean warned;
+
+    @Override
+    public void setConf(Configuration config) {
+        this.conf = config;
+        this.prototype = null;
+        this.splitPoints = null;
+        if (config == null) {
+            return;
+        }
+        List<byte[]> points = getSplitPoints(config);
+        if (points == null) {
+            return;
+        }
+        Class<? extends AbstractDirectOutputKey> keyClass = config.getClass(
+                MRJobConfig.MAP_OUTPUT_KEY_CLASS, null,
+                AbstractDirectOutputKey.class);
+        if (keyClass == null) {
+            throw new IllegalStateException(MessageFormat.format(
+                    "shuffle key class is not defined: {0}",
+                    MRJobConfig.MAP_OUTPUT_KEY_CLASS));
+        }
+        this.prototype = ReflectionUtils.newInstance(keyClass, config);
+        this.splitPoints = points.toArray(new byte[points.size()][]);
+    }
+
+    @Override
+    public Configuration getConf() {
+        return conf;
+    }
+
+    @Override
+    public int getPartition(AbstractDirectOutputKey key, Object value, int numPartitions) {
+        byte[][] points = splitPoints;
+        if (points == null || points.length + 1 != numPartitions) {
+            if (warned == false) {
+                warned = true;
+                LOG.warn(MessageFormat.format(
+                        "range partitioning is not available, falling back to hash partitioning "
+                        + "(split points={0}, partitions={1})",
+                        points == null ? -1 : points.length,
+                        numPartitions));
+            }
+            return fallback.getPartition(key, value, numPartitions);
+        }
+        // compares in bytes as same as the sort comparator
+        byte[] bytes = serialize(key);
+        // the number of split points which are less than or equal to the key
+        int low = 0;
+        int high = points.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(points[mid], bytes) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns whether or not the output group of the given key may be split into multiple partitions.
+     * An output group can be split only if it contains one of the split points.
+     * @param key the shuffle key
+     * @param numPartitions the number of partitions
+     * @return {@code true} if the output group may be split, otherwise {@code false}
+     */
+    public boolean isSplitGroup(AbstractDirectOutputKey key, int numPartitions) {
+        byte[][] points = splitPoints;
+        if (points == null || points.length + 1 != numPartitions) {
+            return false;
+        }
+        byte[] bytes = serialize(key);
+        int low = 0;
+        int high = points.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int diff = compareGroup(points[mid], bytes);
+            if (diff < 0) {
+                low = mid + 1;
+            } else if (diff > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private byte[] serialize(AbstractDirectOutputKey key) {
+        try {
+            buffer.reset();
+            key.write(buffer);
+            return buffer.getData();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int compareGroup(byte[] a, byte[] b) {
+        try {
+            return prototype.getGroupObject().compareInBytes(a, 0, b, 0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int compare(byte[] a, byte[] b) {
+        try {
+            return prototype.compareInBytes(a, 0, b, 0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns whether or not the range partitioning is enabled in the given configuration.
+     * @param config the current configuration
+     * @return {@code true} if it is enabled, otherwise {@code false}
+     */
+    public static boolean isEnabled(Configuration config) {
+        return config.get(KEY_SPLIT_POINTS) != null;
+    }
+
+    /**
+     * Returns the part file path for the given resource path.
+     * This inserts the partition number just before the file extension, like {@code "data-00001.csv"}.
+     * Part files in the same output group are ordered by their partition number.
+     * @param resourcePath the original resource path
+     * @param partition the partition number
+     * @return the part file path
+     */
+    public static String getPartPath(String resourcePath, int partition) {
+        String suffix = String.format("-%05d", partition); //$NON-NLS-1$
+        int start = resourcePath.lastIndexOf('/') + 1;
+        int dot = resourcePath.lastIndexOf('.');
+        if (dot <= start) {
+            return resourcePath + suffix;
+        }
+        return resourcePath.substring(0, dot) + suffix + resourcePath.substring(dot);
+    }
+
+    /**
+     * Selects the split points from the sorted samples.
+     * @param samples the sorted samples
+     * @param partitions the number of partitions
+     * @return the selected split points, which has {@code partitions - 1} elements
+     */
+    static List<byte[]> selectSplitPoints(List<byte[]> samples, int partitions) {
+        assert samples.isEmpty() == false;
+        assert partitions >= 1;
+        List<byte[]> results = new ArrayList<>();
+        int size = samples.size();
+        for (int i = 1; i < partitions; i++) {
+            int index = (int) Math.min(size - 1, (long) i * size / partitions);
+            results.add(samples.get(index));
+        }
+        return results;
+    }
+
+    /**
+     * Returns a comparator for serialized shuffle keys.
+     * @param prototype the shuffle key object
+     * @return the comparator
+     */
+    static Comparator<byte[]> getComparator(AbstractDirectOutputKey prototype) {
+        return (a, b) -> {
+            try {
+                return prototype.compareInBytes(a, 0, b, 0);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    static void putSplitPoints(Configuration config, List<byte[]> points) {
+        DataOutputBuffer buffer = new DataOutputBuffer();
+        try {
+            WritableUtils.writeVInt(buffer, points.size());
+            for (byte[] point : points) {
+                WritableUtils.writeVInt(buffer, point.length);
+                buffer.write(point);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] bytes = new byte[buffer.getLength()];
+        System.arraycopy(buffer.getData(), 0, bytes, 0, bytes.length);
+        config.set(KEY_SPLIT_POINTS, Base64.encodeBase64String(bytes));
+    }
+
+    static List<byte[]> getSplitPoints(Configuration config) {
+        String encoded = config.get(KEY_SPLIT_POINTS);
+        if (encoded == null) {
+            return null;
+        }
+        byte[] bytes = Base64.decodeBase64(encoded);
+        DataInputBuffer buffer = new DataInputBuffer();
+        buffer.reset(bytes, bytes.length);
+        try {
+            int count = WritableUtils.readVInt(buffer);
+            List<byte[]> results = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] point = new byte[WritableUtils.readVInt(buffer)];
+                buffer.readFully(point);
+                results.add(point);
+            }
+            return results;
+        } catch (IOException e) {
+            throw new IllegalStateException(MessageFormat.format(
+                    "invalid split points: {0}",
+                    KEY_SPLIT_POINTS), e);
+        }
+    }
+}
@@ -16,9 +16,14 @@
 package com.asakusafw.runtime.stage.directio;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.hadoop.conf.Configurable;
 import org.apache.hadoop.mapreduce.TaskCounter;
+import org.apache.hadoop.util.ReflectionUtils;
 
 import com.asakusafw.runtime.directio.Counter;
 import com.asakusafw.runtime.directio.DataDefinition;
@@ -37,18 +42,41 @@ import com.asakusafw.runtime.util.VariableTable;
 /**
  * Reducer for direct output.
  * @since 0.2.5
- * @version 0.8.1
+ * @version 0.9.2
  */
 public final class DirectOutputReducer extends ReducerWithRuntimeResource<
         AbstractDirectOutputKey, AbstractDirectOutputValue,
         Object, Object> {
 
+    /**
+     * The configuration key of the number of threads for closing outputs in background.
+     * If this is {@code 0}, each output will be closed before starting the next output group.
+     * @since 0.9.2
+     */
+    public static final String KEY_CLOSE_THREADS = "com.asakusafw.directio.output.close.threads"; //$NON-NLS-1$
+
+    /**
+     * The default value of {@link #KEY_CLOSE_THREADS}.
+     * @since 0.9.2
+     */
+    public static final int DEFAULT_CLOSE_THREADS = 1;
+
     private org.apache.hadoop.mapreduce.Counter recordCounter;
 
     private DirectDataSourceRepository repository;
 
     private VariableTable variables;
 
+    private final Map<List<String>, PortResource> resources = new HashMap<>();
+
+    private DirectOutputPool pool;
+
+    private DirectOutputRangePartitioner partitioner;
+
+    private int partition;
+
+    private int partitions;
+
     @Override
     protected void setup(Context context) throws IOException, InterruptedException {
         this.recordCounter = context.getCounter(TaskCounter.REDUCE_OUTPUT_RECORDS);
@@ -56,6 +84,16 @@ public final class DirectOutputReducer extends ReducerWithRuntimeResource<
         String arguments = context.getConfiguration().get(StageConstants.PROP_ASAKUSA_BATCH_ARGS, ""); //$NON-NLS-1$
         this.variables = new VariableTable(VariableTable.RedefineStrategy.IGNORE);
         variables.defineVariables(arguments);
+        if (DirectOutputRangePartitioner.isEnabled(context.getConfiguration())) {
+            // output groups may be split into multiple reducers
+            this.partitioner = ReflectionUtils.newInstance(
+                    DirectOutputRangePartitioner.class, context.getConfiguration());
+            this.partition = context.getTaskAttemptID().getTaskID().getId();
+            this.partitions = context.getNumReduceTasks();
+        } else {
+            this.partitioner = null;
+        }
+        this.pool = new DirectOutputPool(context.getConfiguration().getInt(KEY_CLOSE_THREADS, DEFAULT_CLOSE_THREADS));
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
@@ -65,28 +103,70 @@ public final class DirectOutputReducer extends ReducerWithRuntimeResource<
             Iterable<AbstractDirectOutputValue> values,
             Context context) throws IOException , InterruptedException {
         DirectOutputGroup group = (DirectOutputGroup) key.getGroupObject().getObject();
-        String portId = group.getOutputId();
-        String path = variables.parse(group.getPath(), false);
-        String sourceId = repository.getRelatedId(path);
-        OutputAttemptContext outputContext = BridgeOutputFormat.createContext(context, sourceId);
-        DataDefinition definition = SimpleDataDefinition.newInstance(
-                group.getDataType(),
-                configure(context, group.getFormat()));
-        DirectDataSource datasource = repository.getRelatedDataSource(path);
-        String basePath = repository.getComponentPath(path);
+        PortResource port = getPortResource(context, group);
         String resourcePath = variables.parse(group.getResourcePath());
+        if (partitioner != null && partitioner.isSplitGroup(key, partitions)) {
+            resourcePath = DirectOutputRangePartitioner.getPartPath(resourcePath, partition);
+        }
 
         Counter counter = new Counter();
         long records = 0;
-        try (ModelOutput output = datasource.openOutput(outputContext, definition, basePath, resourcePath, counter)) {
+        ModelOutput output = port.datasource.openOutput(
+                port.outputContext, port.definition, port.basePath, resourcePath, counter);
+        try {
             for (Union union : values) {
                 Object object = union.getObject();
                 output.write(object);
                 records++;
             }
+        } catch (Throwable t) {
+            try {
+                output.close();
+            } catch (Throwable e) {
+                t.addSuppressed(e);
+            }
+            throw t;
+        }
+        long total = records;
+        pool.release(output, () -> {
+            recordCounter.increment(total);
+            Constants.putCounts(context, port.sourceId, port.portId, 1, total, counter.get());
+        });
+    }
+
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+        if (pool != null) {
+            try {
+                pool.close();
+            } finally {
+                Constants.putPoolCounts(context, pool.getReleaseCount(), pool.getAsyncCount(), pool.getWaitMillis());
+                pool = null;
+            }
+        }
+        resources.clear();
+    }
+
+    private PortResource getPortResource(
+            Context context, DirectOutputGroup group) throws IOException, InterruptedException {
+        String portId = group.getOutputId();
+        String path = variables.parse(group.getPath(), false);
+        List<String> key = Arrays.asList(portId, path);
+        PortResource cached = resources.get(key);
+        if (cached != null) {
+            return cached;
         }
-        recordCounter.increment(records);
-        Constants.putCounts(context, sourceId, portId, 1, records, counter.get());
+        String sourceId = repository.getRelatedId(path);
+        OutputAttemptContext outputContext = BridgeOutputFormat.createContext(context, sourceId);
+        DataDefinition<?> definition = SimpleDataDefinition.newInstance(
+                group.getDataType(),
+                configure(context, group.getFormat()));
+        DirectDataSource datasource = repository.getRelatedDataSource(path);
+        String basePath = repository.getComponentPath(path);
+        PortResource result = new PortResource(
+                portId, sourceId, outputContext, definition, datasource, basePath);
+        resources.put(key, result);
+        return result;
     }
 
     private <T> T configure(Context context, T object) {
@@ -95,4 +175,34 @@ public final class DirectOutputReducer extends ReducerWithRuntimeResource<
         }
         return object;
     }
+
+    /**
+     * Resolved resources for each output port and its base path.
+     */
+    private static final class PortResource {
+
+        final String portId;
+
+        final String sourceId;
+
+        final OutputAttemptContext outputContext;
+
+        final DataDefinition<?> definition;
+
+        final DirectDataSource datasource;
+
+        final String basePath;
+
+        PortResource(
+                String portId, String sourceId,
+                OutputAttemptContext outputContext, DataDefinition<?> definition,
+                DirectDataSource datasource, String basePath) {
+            this.portId = portId;
+            this.sourceId = sourceId;
+            this.outputContext = outputContext;
+            this.definition = definition;
+            this.datasource = datasource;
+            this.basePath = basePath;
+        }
+    }
 }
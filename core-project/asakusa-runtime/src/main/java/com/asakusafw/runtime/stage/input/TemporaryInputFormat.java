@@ -46,6 +46,7 @@ import com.asakusafw.runtime.directio.hadoop.BlockMap;
 import com.asakusafw.runtime.stage.StageInput;
 import com.asakusafw.runtime.stage.temporary.TemporaryFile;
 import com.asakusafw.runtime.stage.temporary.TemporaryFileInput;
+import com.asakusafw.runtime.stage.temporary.TemporaryStorage;
 
 /**
  * A temporary input format.
@@ -264,7 +265,7 @@ public final class TemporaryInputFormat<T> extends InputFormat<NullWritable, T>
                     assert s.getStart() % TemporaryFile.BLOCK_SIZE == 0;
                     stream.seek(s.getStart());
                 }
-                this.input = (TemporaryFileInput<T>) new TemporaryFileInput<>(stream, blocks);
+                this.input = TemporaryStorage.openFileInput(context.getConfiguration(), stream, blocks);
                 Class<?> aClass = context.getConfiguration().getClassByName(input.getDataTypeName());
                 this.value = (T) ReflectionUtils.newInstance(aClass, context.getConfiguration());
                 succeed = true;
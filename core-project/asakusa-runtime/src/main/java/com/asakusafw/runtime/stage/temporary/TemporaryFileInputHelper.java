@@ -18,8 +18,11 @@ package com.asakusafw.runtime.stage.temporary;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.LinkedList;
-import java.util.concurrent.Callable;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -50,13 +53,22 @@ final class TemporaryFileInputHelper implements Closeable {
         }
     };
 
-    private final InputStream input;
+    private final PageReader reader;
 
-    private final ExecutorService executor = Executors.newFixedThreadPool(1, DAEMON_THREAD_FACTORY);
+    private final int readAhead;
+
+    // reads raw pages sequentially
+    private final ExecutorService readerExecutor = Executors.newFixedThreadPool(1, DAEMON_THREAD_FACTORY);
+
+    // decompresses raw pages, may be out of order
+    private final ExecutorService decoderExecutor;
 
     private final LinkedList<DataBuffer> available = new LinkedList<>();
 
-    private Future<Result> running;
+    // running tasks in order of pages
+    private final LinkedList<Future<Result>> running = new LinkedList<>();
+
+    private final Queue<byte[]> rawBuffers = new ConcurrentLinkedQueue<>();
 
     private int positionInBlock;
 
@@ -67,13 +79,21 @@ final class TemporaryFileInputHelper implements Closeable {
     private boolean sawEof;
 
     TemporaryFileInputHelper(InputStream input, int blocks) {
-        this.input = input;
-        this.blockRest = Math.max(blocks - 1, -1);
+        this(input, blocks, 1, 1);
+    }
+
+    TemporaryFileInputHelper(InputStream input, int blocks, int readAhead, int threads) {
+        this.reader = new PageReader(input, blocks);
+        this.blockRest = reader.blockRest;
+        this.readAhead = Math.max(readAhead, 1);
+        this.decoderExecutor = Executors.newFixedThreadPool(Math.max(threads, 1), DAEMON_THREAD_FACTORY);
     }
 
     public void initialize() {
-        releaseBuffer(new DataBuffer());
-        releaseBuffer(new DataBuffer());
+        // +1 for the buffer which is being consumed
+        for (int i = 0; i <= readAhead; i++) {
+            releaseBuffer(new DataBuffer());
+        }
     }
 
     public synchronized void releaseBuffer(DataBuffer buffer) {
@@ -87,15 +107,17 @@ final class TemporaryFileInputHelper implements Closeable {
         }
         // if no any tasks were running, first we submit a new task for reading the next contents
         submitIfAvailable();
-        if (running == null) {
+        if (running.isEmpty()) {
             throw new IllegalStateException();
         }
-        assert running != null;
         Result result;
         try {
-            result = running.get();
+            result = running.removeFirst().get();
         } catch (ExecutionException e) {
             Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                cause = cause.getCause();
+            }
             if (cause instanceof IOException) {
                 throw new IOException("Exception occurred while reading contents", cause);
             } else if (cause instanceof InterruptedException) {
@@ -106,33 +128,64 @@ final class TemporaryFileInputHelper implements Closeable {
                 throw (Error) cause;
             }
             throw new IllegalStateException(cause);
-        } finally {
-            running = null;
         }
         this.sawEof = result.sawEof;
         this.positionInBlock = result.positionInBlock;
         this.currentBlock = result.currentBlock;
         this.blockRest = result.blockRest;
 
-        // submit a task for reading the successive page (only if available)
+        // submit tasks for reading the successive pages (only if available)
         submitIfAvailable();
         return result;
     }
 
     private void submitIfAvailable() {
-        if (sawEof || running != null || available.isEmpty()) {
-            return;
+        while (sawEof == false && running.size() < readAhead && available.isEmpty() == false) {
+            // acquires an available buffer for reading next page, and submit the task
+            DataBuffer buffer = available.removeFirst();
+            buffer.reset(0, 0);
+            Future<Result> future = CompletableFuture
+                    .supplyAsync(() -> readPage(), readerExecutor)
+                    .thenApplyAsync(page -> decode(page, buffer), decoderExecutor);
+            running.addLast(future);
+        }
+    }
+
+    private RawPage readPage() {
+        try {
+            return reader.next(rawBuffers);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Result decode(RawPage page, DataBuffer buffer) {
+        if (page.sawEof == false) {
+            try {
+                int rawLength = Snappy.uncompressedLength(page.contents, 0, page.length);
+                byte[] data = buffer.getData();
+                if (data.length < rawLength) {
+                    data = new byte[(int) (rawLength * 1.2)];
+                }
+                Snappy.uncompress(page.contents, 0, page.length, data, 0);
+                buffer.reset(data, 0, rawLength);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                rawBuffers.offer(page.contents);
+            }
         }
-        // acquires an available buffer for reading next page, and submit the task
-        DataBuffer buffer = available.removeFirst();
-        Task task = new Task(input, buffer, positionInBlock, currentBlock, blockRest);
-        running = executor.submit(task);
+        return new Result(
+                buffer,
+                page.positionInBlock, page.currentBlock, page.blockRest,
+                page.dataTypeName, page.sawEof);
     }
 
     @Override
     public synchronized void close() throws IOException {
-        executor.shutdownNow();
-        input.close();
+        readerExecutor.shutdownNow();
+        decoderExecutor.shutdownNow();
+        reader.input.close();
     }
 
     static final class Result {
@@ -163,58 +216,108 @@ final class TemporaryFileInputHelper implements Closeable {
         }
     }
 
-    static final class Task implements Callable<Result> {
+    static final class RawPage {
+
+        static final byte[] EMPTY = new byte[0];
+
+        final byte[] contents;
+
+        final int length;
+
+        final int positionInBlock;
+
+        final int currentBlock;
+
+        final int blockRest;
+
+        final String dataTypeName;
 
-        private final InputStream input;
+        final boolean sawEof;
 
-        private final DataBuffer buffer;
+        RawPage(
+                byte[] contents, int length,
+                int positionInBlock, int currentBlock, int blockRest,
+                String dataTypeName, boolean sawEof) {
+            this.contents = contents;
+            this.length = length;
+            this.positionInBlock = positionInBlock;
+            this.currentBlock = currentBlock;
+            this.blockRest = blockRest;
+            this.dataTypeName = dataTypeName;
+            this.sawEof = sawEof;
+        }
+    }
+
+    /**
+     * Reads raw pages sequentially.
+     * This is not thread-safe, and must be accessed from only one thread at a time.
+     */
+    static final class PageReader {
+
+        final InputStream input;
 
         private int positionInBlock;
 
         private int currentBlock;
 
-        private int blockRest;
+        int blockRest;
 
         private String dataTypeName;
 
-        Task(InputStream input, DataBuffer buffer, int positionInBlock, int currentBlock, int blockRest) {
+        private boolean sawEof;
+
+        PageReader(InputStream input, int blocks) {
             this.input = input;
-            this.buffer = buffer;
-            this.positionInBlock = positionInBlock;
-            this.currentBlock = currentBlock;
-            this.blockRest = blockRest;
-            buffer.reset(0, 0);
+            this.blockRest = Math.max(blocks - 1, -1);
         }
 
-        @Override
-        public Result call() throws IOException {
-            boolean read = readPage();
-            return new Result(buffer, positionInBlock, currentBlock, blockRest, dataTypeName, read == false);
+        RawPage next(Queue<byte[]> rawBuffers) throws IOException {
+            if (sawEof == false) {
+                dataTypeName = null;
+                int length = readPage();
+                if (length >= 0) {
+                    byte[] contents = rawBuffers.poll();
+                    if (contents == null || contents.length < length) {
+                        contents = new byte[(int) (length * 1.2)];
+                    }
+                    IOUtils.readFully(input, contents, 0, length);
+                    positionInBlock += length;
+                    return new RawPage(
+                            contents, length,
+                            positionInBlock, currentBlock, blockRest,
+                            dataTypeName, false);
+                }
+                sawEof = true;
+            }
+            return new RawPage(
+                    RawPage.EMPTY, 0,
+                    positionInBlock, currentBlock, blockRest,
+                    dataTypeName, true);
         }
 
-        private boolean readPage() throws IOException {
+        private int readPage() throws IOException {
             if (positionInBlock == 0) {
                 StringBuilder buf = new StringBuilder();
                 int headSize = TemporaryFile.readBlockHeader(input);
                 if (headSize < 0) {
-                    return false;
+                    return -1;
                 }
                 positionInBlock += headSize;
                 int size = TemporaryFile.readString(input, buf);
                 if (size < 0) {
-                    return false;
+                    return -1;
                 }
                 positionInBlock += size;
                 this.dataTypeName = buf.toString();
             }
             int value = TemporaryFile.readPageHeader(input);
             if (value == TemporaryFile.PAGE_HEADER_EOF) {
-                return false;
+                return -1;
             }
             positionInBlock += TemporaryFile.PAGE_HEADER_SIZE;
             if (value == TemporaryFile.PAGE_HEADER_EOB) {
                 if (blockRest == 0) {
-                    return false;
+                    return -1;
                 }
                 IOUtils.skipFully(input, TemporaryFile.BLOCK_SIZE - positionInBlock);
                 positionInBlock = 0;
@@ -224,26 +327,7 @@ final class TemporaryFileInputHelper implements Closeable {
                 }
                 return readPage();
             }
-            byte[] b = readFully(value);
-            fillBuffer(b, value);
-            return true;
-        }
-
-        private byte[] readFully(int length) throws IOException {
-            byte[] b = TemporaryFile.getInstantBuffer(length);
-            IOUtils.readFully(input, b, 0, length);
-            positionInBlock += length;
-            return b;
-        }
-
-        private void fillBuffer(byte[] bytes, int length) throws IOException {
-            int rawLength = Snappy.uncompressedLength(bytes, 0, length);
-            byte[] data = buffer.getData();
-            if (data.length < rawLength) {
-                data = new byte[(int) (rawLength * 1.2)];
-            }
-            Snappy.uncompress(bytes, 0, length, data, 0);
-            buffer.reset(data, 0, rawLength);
+            return value;
         }
     }
 }
@@ -19,9 +19,12 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.text.MessageFormat;
 import java.util.LinkedList;
-import java.util.concurrent.Callable;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -51,30 +54,44 @@ class TemporaryFileOutputHelper implements Closeable {
         }
     };
 
-    private final OutputStream output;
+    private final PageWriter writer;
 
-    private final ExecutorService executor = Executors.newFixedThreadPool(1, DAEMON_THREAD_FACTORY);
+    private final int threads;
+
+    // writes compressed pages sequentially
+    private final ExecutorService writerExecutor = Executors.newFixedThreadPool(1, DAEMON_THREAD_FACTORY);
+
+    // compresses pages, may be out of order
+    private final ExecutorService encoderExecutor;
 
     private final LinkedList<DataBuffer> available = new LinkedList<>();
 
-    private Future<Result> running;
+    // running tasks in order of pages
+    private final LinkedList<Future<DataBuffer>> running = new LinkedList<>();
 
-    private final String dataTypeName;
+    private final Queue<byte[]> compressedBuffers = new ConcurrentLinkedQueue<>();
 
-    private int positionInBlock;
+    private CompletableFuture<DataBuffer> lastWrite = CompletableFuture.completedFuture(null);
 
     TemporaryFileOutputHelper(OutputStream output, String dataTypeName) {
-        this.output = output;
-        this.dataTypeName = dataTypeName;
+        this(output, dataTypeName, 1);
+    }
+
+    TemporaryFileOutputHelper(OutputStream output, String dataTypeName, int threads) {
+        this.writer = new PageWriter(output, dataTypeName);
+        this.threads = Math.max(threads, 1);
+        this.encoderExecutor = Executors.newFixedThreadPool(this.threads, DAEMON_THREAD_FACTORY);
     }
 
     public synchronized void initialize(int initialBufferSize) {
-        available.addFirst(new DataBuffer(initialBufferSize));
-        available.addFirst(new DataBuffer(initialBufferSize));
+        // +1 for the buffer which is being filled
+        for (int i = 0; i <= threads; i++) {
+            available.addFirst(new DataBuffer(initialBufferSize));
+        }
     }
 
     public synchronized DataBuffer acquireBuffer() throws IOException, InterruptedException {
-        // if no available buffers, first we try to flush the active buffer
+        // if no available buffers, first we try to flush the oldest active buffer
         if (available.isEmpty()) {
             flushBuffer();
             if (available.isEmpty()) {
@@ -87,23 +104,64 @@ class TemporaryFileOutputHelper implements Closeable {
     }
 
     public synchronized void putNextPage(DataBuffer buffer) throws IOException, InterruptedException {
-        // wait for the current active task
-        flushBuffer();
+        // wait for the oldest active task if all workers are busy
+        while (running.size() >= threads) {
+            flushBuffer();
+        }
+        // compress the buffer contents in parallel, and then write them in order
+        CompletableFuture<CompressedPage> compressed = CompletableFuture
+                .supplyAsync(() -> compress(buffer), encoderExecutor);
+        CompletableFuture<DataBuffer> written = lastWrite
+                .thenCombineAsync(compressed, (previous, page) -> write(page), writerExecutor);
+        lastWrite = written;
+        running.addLast(written);
+    }
+
+    private CompressedPage compress(DataBuffer buffer) {
+        int length = buffer.getWritePosition();
+        if (length <= 0) {
+            return new CompressedPage(buffer, null, 0);
+        }
+        int maxLength = Snappy.maxCompressedLength(length);
+        byte[] contents = compressedBuffers.poll();
+        if (contents == null || contents.length < maxLength) {
+            contents = new byte[(int) (maxLength * 1.2)];
+        }
+        try {
+            int compressedLength = Snappy.compress(buffer.getData(), 0, length, contents, 0);
+            return new CompressedPage(buffer, contents, compressedLength);
+        } catch (IOException e) {
+            compressedBuffers.offer(contents);
+            throw new UncheckedIOException(e);
+        }
+    }
 
-        // submit task for writing contents in the buffer
-        assert running == null;
-        this.running = executor.submit(new Task(output, buffer, dataTypeName, positionInBlock));
+    private DataBuffer write(CompressedPage page) {
+        try {
+            writer.write(page.contents, page.length);
+            page.buffer.reset(0, 0);
+            return page.buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (page.contents != null) {
+                compressedBuffers.offer(page.contents);
+            }
+        }
     }
 
     private void flushBuffer() throws IOException, InterruptedException {
-        if (running == null) {
+        if (running.isEmpty()) {
             return;
         }
-        Result result;
+        DataBuffer buffer;
         try {
-            result = running.get();
+            buffer = running.removeFirst().get();
         } catch (ExecutionException e) {
             Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                cause = cause.getCause();
+            }
             if (cause instanceof IOException) {
                 throw new IOException("Exception occurred while writing contents", cause);
             } else if (cause instanceof InterruptedException) {
@@ -114,79 +172,71 @@ class TemporaryFileOutputHelper implements Closeable {
                 throw (Error) cause;
             }
             throw new IllegalStateException(cause);
-        } finally {
-            running = null;
         }
-        this.positionInBlock = result.positionInBlock;
-
         // releases the written buffer
-        this.available.addFirst(result.buffer);
+        this.available.addFirst(buffer);
     }
 
     @Override
     public synchronized void close() throws IOException {
         try {
             try {
-                flushBuffer();
+                while (running.isEmpty() == false) {
+                    flushBuffer();
+                }
             } catch (InterruptedException e) {
                 throw (IOException) new InterruptedIOException().initCause(e);
             }
         } finally {
-            executor.shutdownNow();
-            output.close();
+            writerExecutor.shutdownNow();
+            encoderExecutor.shutdownNow();
+            writer.output.close();
         }
     }
 
-    private static final class Result {
+    private static final class CompressedPage {
 
         final DataBuffer buffer;
 
-        final int positionInBlock;
+        final byte[] contents;
+
+        final int length;
 
-        Result(DataBuffer buffer, int positionInBlock) {
+        CompressedPage(DataBuffer buffer, byte[] contents, int length) {
             this.buffer = buffer;
-            this.positionInBlock = positionInBlock;
+            this.contents = contents;
+            this.length = length;
         }
     }
 
-    private static final class Task implements Callable<Result> {
+    /**
+     * Writes compressed pages sequentially.
+     * This is not thread-safe, and must be accessed from only one thread at a time.
+     */
+    private static final class PageWriter {
 
         private static final byte[] ZEROS = new byte[64 * 1024];
 
-        private final OutputStream output;
-
-        private final DataBuffer buffer;
+        final OutputStream output;
 
         private final String dataTypeName;
 
         private int positionInBlock;
 
-        Task(OutputStream output, DataBuffer buffer, String dataTypeName, int positionInBlock) {
+        PageWriter(OutputStream output, String dataTypeName) {
             this.output = output;
-            this.buffer = buffer;
             this.dataTypeName = dataTypeName;
-            this.positionInBlock = positionInBlock;
-        }
-
-        @Override
-        public Result call() throws Exception {
-            flush();
-            return new Result(buffer, positionInBlock);
         }
 
-        private void flush() throws IOException {
+        void write(byte[] contents, int length) throws IOException {
             if (positionInBlock == 0) {
                 positionInBlock += TemporaryFile.writeBlockHeader(output);
                 positionInBlock += TemporaryFile.writeString(output, dataTypeName);
             }
-            int length = buffer.getWritePosition();
             if (length <= 0) {
                 return;
             }
-            byte[] buf = TemporaryFile.getInstantBuffer(Snappy.maxCompressedLength(length));
-            int compressed = Snappy.compress(buffer.getData(), 0, length, buf, 0);
-            writeContentPage(buf, compressed);
-            buffer.reset(0, 0);
+            writeContentPage(contents, length);
         }
 
         private void writeContentPage(byte[] contents, int length) throws IOException {
@@ -45,12 +45,36 @@ import com.asakusafw.runtime.io.sequencefile.SequenceFileUtil;
 /**
  * Access to the temporary storage.
  * @since 0.2.5
- * @version 0.7.1
+ * @version 0.9.2
  */
 public final class TemporaryStorage {
 
     static final Log LOG = LogFactory.getLog(TemporaryStorage.class);
 
+    /**
+     * The configuration key of the max number of pages to read ahead from temporary files.
+     * @since 0.9.2
+     */
+    public static final String KEY_INPUT_READ_AHEAD = "com.asakusafw.stage.temporary.input.readAhead"; //$NON-NLS-1$
+
+    /**
+     * The configuration key of the number of threads to decompress pages of temporary files.
+     * @since 0.9.2
+     */
+    public static final String KEY_INPUT_THREADS = "com.asakusafw.stage.temporary.input.threads"; //$NON-NLS-1$
+
+    /**
+     * The configuration key of the number of threads to compress pages of temporary files.
+     * @since 0.9.2
+     */
+    public static final String KEY_OUTPUT_THREADS = "com.asakusafw.stage.temporary.output.threads"; //$NON-NLS-1$
+
+    static final int DEFAULT_INPUT_READ_AHEAD = 1;
+
+    static final int DEFAULT_INPUT_THREADS = 1;
+
+    static final int DEFAULT_OUTPUT_THREADS = 1;
+
     private static final int OUTPUT_INIT_BUFFER_SIZE = 300 * 1024;
 
     private static final int OUTPUT_PAGE_SIZE = 256 * 1024;
@@ -141,7 +165,7 @@ public final class TemporaryStorage {
                     fs.makeQualified(path)));
         }
         if (Writable.class.isAssignableFrom(dataType)) {
-            return (ModelInput<V>) new TemporaryFileInput<>(fs.open(path), 0);
+            return (ModelInput<V>) openFileInput(conf, fs.open(path), 0);
         }
         SequenceFile.Reader reader = new SequenceFile.Reader(conf, SequenceFile.Reader.file(fs.makeQualified(path)));
         return (ModelInput<V>) new SequenceFileModelInput<>(reader);
@@ -177,7 +201,7 @@ public final class TemporaryStorage {
             throw new IllegalArgumentException("input must not be null"); //$NON-NLS-1$
         }
         if (Writable.class.isAssignableFrom(dataType)) {
-            return (ModelInput<V>) new TemporaryFileInput<>(input, 0);
+            return (ModelInput<V>) openFileInput(conf, input, 0);
         }
         SequenceFile.Reader reader = SequenceFileUtil.openReader(input, status, conf);
         return (ModelInput<V>) new SequenceFileModelInput<>(reader, input);
@@ -217,7 +241,8 @@ public final class TemporaryStorage {
             return (ModelOutput<V>) new TemporaryFileOutput<>(
                     fs.create(path, true),
                     dataType.getName(),
-                    OUTPUT_INIT_BUFFER_SIZE, OUTPUT_PAGE_SIZE);
+                    OUTPUT_INIT_BUFFER_SIZE, OUTPUT_PAGE_SIZE,
+                    conf.getInt(KEY_OUTPUT_THREADS, DEFAULT_OUTPUT_THREADS));
         }
         SequenceFile.Writer out = SequenceFile.createWriter(
                 conf,
@@ -263,7 +288,8 @@ public final class TemporaryStorage {
             return (ModelOutput<V>) new TemporaryFileOutput<>(
                     fs.create(path, true),
                     dataType.getName(),
-                    OUTPUT_INIT_BUFFER_SIZE, OUTPUT_PAGE_SIZE);
+                    OUTPUT_INIT_BUFFER_SIZE, OUTPUT_PAGE_SIZE,
+                    conf.getInt(KEY_OUTPUT_THREADS, DEFAULT_OUTPUT_THREADS));
         }
         SequenceFile.Writer out = newWriter(conf, fs, dataType, path, compressionCodec);
         return new SequenceFileModelOutput<>(out);
@@ -330,13 +356,33 @@ public final class TemporaryStorage {
             return (ModelOutput<V>) new TemporaryFileOutput<>(
                     output,
                     dataType.getName(),
-                    OUTPUT_INIT_BUFFER_SIZE, OUTPUT_PAGE_SIZE);
+                    OUTPUT_INIT_BUFFER_SIZE, OUTPUT_PAGE_SIZE,
+                    conf.getInt(KEY_OUTPUT_THREADS, DEFAULT_OUTPUT_THREADS));
         }
         SequenceFile.Writer out = SequenceFileUtil.openWriter(
                 output, conf, NullWritable.class, dataType, compressionCodec);
         return new SequenceFileModelOutput<>(out);
     }
 
+    /**
+     * Opens a {@link TemporaryFileInput} for the specified input.
+     * @param <V> data type
+     * @param conf configuration
+     * @param input source file content (must be on the head of a block)
+     * @param blocks the number of blocks to read, or {@code 0} to read all pages in the stream
+     * @return the opened {@link TemporaryFileInput}
+     * @since 0.9.2
+     */
+    public static <V extends Writable> TemporaryFileInput<V> openFileInput(
+            Configuration conf,
+            InputStream input,
+            int blocks) {
+        return new TemporaryFileInput<>(
+                input, blocks,
+                conf.getInt(KEY_INPUT_READ_AHEAD, DEFAULT_INPUT_READ_AHEAD),
+                conf.getInt(KEY_INPUT_THREADS, DEFAULT_INPUT_THREADS));
+    }
+
     private TemporaryStorage() {
         return;
     }
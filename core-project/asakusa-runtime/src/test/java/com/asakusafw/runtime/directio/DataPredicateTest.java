@@ -0,0 +1,116 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.directio;
+
+import static com.asakusafw.runtime.directio.DataPredicate.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import com.asakusafw.runtime.value.Date;
+
+/**
+ * Test for {@link DataPredicate}.
+ */
+public class DataPredicateTest {
+
+    /**
+     * simple case.
+     */
+    @Test
+    public void simple() {
+        DataPredicate p = equal("a", 1);
+        assertThat(p.getKind(), is(Kind.EQUAL));
+        assertThat(p.getPropertyName(), is("a"));
+        assertThat(p.getValues(), contains((Object) 1));
+        assertThat(p.getOperands(), is(empty()));
+        assertThat(p.normalize(), is(p));
+    }
+
+    /**
+     * logical operators.
+     */
+    @Test
+    public void group() {
+        DataPredicate p = and(equal("a", 1), or(isNull("b"), between("c", "A", "Z")));
+        assertThat(p.getKind(), is(Kind.AND));
+        assertThat(p.getPropertyName(), is(nullValue()));
+        assertThat(p.getOperands(), contains(equal("a", 1), or(isNull("b"), between("c", "A", "Z"))));
+        assertThat(p.normalize(), is(p));
+    }
+
+    /**
+     * normalize negations.
+     */
+    @Test
+    public void normalize_not() {
+        assertThat(not(equal("a", 1)).normalize(), is(notEqual("a", 1)));
+        assertThat(not(notEqual("a", 1)).normalize(), is(equal("a", 1)));
+        assertThat(not(lessThan("a", 1)).normalize(), is(greaterThanOrEqual("a", 1)));
+        assertThat(not(lessThanOrEqual("a", 1)).normalize(), is(greaterThan("a", 1)));
+        assertThat(not(greaterThan("a", 1)).normalize(), is(lessThanOrEqual("a", 1)));
+        assertThat(not(greaterThanOrEqual("a", 1)).normalize(), is(lessThan("a", 1)));
+        assertThat(not(between("a", 1, 2)).normalize(), is(or(lessThan("a", 1), greaterThan("a", 2))));
+        assertThat(not(in("a", 1, 2)).normalize(), is(and(notEqual("a", 1), notEqual("a", 2))));
+        assertThat(not(isNull("a")).normalize(), is(isNotNull("a")));
+        assertThat(not(isNotNull("a")).normalize(), is(isNull("a")));
+        assertThat(not(not(equal("a", 1))).normalize(), is(equal("a", 1)));
+    }
+
+    /**
+     * normalize negations of logical operators.
+     */
+    @Test
+    public void normalize_de_morgan() {
+        DataPredicate p = not(and(lessThan("a", 1), or(equal("b", "x"), not(isNull("c")))));
+        assertThat(p.normalize(), is(or(greaterThanOrEqual("a", 1), and(notEqual("b", "x"), isNull("c")))));
+    }
+
+    /**
+     * literal types.
+     */
+    @Test
+    public void literals() {
+        in("a", true, (byte) 1, (short) 1, 1, 1L, 1f, 1d, BigDecimal.ONE, "1", new Date(1));
+    }
+
+    /**
+     * unsupported literal.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void invalid_literal() {
+        equal("a", new Object());
+    }
+
+    /**
+     * null literal.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void invalid_null() {
+        equal("a", null);
+    }
+
+    /**
+     * empty in.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void invalid_in_empty() {
+        in("a");
+    }
+}
@@ -0,0 +1,238 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.directio.hadoop;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.GzipCodec;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test for {@link BlockCompressedOutputStream} and {@link BlockCompressedInputStream}.
+ */
+public class BlockCompressedStreamTest {
+
+    /**
+     * Temporary folder.
+     */
+    @Rule
+    public final TemporaryFolder temp = new TemporaryFolder();
+
+    private final CompressionCodec codec = ReflectionUtils.newInstance(GzipCodec.class, new Configuration());
+
+    /**
+     * simple case.
+     * @throws Exception if failed
+     */
+    @Test
+    public void simple() throws Exception {
+        byte[] data = data(1000);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        BlockIndex index;
+        try (BlockCompressedOutputStream output = new BlockCompressedOutputStream(buffer, codec, 300)) {
+            output.write(data);
+            output.close();
+            index = output.getIndex();
+        }
+        byte[] compressed = buffer.toByteArray();
+        assertThat(index.getBlockCount(), is(4));
+        assertThat(index.getUncompressedOffset(0), is(0L));
+        assertThat(index.getUncompressedOffset(1), is(300L));
+        assertThat(index.getUncompressedOffset(4), is(1000L));
+        assertThat(index.getCompressedOffset(0), is(0L));
+        assertThat(index.getCompressedLength(), is((long) compressed.length));
+
+        assertThat(read(compressed, index, 0), is(data));
+        for (int i = 1; i <= index.getBlockCount(); i++) {
+            byte[] rest = read(compressed, index, i);
+            assertThat(rest.length, is((int) (data.length - index.getUncompressedOffset(i))));
+        }
+    }
+
+    /**
+     * concatenated blocks can be read as a plain gzip file.
+     * @throws Exception if failed
+     */
+    @Test
+    public void concatenated() throws Exception {
+        byte[] data = data(10000);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (BlockCompressedOutputStream output = new BlockCompressedOutputStream(buffer, codec, 1024)) {
+            for (byte b : data) {
+                output.write(b);
+            }
+        }
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(buffer.toByteArray()))) {
+            copy(input, results);
+        }
+        assertThat(results.toByteArray(), is(data));
+    }
+
+    /**
+     * empty contents.
+     * @throws Exception if failed
+     */
+    @Test
+    public void empty() throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        BlockIndex index;
+        try (BlockCompressedOutputStream output = new BlockCompressedOutputStream(buffer, codec, 100)) {
+            output.close();
+            index = output.getIndex();
+        }
+        assertThat(index.getBlockCount(), is(0));
+        assertThat(read(buffer.toByteArray(), index, 0), is(new byte[0]));
+    }
+
+    /**
+     * find blocks.
+     */
+    @Test
+    public void find_block() {
+        BlockIndex index = new BlockIndex(new long[] { 0, 10, 20 }, new long[] { 0, 100, 200 }, 30, 300);
+        assertThat(index.findBlock(0), is(0));
+        assertThat(index.findBlock(1), is(1));
+        assertThat(index.findBlock(10), is(1));
+        assertThat(index.findBlock(11), is(2));
+        assertThat(index.findBlock(21), is(3));
+        assertThat(index.findBlock(100), is(3));
+    }
+
+    /**
+     * index files.
+     * @throws Exception if failed
+     */
+    @Test
+    public void index_file() throws Exception {
+        File file = temp.newFile("testing.gz");
+        Path path = new Path(file.toURI());
+        FileSystem fs = path.getFileSystem(new Configuration());
+        try (BlockCompressedOutputStream output = new BlockCompressedOutputStream(fs.create(path), codec, 100)) {
+            output.write(data(1000));
+            output.close();
+            assertThat(BlockIndex.find(fs, path), is(nullValue()));
+            output.getIndex().write(fs, path);
+        }
+        assertThat(BlockIndex.isIndexFile(BlockIndex.getIndexPath(path)), is(true));
+        assertThat(BlockIndex.isIndexFile(path), is(false));
+
+        BlockIndex index = BlockIndex.find(fs, path);
+        assertThat(index, is(notNullValue()));
+        assertThat(index.getBlockCount(), is(10));
+        assertThat(index.getCompressedLength(), is(file.length()));
+        assertThat(index.getUncompressedLength(), is(1000L));
+
+        // obsolete
+        try (OutputStream output = fs.create(path, true)) {
+            output.write(1);
+        }
+        assertThat(BlockIndex.find(fs, path), is(nullValue()));
+    }
+
+    /**
+     * index files are obsolete if the target file was modified, even if its length is not changed.
+     * @throws Exception if failed
+     */
+    @Test
+    public void index_file_modified() throws Exception {
+        File file = temp.newFile("testing.gz");
+        Path path = new Path(file.toURI());
+        FileSystem fs = path.getFileSystem(new Configuration());
+        try (BlockCompressedOutputStream output = new BlockCompressedOutputStream(fs.create(path), codec, 100)) {
+            output.write(data(1000));
+            output.close();
+            output.getIndex().write(fs, path);
+        }
+        assertThat(BlockIndex.find(fs, path), is(notNullValue()));
+        assertThat(BlockIndex.find(fs, fs.getFileStatus(path)), is(notNullValue()));
+
+        byte[] contents = Files.readAllBytes(file.toPath());
+        contents[contents.length - 1] ^= 0xff;
+        try (OutputStream output = fs.create(path, true)) {
+            output.write(contents);
+        }
+        assertThat(BlockIndex.find(fs, path), is(nullValue()));
+        assertThat(BlockIndex.find(fs, fs.getFileStatus(path)), is(nullValue()));
+    }
+
+    /**
+     * index files are still available if only the modification time of the target file was changed.
+     * @throws Exception if failed
+     */
+    @Test
+    public void index_file_touched() throws Exception {
+        File file = temp.newFile("testing.gz");
+        Path path = new Path(file.toURI());
+        FileSystem fs = path.getFileSystem(new Configuration());
+        try (BlockCompressedOutputStream output = new BlockCompressedOutputStream(fs.create(path), codec, 100)) {
+            output.write(data(1000));
+            output.close();
+            output.getIndex().write(fs, path);
+        }
+        assertThat(file.setLastModified(file.lastModified() - 60_000L), is(true));
+        assertThat(BlockIndex.find(fs, path), is(notNullValue()));
+        assertThat(BlockIndex.find(fs, fs.getFileStatus(path)), is(notNullValue()));
+    }
+
+    private byte[] read(byte[] compressed, BlockIndex index, int block) throws IOException {
+        int offset = (int) index.getCompressedOffset(block);
+        ByteArrayInputStream source = new ByteArrayInputStream(compressed, offset, compressed.length - offset);
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+        try (InputStream input = new BlockCompressedInputStream(source, codec, index, block)) {
+            copy(input, results);
+        }
+        return results.toByteArray();
+    }
+
+    private static void copy(InputStream input, ByteArrayOutputStream output) throws IOException {
+        byte[] buf = new byte[256];
+        while (true) {
+            int read = input.read(buf);
+            if (read < 0) {
+                break;
+            }
+            output.write(buf, 0, read);
+        }
+    }
+
+    private static byte[] data(int size) {
+        Random random = new Random(6502);
+        byte[] results = new byte[size];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = (byte) ('a' + random.nextInt(26));
+        }
+        return results;
+    }
+}
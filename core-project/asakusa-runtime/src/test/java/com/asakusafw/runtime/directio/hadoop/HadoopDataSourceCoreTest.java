@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
+import java.util.UUID;
 
 import org.apache.hadoop.conf.Configurable;
 import org.apache.hadoop.conf.Configuration;
@@ -58,6 +59,7 @@ import com.asakusafw.runtime.directio.util.CountInputStream;
 import com.asakusafw.runtime.directio.util.CountOutputStream;
 import com.asakusafw.runtime.io.ModelInput;
 import com.asakusafw.runtime.io.ModelOutput;
+import com.asakusafw.runtime.stage.StageConstants;
 import com.asakusafw.runtime.windows.WindowsSupport;
 
 /**
@@ -231,6 +233,96 @@ public class HadoopDataSourceCoreTest {
         assertThat(results, hasItem("Hello3"));
     }
 
+    /**
+     * input multiple files w/ multiple threads.
+     * @throws Exception if failed
+     */
+    @Test
+    public void input_parallel() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            put(new File(mapping, String.format("input/%02d/file.txt", i)), "Hello" + i);
+        }
+        profile.setMinimumFragmentSize(-1);
+        profile.setSearchThreads(4);
+
+        HadoopDataSourceCore core = new HadoopDataSourceCore(profile);
+        List<DirectInputFragment> fragments = core.findInputFragments(
+                definition,
+                "input",
+                FilePattern.compile("**/*.txt"));
+        assertThat(fragments.size(), is(20));
+
+        List<String> results = consume(core, fragments);
+        assertThat(results.size(), is(20));
+        for (int i = 0; i < 20; i++) {
+            assertThat(results, hasItem("Hello" + i));
+        }
+    }
+
+    /**
+     * input w/ search cache.
+     * @throws Exception if failed
+     */
+    @Test
+    public void input_search_cache() throws Exception {
+        put(new File(mapping, "input/file1.txt"), "Hello1");
+        Configuration c = new Configuration(conf);
+        c.set(StageConstants.PROP_EXECUTION_ID, UUID.randomUUID().toString());
+        HadoopDataSourceProfile cached = new HadoopDataSourceProfile(
+                c,
+                "testing",
+                "testing",
+                new Path(mapping.toURI()),
+                new Path(temporary.toURI()));
+        cached.setMinimumFragmentSize(-1);
+        cached.setSearchCache(true);
+
+        HadoopDataSourceCore core = new HadoopDataSourceCore(cached);
+        assertThat(core.findInputFragments(definition, "input", FilePattern.compile("*.txt")).size(), is(1));
+
+        put(new File(mapping, "input/file2.txt"), "Hello2");
+        assertThat(core.findInputFragments(definition, "input", FilePattern.compile("*.txt")).size(), is(1));
+        assertThat(core.findInputFragments(definition, "input", FilePattern.compile("*")).size(), is(2));
+
+        core.delete("input", FilePattern.compile("file2.txt"), false, counter);
+        assertThat(core.findInputFragments(definition, "input", FilePattern.compile("*.txt")).size(), is(1));
+        assertThat(core.findInputFragments(definition, "input", FilePattern.compile("*")).size(), is(1));
+    }
+
+    /**
+     * input w/ search cache after committing outputs.
+     * @throws Exception if failed
+     */
+    @Test
+    public void input_search_cache_commit() throws Exception {
+        put(new File(mapping, "input/file1.txt"), "Hello1");
+        Configuration c = new Configuration(conf);
+        c.set(StageConstants.PROP_EXECUTION_ID, UUID.randomUUID().toString());
+        HadoopDataSourceProfile cached = new HadoopDataSourceProfile(
+                c,
+                "testing",
+                "testing",
+                new Path(mapping.toURI()),
+                new Path(temporary.toURI()));
+        cached.setMinimumFragmentSize(-1);
+        cached.setSearchCache(true);
+
+        HadoopDataSourceCore core = new HadoopDataSourceCore(cached);
+        assertThat(core.findInputFragments(definition, "input", FilePattern.compile("*.txt")).size(), is(1));
+
+        setup(core);
+        try (ModelOutput<StringBuilder> output = core.openOutput(
+                context,
+                definition,
+                "input",
+                "file2.txt",
+                counter)) {
+            output.write(new StringBuilder("Hello2"));
+        }
+        commit(core);
+        assertThat(core.findInputFragments(definition, "input", FilePattern.compile("*.txt")).size(), is(2));
+    }
+
     /**
      * simple output.
      * @throws Exception if failed
@@ -436,6 +528,222 @@ public class HadoopDataSourceCoreTest {
         assertThat(new File(mapping, "output/file.txt").exists(), is(false));
     }
 
+    /**
+     * direct output.
+     * @throws Exception if failed
+     */
+    @Test
+    public void output_direct() throws Exception {
+        profile.setOutputDirect(true);
+        HadoopDataSourceCore core = new HadoopDataSourceCore(profile);
+        setup(core);
+        try (ModelOutput<StringBuilder> output = core.openOutput(
+                context,
+                definition,
+                "output",
+                "file.txt",
+                counter)) {
+            output.write(new StringBuilder("Hello, world!"));
+        }
+        File target = new File(mapping, "output/file.txt");
+        assertThat(target.exists(), is(false));
+        assertThat(new File(mapping, "output").list(), is(not(emptyArray())));
+        assertThat(visible(new File(mapping, "output")), is(empty()));
+
+        commitAttempt(core);
+        assertThat(target.exists(), is(false));
+
+        // transaction commit does not require the attempt state
+        commitTransaction(new HadoopDataSourceCore(profile));
+        assertThat(target.exists(), is(true));
+        assertThat(get(target), is(Arrays.asList("Hello, world!")));
+        assertThat(visible(new File(mapping, "output")), contains("file.txt"));
+        assertThat(temporaries(new File(mapping, "output")), hasSize(0));
+    }
+
+    /**
+     * direct output which is written and committed by the individual data source objects.
+     * @throws Exception if failed
+     */
+    @Test
+    public void output_direct_separate_committer() throws Exception {
+        profile.setOutputDirect(true);
+        for (boolean staging : new boolean[] { true, false }) {
+            profile.setOutputStaging(staging);
+            String base = staging ? "staging" : "direct";
+            HadoopDataSourceCore committer = new HadoopDataSourceCore(profile);
+            setup(committer);
+
+            // e.g. a reducer and a mapper in the same attempt
+            for (String resource : new String[] { "a", "b" }) {
+                HadoopDataSourceCore writer = new HadoopDataSourceCore(profile);
+                writer.setupAttemptOutput(context);
+                try (ModelOutput<StringBuilder> output = writer.openOutput(
+                        context,
+                        definition,
+                        base + "/" + resource,
+                        "file.txt",
+                        counter)) {
+                    output.write(new StringBuilder(resource));
+                }
+            }
+
+            commitAttempt(committer);
+            commitTransaction(new HadoopDataSourceCore(profile));
+            for (String resource : new String[] { "a", "b" }) {
+                File directory = new File(mapping, base + "/" + resource);
+                assertThat(get(new File(directory, "file.txt")), is(Arrays.asList(resource)));
+                assertThat(temporaries(directory), hasSize(0));
+            }
+        }
+    }
+
+    /**
+     * direct output with side files which are created by the data format.
+     * @throws Exception if failed
+     */
+    @Test
+    public void output_direct_side_files() throws Exception {
+        profile.setOutputDirect(true);
+        HadoopDataSourceCore core = new HadoopDataSourceCore(profile);
+        setup(core);
+        try (ModelOutput<StringBuilder> output = core.openOutput(
+                context,
+                definition,
+                "output",
+                "file.txt",
+                counter)) {
+            output.write(new StringBuilder("Hello, world!"));
+        }
+        File[] temporaries = new File(mapping, "output").listFiles();
+        assertThat(temporaries, is(arrayWithSize(1)));
+        // e.g. rolled over files, or block index
+        put(new File(temporaries[0], "file-1.txt"), "Hello, side!");
+        put(new File(temporaries[0], ".file.txt.index"), "INDEX");
+
+        commitAttempt(core);
+        commitTransaction(core);
+        assertThat(get(new File(mapping, "output/file.txt")), is(Arrays.asList("Hello, world!")));
+        assertThat(get(new File(mapping, "output/file-1.txt")), is(Arrays.asList("Hello, side!")));
+        assertThat(get(new File(mapping, "output/.file.txt.index")), is(Arrays.asList("INDEX")));
+        assertThat(visible(new File(mapping, "output")), containsInAnyOrder("file.txt", "file-1.txt"));
+        assertThat(temporaries(new File(mapping, "output")), hasSize(0));
+    }
+
+    /**
+     * direct output of killed attempts are removed in transaction cleanup.
+     * @throws Exception if failed
+     */
+    @Test
+    public void output_direct_killed_attempt() throws Exception {
+        profile.setOutputDirect(true);
+        HadoopDataSourceCore core = new HadoopDataSourceCore(profile);
+        setup(core);
+        try (ModelOutput<StringBuilder> output = core.openOutput(
+                context,
+                definition,
+                "output",
+                "file.txt",
+                counter)) {
+            output.write(new StringBuilder("Hello, world!"));
+        }
+        commitAttempt(core);
+
+        // the killed attempt is neither committed nor cleaned up
+        OutputAttemptContext killed = new OutputAttemptContext("tx", "killed", profile.getId(), new Counter());
+        HadoopDataSourceCore other = new HadoopDataSourceCore(profile);
+        other.setupAttemptOutput(killed);
+        try (ModelOutput<StringBuilder> output = other.openOutput(
+                killed,
+                definition,
+                "output/sub",
+                "file.txt",
+                counter)) {
+            output.write(new StringBuilder("Hello, killed!"));
+        }
+
+        commitTransaction(new HadoopDataSourceCore(profile));
+        assertThat(get(new File(mapping, "output/file.txt")), is(Arrays.asList("Hello, world!")));
+        assertThat(new File(mapping, "output/sub/file.txt").exists(), is(false));
+        assertThat(new File(mapping, "output/sub").list(), is(arrayWithSize(0)));
+        assertThat(temporaries(new File(mapping, "output")), hasSize(0));
+    }
+
+    /**
+     * direct output without staging.
+     * @throws Exception if failed
+     */
+    @Test
+    public void output_direct_nostaging() throws Exception {
+        profile.setOutputDirect(true);
+        profile.setOutputStaging(false);
+        profile.setRollforwardThreads(4);
+        HadoopDataSourceCore core = new HadoopDataSourceCore(profile);
+        setup(core);
+        for (int i = 0; i < 5; i++) {
+            try (ModelOutput<StringBuilder> output = core.openOutput(
+                    context,
+                    definition,
+                    "output",
+                    String.format("file-%d.txt", i),
+                    counter)) {
+                output.write(new StringBuilder("Hello" + i));
+            }
+        }
+        put(new File(mapping, "output/file-0.txt"), "OLD");
+
+        commitAttempt(core);
+        for (int i = 0; i < 5; i++) {
+            File target = new File(mapping, String.format("output/file-%d.txt", i));
+            assertThat(get(target), is(Arrays.asList("Hello" + i)));
+        }
+        commitTransaction(core);
+        assertThat(visible(new File(mapping, "output")), hasSize(5));
+    }
+
+    /**
+     * direct output is rolled back after attempts were committed.
+     * @throws Exception if failed
+     */
+    @Test
+    public void output_direct_rollback() throws Exception {
+        profile.setOutputDirect(true);
+        HadoopDataSourceCore core = new HadoopDataSourceCore(profile);
+        setup(core);
+        try (ModelOutput<StringBuilder> output = core.openOutput(
+                context,
+                definition,
+                "output",
+                "file.txt",
+                counter)) {
+            output.write(new StringBuilder("Hello, world!"));
+        }
+        commitAttempt(core);
+        core.cleanupTransactionOutput(context.getTransactionContext());
+        assertThat(new File(mapping, "output").list(), is(arrayWithSize(0)));
+    }
+
+    /**
+     * direct output is rolled back before attempts were committed.
+     * @throws Exception if failed
+     */
+    @Test
+    public void output_direct_rollback_attempt() throws Exception {
+        profile.setOutputDirect(true);
+        HadoopDataSourceCore core = new HadoopDataSourceCore(profile);
+        setup(core);
+        try (ModelOutput<StringBuilder> output = core.openOutput(
+                context,
+                definition,
+                "output",
+                "file.txt",
+                counter)) {
+            output.write(new StringBuilder("Hello, world!"));
+        }
+        cleanup(core);
+        assertThat(new File(mapping, "output").list(), is(arrayWithSize(0)));
+    }
+
     /**
      * simple delete.
      * @throws Exception if failed
@@ -576,6 +884,26 @@ public class HadoopDataSourceCoreTest {
         }
     }
 
+    private static List<String> visible(File directory) {
+        List<String> results = new ArrayList<>();
+        for (String name : directory.list()) {
+            if (name.startsWith(".") == false) {
+                results.add(name);
+            }
+        }
+        return results;
+    }
+
+    private static List<String> temporaries(File directory) {
+        List<String> results = new ArrayList<>();
+        for (String name : directory.list()) {
+            if (name.startsWith(".directio-")) {
+                results.add(name);
+            }
+        }
+        return results;
+    }
+
     private void setup(HadoopDataSourceCore core) throws IOException, InterruptedException {
         core.setupTransactionOutput(context.getTransactionContext());
         core.setupAttemptOutput(context);
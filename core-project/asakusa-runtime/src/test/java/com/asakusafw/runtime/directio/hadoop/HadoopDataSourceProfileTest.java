@@ -80,10 +80,13 @@ public class HadoopDataSourceProfileTest {
 
         assertThat(result.isOutputStaging(), is(true));
         assertThat(result.isOutputStreaming(), is(true));
+        assertThat(result.isOutputDirect(), is(false));
         assertThat(result.isCombineBlocks(), is(true));
         assertThat(result.isSplitBlocks(), is(true));
         assertThat(result.getKeepAliveInterval(), is(0L));
         assertThat(result.getRollforwardThreads(), is(1));
+        assertThat(result.getSearchThreads(), is(1));
+        assertThat(result.isSearchCache(), is(false));
     }
 
     /**
@@ -139,10 +142,13 @@ public class HadoopDataSourceProfileTest {
         attributes.put(KEY_PREF_FRAGMENT, "1234");
         attributes.put(KEY_OUTPUT_STAGING, "false");
         attributes.put(KEY_OUTPUT_STREAMING, "false");
+        attributes.put(KEY_OUTPUT_DIRECT, "true");
         attributes.put(KEY_SPLIT_BLOCKS, "false");
         attributes.put(KEY_COMBINE_BLOCKS, "false");
         attributes.put(KEY_KEEPALIVE_INTERVAL, "12345");
         attributes.put(KEY_ROLLFORWARD_THREADS, "23");
+        attributes.put(KEY_SEARCH_THREADS, "34");
+        attributes.put(KEY_SEARCH_CACHE, "true");
         DirectDataSourceProfile profile = new DirectDataSourceProfile(
                 "testing",
                 HadoopDataSource.class,
@@ -171,10 +177,13 @@ public class HadoopDataSourceProfileTest {
 
         assertThat(result.isOutputStaging(), is(false));
         assertThat(result.isOutputStreaming(), is(false));
+        assertThat(result.isOutputDirect(), is(true));
         assertThat(result.isCombineBlocks(), is(false));
         assertThat(result.isSplitBlocks(), is(false));
         assertThat(result.getKeepAliveInterval(), is(12345L));
         assertThat(result.getRollforwardThreads(), is(23));
+        assertThat(result.getSearchThreads(), is(34));
+        assertThat(result.isSearchCache(), is(true));
     }
 
     /**
@@ -370,6 +370,35 @@ public class HadoopDataSourceUtilTest {
         assertThat(normalize(results), is(path("a/a.csv", "b/b.csv", "c/c.csv")));
     }
 
+    /**
+     * search w/ multiple threads.
+     * @throws Exception if failed
+     */
+    @Test
+    public void search_parallel() throws Exception {
+        for (int year = 2001; year <= 2010; year++) {
+            for (int month = 1; month <= 12; month++) {
+                touch(String.format("data/%04d/%02d%s", year, month, ".csv"));
+            }
+        }
+        FileSystem fs = getTempFileSystem();
+        for (String pattern : new String[] {
+                "**",
+                "**/*.csv",
+                "data/*/*.csv",
+                "data/{2005/12|2003/11}.csv",
+                "data/*/**/1*.csv",
+        }) {
+            FilePattern compiled = FilePattern.compile(pattern);
+            List<FileStatus> serial = HadoopDataSourceUtil.search(fs, getBase(), compiled);
+            List<FileStatus> parallel = HadoopDataSourceUtil.search(fs, getBase(), compiled, 4);
+            assertThat(pattern, parallel.size(), is(serial.size()));
+            for (int i = 0, n = serial.size(); i < n; i++) {
+                assertThat(pattern, parallel.get(i).getPath(), is(serial.get(i).getPath()));
+            }
+        }
+    }
+
     /**
      * single file does not cover anything.
      * @throws Exception if failed
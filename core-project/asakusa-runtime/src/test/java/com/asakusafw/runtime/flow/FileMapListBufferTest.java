@@ -22,10 +22,14 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.Writable;
 import org.junit.Test;
 
+import com.asakusafw.runtime.core.HadoopConfiguration;
 import com.asakusafw.runtime.model.DataModel;
 import com.asakusafw.runtime.value.IntOption;
 
@@ -150,6 +154,110 @@ public class FileMapListBufferTest {
         }
     }
 
+    /**
+     * w/ channel store, reading pages sequentially and randomly.
+     */
+    @Test
+    public void channel_read_ahead() {
+        verify(new FileMapListBuffer<>(32, new FileMapListBuffer.ChannelStore<>(256)), 10000);
+    }
+
+    /**
+     * w/ mapped store.
+     */
+    @Test
+    public void mapped() {
+        verify(new FileMapListBuffer<>(32, new FileMapListBuffer.MappedStore<>(256, 4096, false)), 10000);
+    }
+
+    /**
+     * w/ mapped store and compression.
+     */
+    @Test
+    public void mapped_compressed() {
+        verify(new FileMapListBuffer<>(32, new FileMapListBuffer.MappedStore<>(256, 4096, true)), 10000);
+    }
+
+    /**
+     * w/ mapped store, and each block is larger than segments.
+     */
+    @Test
+    public void mapped_large_block() {
+        verify(new FileMapListBuffer<>(256, new FileMapListBuffer.MappedStore<>(8192, 1024, false)), 10000);
+        verify(new FileMapListBuffer<>(256, new FileMapListBuffer.MappedStore<>(8192, 1024, true)), 10000);
+    }
+
+    /**
+     * w/ store settings in the stage configuration.
+     * @throws Exception if failed
+     */
+    @Test
+    public void initializer() throws Exception {
+        Configuration conf = new Configuration(false);
+        conf.set(FileMapListBuffer.KEY_STORE, FileMapListBuffer.STORE_MAPPED);
+        conf.set(FileMapListBuffer.KEY_COMPRESSION, FileMapListBuffer.COMPRESSION_SNAPPY);
+        HadoopConfiguration configuration = new HadoopConfiguration(conf);
+        FileMapListBuffer.Initializer initializer = new FileMapListBuffer.Initializer();
+        initializer.setup(configuration);
+        try {
+            FileMapListBuffer<Holder> buf = new FileMapListBuffer<>(32, 256);
+            assertThat(buf.store, is(instanceOf(FileMapListBuffer.MappedStore.class)));
+            verify(buf, 10000);
+
+            // other threads are not affected
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                Object other = executor.submit(() -> new FileMapListBuffer<Holder>().store).get();
+                assertThat(other, is(instanceOf(FileMapListBuffer.ChannelStore.class)));
+            } finally {
+                executor.shutdownNow();
+            }
+        } finally {
+            initializer.cleanup(configuration);
+        }
+        FileMapListBuffer<Holder> buf = new FileMapListBuffer<>();
+        try {
+            assertThat(buf.store, is(instanceOf(FileMapListBuffer.ChannelStore.class)));
+        } finally {
+            buf.shrink();
+        }
+    }
+
+    /**
+     * w/ unknown store kind.
+     * @throws Exception if failed
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void initializer_unknown_store() throws Exception {
+        Configuration conf = new Configuration(false);
+        conf.set(FileMapListBuffer.KEY_STORE, "unknown");
+        new FileMapListBuffer.Initializer().setup(new HadoopConfiguration(conf));
+    }
+
+    private static void verify(FileMapListBuffer<Holder> buf, int size) {
+        try {
+            for (int round = 0; round < 2; round++) {
+                buf.begin();
+                for (int i = 0; i < size; i++) {
+                    if (buf.isExpandRequired()) {
+                        buf.expand(new Holder(""));
+                    }
+                    buf.advance().value = round + "-" + i;
+                }
+                buf.end();
+                assertThat(buf.size(), is(size));
+                for (int i = 0; i < size; i++) {
+                    assertThat(buf.get(i).value, is(round + "-" + i));
+                }
+                for (int i = size - 1; i >= 0; i -= 7) {
+                    assertThat(buf.get(i).value, is(round + "-" + i));
+                }
+            }
+        } finally {
+            buf.shrink();
+        }
+    }
+
     @SuppressWarnings("deprecation")
     private static int range(ListBuffer<IntOption> buffer, int begin, int end) {
         buffer.begin();
@@ -0,0 +1,137 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.flow;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.apache.hadoop.conf.Configuration;
+import org.junit.Test;
+
+import com.asakusafw.runtime.core.HadoopConfiguration;
+import com.asakusafw.runtime.flow.FileMapListBufferTest.Holder;
+
+/**
+ * Test for {@link OffHeapListBuffer}.
+ */
+public class OffHeapListBufferTest {
+
+    /**
+     * creates a buffer with one element.
+     */
+    @Test
+    public void simple() {
+        OffHeapListBuffer<Holder> buf = new OffHeapListBuffer<>();
+        try {
+            buf.begin();
+            buf.expand(new Holder(""));
+            buf.advance().value = "Hello";
+            buf.end();
+            assertThat(buf.size(), is(1));
+            assertThat(buf.get(0), is(new Holder("Hello")));
+        } finally {
+            buf.shrink();
+        }
+    }
+
+    /**
+     * w/ multiple pages in off-heap memory.
+     */
+    @Test
+    public void pages() {
+        verify(new OffHeapListBuffer<>(32), 100000);
+    }
+
+    /**
+     * w/ pages which exceed the off-heap memory limit.
+     */
+    @Test
+    public void spill() {
+        verify(new OffHeapListBuffer<>(32, 4096), 100000);
+    }
+
+    /**
+     * reuses the buffer after shrink.
+     */
+    @Test
+    public void reuse() {
+        OffHeapListBuffer<Holder> buf = new OffHeapListBuffer<>(32, 4096);
+        for (int i = 0; i < 3; i++) {
+            verify(buf, 10000);
+        }
+    }
+
+    /**
+     * w/ the limit in the stage configuration.
+     * @throws Exception if failed
+     */
+    @Test
+    public void initializer() throws Exception {
+        Configuration conf = new Configuration(false);
+        conf.setLong(OffHeapListBuffer.KEY_LIMIT, 4096);
+        HadoopConfiguration configuration = new HadoopConfiguration(conf);
+        OffHeapListBuffer.Initializer initializer = new OffHeapListBuffer.Initializer();
+        initializer.setup(configuration);
+        try {
+            OffHeapListBuffer<Holder> buf = new OffHeapListBuffer<>(32);
+            assertThat(((FileMapListBuffer.DirectStore<?>) buf.store).limit, is(4096L));
+            verify(buf, 10000);
+        } finally {
+            initializer.cleanup(configuration);
+        }
+        OffHeapListBuffer<Holder> buf = new OffHeapListBuffer<>();
+        try {
+            assertThat(((FileMapListBuffer.DirectStore<?>) buf.store).limit, is(OffHeapListBuffer.DEFAULT_LIMIT));
+        } finally {
+            buf.shrink();
+        }
+    }
+
+    /**
+     * w/ invalid limit in the stage configuration.
+     * @throws Exception if failed
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void initializer_invalid() throws Exception {
+        Configuration conf = new Configuration(false);
+        conf.set(OffHeapListBuffer.KEY_LIMIT, "unknown");
+        new OffHeapListBuffer.Initializer().setup(new HadoopConfiguration(conf));
+    }
+
+    private static void verify(OffHeapListBuffer<Holder> buf, int size) {
+        try {
+            for (int round = 0; round < 2; round++) {
+                buf.begin();
+                for (int i = 0; i < size; i++) {
+                    if (buf.isExpandRequired()) {
+                        buf.expand(new Holder(""));
+                    }
+                    buf.advance().value = round + "-" + i;
+                }
+                buf.end();
+                assertThat(buf.size(), is(size));
+                for (int i = 0; i < size; i++) {
+                    assertThat(buf.get(i).value, is(round + "-" + i));
+                }
+                for (int i = size - 1; i >= 0; i -= 7) {
+                    assertThat(buf.get(i).value, is(round + "-" + i));
+                }
+            }
+        } finally {
+            buf.shrink();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.flow;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import com.asakusafw.runtime.value.Date;
+import com.asakusafw.runtime.value.DateOption;
+import com.asakusafw.runtime.value.IntOption;
+import com.asakusafw.runtime.value.LongOption;
+import com.asakusafw.runtime.value.StringOption;
+
+/**
+ * Test for {@link ShuffleKeyPrefix}.
+ */
+public class ShuffleKeyPrefixTest {
+
+    /**
+     * prefix with only element IDs.
+     */
+    @Test
+    public void element() {
+        assertThat(compare(ShuffleKeyPrefix.of(0), ShuffleKeyPrefix.of(0)), is(0));
+        assertThat(compare(ShuffleKeyPrefix.of(0), ShuffleKeyPrefix.of(1)), lessThan(0));
+        assertThat(compare(ShuffleKeyPrefix.of(1), ShuffleKeyPrefix.of(0, new IntOption(100))), greaterThan(0));
+        assertThat(compare(ShuffleKeyPrefix.of(ShuffleKeyPrefix.MAX_ELEMENT_ID), ShuffleKeyPrefix.of(0)),
+                greaterThan(0));
+    }
+
+    /**
+     * prefix with int values.
+     */
+    @Test
+    public void int_value() {
+        IntOption[] values = {
+                new IntOption(),
+                new IntOption(Integer.MIN_VALUE),
+                new IntOption(-1),
+                new IntOption(0),
+                new IntOption(1),
+                new IntOption(Integer.MAX_VALUE),
+        };
+        for (int i = 1; i < values.length; i++) {
+            long a = ShuffleKeyPrefix.of(1, values[i - 1]);
+            long b = ShuffleKeyPrefix.of(1, values[i]);
+            assertThat(compare(a, b), lessThan(0));
+        }
+    }
+
+    /**
+     * prefix with long values.
+     */
+    @Test
+    public void long_value() {
+        LongOption[] values = {
+                new LongOption(),
+                new LongOption(Long.MIN_VALUE),
+                new LongOption(-1L << 20),
+                new LongOption(0),
+                new LongOption(1L << 20),
+                new LongOption(Long.MAX_VALUE),
+        };
+        for (int i = 1; i < values.length; i++) {
+            long a = ShuffleKeyPrefix.of(1, values[i - 1]);
+            long b = ShuffleKeyPrefix.of(1, values[i]);
+            assertThat(compare(a, b), lessThan(0));
+        }
+        // truncated
+        assertThat(compare(ShuffleKeyPrefix.of(1, new LongOption(0)), ShuffleKeyPrefix.of(1, new LongOption(1))),
+                is(0));
+    }
+
+    /**
+     * prefix with date values.
+     */
+    @Test
+    public void date_value() {
+        long a = ShuffleKeyPrefix.of(1, new DateOption(new Date(2017, 1, 1)));
+        long b = ShuffleKeyPrefix.of(1, new DateOption(new Date(2017, 1, 2)));
+        assertThat(compare(a, b), lessThan(0));
+        assertThat(compare(ShuffleKeyPrefix.of(1, new DateOption()), a), lessThan(0));
+    }
+
+    /**
+     * prefix with string values.
+     */
+    @Test
+    public void string_value() {
+        StringOption[] values = {
+                new StringOption(),
+                new StringOption(""),
+                new StringOption("A"),
+                new StringOption("AB"),
+                new StringOption("B"),
+                new StringOption("あ"),
+        };
+        for (int i = 1; i < values.length; i++) {
+            long a = ShuffleKeyPrefix.of(1, values[i - 1]);
+            long b = ShuffleKeyPrefix.of(1, values[i]);
+            assertThat(compare(a, b), lessThan(0));
+        }
+        // truncated
+        assertThat(compare(
+                ShuffleKeyPrefix.of(1, new StringOption("ABCDEX")),
+                ShuffleKeyPrefix.of(1, new StringOption("ABCDEY"))),
+                is(0));
+    }
+
+    private static int compare(long a, long b) {
+        byte[] b1 = ByteBuffer.allocate(ShuffleKeyPrefix.BYTES + 1).putLong(1, a).array();
+        byte[] b2 = ByteBuffer.allocate(ShuffleKeyPrefix.BYTES).putLong(0, b).array();
+        return ShuffleKeyPrefix.compareBytes(b1, 1, b2, 0);
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.flow.join;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.asakusafw.runtime.value.IntOption;
+
+/**
+ * Test for {@link LookUpTableCache}.
+ */
+public class LookUpTableCacheTest {
+
+    /**
+     * reuses cached tables.
+     * @throws Exception if failed
+     */
+    @Test
+    public void reuse() throws Exception {
+        LookUpTableCache cache = new LookUpTableCache();
+        AtomicInteger count = new AtomicInteger();
+        LookUpTableCache.Key key = key("a", 10);
+        try (LookUpTableCache.Reference<IntOption> r1 = cache.acquire(key, 100, () -> table(count));
+                LookUpTableCache.Reference<IntOption> r2 = cache.acquire(key, 100, () -> table(count))) {
+            // each reference has its own view
+            assertThat(r1.getTable(), is(not(sameInstance(r2.getTable()))));
+        }
+        try (LookUpTableCache.Reference<IntOption> r = cache.acquire(key, 100, () -> table(count))) {
+            assertThat(r.getTable().get(new LookUpKey()), hasSize(1));
+        }
+        assertThat(count.get(), is(1));
+        assertThat(cache.size(), is(1));
+    }
+
+    /**
+     * tables which return the stored objects are not shared.
+     * @throws Exception if failed
+     */
+    @Test
+    public void unshareable() throws Exception {
+        LookUpTableCache cache = new LookUpTableCache();
+        AtomicInteger count = new AtomicInteger();
+        LookUpTableCache.Key key = key("a", 10);
+        try (LookUpTableCache.Reference<IntOption> r1 = cache.acquire(key, 100, () -> volatileTable(count));
+                LookUpTableCache.Reference<IntOption> r2 = cache.acquire(key, 100, () -> volatileTable(count))) {
+            IntOption v1 = r1.getTable().get(new LookUpKey()).get(0);
+            IntOption v2 = r2.getTable().get(new LookUpKey()).get(0);
+            assertThat(v1, is(not(sameInstance(v2))));
+        }
+        assertThat(count.get(), is(2));
+        assertThat(cache.size(), is(0));
+    }
+
+    /**
+     * distinguishes source files.
+     * @throws Exception if failed
+     */
+    @Test
+    public void different() throws Exception {
+        LookUpTableCache cache = new LookUpTableCache();
+        AtomicInteger count = new AtomicInteger();
+        try (LookUpTableCache.Reference<IntOption> r1 = cache.acquire(key("a", 10), 100, () -> table(count));
+                LookUpTableCache.Reference<IntOption> r2 = cache.acquire(key("b", 10), 100, () -> table(count))) {
+            assertThat(r1.getTable(), is(not(sameInstance(r2.getTable()))));
+        }
+        assertThat(count.get(), is(2));
+        assertThat(cache.size(), is(2));
+    }
+
+    /**
+     * evicts unused tables in LRU order.
+     * @throws Exception if failed
+     */
+    @Test
+    public void evict() throws Exception {
+        LookUpTableCache cache = new LookUpTableCache();
+        AtomicInteger count = new AtomicInteger();
+        cache.acquire(key("a", 40), 100, () -> table(count)).close();
+        cache.acquire(key("b", 40), 100, () -> table(count)).close();
+        cache.acquire(key("a", 40), 100, () -> table(count)).close();
+        assertThat(count.get(), is(2));
+
+        // evicts "b"
+        cache.acquire(key("c", 40), 100, () -> table(count)).close();
+        assertThat(count.get(), is(3));
+        assertThat(cache.size(), is(2));
+
+        cache.acquire(key("a", 40), 100, () -> table(count)).close();
+        assertThat(count.get(), is(3));
+        cache.acquire(key("b", 40), 100, () -> table(count)).close();
+        assertThat(count.get(), is(4));
+    }
+
+    /**
+     * tables in use are never evicted.
+     * @throws Exception if failed
+     */
+    @Test
+    public void evict_in_use() throws Exception {
+        LookUpTableCache cache = new LookUpTableCache();
+        AtomicInteger count = new AtomicInteger();
+        try (LookUpTableCache.Reference<IntOption> r1 = cache.acquire(key("a", 80), 100, () -> table(count));
+                LookUpTableCache.Reference<IntOption> r2 = cache.acquire(key("b", 80), 100, () -> table(count))) {
+            assertThat(cache.size(), is(2));
+        }
+        assertThat(cache.size(), is(1));
+    }
+
+    /**
+     * failed to build tables.
+     * @throws Exception if failed
+     */
+    @Test
+    public void failure() throws Exception {
+        LookUpTableCache cache = new LookUpTableCache();
+        try {
+            cache.acquire(key("a", 10), 100, () -> {
+                throw new IOException();
+            });
+            fail();
+        } catch (IOException e) {
+            // ok.
+        }
+        assertThat(cache.size(), is(0));
+    }
+
+    private static LookUpTableCache.Key key(String name, long size) {
+        return new LookUpTableCache.Key("testing", Arrays.asList(name), size);
+    }
+
+    private static LookUpTable<IntOption> table(AtomicInteger counter) throws IOException {
+        counter.incrementAndGet();
+        OffHeapLookUpTable.Builder<IntOption> builder = new OffHeapLookUpTable.Builder<>(IntOption.class, 1024);
+        builder.add(new LookUpKey(), new IntOption(100));
+        return builder.build();
+    }
+
+    private static LookUpTable<IntOption> volatileTable(AtomicInteger counter) throws IOException {
+        counter.incrementAndGet();
+        VolatileLookUpTable.Builder<IntOption> builder = new VolatileLookUpTable.Builder<>();
+        builder.add(new LookUpKey(), new IntOption(100));
+        return builder.build();
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.flow.join;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.asakusafw.runtime.value.IntOption;
+import com.asakusafw.runtime.value.StringOption;
+
+/**
+ * Test for {@link OffHeapLookUpTable}.
+ */
+public class OffHeapLookUpTableTest {
+
+    /**
+     * empty table.
+     * @throws Exception if failed
+     */
+    @Test
+    public void empty() throws Exception {
+        OffHeapLookUpTable.Builder<IntOption> builder = new OffHeapLookUpTable.Builder<>(IntOption.class);
+
+        LookUpTable<IntOption> table = builder.build();
+        assertThat(sort(table.get(key(100))), is(values()));
+    }
+
+    /**
+     * simple case.
+     * @throws Exception if failed
+     */
+    @Test
+    public void simple() throws Exception {
+        OffHeapLookUpTable.Builder<IntOption> builder = new OffHeapLookUpTable.Builder<>(IntOption.class);
+        builder.add(key(100), new IntOption(100));
+
+        LookUpTable<IntOption> table = builder.build();
+        assertThat(sort(table.get(key(100))), is(values(100)));
+        assertThat(sort(table.get(key(101))), is(values()));
+    }
+
+    /**
+     * conflict keys.
+     * @throws Exception if failed
+     */
+    @Test
+    public void duplicate() throws Exception {
+        OffHeapLookUpTable.Builder<IntOption> builder = new OffHeapLookUpTable.Builder<>(IntOption.class);
+        builder.add(key(100), new IntOption(100));
+        builder.add(key(100), new IntOption(101));
+        builder.add(key(100), new IntOption(102));
+
+        LookUpTable<IntOption> table = builder.build();
+        assertThat(sort(table.get(key(100))), is(values(100, 101, 102)));
+        assertThat(sort(table.get(key(101))), is(values()));
+        assertThat(sort(table.get(key(100))), is(values(100, 101, 102)));
+    }
+
+    /**
+     * reuses the same key and value object.
+     * @throws Exception if failed
+     */
+    @Test
+    public void reuse() throws Exception {
+        OffHeapLookUpTable.Builder<IntOption> builder = new OffHeapLookUpTable.Builder<>(IntOption.class);
+        LookUpKey key = key();
+        IntOption value = new IntOption();
+
+        key.add(new IntOption(100));
+        builder.add(key, value.modify(100));
+        key.reset();
+
+        key.add(new IntOption(101));
+        builder.add(key, value.modify(101));
+        key.reset();
+
+        key.add(new IntOption(102));
+        builder.add(key, value.modify(102));
+        key.reset();
+
+        LookUpTable<IntOption> table = builder.build();
+        assertThat(sort(table.get(key(100))), is(values(100)));
+        assertThat(sort(table.get(key(101))), is(values(101)));
+        assertThat(sort(table.get(key(102))), is(values(102)));
+    }
+
+    /**
+     * many entries over multiple pages.
+     * @throws Exception if failed
+     */
+    @Test
+    public void many() throws Exception {
+        OffHeapLookUpTable.Builder<StringOption> builder = new OffHeapLookUpTable.Builder<>(StringOption.class, 100);
+        for (int i = 0; i < 10000; i++) {
+            builder.add(key(i % 3000), new StringOption(String.valueOf(i)));
+        }
+        LookUpTable<StringOption> table = builder.build();
+        for (int i = 0; i < 3000; i++) {
+            List<String> found = new ArrayList<>();
+            for (StringOption option : table.get(key(i))) {
+                found.add(option.getAsString());
+            }
+            List<String> expected = new ArrayList<>();
+            for (int j = i; j < 10000; j += 3000) {
+                expected.add(String.valueOf(j));
+            }
+            assertThat(found, is(expected));
+        }
+        assertThat(table.get(key(3000)), hasSize(0));
+    }
+
+    /**
+     * views are used from multiple threads.
+     * @throws Exception if failed
+     */
+    @Test
+    public void views() throws Exception {
+        OffHeapLookUpTable.Builder<StringOption> builder = new OffHeapLookUpTable.Builder<>(StringOption.class, 100);
+        for (int i = 0; i < 3000; i++) {
+            builder.add(key(i), new StringOption(String.valueOf(i)));
+        }
+        OffHeapLookUpTable<StringOption> table = (OffHeapLookUpTable<StringOption>) builder.build();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                LookUpTable<StringOption> view = table.newView();
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 3000; i++) {
+                        List<StringOption> found = view.get(key(i));
+                        assertThat(found, hasSize(1));
+                        assertThat(found.get(0).getAsString(), is(String.valueOf(i)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private LookUpKey key(int... values) throws IOException {
+        LookUpKey result = new LookUpKey();
+        for (int value : values) {
+            result.add(new IntOption(value));
+        }
+        return result;
+    }
+
+    private List<IntOption> sort(List<IntOption> list) {
+        List<IntOption> copy = new ArrayList<>();
+        for (IntOption option : list) {
+            copy.add(new IntOption().modify(option.get()));
+        }
+        Collections.sort(copy);
+        return copy;
+    }
+
+    private List<IntOption> values(int...values) {
+        List<IntOption> options = new ArrayList<>();
+        for (int value : values) {
+            options.add(new IntOption(value));
+        }
+        return sort(options);
+    }
+}
@@ -18,8 +18,10 @@ package com.asakusafw.runtime.io.text.csv;
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.UnaryOperator;
@@ -289,6 +291,65 @@ public class CsvFieldReaderTest {
         }));
     }
 
+    /**
+     * w/ multi-byte characters.
+     */
+    @Test
+    public void multibyte() {
+        String[][] result = read("\u3042,'\u3044,\u3046','\u3048''\u304a'");
+        assertThat(result, is(new String[][] {
+            { "\u3042", "\u3044,\u3046", "\u3048'\u304a" },
+        }));
+    }
+
+    /**
+     * w/ lines longer than the read buffer.
+     */
+    @Test
+    public void long_line() {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < LineCursor.READ_BUFFER_SIZE; i++) {
+            buf.append((char) ('\u3040' + i % 64));
+        }
+        String value = buf.toString();
+        String[][] result = read(value + ",'" + value + "'", "A");
+        assertThat(result, is(new String[][] {
+            { value, value },
+            { "A" },
+        }));
+    }
+
+    /**
+     * skip fields.
+     * @throws Exception if failed
+     */
+    @Test
+    public void skip() throws Exception {
+        String[] lines = { "A,'B,C',D,'E''F'", "G" };
+        try (FieldReader reader = reader(null, lines)) {
+            checkSkip(reader);
+        }
+        try (FieldReader reader = byteReader(lines)) {
+            checkSkip(reader);
+        }
+    }
+
+    private static void checkSkip(FieldReader reader) throws IOException {
+        assertThat(reader.nextRecord(), is(true));
+        assertThat(reader.skipField(), is(true));
+        assertThat(reader.skipField(), is(true));
+        assertThat(reader.nextField(), is(true));
+        assertThat(reader.getContent().toString(), is("D"));
+        assertThat(reader.skipField(), is(true));
+        assertThat(reader.nextField(), is(false));
+
+        assertThat(reader.nextRecord(), is(true));
+        assertThat(reader.nextField(), is(true));
+        assertThat(reader.getContent().toString(), is("G"));
+        assertThat(reader.skipField(), is(false));
+        assertThat(reader.nextRecord(), is(false));
+    }
+
     /**
      * transform w/ edit.
      */
@@ -307,12 +368,27 @@ public class CsvFieldReaderTest {
     }
 
     private String[][] read(UnaryOperator<CharSequence> transformer, String... lines) {
-        try (FieldReader reader = reader(transformer, lines)) {
+        String[][] results = collect(reader(transformer, lines));
+        if (transformer == null) {
+            // the byte oriented reader must be compatible with the character oriented one
+            assertThat(collect(byteReader(lines)), is(results));
+        }
+        return results;
+    }
+
+    private static String[][] collect(FieldReader reader) {
+        try (FieldReader r = reader) {
             List<List<String>> results = new ArrayList<>();
-            while (reader.nextRecord()) {
+            while (r.nextRecord()) {
                 List<String> row = new ArrayList<>();
-                while (reader.nextField()) {
-                    CharSequence content = reader.getContent();
+                while (r.nextField()) {
+                    CharSequence content = r.getContent();
+                    if (r.hasUtf8Content()) {
+                        String bytes = new String(
+                                r.getUtf8ContentBytes(), r.getUtf8ContentOffset(), r.getUtf8ContentLength(),
+                                StandardCharsets.UTF_8);
+                        assertThat(bytes, is(content.toString()));
+                    }
                     row.add(content == null ? null : content.toString());
                 }
                 results.add(row);
@@ -325,6 +401,12 @@ public class CsvFieldReaderTest {
         }
     }
 
+    private FieldReader byteReader(String... lines) {
+        return new CsvFieldReader(
+                new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8)), ',', '\'',
+                allowLineFeed);
+    }
+
     private FieldReader reader(UnaryOperator<CharSequence> transformer, String... lines) {
         return new CsvFieldReader(
                 new StringReader(String.join("\n", lines)), ',', '\'',
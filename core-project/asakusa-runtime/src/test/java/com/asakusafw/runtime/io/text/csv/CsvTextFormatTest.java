@@ -170,6 +170,30 @@ public class CsvTextFormatTest {
         }));
     }
 
+    /**
+     * input - byte oriented reader.
+     * @throws Exception if failed
+     */
+    @Test
+    public void input_bytes() throws Exception {
+        assertThat(hasUtf8Content(CsvTextFormat.builder().build()), is(true));
+        assertThat(hasUtf8Content(CsvTextFormat.builder()
+                .withCharset("UTF-16")
+                .build()), is(false));
+        assertThat(hasUtf8Content(CsvTextFormat.builder()
+                .withInputTransformer(LowerCaseTransformer.class)
+                .build()), is(false));
+    }
+
+    private static boolean hasUtf8Content(CsvTextFormat format) throws IOException {
+        byte[] bytes = "A".getBytes(format.getCharset());
+        try (CsvFieldReader reader = format.open(new ByteArrayInputStream(bytes))) {
+            assertThat(reader.nextRecord(), is(true));
+            assertThat(reader.nextField(), is(true));
+            return reader.hasUtf8Content();
+        }
+    }
+
     /**
      * output.
      */
@@ -20,27 +20,46 @@ import static org.junit.Assert.*;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.compress.utils.IOUtils;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.hadoop.io.compress.GzipCodec;
+import org.junit.Rule;
 import org.junit.Test;
-
+import org.junit.rules.TemporaryFolder;
+
+import com.asakusafw.runtime.directio.DataDefinition;
+import com.asakusafw.runtime.directio.DirectInputFragment;
+import com.asakusafw.runtime.directio.Counter;
+import com.asakusafw.runtime.directio.FilePattern;
+import com.asakusafw.runtime.directio.OutputAttemptContext;
+import com.asakusafw.runtime.directio.SimpleDataDefinition;
+import com.asakusafw.runtime.directio.hadoop.BlockIndex;
+import com.asakusafw.runtime.directio.hadoop.HadoopDataSourceCore;
+import com.asakusafw.runtime.directio.hadoop.HadoopDataSourceProfile;
+import com.asakusafw.runtime.directio.hadoop.HadoopDataSourceUtil;
 import com.asakusafw.runtime.io.ModelInput;
 import com.asakusafw.runtime.io.ModelOutput;
 import com.asakusafw.runtime.io.text.FieldReader;
@@ -58,6 +77,12 @@ import com.asakusafw.runtime.io.text.mock.MockFieldWriter;
  */
 public class AbstractTextStreamFormatTest {
 
+    /**
+     * temporary folder.
+     */
+    @Rule
+    public final TemporaryFolder temporary = new TemporaryFolder();
+
     /**
      * input - simple.
      * @throws Exception if failed
@@ -95,6 +120,29 @@ public class AbstractTextStreamFormatTest {
         }
     }
 
+    /**
+     * input - w/ projection.
+     * @throws Exception if failed
+     */
+    @Test
+    public void input_projection() throws Exception {
+        MockFormat format = format(3);
+        format.getConf().set(
+                AbstractTextStreamFormat.KEY_INPUT_PROJECTION_PREFIX + MockFormat.class.getName(),
+                "p0, p2");
+        String[][] data = {
+                { "A", "B", "C", },
+                { "D", "E", "F", },
+        };
+        try (ModelInput<String[]> in = format.createInput(String[].class, "dummy", input(data))) {
+            String[][] result = collect(3, in);
+            assertThat(result, is(new String[][] {
+                { "A", null, "C", },
+                { "D", null, "F", },
+            }));
+        }
+    }
+
     /**
      * input - w/ splitter.
      * @throws Exception if failed
@@ -311,6 +359,150 @@ public class AbstractTextStreamFormatTest {
         assertThat(deserialize(buf.toByteArray()), is(data));
     }
 
+    /**
+     * block compressed files.
+     * @throws Exception if failed
+     */
+    @Test
+    public void block_compression() throws Exception {
+        MockFormat format = format(1)
+                .withCodecClass(GzipCodec.class)
+                .withInputSplitter(InputSplitters.byLineFeed());
+        format.getConf().setLong(AbstractTextStreamFormat.KEY_OUTPUT_BLOCK_SIZE, 50);
+        assertThat(format.isBlockIndexSupported(), is(true));
+        assertThat(format.getPreferredFragmentSize(), is(-1L));
+        assertThat(format.getMinimumFragmentSize(), is(-1L));
+
+        String[][] data = IntStream.range(0, 100)
+                .mapToObj(i -> new String[] { String.format("row-%03d", i) })
+                .toArray(String[][]::new);
+        File file = temporary.newFile("testing.gz");
+        String path = file.toURI().toString();
+        try (ModelOutput<String[]> out = format.createOutput(String[].class, path, new FileOutputStream(file))) {
+            dump(out, data);
+        }
+        Path hadoopPath = new Path(path);
+        BlockIndex index = BlockIndex.find(hadoopPath.getFileSystem(format.getConf()), hadoopPath);
+        assertThat(index, is(notNullValue()));
+        assertThat(index.getBlockCount(), is(greaterThan(3)));
+
+        List<String[]> results = new ArrayList<>();
+        long length = file.length();
+        long fragment = length / 3;
+        for (int i = 0; i < 3; i++) {
+            long offset = fragment * i;
+            long size = i == 2 ? length - offset : fragment;
+            try (InputStream stream = new FileInputStream(file)) {
+                assertThat(stream.skip(offset), is(offset));
+                try (ModelInput<String[]> in = format.createInput(String[].class, path, stream, offset, size)) {
+                    results.addAll(Arrays.asList(collect(1, in)));
+                }
+            }
+        }
+        assertThat(results.toArray(new String[results.size()][]), is(data));
+    }
+
+    /**
+     * finds input fragments of block compressed files.
+     * @throws Exception if failed
+     */
+    @Test
+    public void block_compression_fragments() throws Exception {
+        MockFormat format = format(1)
+                .withCodecClass(GzipCodec.class)
+                .withInputSplitter(InputSplitters.byLineFeed());
+        format.getConf().setLong(AbstractTextStreamFormat.KEY_OUTPUT_BLOCK_SIZE, 50);
+
+        String[][] data = IntStream.range(0, 100)
+                .mapToObj(i -> new String[] { String.format("row-%03d", i) })
+                .toArray(String[][]::new);
+        File root = temporary.newFolder("mapping");
+        File input = new File(root, "input");
+        assertThat(input.mkdirs(), is(true));
+        File indexed = new File(input, "indexed.gz");
+        try (ModelOutput<String[]> out = format.createOutput(
+                String[].class, indexed.toURI().toString(), new FileOutputStream(indexed))) {
+            dump(out, data);
+        }
+        File plain = new File(input, "plain.gz");
+        Files.copy(indexed.toPath(), plain.toPath());
+
+        HadoopDataSourceProfile profile = new HadoopDataSourceProfile(
+                format.getConf(),
+                "testing",
+                "testing",
+                new Path(root.toURI()),
+                new Path(temporary.newFolder("temporary").toURI()));
+        profile.setMinimumFragmentSize(1);
+        profile.setPreferredFragmentSize(indexed.length() / 3);
+        HadoopDataSourceCore core = new HadoopDataSourceCore(profile);
+        DataDefinition<String[]> definition = SimpleDataDefinition.newInstance(String[].class, format);
+
+        List<DirectInputFragment> fragments = core.findInputFragments(
+                definition, "input", FilePattern.compile("indexed.gz"));
+        assertThat(fragments, hasSize(greaterThan(1)));
+
+        fragments = core.findInputFragments(
+                definition, "input", FilePattern.compile("plain.gz"));
+        assertThat(fragments, hasSize(1));
+    }
+
+    /**
+     * finds input fragments of block compressed files which were committed from the local temporary directory.
+     * @throws Exception if failed
+     */
+    @Test
+    public void block_compression_fragments_local_temporary() throws Exception {
+        MockFormat format = format(1)
+                .withCodecClass(GzipCodec.class)
+                .withInputSplitter(InputSplitters.byLineFeed());
+        format.getConf().setLong(AbstractTextStreamFormat.KEY_OUTPUT_BLOCK_SIZE, 50);
+
+        String[][] data = IntStream.range(0, 100)
+                .mapToObj(i -> new String[] { String.format("row-%03d", i) })
+                .toArray(String[][]::new);
+        File root = temporary.newFolder("mapping");
+        File localTemporary = temporary.newFolder("localtemp");
+        HadoopDataSourceProfile profile = new HadoopDataSourceProfile(
+                format.getConf(),
+                "testing",
+                "testing",
+                new Path(root.toURI()),
+                new Path(temporary.newFolder("temporary").toURI()));
+        profile.setOutputStreaming(false);
+        profile.getLocalFileSystem().getConf().set(
+                HadoopDataSourceUtil.KEY_LOCAL_TEMPDIR,
+                localTemporary.getPath());
+        profile.setMinimumFragmentSize(1);
+        HadoopDataSourceCore core = new HadoopDataSourceCore(profile);
+        DataDefinition<String[]> definition = SimpleDataDefinition.newInstance(String[].class, format);
+
+        OutputAttemptContext context = new OutputAttemptContext("tx", "atmpt", profile.getId(), new Counter());
+        core.setupTransactionOutput(context.getTransactionContext());
+        core.setupAttemptOutput(context);
+        try (ModelOutput<String[]> out = core.openOutput(context, definition, "output", "data.gz", new Counter())) {
+            dump(out, data);
+        }
+        // the committed files are copied from the local temporary directory, and they will have newer time
+        try (Stream<java.nio.file.Path> files = Files.walk(localTemporary.toPath())) {
+            for (java.nio.file.Path file : files.collect(Collectors.toList())) {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(0L));
+            }
+        }
+        core.commitAttemptOutput(context);
+        core.cleanupAttemptOutput(context);
+        core.commitTransactionOutput(context.getTransactionContext());
+        core.cleanupTransactionOutput(context.getTransactionContext());
+
+        File output = new File(root, "output/data.gz");
+        assertThat(output.isFile(), is(true));
+        profile.setPreferredFragmentSize(output.length() / 3);
+
+        List<DirectInputFragment> fragments = core.findInputFragments(
+                definition, "output", FilePattern.compile("data.gz"));
+        assertThat(fragments, hasSize(greaterThan(1)));
+    }
+
     private String[][] collect(int columns, ModelInput<String[]> input) throws IOException {
         List<String[]> results = new ArrayList<>();
         while (true) {
@@ -19,6 +19,7 @@ import static com.asakusafw.runtime.io.text.driver.TestUtil.*;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
 import java.util.Collections;
 
 import org.junit.Test;
@@ -86,6 +87,47 @@ public class RecordDefinitionTest {
         }));
     }
 
+    /**
+     * input - w/ projection.
+     * @throws Exception if failed
+     */
+    @Test
+    public void input_projection() throws Exception {
+        RecordDefinition<String[]> def = RecordDefinition.builder(String[].class)
+                .withField(self(), field(0).build())
+                .withField(self(), field(1).build())
+                .withField(self(), field(2).build())
+                .build()
+                .withProjection(Arrays.asList("p0", "p2"));
+        String[][] results = collect(def, new String[][] {
+            { "A", "B", "C", },
+            { "D", "E", "F", },
+        });
+        assertThat(results, is(new String[][] {
+            { "A", null, "C", },
+            { "D", null, "F", },
+        }));
+    }
+
+    /**
+     * input - w/ projection but the field skips empty input.
+     * @throws Exception if failed
+     */
+    @Test
+    public void input_projection_skip_empty() throws Exception {
+        RecordDefinition<String[]> def = RecordDefinition.builder(String[].class)
+                .withField(self(), field(0).withSkipEmptyInput(true).build())
+                .withField(self(), field(1).build())
+                .build()
+                .withProjection(Arrays.asList("p1"));
+        String[][] results = collect(def, new String[][] {
+            { "", "A", "B", },
+        });
+        assertThat(results, is(new String[][] {
+            { "A", "B", },
+        }));
+    }
+
     /**
      * output - simple case.
      * @throws Exception if failed
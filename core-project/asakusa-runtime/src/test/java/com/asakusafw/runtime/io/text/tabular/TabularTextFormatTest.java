@@ -143,6 +143,30 @@ public class TabularTextFormatTest {
         }));
     }
 
+    /**
+     * input - byte oriented reader.
+     * @throws Exception if failed
+     */
+    @Test
+    public void input_bytes() throws Exception {
+        assertThat(hasUtf8Content(TabularTextFormat.builder().build()), is(true));
+        assertThat(hasUtf8Content(TabularTextFormat.builder()
+                .withCharset("UTF-16")
+                .build()), is(false));
+        assertThat(hasUtf8Content(TabularTextFormat.builder()
+                .withInputTransformer(LowerCaseTransformer.class)
+                .build()), is(false));
+    }
+
+    private static boolean hasUtf8Content(TabularTextFormat format) throws IOException {
+        byte[] bytes = "A".getBytes(format.getCharset());
+        try (TabularFieldReader reader = format.open(new ByteArrayInputStream(bytes))) {
+            assertThat(reader.nextRecord(), is(true));
+            assertThat(reader.nextField(), is(true));
+            return reader.hasUtf8Content();
+        }
+    }
+
     /**
      * output.
      */
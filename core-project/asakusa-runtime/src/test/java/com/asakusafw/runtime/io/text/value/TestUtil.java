@@ -18,6 +18,8 @@ package com.asakusafw.runtime.io.text.value;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
+import java.nio.charset.StandardCharsets;
+
 import com.asakusafw.runtime.io.text.driver.BasicFieldOutput;
 import com.asakusafw.runtime.io.text.driver.FieldAdapter;
 import com.asakusafw.runtime.io.text.driver.MalformedFieldException;
@@ -42,6 +44,14 @@ final class TestUtil {
             T sink = (T) expected.getClass().newInstance();
             adapter.parse(cs, sink);
             assertThat(sink, equalTo(expected));
+            if (cs != null) {
+                @SuppressWarnings("unchecked")
+                T bytesSink = (T) expected.getClass().newInstance();
+                byte[] bytes = toBytes(cs);
+                if (adapter.parse(bytes, 1, bytes.length - 2, bytesSink)) {
+                    assertThat(bytesSink, equalTo(expected));
+                }
+            }
         } catch (ReflectiveOperationException e) {
             throw new AssertionError(e);
         }
@@ -55,6 +65,31 @@ final class TestUtil {
         } catch (MalformedFieldException e) {
             // ok.
         }
+        // UTF-8 encoded bytes never contain unmappable characters
+        if (cs != null && isMappable(cs)) {
+            byte[] bytes = toBytes(cs);
+            try {
+                if (adapter.parse(bytes, 1, bytes.length - 2, buffer)) {
+                    fail(String.valueOf(buffer));
+                }
+            } catch (MalformedFieldException e) {
+                // ok.
+            }
+        }
+    }
+
+    private static boolean isMappable(CharSequence cs) {
+        return StandardCharsets.UTF_8.newEncoder().canEncode(cs);
+    }
+
+    private static byte[] toBytes(CharSequence cs) {
+        // surrounds with extra bytes to check offset and length
+        byte[] contents = cs.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] results = new byte[contents.length + 2];
+        results[0] = '?';
+        System.arraycopy(contents, 0, results, 1, contents.length);
+        results[results.length - 1] = '?';
+        return results;
     }
 
     private static CharSequence toCharSequence(Object value) {
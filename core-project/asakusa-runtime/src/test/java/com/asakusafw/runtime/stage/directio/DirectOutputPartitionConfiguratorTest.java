@@ -0,0 +1,320 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.stage.directio;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.asakusafw.runtime.directio.DataFormat;
+import com.asakusafw.runtime.io.ModelOutput;
+import com.asakusafw.runtime.io.util.ShuffleKey;
+import com.asakusafw.runtime.model.DataModel;
+import com.asakusafw.runtime.stage.StageInput;
+import com.asakusafw.runtime.stage.directio.StringTemplate.Format;
+import com.asakusafw.runtime.stage.directio.StringTemplate.FormatSpec;
+import com.asakusafw.runtime.stage.input.StageInputDriver;
+import com.asakusafw.runtime.stage.input.TemporaryInputFormat;
+import com.asakusafw.runtime.stage.temporary.TemporaryStorage;
+import com.asakusafw.runtime.util.hadoop.ConfigurationProvider;
+import com.asakusafw.runtime.value.IntOption;
+import com.asakusafw.runtime.windows.WindowsSupport;
+
+/**
+ * Test for {@link DirectOutputPartitionConfigurator}.
+ */
+public class DirectOutputPartitionConfiguratorTest {
+
+    /**
+     * Windows platform support.
+     */
+    @ClassRule
+    public static final WindowsSupport WINDOWS_SUPPORT = new WindowsSupport();
+
+    /**
+     * Temporary folder for testing.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * simple case.
+     * @throws Exception if failed
+     */
+    @Test
+    public void simple() throws Exception {
+        Job job = job(4, 100);
+        new DirectOutputPartitionConfigurator().configure(job);
+        assertThat(job.getPartitionerClass(), is((Object) DirectOutputRangePartitioner.class));
+        assertThat(DirectOutputRangePartitioner.getSplitPoints(job.getConfiguration()), hasSize(3));
+
+        DirectOutputRangePartitioner partitioner = ReflectionUtils.newInstance(
+                DirectOutputRangePartitioner.class, job.getConfiguration());
+        int last = 0;
+        for (int i = 0; i < 100; i++) {
+            int partition = partitioner.getPartition(key(i), null, 4);
+            assertThat(partition, is(greaterThanOrEqualTo(last)));
+            last = partition;
+        }
+        assertThat(last, is(3));
+    }
+
+    /**
+     * only output groups which contain split points are split.
+     * @throws Exception if failed
+     */
+    @Test
+    public void split_group() throws Exception {
+        Job job = job(4, 100);
+        new DirectOutputPartitionConfigurator().configure(job);
+
+        DirectOutputRangePartitioner partitioner = ReflectionUtils.newInstance(
+                DirectOutputRangePartitioner.class, job.getConfiguration());
+        int splitGroups = 0;
+        for (int group = 0; group < 10; group++) {
+            MockKey first = key(group * 10);
+            MockKey last = key(group * 10 + 9);
+            boolean split = partitioner.getPartition(first, null, 4) != partitioner.getPartition(last, null, 4);
+            if (split) {
+                assertThat(partitioner.isSplitGroup(first, 4), is(true));
+                splitGroups++;
+            }
+            assertThat(partitioner.isSplitGroup(first, 4), is(partitioner.isSplitGroup(last, 4)));
+        }
+        assertThat(splitGroups, is(greaterThan(0)));
+        assertThat(partitioner.isSplitGroup(key(0), 4), is(false));
+        assertThat(partitioner.isSplitGroup(key(99), 4), is(false));
+        assertThat(partitioner.isSplitGroup(key(50), 5), is(false));
+    }
+
+    /**
+     * range partitioning is disabled.
+     * @throws Exception if failed
+     */
+    @Test
+    public void disabled() throws Exception {
+        Job job = job(4, 100);
+        job.getConfiguration().setBoolean(DirectOutputPartitionConfigurator.KEY_ENABLED, false);
+        new DirectOutputPartitionConfigurator().configure(job);
+        assertThat(job.getPartitionerClass(), is((Object) ShuffleKey.Partitioner.class));
+        assertThat(DirectOutputRangePartitioner.isEnabled(job.getConfiguration()), is(false));
+    }
+
+    /**
+     * only a single reducer.
+     * @throws Exception if failed
+     */
+    @Test
+    public void single_reducer() throws Exception {
+        Job job = job(1, 100);
+        new DirectOutputPartitionConfigurator().configure(job);
+        assertThat(job.getPartitionerClass(), is((Object) ShuffleKey.Partitioner.class));
+        assertThat(DirectOutputRangePartitioner.isEnabled(job.getConfiguration()), is(false));
+    }
+
+    /**
+     * inputs are empty.
+     * @throws Exception if failed
+     */
+    @Test
+    public void empty() throws Exception {
+        Job job = job(4, 0);
+        new DirectOutputPartitionConfigurator().configure(job);
+        assertThat(job.getPartitionerClass(), is((Object) ShuffleKey.Partitioner.class));
+        assertThat(DirectOutputRangePartitioner.isEnabled(job.getConfiguration()), is(false));
+    }
+
+    /**
+     * the number of sampled records is limited.
+     * @throws Exception if failed
+     */
+    @Test
+    public void sample_records() throws Exception {
+        Job job = job(2, 100);
+        job.getConfiguration().setInt(DirectOutputPartitionConfigurator.KEY_SAMPLE_RECORDS, 10);
+        new DirectOutputPartitionConfigurator().configure(job);
+        assertThat(DirectOutputRangePartitioner.getSplitPoints(job.getConfiguration()), hasSize(1));
+
+        DirectOutputRangePartitioner partitioner = ReflectionUtils.newInstance(
+                DirectOutputRangePartitioner.class, job.getConfiguration());
+        // only the first 10 records are sampled
+        assertThat(partitioner.getPartition(key(0), null, 2), is(0));
+        assertThat(partitioner.getPartition(key(10), null, 2), is(1));
+        assertThat(partitioner.getPartition(key(99), null, 2), is(1));
+    }
+
+    private Job job(int reducers, int records) throws IOException {
+        Configuration conf = new ConfigurationProvider().newInstance();
+        conf.setBoolean(DirectOutputPartitionConfigurator.KEY_ENABLED, true);
+        Path path = new Path(folder.newFile().toURI());
+        try (ModelOutput<MockData> output = TemporaryStorage.openOutput(conf, MockData.class, path)) {
+            MockData buffer = new MockData();
+            for (int i = 0; i < records; i++) {
+                buffer.value.modify(i);
+                output.write(buffer);
+            }
+        }
+        Job job = Job.getInstance(conf);
+        StageInputDriver.set(job, Arrays.asList(new StageInput(
+                path.toString(), TemporaryInputFormat.class, MockMapper.class)));
+        job.setMapOutputKeyClass(MockKey.class);
+        job.setMapOutputValueClass(MockValue.class);
+        job.setPartitionerClass(ShuffleKey.Partitioner.class);
+        job.setReducerClass(DirectOutputReducer.class);
+        job.setNumReduceTasks(reducers);
+        return job;
+    }
+
+    private static MockKey key(int value) {
+        MockData data = new MockData();
+        data.value.modify(value);
+        MockKey key = new MockKey();
+        key.setPosition(0);
+        key.setObject(data);
+        return key;
+    }
+
+    /**
+     * Mock data model.
+     */
+    public static final class MockData implements DataModel<MockData>, Writable {
+
+        final IntOption value = new IntOption();
+
+        @Override
+        public void reset() {
+            value.setNull();
+        }
+
+        @Override
+        public void copyFrom(MockData other) {
+            value.copyFrom(other.value);
+        }
+
+        @Override
+        public void write(DataOutput out) throws IOException {
+            value.write(out);
+        }
+
+        @Override
+        public void readFields(DataInput in) throws IOException {
+            value.readFields(in);
+        }
+    }
+
+    /**
+     * Mock mapper.
+     */
+    public static final class MockMapper extends AbstractDirectOutputMapper<MockData> {
+
+        /**
+         * Creates a new instance.
+         */
+        public MockMapper() {
+            super(0, MockKey.class, MockValue.class);
+        }
+    }
+
+    /**
+     * Mock shuffle key.
+     */
+    public static final class MockKey extends AbstractDirectOutputKey {
+
+        /**
+         * Creates a new instance.
+         */
+        public MockKey() {
+            super(SPEC);
+        }
+    }
+
+    /**
+     * Mock shuffle value.
+     */
+    public static final class MockValue extends AbstractDirectOutputValue {
+
+        /**
+         * Creates a new instance.
+         */
+        public MockValue() {
+            super(SPEC);
+        }
+    }
+
+    static final DirectOutputSpec SPEC = new DirectOutputSpec(
+            MockData.class, "out", MockFormat.class, MockNaming.class, MockOrder.class);
+
+    /**
+     * Mock format.
+     */
+    public static final class MockFormat implements DataFormat<MockData> {
+
+        @Override
+        public Class<MockData> getSupportedType() {
+            return MockData.class;
+        }
+    }
+
+    /**
+     * Mock naming, which groups each 10 records.
+     */
+    public static final class MockNaming extends StringTemplate {
+
+        /**
+         * Creates a new instance.
+         */
+        public MockNaming() {
+            super(new FormatSpec(Format.NATURAL, null));
+        }
+
+        @Override
+        public void set(Object object) {
+            setProperty(0, ((MockData) object).value.get() / 10);
+        }
+    }
+
+    /**
+     * Mock ordering.
+     */
+    public static final class MockOrder extends DirectOutputOrder {
+
+        /**
+         * Creates a new instance.
+         */
+        public MockOrder() {
+            super(new IntOption());
+        }
+
+        @Override
+        public void set(Object object) {
+            ((IntOption) get(0)).copyFrom(((MockData) object).value);
+        }
+    }
+}
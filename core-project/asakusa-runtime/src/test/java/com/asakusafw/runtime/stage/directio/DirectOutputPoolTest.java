@@ -0,0 +1,176 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.stage.directio;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.asakusafw.runtime.io.ModelOutput;
+
+/**
+ * Test for {@link DirectOutputPool}.
+ */
+public class DirectOutputPoolTest {
+
+    /**
+     * simple case.
+     * @throws Exception if failed
+     */
+    @Test
+    public void simple() throws Exception {
+        List<String> closed = Collections.synchronizedList(new ArrayList<>());
+        List<String> callbacks = new ArrayList<>();
+        try (DirectOutputPool pool = new DirectOutputPool(1)) {
+            pool.release(new Mock("a", closed), () -> callbacks.add("a"));
+            pool.flush();
+            assertThat(closed, contains("a"));
+            assertThat(callbacks, contains("a"));
+            assertThat(pool.getReleaseCount(), is(1L));
+            assertThat(pool.getAsyncCount(), is(1L));
+        }
+    }
+
+    /**
+     * close outputs on the owner thread.
+     * @throws Exception if failed
+     */
+    @Test
+    public void synchronous() throws Exception {
+        List<String> closed = Collections.synchronizedList(new ArrayList<>());
+        List<String> callbacks = new ArrayList<>();
+        try (DirectOutputPool pool = new DirectOutputPool(0)) {
+            pool.release(new Mock("a", closed), () -> callbacks.add("a"));
+            assertThat(closed, contains("a"));
+            assertThat(callbacks, contains("a"));
+            assertThat(pool.getAsyncCount(), is(0L));
+        }
+    }
+
+    /**
+     * callbacks are invoked in order.
+     * @throws Exception if failed
+     */
+    @Test
+    public void ordered() throws Exception {
+        List<String> closed = Collections.synchronizedList(new ArrayList<>());
+        List<String> callbacks = new ArrayList<>();
+        try (DirectOutputPool pool = new DirectOutputPool(3)) {
+            for (String s : Arrays.asList("a", "b", "c", "d", "e")) {
+                pool.release(new Mock(s, closed), () -> callbacks.add(s));
+            }
+        }
+        assertThat(closed, containsInAnyOrder("a", "b", "c", "d", "e"));
+        assertThat(callbacks, contains("a", "b", "c", "d", "e"));
+    }
+
+    /**
+     * the number of running closes is bounded.
+     * @throws Exception if failed
+     */
+    @Test
+    public void bounded() throws Exception {
+        List<String> closed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(1);
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+            latch.countDown();
+        });
+        try (DirectOutputPool pool = new DirectOutputPool(1)) {
+            pool.release(new Mock("a", closed, latch), () -> {
+                return;
+            });
+            releaser.start();
+            pool.release(new Mock("b", closed), () -> {
+                return;
+            });
+            // "a" must be closed before starting "b"
+            assertThat(closed, hasItem("a"));
+        }
+        assertThat(closed, contains("a", "b"));
+    }
+
+    /**
+     * failed to close output.
+     * @throws Exception if failed
+     */
+    @Test(expected = IOException.class)
+    public void failure() throws Exception {
+        try (DirectOutputPool pool = new DirectOutputPool(1)) {
+            pool.release(new ModelOutput<Object>() {
+                @Override
+                public void write(Object model) {
+                    return;
+                }
+                @Override
+                public void close() throws IOException {
+                    throw new IOException();
+                }
+            }, () -> {
+                throw new AssertionError();
+            });
+        }
+    }
+
+    private static final class Mock implements ModelOutput<Object> {
+
+        private final String name;
+
+        private final List<String> closed;
+
+        private final CountDownLatch latch;
+
+        Mock(String name, List<String> closed) {
+            this(name, closed, new CountDownLatch(0));
+        }
+
+        Mock(String name, List<String> closed, CountDownLatch latch) {
+            this.name = name;
+            this.closed = closed;
+            this.latch = latch;
+        }
+
+        @Override
+        public void write(Object model) {
+            return;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (latch.await(10, TimeUnit.SECONDS) == false) {
+                    throw new IOException("timeout");
+                }
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+            closed.add(name);
+        }
+    }
+}
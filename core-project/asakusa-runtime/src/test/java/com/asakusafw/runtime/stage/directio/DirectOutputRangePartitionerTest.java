@@ -0,0 +1,225 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.runtime.stage.directio;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.mapreduce.MRJobConfig;
+import org.junit.Test;
+
+import com.asakusafw.runtime.directio.DataFormat;
+import com.asakusafw.runtime.stage.directio.StringTemplate.Format;
+import com.asakusafw.runtime.stage.directio.StringTemplate.FormatSpec;
+import com.asakusafw.runtime.value.IntOption;
+
+/**
+ * Test for {@link DirectOutputRangePartitioner}.
+ */
+public class DirectOutputRangePartitionerTest {
+
+    /**
+     * simple case.
+     * @throws Exception if failed
+     */
+    @Test
+    public void simple() throws Exception {
+        List<byte[]> samples = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            samples.add(bytes(key(99 - i)));
+        }
+        Collections.sort(samples, DirectOutputRangePartitioner.getComparator(new MockKey()));
+        List<byte[]> points = DirectOutputRangePartitioner.selectSplitPoints(samples, 4);
+        assertThat(points, hasSize(3));
+
+        DirectOutputRangePartitioner partitioner = partitioner(points);
+        assertThat(partitioner.getPartition(key(0), null, 4), is(0));
+        assertThat(partitioner.getPartition(key(24), null, 4), is(0));
+        assertThat(partitioner.getPartition(key(25), null, 4), is(1));
+        assertThat(partitioner.getPartition(key(50), null, 4), is(2));
+        assertThat(partitioner.getPartition(key(99), null, 4), is(3));
+        assertThat(partitioner.getPartition(key(1000), null, 4), is(3));
+    }
+
+    /**
+     * partitions are ordered.
+     * @throws Exception if failed
+     */
+    @Test
+    public void ordered() throws Exception {
+        List<byte[]> samples = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            samples.add(bytes(key(i * 10)));
+        }
+        DirectOutputRangePartitioner partitioner = partitioner(
+                DirectOutputRangePartitioner.selectSplitPoints(samples, 7));
+        int last = 0;
+        for (int i = -10; i < 110; i++) {
+            int partition = partitioner.getPartition(key(i), null, 7);
+            assertThat(partition, is(both(greaterThanOrEqualTo(last)).and(lessThan(7))));
+            last = partition;
+        }
+        assertThat(last, is(6));
+    }
+
+    /**
+     * only few samples.
+     * @throws Exception if failed
+     */
+    @Test
+    public void few_samples() throws Exception {
+        List<byte[]> samples = new ArrayList<>();
+        samples.add(bytes(key(10)));
+        DirectOutputRangePartitioner partitioner = partitioner(
+                DirectOutputRangePartitioner.selectSplitPoints(samples, 3));
+        assertThat(partitioner.getPartition(key(0), null, 3), is(0));
+        assertThat(partitioner.getPartition(key(10), null, 3), is(2));
+        assertThat(partitioner.getPartition(key(20), null, 3), is(2));
+    }
+
+    /**
+     * the number of partitions is mismatched.
+     * @throws Exception if failed
+     */
+    @Test
+    public void fallback() throws Exception {
+        List<byte[]> samples = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            samples.add(bytes(key(i)));
+        }
+        DirectOutputRangePartitioner partitioner = partitioner(
+                DirectOutputRangePartitioner.selectSplitPoints(samples, 3));
+        int partition = partitioner.getPartition(key(0), null, 5);
+        for (int i = 0; i < 10; i++) {
+            // group only
+            assertThat(partitioner.getPartition(key(i), null, 5), is(partition));
+        }
+    }
+
+    /**
+     * part file paths.
+     */
+    @Test
+    public void part_path() {
+        assertThat(DirectOutputRangePartitioner.getPartPath("data.csv", 1), is("data-00001.csv"));
+        assertThat(DirectOutputRangePartitioner.getPartPath("data", 12), is("data-00012"));
+        assertThat(DirectOutputRangePartitioner.getPartPath("a.b/data", 0), is("a.b/data-00000"));
+        assertThat(DirectOutputRangePartitioner.getPartPath("a/.data", 0), is("a/.data-00000"));
+        assertThat(DirectOutputRangePartitioner.getPartPath("a/data.tar.gz", 3), is("a/data.tar-00003.gz"));
+    }
+
+    /**
+     * disabled.
+     */
+    @Test
+    public void disabled() {
+        Configuration conf = new Configuration(false);
+        assertThat(DirectOutputRangePartitioner.isEnabled(conf), is(false));
+        DirectOutputRangePartitioner.putSplitPoints(conf, Collections.emptyList());
+        assertThat(DirectOutputRangePartitioner.isEnabled(conf), is(true));
+    }
+
+    private static DirectOutputRangePartitioner partitioner(List<byte[]> points) {
+        Configuration conf = new Configuration(false);
+        conf.setClass(MRJobConfig.MAP_OUTPUT_KEY_CLASS, MockKey.class, AbstractDirectOutputKey.class);
+        DirectOutputRangePartitioner.putSplitPoints(conf, points);
+        DirectOutputRangePartitioner partitioner = new DirectOutputRangePartitioner();
+        partitioner.setConf(conf);
+        return partitioner;
+    }
+
+    private static MockKey key(int value) {
+        MockKey key = new MockKey();
+        key.setPosition(0);
+        key.setObject(new IntOption(value));
+        return key;
+    }
+
+    private static byte[] bytes(MockKey key) throws IOException {
+        DataOutputBuffer buffer = new DataOutputBuffer();
+        key.write(buffer);
+        byte[] results = new byte[buffer.getLength()];
+        System.arraycopy(buffer.getData(), 0, results, 0, results.length);
+        return results;
+    }
+
+    /**
+     * Mock shuffle key.
+     */
+    public static final class MockKey extends AbstractDirectOutputKey {
+
+        /**
+         * Creates a new instance.
+         */
+        public MockKey() {
+            super(new DirectOutputSpec(IntOption.class, "out", MockFormat.class, MockNaming.class, MockOrder.class));
+        }
+    }
+
+    /**
+     * Mock format.
+     */
+    public static final class MockFormat implements DataFormat<IntOption> {
+
+        @Override
+        public Class<IntOption> getSupportedType() {
+            return IntOption.class;
+        }
+    }
+
+    /**
+     * Mock naming.
+     */
+    public static final class MockNaming extends StringTemplate {
+
+        /**
+         * Creates a new instance.
+         */
+        public MockNaming() {
+            super(new FormatSpec(Format.PLAIN, "data.csv"));
+        }
+
+        @Override
+        public void set(Object object) {
+            return;
+        }
+    }
+
+    /**
+     * Mock ordering.
+     */
+    public static final class MockOrder extends DirectOutputOrder {
+
+        /**
+         * Creates a new instance.
+         */
+        public MockOrder() {
+            super(new IntOption());
+        }
+
+        @Override
+        public void set(Object object) {
+            ((IntOption) get(0)).copyFrom((IntOption) object);
+        }
+    }
+}
@@ -93,6 +93,56 @@ public class TemporaryFileTest {
         doIo(110000000);
     }
 
+    /**
+     * Large file w/ multiple threads.
+     * @throws Exception if failed
+     */
+    @Test
+    public void large_parallel() throws Exception {
+        doIo(110000000, 4, 4);
+    }
+
+    /**
+     * multiple records w/ multiple threads.
+     * @throws Exception if failed
+     */
+    @Test
+    public void multiple_parallel() throws Exception {
+        doIo(3, 4, 4);
+    }
+
+    /**
+     * keeps order of pages w/ multiple threads.
+     * @throws Exception if failed
+     */
+    @Test
+    public void order_parallel() throws Exception {
+        File file = folder.newFile();
+        int count = 3000000;
+        try (ModelOutput<Text> out = new TemporaryFileOutput<>(
+                new BufferedOutputStream(new FileOutputStream(file)),
+                Text.class.getName(),
+                64 * 1024,
+                64 * 1024,
+                4)) {
+            Text value = new Text();
+            for (int i = 0; i < count; i++) {
+                value.set(String.valueOf(i));
+                out.write(value);
+            }
+        }
+        try (TemporaryFileInput<Text> in = new TemporaryFileInput<>(
+                new BufferedInputStream(new FileInputStream(file)),
+                0, 8, 4)) {
+            Text result = new Text();
+            for (int i = 0; i < count; i++) {
+                assertTrue(in.readTo(result));
+                assertThat(result.toString(), is(String.valueOf(i)));
+            }
+            assertThat(in.readTo(result), is(false));
+        }
+    }
+
     /**
      * Simple case.
      * @throws Exception if failed
@@ -160,6 +210,10 @@ public class TemporaryFileTest {
     }
 
     private void doIo(int count) throws IOException {
+        doIo(count, 1, 1);
+    }
+
+    private void doIo(int count, int readAhead, int threads) throws IOException {
         // eagerly initializes snappy
         Snappy.getNativeLibraryVersion();
 
@@ -171,7 +225,8 @@ public class TemporaryFileTest {
                 new BufferedOutputStream(new FileOutputStream(file)),
                 Text.class.getName(),
                 530 * 1024,
-                512 * 1024)) {
+                512 * 1024,
+                threads)) {
             for (int i = 0; i < count; i++) {
                 out.write(value);
             }
@@ -185,7 +240,7 @@ public class TemporaryFileTest {
 
         try (TemporaryFileInput<Text> in = new TemporaryFileInput<>(
                 new BufferedInputStream(new FileInputStream(file)),
-                0)) {
+                0, readAhead, threads)) {
             Text result = new Text();
             assertThat(in.getDataTypeName(), is(Text.class.getName()));
             for (int i = 0; i < count; i++) {
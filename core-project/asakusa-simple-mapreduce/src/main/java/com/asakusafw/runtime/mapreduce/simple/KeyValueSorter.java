@@ -32,6 +32,16 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -62,7 +72,24 @@ public class KeyValueSorter<K, V> implements Closeable {
 
     private static final int MAX_RECORD_PER_PAGE = 1000000;
 
-    private final KeyValuePageBuffer<K, V> pageBuffer;
+    private static final int MIN_SOURCES_PER_MERGE_GROUP = 2;
+
+    static final AtomicInteger MERGE_THREAD_COUNTER = new AtomicInteger();
+
+    private static final ThreadFactory MERGE_THREAD_FACTORY = r -> {
+        Thread t = new Thread(r);
+        t.setDaemon(true);
+        t.setName(String.format("KeyValueSorter-merge-%d", MERGE_THREAD_COUNTER.incrementAndGet())); //$NON-NLS-1$
+        return t;
+    };
+
+    private KeyValuePageBuffer<K, V> pageBuffer;
+
+    private KeyValuePageBuffer<K, V> flushingPageBuffer;
+
+    private final ExecutorService flushExecutor;
+
+    private Future<?> flushing;
 
     private final BlockBuffer blockBuffer;
 
@@ -74,6 +101,8 @@ public class KeyValueSorter<K, V> implements Closeable {
 
     private final KeyValueSliceComparator comparator;
 
+    private final int mergeThreads;
+
     private long recordCount = 0;
 
     /**
@@ -94,9 +123,17 @@ public class KeyValueSorter<K, V> implements Closeable {
         this.pageBuffer = new KeyValuePageBuffer<>(
                 options.getPageSize() / 4, options.getPageSize(),
                 serialization, keyClass, valueClass, comparator);
+        this.flushExecutor = options.getSortExecutor();
+        if (flushExecutor != null) {
+            // the mapper fills the page buffer while the other one is being sorted and flushed
+            this.flushingPageBuffer = new KeyValuePageBuffer<>(
+                    options.getPageSize() / 4, options.getPageSize(),
+                    serialization, keyClass, valueClass, comparator);
+        }
         this.blockBuffer = new BlockBuffer(0, options.getBlockSize());
         this.blockStore = new BlockStore(options.getTemporaryDirectory(), options.isCompressBlock());
         this.comparator = new KeyValueSliceComparator(comparator);
+        this.mergeThreads = options.getMergeThreads();
     }
 
     /**
@@ -119,7 +156,22 @@ public class KeyValueSorter<K, V> implements Closeable {
      * Resets this sorter.
      */
     void reset() {
+        Future<?> f = flushing;
+        if (f != null) {
+            // waits for the running task, because it may modify the buffers
+            flushing = null;
+            try {
+                f.get();
+            } catch (CancellationException | ExecutionException e) {
+                LOG.debug("flushing page buffer was aborted", e); //$NON-NLS-1$
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         pageBuffer.reset();
+        if (flushingPageBuffer != null) {
+            flushingPageBuffer.reset();
+        }
         blockBuffer.reset();
         blockStore.reset();
     }
@@ -153,7 +205,11 @@ public class KeyValueSorter<K, V> implements Closeable {
      * @return the total size in bytes
      */
     public long getSizeInBytes() {
-        return pageBuffer.getSizeInBytes() + blockBuffer.getSizeInBytes() + blockStore.getSizeInBytes();
+        long size = pageBuffer.getSizeInBytes() + blockBuffer.getSizeInBytes() + blockStore.getSizeInBytes();
+        if (flushingPageBuffer != null) {
+            size += flushingPageBuffer.getSizeInBytes();
+        }
+        return size;
     }
 
     /**
@@ -163,6 +219,7 @@ public class KeyValueSorter<K, V> implements Closeable {
      * @throws InterruptedException if interrupted while preparing
      */
     public Source<KeyValueSlice> sort() throws IOException, InterruptedException {
+        waitForFlush();
         if (LOG.isDebugEnabled()) {
             LOG.debug(MessageFormat.format(
                     "merging records: page-buffer={0}bytes, block-buffer={1}bytes, block-files={2}bytes", //$NON-NLS-1$
@@ -170,15 +227,101 @@ public class KeyValueSorter<K, V> implements Closeable {
                     blockBuffer.getSizeInBytes(),
                     blockStore.getSizeInBytes()));
         }
+        return merge(createSources(), comparator, mergeThreads);
+    }
+
+    /**
+     * Sort previously added key-value pairs over the individual sorters.
+     * The sorters must have the equivalent key class, value class, and shuffle sort comparator,
+     * and the merge threads setting of the first sorter is used.
+     * @param sorters the source sorters
+     * @return the sorted source
+     * @throws IOException if failed to sort pairs
+     * @throws InterruptedException if interrupted while preparing
+     * @since 0.9.2
+     */
+    public static Source<KeyValueSlice> sort(
+            List<? extends KeyValueSorter<?, ?>> sorters) throws IOException, InterruptedException {
+        if (sorters.isEmpty()) {
+            throw new IllegalArgumentException("sorters must not be empty"); //$NON-NLS-1$
+        }
+        KeyValueSorter<?, ?> first = sorters.get(0);
+        if (sorters.size() == 1) {
+            return first.sort();
+        }
+        List<Source<KeyValueSlice>> sources = new ArrayList<>();
+        for (KeyValueSorter<?, ?> sorter : sorters) {
+            sorter.waitForFlush();
+            sources.addAll(sorter.createSources());
+        }
+        return merge(sources, first.comparator, first.mergeThreads);
+    }
+
+    private static Source<KeyValueSlice> merge(
+            List<Source<KeyValueSlice>> sources, KeyValueSliceComparator comparator, int threads) {
+        int groups = Math.min(threads, sources.size() / MIN_SOURCES_PER_MERGE_GROUP);
+        if (groups <= 1) {
+            return Sources.merge(sources, comparator);
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(MessageFormat.format(
+                    "merging records in parallel: {0}sources, {1}threads", //$NON-NLS-1$
+                    sources.size(),
+                    groups));
+        }
+        return new ParallelMergeSource(sources, comparator, groups);
+    }
+
+    private List<Source<KeyValueSlice>> createSources() throws IOException {
         List<Source<KeyValueSlice>> sources = new ArrayList<>();
         sources.addAll(pageBuffer.createSources());
         sources.addAll(blockBuffer.createSources());
         sources.addAll(blockStore.createSources());
-        return Sources.merge(sources, comparator);
+        return sources;
     }
 
     private void flushPageBuffer() throws IOException, InterruptedException {
-        KeyValuePageBuffer<?, ?> page = pageBuffer;
+        if (flushExecutor == null) {
+            flushPage(pageBuffer);
+            return;
+        }
+        // the block buffer and block store are only modified by a flushing task at a time
+        waitForFlush();
+        KeyValuePageBuffer<K, V> page = pageBuffer;
+        pageBuffer = flushingPageBuffer;
+        flushingPageBuffer = page;
+        flushing = flushExecutor.submit(() -> {
+            flushPage(page);
+            return null;
+        });
+    }
+
+    private void waitForFlush() throws IOException, InterruptedException {
+        Future<?> f = flushing;
+        if (f == null) {
+            return;
+        }
+        flushing = null;
+        waitFor(f, "flushing page buffer was cancelled");
+    }
+
+    static void waitFor(Future<?> future, String cancelMessage) throws IOException, InterruptedException {
+        try {
+            future.get();
+        } catch (CancellationException e) {
+            throw new IOException(cancelMessage, e);
+        } catch (ExecutionException e) {
+            try {
+                throw e.getCause();
+            } catch (Error | RuntimeException | IOException | InterruptedException cause) {
+                throw cause;
+            } catch (Throwable cause) {
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    private void flushPage(KeyValuePageBuffer<?, ?> page) throws IOException, InterruptedException {
         int count = page.getCount();
         if (count == 0) {
             return;
@@ -246,6 +389,10 @@ public class KeyValueSorter<K, V> implements Closeable {
 
         private boolean compressBlock;
 
+        private ExecutorService sortExecutor;
+
+        private int mergeThreads;
+
         /**
          * Returns in-memory sort buffer size.
          * @return the in-memory sort buffer size
@@ -278,6 +425,24 @@ public class KeyValueSorter<K, V> implements Closeable {
             return compressBlock;
         }
 
+        /**
+         * Returns the executor for sorting and flushing page buffers in background.
+         * @return the executor, or {@code null} if page buffers are sorted synchronously
+         * @since 0.9.2
+         */
+        public ExecutorService getSortExecutor() {
+            return sortExecutor;
+        }
+
+        /**
+         * Returns the max number of threads for merging sorted records.
+         * @return the max number of merge threads, or {@code 0} if records are merged in the reader thread
+         * @since 0.9.2
+         */
+        public int getMergeThreads() {
+            return mergeThreads;
+        }
+
         /**
          * Sets the total buffer size.
          * @param bufferSize the total buffer size
@@ -328,6 +493,35 @@ public class KeyValueSorter<K, V> implements Closeable {
             return this;
         }
 
+        /**
+         * Sets the executor for sorting and flushing page buffers in background.
+         * If it is set, the sorter keeps an extra page buffer so that {@link KeyValueSorter#put(Object, Object)}
+         * can continue while the previous page is being sorted and flushed.
+         * The executor will not be shut down by the sorter.
+         * @param executor the executor, or {@code null} to sort page buffers synchronously
+         * @return this
+         * @since 0.9.2
+         */
+        public Options withSortExecutor(ExecutorService executor) {
+            this.sortExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the max number of threads for merging sorted records.
+         * If it is {@code 2} or more, the sorted runs are divided into groups, each group is merged
+         * in its own thread, and the reader thread only merges the results of the individual groups.
+         * The merge threads are started for each {@link KeyValueSorter#sort() sort} operation,
+         * and they are terminated when the sorted source is closed.
+         * @param threads the max number of merge threads, or {@code 0} to merge records in the reader thread
+         * @return this
+         * @since 0.9.2
+         */
+        public Options withMergeThreads(int threads) {
+            this.mergeThreads = Math.max(0, threads);
+            return this;
+        }
+
         private int in(int value, int min, int max) {
             assert min <= max;
             return Math.max(min, Math.min(max, value));
@@ -794,6 +988,160 @@ public class KeyValueSorter<K, V> implements Closeable {
         }
     }
 
+    /**
+     * Merges groups of sorted sources in background threads, and then merges their results.
+     * Each group is divided from contiguous sources, so that the order of records is
+     * the same as merging all sources at once.
+     */
+    private static final class ParallelMergeSource implements Source<KeyValueSlice> {
+
+        private final ExecutorService executor;
+
+        private final Source<KeyValueSlice> merged;
+
+        ParallelMergeSource(List<Source<KeyValueSlice>> sources, KeyValueSliceComparator comparator, int groups) {
+            assert groups >= 2;
+            assert sources.size() >= groups;
+            // the executor has a thread for each group, because every group must run until the end
+            this.executor = Executors.newFixedThreadPool(groups, MERGE_THREAD_FACTORY);
+            List<Source<KeyValueSlice>> results = new ArrayList<>();
+            int size = sources.size();
+            for (int i = 0; i < groups; i++) {
+                List<Source<KeyValueSlice>> members = sources.subList(size * i / groups, size * (i + 1) / groups);
+                MergeGroupSource group = new MergeGroupSource();
+                group.future = executor.submit(() -> {
+                    group.produce(Sources.merge(members, comparator));
+                    return null;
+                });
+                results.add(group);
+            }
+            executor.shutdown();
+            this.merged = Sources.merge(results, comparator);
+        }
+
+        @Override
+        public boolean next() throws IOException, InterruptedException {
+            return merged.next();
+        }
+
+        @Override
+        public KeyValueSlice get() throws IOException, InterruptedException {
+            return merged.get();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                merged.close();
+            } finally {
+                executor.shutdownNow();
+                try {
+                    // waits for the merge threads, because they may still read the block files
+                    while (executor.awaitTermination(1, TimeUnit.SECONDS) == false) {
+                        LOG.debug("waiting for merge threads"); //$NON-NLS-1$
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Receives merged records from a background thread in batches.
+     */
+    private static final class MergeGroupSource implements Source<KeyValueSlice> {
+
+        private static final int BATCH_SIZE = 256 * 1024;
+
+        private static final int BATCH_COUNT = 3;
+
+        private static final DataBuffer EOF = new DataBuffer(0);
+
+        private final BlockingQueue<DataBuffer> free = new ArrayBlockingQueue<>(BATCH_COUNT);
+
+        // may contain all batches and EOF
+        private final BlockingQueue<DataBuffer> filled = new ArrayBlockingQueue<>(BATCH_COUNT + 1);
+
+        Future<?> future;
+
+        private DataBuffer current;
+
+        private PartialPageSource page;
+
+        private boolean sawEof;
+
+        MergeGroupSource() {
+            for (int i = 0; i < BATCH_COUNT; i++) {
+                free.add(new DataBuffer(BATCH_SIZE + BATCH_SIZE / 4, BUFFER_EXPANSION_FACTOR));
+            }
+        }
+
+        void produce(Source<KeyValueSlice> source) throws IOException, InterruptedException {
+            try (Source<KeyValueSlice> s = source) {
+                DataBuffer buffer = free.take();
+                buffer.reset(0, 0);
+                while (s.next()) {
+                    KeyValueSlice slice = s.get();
+                    buffer.writeInt(slice.getKeyLength());
+                    buffer.writeInt(slice.getValueLength());
+                    buffer.write(slice.getBytes(), slice.getSliceOffset(), slice.getSliceLength());
+                    if (buffer.getWritePosition() >= BATCH_SIZE) {
+                        filled.put(buffer);
+                        buffer = free.take();
+                        buffer.reset(0, 0);
+                    }
+                }
+                if (buffer.getWritePosition() > 0) {
+                    filled.put(buffer);
+                }
+            } finally {
+                // never blocks, and must be delivered even if this thread was interrupted
+                filled.offer(EOF);
+            }
+        }
+
+        @Override
+        public boolean next() throws IOException, InterruptedException {
+            while (true) {
+                if (page != null && page.next()) {
+                    return true;
+                }
+                if (sawEof) {
+                    return false;
+                }
+                if (current != null) {
+                    free.put(current);
+                    current = null;
+                    page = null;
+                }
+                DataBuffer next = filled.take();
+                if (next == EOF) {
+                    sawEof = true;
+                    waitFor(future, "merging records was cancelled");
+                    return false;
+                }
+                current = next;
+                page = new PartialPageSource(next.getData(), 0, next.getWritePosition());
+            }
+        }
+
+        @Override
+        public KeyValueSlice get() throws IOException, InterruptedException {
+            if (page == null) {
+                throw new NoSuchElementException();
+            }
+            return page.get();
+        }
+
+        @Override
+        public void close() {
+            sawEof = true;
+            current = null;
+            page = null;
+        }
+    }
+
     private static final class KeyValueRange {
 
         int offset;
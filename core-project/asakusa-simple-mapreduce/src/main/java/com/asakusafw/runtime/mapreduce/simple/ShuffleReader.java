@@ -17,6 +17,8 @@ package com.asakusafw.runtime.mapreduce.simple;
 
 import java.io.IOException;
 import java.io.InterruptedIOException;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.hadoop.io.DataInputBuffer;
 import org.apache.hadoop.mapred.RawKeyValueIterator;
@@ -30,7 +32,7 @@ import com.asakusafw.utils.io.Source;
  */
 public class ShuffleReader implements RawKeyValueIterator {
 
-    private final KeyValueSorter<?, ?> sorter;
+    private final List<? extends KeyValueSorter<?, ?>> sorters;
 
     private Source<KeyValueSlice> source;
 
@@ -48,7 +50,17 @@ public class ShuffleReader implements RawKeyValueIterator {
      * @param progress the progress
      */
     public ShuffleReader(KeyValueSorter<?, ?> sorter, Progress progress) {
-        this.sorter = sorter;
+        this(Collections.singletonList(sorter), progress);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param sorters the source sorters, which must have the equivalent shuffle sort comparator
+     * @param progress the progress
+     * @since 0.9.2
+     */
+    public ShuffleReader(List<? extends KeyValueSorter<?, ?>> sorters, Progress progress) {
+        this.sorters = sorters;
         this.progress = progress;
     }
 
@@ -56,7 +68,7 @@ public class ShuffleReader implements RawKeyValueIterator {
     public boolean next() throws IOException {
         if (source == null) {
             try {
-                source = sorter.sort();
+                source = KeyValueSorter.sort(sorters);
             } catch (InterruptedException e) {
                 throw (IOException) new InterruptedIOException().initCause(e);
             }
@@ -93,7 +105,21 @@ public class ShuffleReader implements RawKeyValueIterator {
                 source.close();
             }
         } finally {
-            sorter.close();
+            IOException exception = null;
+            for (KeyValueSorter<?, ?> sorter : sorters) {
+                try {
+                    sorter.close();
+                } catch (IOException e) {
+                    if (exception == null) {
+                        exception = e;
+                    } else {
+                        exception.addSuppressed(e);
+                    }
+                }
+            }
+            if (exception != null) {
+                throw exception;
+            }
         }
     }
 
@@ -16,7 +16,10 @@
 package com.asakusafw.runtime.mapreduce.simple;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
+import org.apache.hadoop.mapreduce.Partitioner;
 import org.apache.hadoop.mapreduce.RecordWriter;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 
@@ -28,19 +31,44 @@ import org.apache.hadoop.mapreduce.TaskAttemptContext;
  */
 public class ShuffleWriter<K, V> extends RecordWriter<K, V> {
 
-    private final KeyValueSorter<K, V> sorter;
+    private final List<KeyValueSorter<K, V>> sorters;
+
+    private final Partitioner<K, V> partitioner;
 
     /**
      * Creates a new instance.
      * @param sorter the key value sorter
      */
     public ShuffleWriter(KeyValueSorter<K, V> sorter) {
-        this.sorter = sorter;
+        this(Collections.singletonList(sorter), null);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param sorters the key value sorters for individual partitions
+     * @param partitioner the shuffle partitioner, or {@code null} if there is only one partition
+     * @since 0.9.2
+     */
+    public ShuffleWriter(List<KeyValueSorter<K, V>> sorters, Partitioner<K, V> partitioner) {
+        if (sorters.isEmpty()) {
+            throw new IllegalArgumentException("sorters must not be empty"); //$NON-NLS-1$
+        }
+        if (partitioner == null && sorters.size() != 1) {
+            throw new IllegalArgumentException("partitioner must not be null"); //$NON-NLS-1$
+        }
+        this.sorters = sorters;
+        this.partitioner = partitioner;
     }
 
     @Override
     public void write(K key, V value) throws IOException, InterruptedException {
-        sorter.put(key, value);
+        List<KeyValueSorter<K, V>> ss = sorters;
+        if (ss.size() == 1) {
+            ss.get(0).put(key, value);
+        } else {
+            int partition = partitioner.getPartition(key, value, ss.size());
+            ss.get(partition).put(key, value);
+        }
     }
 
     @Override
@@ -18,8 +18,18 @@ package com.asakusafw.runtime.mapreduce.simple;
 import java.io.File;
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -35,6 +45,7 @@ import org.apache.hadoop.mapreduce.JobStatus.State;
 import org.apache.hadoop.mapreduce.Mapper;
 import org.apache.hadoop.mapreduce.OutputCommitter;
 import org.apache.hadoop.mapreduce.OutputFormat;
+import org.apache.hadoop.mapreduce.Partitioner;
 import org.apache.hadoop.mapreduce.RecordReader;
 import org.apache.hadoop.mapreduce.RecordWriter;
 import org.apache.hadoop.mapreduce.Reducer;
@@ -62,6 +73,18 @@ public class SimpleJobRunner implements JobRunner {
 
     static final Log LOG = LogFactory.getLog(SimpleJobRunner.class);
 
+    static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final ThreadFactory DAEMON_THREAD_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            t.setName(String.format("SimpleJobRunner-%d", THREAD_COUNTER.incrementAndGet())); //$NON-NLS-1$
+            return t;
+        }
+    };
+
     private static final String KEY_PREFIX = "com.asakusafw.mapreduce."; //$NON-NLS-1$
 
     /**
@@ -79,6 +102,33 @@ public class SimpleJobRunner implements JobRunner {
      */
     public static final String KEY_COMPRESS_BLOCK = KEY_PREFIX + "shuffle.compress"; //$NON-NLS-1$
 
+    /**
+     * Hadoop property key of the number of threads for sorting shuffle pages in background.
+     * If it is {@code 0}, shuffle pages are sorted in the map task threads.
+     * @since 0.9.2
+     */
+    public static final String KEY_SORT_THREADS = KEY_PREFIX + "shuffle.sort.threads"; //$NON-NLS-1$
+
+    /**
+     * Hadoop property key of the max number of threads for merging shuffle outputs in each reduce task.
+     * If it is {@code 0} or {@code 1}, shuffle outputs are merged in the reduce task threads.
+     * @since 0.9.2
+     */
+    public static final String KEY_MERGE_THREADS = KEY_PREFIX + "shuffle.merge.threads"; //$NON-NLS-1$
+
+    /**
+     * Hadoop property key of the max number of map tasks which can run concurrently.
+     * @since 0.9.2
+     */
+    public static final String KEY_MAP_PARALLELISM = KEY_PREFIX + "map.parallelism"; //$NON-NLS-1$
+
+    /**
+     * Hadoop property key of the max number of reduce tasks which can run concurrently.
+     * The number of shuffle partitions is the smaller of this value and the number of reduce tasks of each job.
+     * @since 0.9.2
+     */
+    public static final String KEY_REDUCE_PARALLELISM = KEY_PREFIX + "reduce.parallelism"; //$NON-NLS-1$
+
     private static final int DEFAULT_BUFFER_SIZE = 64 * 1024 * 1024;
 
     private static final int MIN_BUFFER_SIZE = 2 * 1024 * 1024;
@@ -87,6 +137,14 @@ public class SimpleJobRunner implements JobRunner {
 
     private static final boolean DEFAULT_COMPRESS_BLOCK = false;
 
+    private static final int DEFAULT_SORT_THREADS = 0;
+
+    private static final int DEFAULT_MERGE_THREADS = 0;
+
+    private static final int DEFAULT_MAP_PARALLELISM = 1;
+
+    private static final int DEFAULT_REDUCE_PARALLELISM = 1;
+
     private static final String DUMMY_JOBTRACKER_ID = "asakusafw";
 
     @Override
@@ -121,13 +179,37 @@ public class SimpleJobRunner implements JobRunner {
         boolean succeed = false;
         committer.setupJob(job);
         try {
+            InputFormat<?, ?> input = ReflectionUtils.newInstance(job.getInputFormatClass(), conf);
+            List<InputSplit> splits = input.getSplits(job);
+            int parallelism = getMapParallelism(conf, splits.size());
             if (job.getNumReduceTasks() == 0) {
-                runMap(job, null);
+                runMap(job, input, splits, parallelism, null);
             } else {
-                try (KeyValueSorter<?, ?> sorter = createSorter(job,
-                        job.getMapOutputKeyClass(), job.getMapOutputValueClass())) {
-                    runMap(job, sorter);
-                    runReduce(job, sorter);
+                int partitions = getReduceParallelism(conf, job.getNumReduceTasks());
+                ExecutorService sortExecutor = createSortExecutor(conf);
+                // sorters[map-slot][partition]
+                List<List<KeyValueSorter<?, ?>>> sorters = new ArrayList<>();
+                try {
+                    for (int i = 0; i < parallelism; i++) {
+                        List<KeyValueSorter<?, ?>> slot = new ArrayList<>();
+                        sorters.add(slot);
+                        for (int j = 0; j < partitions; j++) {
+                            slot.add(createSorter(job,
+                                    job.getMapOutputKeyClass(), job.getMapOutputValueClass(),
+                                    parallelism * partitions, sortExecutor));
+                        }
+                    }
+                    runMap(job, input, splits, parallelism, sorters);
+                    runReduce(job, sorters, partitions);
+                } finally {
+                    for (List<KeyValueSorter<?, ?>> slot : sorters) {
+                        for (KeyValueSorter<?, ?> sorter : slot) {
+                            sorter.close();
+                        }
+                    }
+                    if (sortExecutor != null) {
+                        sortExecutor.shutdownNow();
+                    }
                 }
             }
             committer.commitJob(job);
@@ -146,80 +228,206 @@ public class SimpleJobRunner implements JobRunner {
         }
     }
 
-    @SuppressWarnings({ "rawtypes", "unchecked" })
     private void runMap(
             Job job,
-            KeyValueSorter<?, ?> sorter) throws IOException, InterruptedException, ClassNotFoundException {
-        Configuration conf = job.getConfiguration();
-        InputFormat<?, ?> input = ReflectionUtils.newInstance(job.getInputFormatClass(), conf);
-        List<InputSplit> splits = input.getSplits(job);
-        int serial = 1;
-        for (InputSplit split : splits) {
-            TaskAttemptID id = new TaskAttemptID(new TaskID(job.getJobID(), TaskType.MAP, serial++), 0);
-            Mapper<?, ?, ?, ?> mapper = ReflectionUtils.newInstance(job.getMapperClass(), conf);
-            if (LOG.isDebugEnabled()) {
-                LOG.debug(MessageFormat.format(
-                        "starting mapper: {0}@{1} ({2}bytes)", //$NON-NLS-1$
-                        mapper.getClass().getName(),
-                        id,
-                        split.getLength()));
+            InputFormat<?, ?> input,
+            List<InputSplit> splits,
+            int parallelism,
+            List<List<KeyValueSorter<?, ?>>> sorters)
+                    throws IOException, InterruptedException, ClassNotFoundException {
+        if (parallelism <= 1) {
+            List<KeyValueSorter<?, ?>> sorter = sorters == null ? null : sorters.get(0);
+            int serial = 1;
+            for (InputSplit split : splits) {
+                TaskAttemptID id = new TaskAttemptID(new TaskID(job.getJobID(), TaskType.MAP, serial++), 0);
+                runMapTask(job, job.getConfiguration(), input, split, id, sorter);
             }
-            TaskAttemptContext context = new TaskAttemptContextImpl(conf, id);
-            // we always obtain a new OutputFormat object / OutputFormat.getOutputCommiter() may be cached
-            OutputFormat<?, ?> output = ReflectionUtils.newInstance(job.getOutputFormatClass(), conf);
-            OutputCommitter committer = output.getOutputCommitter(context);
-            committer.setupTask(context);
-            boolean succeed = false;
-            try (RecordReader<?, ?> reader = input.createRecordReader(split, new TaskAttemptContextImpl(conf, id))) {
-                RecordWriter<?, ?> writer;
-                if (sorter != null) {
-                    writer = new ShuffleWriter(sorter);
-                } else {
-                    writer = output.getRecordWriter(new TaskAttemptContextImpl(conf, id));
-                }
+            return;
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(MessageFormat.format(
+                    "running map tasks in parallel: {0} ({1}tasks, {2}threads)", //$NON-NLS-1$
+                    job.getJobName(),
+                    splits.size(),
+                    parallelism));
+        }
+        BlockingQueue<List<KeyValueSorter<?, ?>>> sorterPool = null;
+        if (sorters != null) {
+            sorterPool = new LinkedBlockingQueue<>(sorters);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, DAEMON_THREAD_FACTORY);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            int serial = 1;
+            for (InputSplit split : splits) {
+                TaskAttemptID id = new TaskAttemptID(new TaskID(job.getJobID(), TaskType.MAP, serial++), 0);
+                BlockingQueue<List<KeyValueSorter<?, ?>>> pool = sorterPool;
+                futures.add(executor.submit(() -> {
+                    // each task has its own configuration object because mappers may modify it
+                    Configuration conf = new Configuration(job.getConfiguration());
+                    if (pool == null) {
+                        runMapTask(job, conf, input, split, id, null);
+                    } else {
+                        // each sorter is used by only one task at a time
+                        List<KeyValueSorter<?, ?>> sorter = pool.take();
+                        try {
+                            runMapTask(job, conf, input, split, id, sorter);
+                        } finally {
+                            pool.put(sorter);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            waitForAll(futures);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void waitForAll(
+            List<? extends Future<?>> futures) throws IOException, InterruptedException, ClassNotFoundException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (CancellationException | InterruptedException e) {
+                cancel(futures);
+                throw e;
+            } catch (ExecutionException e) {
+                cancel(futures);
                 try {
-                    Mapper.Context c = new WrappedMapper().getMapContext(new MapContextImpl<>(
-                            conf, id,
-                            reader, writer,
-                            committer, new MockStatusReporter(),
-                            split));
-                    reader.initialize(split, c);
-                    mapper.run(c);
-                } finally {
-                    writer.close(new TaskAttemptContextImpl(conf, id));
+                    throw e.getCause();
+                } catch (Error | RuntimeException | IOException
+                        | InterruptedException | ClassNotFoundException cause) {
+                    throw cause;
+                } catch (Throwable cause) {
+                    throw new IOException(cause);
                 }
-                doCommitTask(context, committer);
-                succeed = true;
+            }
+        }
+    }
+
+    private static void cancel(List<? extends Future<?>> futures) {
+        futures.forEach(f -> f.cancel(true));
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private void runMapTask(
+            Job job,
+            Configuration conf,
+            InputFormat<?, ?> input,
+            InputSplit split,
+            TaskAttemptID id,
+            List<KeyValueSorter<?, ?>> sorter) throws IOException, InterruptedException, ClassNotFoundException {
+        Mapper<?, ?, ?, ?> mapper = ReflectionUtils.newInstance(job.getMapperClass(), conf);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(MessageFormat.format(
+                    "starting mapper: {0}@{1} ({2}bytes)", //$NON-NLS-1$
+                    mapper.getClass().getName(),
+                    id,
+                    split.getLength()));
+        }
+        TaskAttemptContext context = new TaskAttemptContextImpl(conf, id);
+        // we always obtain a new OutputFormat object / OutputFormat.getOutputCommiter() may be cached
+        OutputFormat<?, ?> output = ReflectionUtils.newInstance(job.getOutputFormatClass(), conf);
+        OutputCommitter committer = output.getOutputCommitter(context);
+        committer.setupTask(context);
+        boolean succeed = false;
+        try (RecordReader<?, ?> reader = input.createRecordReader(split, new TaskAttemptContextImpl(conf, id))) {
+            RecordWriter<?, ?> writer;
+            if (sorter == null) {
+                writer = output.getRecordWriter(new TaskAttemptContextImpl(conf, id));
+            } else if (sorter.size() == 1) {
+                writer = new ShuffleWriter(sorter.get(0));
+            } else {
+                Partitioner<?, ?> partitioner = ReflectionUtils.newInstance(job.getPartitionerClass(), conf);
+                writer = new ShuffleWriter(sorter, partitioner);
+            }
+            try {
+                Mapper.Context c = new WrappedMapper().getMapContext(new MapContextImpl<>(
+                        conf, id,
+                        reader, writer,
+                        committer, new MockStatusReporter(),
+                        split));
+                reader.initialize(split, c);
+                mapper.run(c);
             } finally {
-                if (succeed == false) {
-                    doAbortTask(context, committer);
-                }
+                writer.close(new TaskAttemptContextImpl(conf, id));
+            }
+            doCommitTask(context, committer);
+            succeed = true;
+        } finally {
+            if (succeed == false) {
+                doAbortTask(context, committer);
             }
         }
     }
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     private void runReduce(
             Job job,
-            KeyValueSorter<?, ?> sorter) throws ClassNotFoundException, IOException, InterruptedException {
-        Configuration conf = job.getConfiguration();
+            List<List<KeyValueSorter<?, ?>>> sorters,
+            int partitions) throws ClassNotFoundException, IOException, InterruptedException {
+        if (partitions <= 1) {
+            runReduceTask(job, job.getConfiguration(), 0, collectPartition(sorters, 0));
+            return;
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(MessageFormat.format(
+                    "running reduce tasks in parallel: {0} ({1}tasks)", //$NON-NLS-1$
+                    job.getJobName(),
+                    partitions));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(partitions, DAEMON_THREAD_FACTORY);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < partitions; i++) {
+                int partition = i;
+                futures.add(executor.submit(() -> {
+                    // each task has its own configuration object because reducers may modify it
+                    Configuration conf = new Configuration(job.getConfiguration());
+                    runReduceTask(job, conf, partition, collectPartition(sorters, partition));
+                    return null;
+                }));
+            }
+            waitForAll(futures);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<KeyValueSorter<?, ?>> collectPartition(
+            List<List<KeyValueSorter<?, ?>>> sorters, int partition) {
+        List<KeyValueSorter<?, ?>> results = new ArrayList<>();
+        for (List<KeyValueSorter<?, ?>> slot : sorters) {
+            results.add(slot.get(partition));
+        }
+        return results;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void runReduceTask(
+            Job job,
+            Configuration conf,
+            int partition,
+            List<KeyValueSorter<?, ?>> sorters) throws ClassNotFoundException, IOException, InterruptedException {
         OutputFormat<?, ?> output = ReflectionUtils.newInstance(job.getOutputFormatClass(), conf);
-        TaskAttemptID id = new TaskAttemptID(new TaskID(job.getJobID(), TaskType.REDUCE, 0), 0);
+        TaskAttemptID id = new TaskAttemptID(new TaskID(job.getJobID(), TaskType.REDUCE, partition), 0);
         Reducer<?, ?, ?, ?> reducer = ReflectionUtils.newInstance(job.getReducerClass(), conf);
         if (LOG.isDebugEnabled()) {
             LOG.debug(MessageFormat.format(
                     "starting reducer: {0}@{1} ({2}records, {3}bytes)", //$NON-NLS-1$
                     reducer.getClass().getName(),
                     id,
-                    sorter.getRecordCount(),
-                    sorter.getSizeInBytes()));
+                    sorters.stream().mapToLong(KeyValueSorter::getRecordCount).sum(),
+                    sorters.stream().mapToLong(KeyValueSorter::getSizeInBytes).sum()));
         }
         TaskAttemptContext context = new TaskAttemptContextImpl(conf, id);
         OutputCommitter committer = output.getOutputCommitter(context);
         committer.setupTask(context);
         boolean succeed = false;
         try {
-            ShuffleReader reader = new ShuffleReader(sorter, new Progress());
+            KeyValueSorter<?, ?> sorter = sorters.get(0);
+            ShuffleReader reader = new ShuffleReader(sorters, new Progress());
             try {
                 RecordWriter<?, ?> writer = output.getRecordWriter(new TaskAttemptContextImpl(conf, id));
                 try {
@@ -270,15 +478,29 @@ public class SimpleJobRunner implements JobRunner {
         }
     }
 
-    private <K, V> KeyValueSorter<?, ?> createSorter(Job job, Class<K> key, Class<V> value) {
-        KeyValueSorter.Options options = getSorterOptions(job.getConfiguration());
+    private ExecutorService createSortExecutor(Configuration configuration) {
+        int threads = configuration.getInt(KEY_SORT_THREADS, DEFAULT_SORT_THREADS);
+        if (threads <= 0) {
+            return null;
+        }
+        return Executors.newFixedThreadPool(threads, DAEMON_THREAD_FACTORY);
+    }
+
+    private <K, V> KeyValueSorter<?, ?> createSorter(
+            Job job, Class<K> key, Class<V> value,
+            int sharing, ExecutorService sortExecutor) {
+        KeyValueSorter.Options options = getSorterOptions(job.getConfiguration(), sharing)
+                .withSortExecutor(sortExecutor);
         if (LOG.isDebugEnabled()) {
             LOG.debug(MessageFormat.format(
-                    "shuffle buffer size: {1}bytes/page, {2}bytes/block, compression:{3} ({0})", //$NON-NLS-1$
+                    "shuffle buffer size: {1}bytes/page, {2}bytes/block, " //$NON-NLS-1$
+                    + "compression:{3}, async:{4}, merge:{5} ({0})", //$NON-NLS-1$
                     job.getJobName(),
                     options.getPageSize(),
                     options.getBlockSize(),
-                    options.isCompressBlock()));
+                    options.isCompressBlock(),
+                    options.getSortExecutor() != null,
+                    options.getMergeThreads()));
         }
         return new KeyValueSorter<>(
                 new SerializationFactory(job.getConfiguration()),
@@ -286,13 +508,14 @@ public class SimpleJobRunner implements JobRunner {
                 options);
     }
 
-    private KeyValueSorter.Options getSorterOptions(Configuration configuration) {
+    private KeyValueSorter.Options getSorterOptions(Configuration configuration, int sharing) {
+        assert sharing >= 1;
         long bufferSize = configuration.getLong(KEY_BUFFER_SIZE, -1);
         if (bufferSize < 0) {
             bufferSize = DEFAULT_BUFFER_SIZE;
-        } else {
-            bufferSize = Math.max(MIN_BUFFER_SIZE, Math.min(MAX_BUFFER_SIZE, bufferSize));
         }
+        // the total buffer size is shared between the individual sorters
+        bufferSize = Math.max(MIN_BUFFER_SIZE, Math.min(MAX_BUFFER_SIZE, bufferSize / sharing));
         File temporaryDirectory = null;
         String tempdirString = configuration.get(KEY_TEMPORARY_LOCATION);
         if (tempdirString != null) {
@@ -305,13 +528,31 @@ public class SimpleJobRunner implements JobRunner {
             }
         }
         boolean compress = configuration.getBoolean(KEY_COMPRESS_BLOCK, DEFAULT_COMPRESS_BLOCK);
+        int mergeThreads = configuration.getInt(KEY_MERGE_THREADS, DEFAULT_MERGE_THREADS);
         KeyValueSorter.Options options = new KeyValueSorter.Options()
             .withBufferSize((int) bufferSize)
             .withTemporaryDirectory(temporaryDirectory)
-            .withCompressBlock(compress);
+            .withCompressBlock(compress)
+            .withMergeThreads(mergeThreads);
         return options;
     }
 
+    private int getMapParallelism(Configuration configuration, int numberOfTasks) {
+        int parallelism = configuration.getInt(KEY_MAP_PARALLELISM, DEFAULT_MAP_PARALLELISM);
+        if (parallelism <= 0) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        return Math.max(1, Math.min(parallelism, numberOfTasks));
+    }
+
+    private int getReduceParallelism(Configuration configuration, int numberOfTasks) {
+        int parallelism = configuration.getInt(KEY_REDUCE_PARALLELISM, DEFAULT_REDUCE_PARALLELISM);
+        if (parallelism <= 0) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        return Math.max(1, Math.min(parallelism, numberOfTasks));
+    }
+
     @Override
     public String toString() {
         return "Asakusa built-in job runner";
@@ -20,7 +20,10 @@ import static org.junit.Assert.*;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.Text;
@@ -61,6 +64,8 @@ public class KeyValueSorterTest {
                     } catch (IOException e) {
                         e.printStackTrace();
                     }
+                } else if (resource instanceof ExecutorService) {
+                    ((ExecutorService) resource).shutdownNow();
                 }
             }
         }
@@ -68,6 +73,10 @@ public class KeyValueSorterTest {
 
     KeyValueSorter<IntWritable, Text> sorter;
 
+    ExecutorService sortExecutor;
+
+    int mergeThreads;
+
     final IntWritable keyWritable = new IntWritable();
 
     final Text valueWritable = new Text();
@@ -157,15 +166,85 @@ public class KeyValueSorterTest {
         assertThat(results.next(), is(false));
     }
 
+    /**
+     * large case w/ background sort.
+     * @throws Exception if failed
+     */
+    @Test
+    public void large_async() throws Exception {
+        sortExecutor = manage(Executors.newSingleThreadExecutor());
+        large();
+    }
+
+    /**
+     * extra-large case w/ background sort.
+     * @throws Exception if failed
+     */
+    @Test
+    public void xlarge_async() throws Exception {
+        sortExecutor = manage(Executors.newFixedThreadPool(2));
+        xlarge();
+    }
+
+    /**
+     * extra-large case w/ parallel merge.
+     * @throws Exception if failed
+     */
+    @Test
+    public void xlarge_parallel_merge() throws Exception {
+        mergeThreads = 3;
+        int threads = KeyValueSorter.MERGE_THREAD_COUNTER.get();
+        xlarge();
+        assertThat(KeyValueSorter.MERGE_THREAD_COUNTER.get() - threads, is(mergeThreads));
+    }
+
+    /**
+     * merges multiple sorters.
+     * @throws Exception if failed
+     */
+    @Test
+    public void sort_multiple() throws Exception {
+        int count = 10000;
+        KeyValueSorter<IntWritable, Text> a = newSorter();
+        KeyValueSorter<IntWritable, Text> b = newSorter();
+        for (int i = 0; i < count; i++) {
+            put(a, 100);
+            put(b, 300);
+            put(a, 200);
+            put(b, 400);
+        }
+        Source<IntWritable> results = manage(new DeserSource(KeyValueSorter.sort(Arrays.asList(a, b))));
+        for (int value : new int[] { 100, 200, 300, 400 }) {
+            for (int i = 0; i < count; i++) {
+                check(results, value);
+            }
+        }
+        assertThat(results.next(), is(false));
+    }
+
+    /**
+     * merges multiple sorters w/ parallel merge.
+     * @throws Exception if failed
+     */
+    @Test
+    public void sort_multiple_parallel_merge() throws Exception {
+        mergeThreads = 2;
+        sort_multiple();
+    }
+
     private void check(Source<IntWritable> results, int expected) throws IOException, InterruptedException {
         assertTrue(results.next());
         assertEquals(expected, results.get().get());
     }
 
     private void put(int value) throws IOException, InterruptedException {
+        put(sorter(), value);
+    }
+
+    private void put(KeyValueSorter<IntWritable, Text> target, int value) throws IOException, InterruptedException {
         keyWritable.set(value);
         valueWritable.set(String.valueOf(value));
-        sorter().put(keyWritable, valueWritable);
+        target.put(keyWritable, valueWritable);
     }
 
     private Source<IntWritable> sort() throws IOException, InterruptedException {
@@ -174,18 +253,24 @@ public class KeyValueSorterTest {
 
     private KeyValueSorter<IntWritable, Text> sorter() throws IOException {
         if (sorter == null) {
-            sorter = manage(new KeyValueSorter<>(
-                    new SerializationFactory(new ConfigurationProvider().newInstance()),
-                    IntWritable.class,
-                    Text.class,
-                    new IntWritable.Comparator(),
-                    new KeyValueSorter.Options()
-                        .withBufferSize(0)
-                        .withTemporaryDirectory(temporaryFolder.newFolder())));
+            sorter = newSorter();
         }
         return sorter;
     }
 
+    private KeyValueSorter<IntWritable, Text> newSorter() throws IOException {
+        return manage(new KeyValueSorter<>(
+                new SerializationFactory(new ConfigurationProvider().newInstance()),
+                IntWritable.class,
+                Text.class,
+                new IntWritable.Comparator(),
+                new KeyValueSorter.Options()
+                    .withBufferSize(0)
+                    .withTemporaryDirectory(temporaryFolder.newFolder())
+                    .withSortExecutor(sortExecutor)
+                    .withMergeThreads(mergeThreads)));
+    }
+
     private <T> T manage(T object) {
         resources.addFirst(object);
         return object;
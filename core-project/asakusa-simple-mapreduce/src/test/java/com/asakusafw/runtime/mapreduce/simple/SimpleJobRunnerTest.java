@@ -37,6 +37,7 @@ import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.Job;
 import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.Partitioner;
 import org.apache.hadoop.mapreduce.Reducer;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.apache.hadoop.mapreduce.lib.input.TextInputFormat;
@@ -138,6 +139,175 @@ public class SimpleJobRunnerTest {
         })));
     }
 
+    /**
+     * Test for map only job with parallel map tasks.
+     * @throws Exception if failed
+     */
+    @Test
+    public void map_only_parallel() throws Exception {
+        Job job = newJob();
+        job.getConfiguration().setInt(SimpleJobRunner.KEY_MAP_PARALLELISM, 4);
+        job.setInputFormatClass(TextInputFormat.class);
+        job.setOutputFormatClass(TextOutputFormat.class);
+        job.setMapperClass(SimpleMapper.class);
+        job.setNumReduceTasks(0);
+        job.setOutputKeyClass(LongWritable.class);
+        job.setOutputValueClass(Text.class);
+
+        File inputDir = folder.newFolder();
+        Set<String> expected = new LinkedHashSet<>();
+        for (int i = 0; i < 10; i++) {
+            String line = String.format("Hello, world! %d", i);
+            write(new File(inputDir, String.format("input-%d.txt", i)), line);
+            expected.add(line);
+        }
+
+        File outputDir = folder.newFolder();
+        outputDir.delete();
+
+        FileInputFormat.setInputPaths(job, new Path(inputDir.toURI()));
+        FileOutputFormat.setOutputPath(job, new Path(outputDir.toURI()));
+        assertThat(new SimpleJobRunner().run(job), is(true));
+        assertThat(trimHead(read(outputDir)), is(expected));
+    }
+
+    /**
+     * Test for map-reduce job with parallel map tasks.
+     * @throws Exception if failed
+     */
+    @Test
+    public void map_reduce_parallel() throws Exception {
+        Job job = newJob();
+        job.getConfiguration().setInt(SimpleJobRunner.KEY_MAP_PARALLELISM, 4);
+        job.setInputFormatClass(TextInputFormat.class);
+        job.setOutputFormatClass(TextOutputFormat.class);
+
+        job.setMapperClass(WordCountMapper.class);
+        job.setMapOutputKeyClass(Text.class);
+        job.setMapOutputValueClass(LongWritable.class);
+
+        job.setSortComparatorClass(Text.Comparator.class);
+        job.setGroupingComparatorClass(Text.Comparator.class);
+
+        job.setReducerClass(WordCountReducer.class);
+        job.setNumReduceTasks(1);
+        job.setOutputKeyClass(Text.class);
+        job.setOutputValueClass(LongWritable.class);
+
+        File inputDir = folder.newFolder();
+        for (int i = 0; i < 10; i++) {
+            write(new File(inputDir, String.format("input-%d.txt", i)), new String[] {
+                    "a b c d",
+                    "a a b c",
+                    "c",
+            });
+        }
+
+        File outputDir = folder.newFolder();
+        outputDir.delete();
+
+        FileInputFormat.setInputPaths(job, new Path(inputDir.toURI()));
+        FileOutputFormat.setOutputPath(job, new Path(outputDir.toURI()));
+        assertThat(new SimpleJobRunner().run(job), is(true));
+        assertThat(toMap(read(outputDir)), is(map(new String[] {
+                "a", "30",
+                "b", "20",
+                "c", "30",
+                "d", "10",
+        })));
+    }
+
+    /**
+     * Test for map-reduce job with multiple partitions.
+     * @throws Exception if failed
+     */
+    @Test
+    public void map_reduce_partitioned() throws Exception {
+        Job job = newJob();
+        job.getConfiguration().setInt(SimpleJobRunner.KEY_MAP_PARALLELISM, 2);
+        job.getConfiguration().setInt(SimpleJobRunner.KEY_REDUCE_PARALLELISM, 3);
+        job.getConfiguration().setInt(SimpleJobRunner.KEY_SORT_THREADS, 2);
+        job.getConfiguration().setInt(SimpleJobRunner.KEY_MERGE_THREADS, 2);
+        job.setInputFormatClass(TextInputFormat.class);
+        job.setOutputFormatClass(TextOutputFormat.class);
+
+        job.setMapperClass(WordCountMapper.class);
+        job.setMapOutputKeyClass(Text.class);
+        job.setMapOutputValueClass(LongWritable.class);
+
+        job.setSortComparatorClass(Text.Comparator.class);
+        job.setGroupingComparatorClass(Text.Comparator.class);
+        job.setPartitionerClass(FirstCharPartitioner.class);
+
+        job.setReducerClass(WordCountReducer.class);
+        job.setNumReduceTasks(4);
+        job.setOutputKeyClass(Text.class);
+        job.setOutputValueClass(LongWritable.class);
+
+        File inputDir = folder.newFolder();
+        for (int i = 0; i < 10; i++) {
+            write(new File(inputDir, String.format("input-%d.txt", i)), new String[] {
+                    "a b c d",
+                    "a a b c",
+                    "c",
+            });
+        }
+
+        File outputDir = folder.newFolder();
+        outputDir.delete();
+
+        FileInputFormat.setInputPaths(job, new Path(inputDir.toURI()));
+        FileOutputFormat.setOutputPath(job, new Path(outputDir.toURI()));
+        assertThat(new SimpleJobRunner().run(job), is(true));
+        assertThat(toMap(read(outputDir)), is(map(new String[] {
+                "a", "30",
+                "b", "20",
+                "c", "30",
+                "d", "10",
+        })));
+
+        // 3 partitions: {c}, {a, d}, {b}
+        assertThat(toMap(read(new File(outputDir, "part-r-00000"))), is(map(new String[] {
+                "c", "30",
+        })));
+        assertThat(toMap(read(new File(outputDir, "part-r-00001"))), is(map(new String[] {
+                "a", "30",
+                "d", "10",
+        })));
+        assertThat(toMap(read(new File(outputDir, "part-r-00002"))), is(map(new String[] {
+                "b", "20",
+        })));
+    }
+
+    /**
+     * Test for wrong job with parallel map tasks.
+     * @throws Exception if failed
+     */
+    @Test
+    public void exception_parallel() throws Exception {
+        Job job = newJob();
+        job.getConfiguration().setInt(SimpleJobRunner.KEY_MAP_PARALLELISM, 4);
+        job.setJobName("w/ exception");
+        job.setInputFormatClass(TextInputFormat.class);
+        job.setOutputFormatClass(TextOutputFormat.class);
+        job.setMapperClass(InvalidMapper.class);
+        job.setNumReduceTasks(0);
+        job.setOutputKeyClass(LongWritable.class);
+        job.setOutputValueClass(Text.class);
+
+        File inputDir = folder.newFolder();
+        for (int i = 0; i < 10; i++) {
+            write(new File(inputDir, String.format("input-%d.txt", i)), "testing");
+        }
+
+        File outputDir = folder.newFolder();
+        outputDir.delete();
+
+        FileInputFormat.setInputPaths(job, new Path(inputDir.toURI()));
+        FileOutputFormat.setOutputPath(job, new Path(outputDir.toURI()));
+        assertThat(new SimpleJobRunner().run(job), is(false));
+    }
+
     /**
      * Simple stress testing.
      * @throws Exception if failed
@@ -336,6 +506,16 @@ public class SimpleJobRunnerTest {
         }
     }
 
+    /**
+     * partition by the first character.
+     */
+    public static final class FirstCharPartitioner extends Partitioner<Text, LongWritable> {
+        @Override
+        public int getPartition(Text key, LongWritable value, int numPartitions) {
+            return key.charAt(0) % numPartitions;
+        }
+    }
+
     /**
      * raise I/O error.
      */
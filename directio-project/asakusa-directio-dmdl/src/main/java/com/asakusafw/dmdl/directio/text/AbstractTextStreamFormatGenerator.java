@@ -79,6 +79,7 @@ import com.asakusafw.utils.java.model.util.TypeBuilder;
 /**
  * Generates {@link AbstractTextStreamFormat}.
  * @since 0.9.1
+ * @version 0.9.2
  */
 public abstract class AbstractTextStreamFormatGenerator {
 
@@ -425,9 +426,7 @@ public abstract class AbstractTextStreamFormatGenerator {
                 return false;
             }
         }
-        if (formatSettings.getCompressionType().isPresent()) {
-            return false;
-        }
+        // compressed inputs are split only if they have block index
         if (model.getDeclaredProperties().stream()
                 .map(TextFieldTrait::getKind)
                 .anyMatch(Predicate.isEqual(TextFieldTrait.Kind.LINE_NUMBER)
@@ -35,6 +35,7 @@ import com.asakusafw.dmdl.directio.text.mock.UpperCaseTransformer;
 import com.asakusafw.dmdl.directio.text.tabular.TabularTextEmitterTest;
 import com.asakusafw.dmdl.java.emitter.driver.ObjectDriver;
 import com.asakusafw.runtime.directio.BinaryStreamFormat;
+import com.asakusafw.runtime.directio.hadoop.BlockIndexedDataFormat;
 import com.asakusafw.runtime.io.ModelInput;
 import com.asakusafw.runtime.io.ModelOutput;
 import com.asakusafw.runtime.value.IntOption;
@@ -158,6 +159,10 @@ public class CsvTextEmitterTest extends GeneratorTesterRoot {
                 "  a : TEXT;",
                 "};",
         });
+        BinaryStreamFormat<?> support = (BinaryStreamFormat<?>) loaded.newObject("text", "SimpleCsvTextFormat");
+        assertThat(support.getMinimumFragmentSize(), is(-1L));
+        assertThat(((BlockIndexedDataFormat<?>) support).isBlockIndexSupported(), is(true));
+
         ModelWrapper model = loaded.newModel("Simple")
                 .setOption("a", new StringOption("Hello, world!"));
         byte[] contents = write(loaded, model);
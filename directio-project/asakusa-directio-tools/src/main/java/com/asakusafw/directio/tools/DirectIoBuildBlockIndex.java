@@ -0,0 +1,218 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.directio.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.fs.FileContext;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Options;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.CodecPool;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.hadoop.io.compress.Decompressor;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+import com.asakusafw.runtime.directio.Counter;
+import com.asakusafw.runtime.directio.DirectDataSource;
+import com.asakusafw.runtime.directio.DirectDataSourceRepository;
+import com.asakusafw.runtime.directio.FilePattern;
+import com.asakusafw.runtime.directio.ResourceInfo;
+import com.asakusafw.runtime.directio.hadoop.BlockCompressedOutputStream;
+import com.asakusafw.runtime.directio.hadoop.BlockIndex;
+import com.asakusafw.runtime.directio.hadoop.HadoopDataSourceUtil;
+
+/**
+ * CLI for building {@link BlockIndex} of compressed Direct I/O files.
+ * Each target file is re-compressed into independently compressed blocks, and then its block index is
+ * written next to the file.
+ * @since 0.9.2
+ */
+public final class DirectIoBuildBlockIndex extends Configured implements Tool {
+
+    static final Log LOG = LogFactory.getLog(DirectIoBuildBlockIndex.class);
+
+    /**
+     * The default uncompressed block size in bytes.
+     */
+    static final long DEFAULT_BLOCK_SIZE = 64L * 1024 * 1024;
+
+    private DirectDataSourceRepository repository;
+
+    /**
+     * Creates a new instance.
+     */
+    public DirectIoBuildBlockIndex() {
+        return;
+    }
+
+    /**
+     * Creates a new instance for testing.
+     * @param repository repository
+     */
+    DirectIoBuildBlockIndex(DirectDataSourceRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public int run(String[] args) throws Exception {
+        LinkedList<String> argList = new LinkedList<>();
+        Collections.addAll(argList, args);
+        long blockSize = DEFAULT_BLOCK_SIZE;
+        while (argList.isEmpty() == false) {
+            String arg = argList.removeFirst();
+            if (arg.equals("-blocksize") && argList.isEmpty() == false) { //$NON-NLS-1$
+                blockSize = parseBlockSize(argList.removeFirst());
+            } else if (arg.equals("--")) { //$NON-NLS-1$
+                break;
+            } else {
+                argList.addFirst(arg);
+                break;
+            }
+        }
+        if (argList.size() < 2 || blockSize <= 0) {
+            LOG.error(MessageFormat.format(
+                    "Invalid arguments: {0}",
+                    Arrays.toString(args)));
+            System.err.println(MessageFormat.format(
+                    "Usage: hadoop {0} -conf <datasource-conf.xml> [-blocksize <bytes>] "
+                    + "base-path resource-pattern [resource-pattern [...]]",
+                    getClass().getName()));
+            return 1;
+        }
+        String path = argList.removeFirst();
+        List<FilePattern> patterns = new ArrayList<>();
+        for (String arg : argList) {
+            patterns.add(FilePattern.compile(arg));
+        }
+        if (repository == null) {
+            repository = HadoopDataSourceUtil.loadRepository(getConf());
+        }
+        String basePath = repository.getComponentPath(path);
+        DirectDataSource source = repository.getRelatedDataSource(path);
+        CompressionCodecFactory codecs = new CompressionCodecFactory(getConf());
+        for (FilePattern pattern : patterns) {
+            List<ResourceInfo> list = source.list(basePath, pattern, new Counter());
+            for (ResourceInfo info : list) {
+                if (info.isDirectory()) {
+                    continue;
+                }
+                Path file = new Path(info.getPath());
+                if (BlockIndex.isIndexFile(file)) {
+                    continue;
+                }
+                CompressionCodec codec = codecs.getCodec(file);
+                if (codec == null) {
+                    LOG.warn(MessageFormat.format(
+                            "Skipped uncompressed file: {0}",
+                            file));
+                    continue;
+                }
+                BlockIndex index = build(file.getFileSystem(getConf()), file, codec, blockSize);
+                System.out.println(MessageFormat.format(
+                        "{0} ({1} blocks)", //$NON-NLS-1$
+                        file,
+                        index.getBlockCount()));
+            }
+        }
+        return 0;
+    }
+
+    private static long parseBlockSize(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            LOG.error(MessageFormat.format(
+                    "Invalid block size: {0}",
+                    value), e);
+            return -1L;
+        }
+    }
+
+    static BlockIndex build(FileSystem fs, Path file, CompressionCodec codec, long blockSize) throws IOException {
+        Path temporary = new Path(file.getParent(), "." + file.getName() + ".tmp"); //$NON-NLS-1$ //$NON-NLS-2$
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(MessageFormat.format(
+                    "re-compressing file: {0} -> {1}", //$NON-NLS-1$
+                    file,
+                    temporary));
+        }
+        BlockIndex index;
+        Decompressor decompressor = CodecPool.getDecompressor(codec);
+        try (InputStream input = codec.createInputStream(fs.open(file), decompressor);
+                BlockCompressedOutputStream output = new BlockCompressedOutputStream(
+                        fs.create(temporary, true), codec, blockSize)) {
+            copy(input, output);
+            output.close();
+            index = output.getIndex();
+        } catch (IOException e) {
+            fs.delete(temporary, false);
+            throw e;
+        } finally {
+            CodecPool.returnDecompressor(decompressor);
+        }
+        Path indexPath = BlockIndex.getIndexPath(file);
+        fs.delete(indexPath, false);
+        try {
+            // replaces the original file in one step, so that it is never lost even if the rename failed
+            FileContext.getFileContext(fs.getUri(), fs.getConf()).rename(temporary, file, Options.Rename.OVERWRITE);
+        } catch (IOException e) {
+            fs.delete(temporary, false);
+            throw new IOException(MessageFormat.format(
+                    "Failed to replace file: {0} -> {1}",
+                    temporary,
+                    file), e);
+        }
+        index.write(fs, file);
+        return index;
+    }
+
+    private static void copy(InputStream input, OutputStream output) throws IOException {
+        byte[] buf = new byte[64 * 1024];
+        while (true) {
+            int read = input.read(buf);
+            if (read < 0) {
+                break;
+            }
+            output.write(buf, 0, read);
+        }
+    }
+
+    /**
+     * Tool program entry.
+     * @param args {@code Hadoop-generic-arguments...} {@code application specific-arguments}
+     * @throws Exception if failed to execute
+     * @see #run(String[])
+     */
+    public static void main(String[] args) throws Exception {
+        int exitCode = ToolRunner.run(new Configuration(), new DirectIoBuildBlockIndex(), args);
+        System.exit(exitCode);
+    }
+}
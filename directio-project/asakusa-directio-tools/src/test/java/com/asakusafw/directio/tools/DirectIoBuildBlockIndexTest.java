@@ -0,0 +1,97 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.directio.tools;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.GzipCodec;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.asakusafw.runtime.directio.hadoop.BlockIndex;
+
+/**
+ * Test for {@link DirectIoBuildBlockIndex}.
+ */
+public class DirectIoBuildBlockIndexTest {
+
+    /**
+     * Temporary folder.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * simple case.
+     * @throws Exception if failed
+     */
+    @Test
+    public void build() throws Exception {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            buf.append("line-").append(i).append('\n');
+        }
+        byte[] contents = buf.toString().getBytes(StandardCharsets.UTF_8);
+        File file = folder.newFile("testing.gz");
+        try (OutputStream output = new GZIPOutputStream(new FileOutputStream(file))) {
+            output.write(contents);
+        }
+
+        Configuration conf = new Configuration();
+        Path path = new Path(file.toURI());
+        FileSystem fs = path.getFileSystem(conf);
+        assertThat(BlockIndex.find(fs, path), is(nullValue()));
+
+        BlockIndex built = DirectIoBuildBlockIndex.build(
+                fs, path, ReflectionUtils.newInstance(GzipCodec.class, conf), 1000);
+        assertThat(built.getBlockCount(), is((contents.length + 999) / 1000));
+        assertThat(built.getUncompressedLength(), is((long) contents.length));
+
+        BlockIndex found = BlockIndex.find(fs, path);
+        assertThat(found, is(notNullValue()));
+        assertThat(found.getBlockCount(), is(built.getBlockCount()));
+        assertThat(found.getCompressedLength(), is(file.length()));
+
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+        try (InputStream input = new GZIPInputStream(fs.open(path))) {
+            byte[] b = new byte[256];
+            while (true) {
+                int read = input.read(b);
+                if (read < 0) {
+                    break;
+                }
+                results.write(b, 0, read);
+            }
+        }
+        assertThat(results.toByteArray(), is(contents));
+        assertThat(new File(folder.getRoot(), ".testing.gz.tmp").exists(), is(false));
+    }
+}
@@ -18,6 +18,7 @@ package com.asakusafw.vocabulary.attribute;
 /**
  * Represents a buffer type of inputs.
  * @since 0.9.1
+ * @version 0.9.2
  */
 public enum BufferType implements Attribute {
 
@@ -35,4 +36,10 @@ public enum BufferType implements Attribute {
      * Does not allocate buffer space.
      */
     VOLATILE,
+
+    /**
+     * Allocates a buffer onto the off-heap memory and temporary files.
+     * @since 0.9.2
+     */
+    OFFHEAP,
 }
@@ -0,0 +1,52 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.vocabulary.model;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.asakusafw.vocabulary.operator.CoGroup;
+import com.asakusafw.vocabulary.operator.GroupSort;
+
+/**
+ * An annotation represents which the annotated element keeps its contents on the off-heap memory.
+ *
+ * This can appear with the following elements:
+ * <ul>
+ * <li>
+ *   Input parameter of {@link CoGroup} and {@link GroupSort} operator methods.
+ *
+ *   A parameter with this annotation keeps the serialized elements in its list out of the Java heap,
+ *   and spills them into a temporary file only if they exceed the off-heap memory limit.
+ *
+ *   Like as {@link Spill}, obtaining elements from the sequence will change the previously obtained object.
+ *   Application developers should create a copy of the object if they hold it.
+ * </li>
+ * </ul>
+ *
+ * @see Spill
+ * @see Once
+ * @since 0.9.2
+ */
+@Target({ ElementType.PARAMETER })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface OffHeap {
+    // no special members
+}
@@ -42,7 +42,9 @@ import com.asakusafw.directio.hive.serde.DataModelDescriptor;
 import com.asakusafw.directio.hive.serde.DataModelInspector;
 import com.asakusafw.directio.hive.serde.DataModelMapping;
 import com.asakusafw.directio.hive.serde.PropertyDescriptor;
+import com.asakusafw.directio.hive.util.RollingModelOutput;
 import com.asakusafw.runtime.directio.Counter;
+import com.asakusafw.runtime.directio.DataPredicate;
 import com.asakusafw.runtime.directio.DirectInputFragment;
 import com.asakusafw.runtime.directio.hadoop.BlockMap;
 import com.asakusafw.runtime.directio.hadoop.HadoopFileFormat;
@@ -54,6 +56,7 @@ import com.asakusafw.runtime.io.ModelOutput;
  * An abstract implementation of {@link HadoopFileFormat} for ORCFile.
  * @param <T> the data model type
  * @since 0.7.0
+ * @version 0.9.2
  */
 public abstract class AbstractOrcFileFormat<T> extends HadoopFileFormat<T>
         implements StripedDataFormat<T>, TableInfo.Provider {
@@ -161,6 +164,16 @@ public abstract class AbstractOrcFileFormat<T> extends HadoopFileFormat<T>
             FileSystem fileSystem, Path path,
             long offset, long fragmentSize,
             Counter counter) throws IOException, InterruptedException {
+        return createInput(dataType, fileSystem, path, offset, fragmentSize, counter, null);
+    }
+
+    @Override
+    public ModelInput<T> createInput(
+            Class<? extends T> dataType,
+            FileSystem fileSystem, Path path,
+            long offset, long fragmentSize,
+            Counter counter,
+            DataPredicate predicate) throws IOException, InterruptedException {
         DataModelMapping driverConf = new DataModelMapping();
         OrcFormatConfiguration conf = getFormatConfiguration();
         if (LOG.isDebugEnabled()) {
@@ -189,7 +202,9 @@ public abstract class AbstractOrcFileFormat<T> extends HadoopFileFormat<T>
         return new OrcFileInput<>(
                 getDataModelDescriptor(), driverConf,
                 fileSystem, path,
-                offset, size, counter);
+                offset, size, counter,
+                predicate,
+                Boolean.FALSE.equals(conf.getVectorizedReader()) == false);
     }
 
     @Override
@@ -221,6 +236,23 @@ public abstract class AbstractOrcFileFormat<T> extends HadoopFileFormat<T>
             options.stripeSize(stripeSize);
         }
 
-        return new OrcFileOutput<>(getDataModelDescriptor(), path, options, counter);
+        DataModelDescriptor descriptor = getDataModelDescriptor();
+        if (conf.getFileRecordLimit() == null && conf.getFileSizeLimit() == null) {
+            return new OrcFileOutput<>(descriptor, path, options, counter);
+        }
+        return new RollingModelOutput<>(
+                descriptor, path,
+                file -> new OrcFileOutput<>(descriptor, file, options, counter),
+                toLimit(conf.getFileRecordLimit()),
+                toLimit(conf.getFileSizeLimit()),
+                toThreads(conf.getWriterThreads()));
+    }
+
+    private static long toLimit(Long value) {
+        return value == null ? 0L : value;
+    }
+
+    private static int toThreads(Integer value) {
+        return value == null ? 1 : value;
     }
 }
@@ -0,0 +1,223 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.directio.hive.orc;
+
+import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.serde2.objectinspector.StructField;
+
+import com.asakusafw.directio.hive.serde.BooleanOptionDriver;
+import com.asakusafw.directio.hive.serde.ByteOptionDriver;
+import com.asakusafw.directio.hive.serde.DataModelDriver;
+import com.asakusafw.directio.hive.serde.DateOptionDriver;
+import com.asakusafw.directio.hive.serde.DoubleOptionDriver;
+import com.asakusafw.directio.hive.serde.FloatOptionDriver;
+import com.asakusafw.directio.hive.serde.IntOptionDriver;
+import com.asakusafw.directio.hive.serde.LongOptionDriver;
+import com.asakusafw.directio.hive.serde.PropertyDescriptor;
+import com.asakusafw.directio.hive.serde.ShortOptionDriver;
+import com.asakusafw.directio.hive.serde.StringOptionDriver;
+import com.asakusafw.directio.hive.serde.ValueDriver;
+import com.asakusafw.directio.hive.util.TemporalUtil;
+import com.asakusafw.runtime.value.BooleanOption;
+import com.asakusafw.runtime.value.ByteOption;
+import com.asakusafw.runtime.value.DateOption;
+import com.asakusafw.runtime.value.DoubleOption;
+import com.asakusafw.runtime.value.FloatOption;
+import com.asakusafw.runtime.value.IntOption;
+import com.asakusafw.runtime.value.LongOption;
+import com.asakusafw.runtime.value.ShortOption;
+import com.asakusafw.runtime.value.StringOption;
+import com.asakusafw.runtime.value.ValueOption;
+
+/**
+ * Drives values in {@link VectorizedRowBatch} into an Asakusa data model.
+ * This copies primitive values in column vectors directly into the data model properties, without any
+ * intermediate row objects nor object inspectors.
+ * @since 0.9.2
+ */
+final class ColumnVectorDriver {
+
+    static final Log LOG = LogFactory.getLog(ColumnVectorDriver.class);
+
+    private static final Map<Class<?>, ColumnCopier> COPIERS;
+    static {
+        Map<Class<?>, ColumnCopier> map = new HashMap<>();
+        map.put(BooleanOptionDriver.class, ColumnCopier.BOOLEAN);
+        map.put(ByteOptionDriver.class, ColumnCopier.BYTE);
+        map.put(ShortOptionDriver.class, ColumnCopier.SHORT);
+        map.put(IntOptionDriver.class, ColumnCopier.INT);
+        map.put(LongOptionDriver.class, ColumnCopier.LONG);
+        map.put(FloatOptionDriver.class, ColumnCopier.FLOAT);
+        map.put(DoubleOptionDriver.class, ColumnCopier.DOUBLE);
+        map.put(StringOptionDriver.class, ColumnCopier.STRING);
+        map.put(DateOptionDriver.class, ColumnCopier.DATE);
+        COPIERS = map;
+    }
+
+    private final int[] columns;
+
+    private final PropertyDescriptor[] properties;
+
+    private final ColumnCopier[] copiers;
+
+    private ColumnVectorDriver(int[] columns, PropertyDescriptor[] properties, ColumnCopier[] copiers) {
+        this.columns = columns;
+        this.properties = properties;
+        this.copiers = copiers;
+    }
+
+    /**
+     * Returns a new instance for the given data model driver.
+     * @param driver the row oriented data model driver
+     * @return the created instance, or {@code null} if the data model driver contains unsupported properties
+     */
+    static ColumnVectorDriver of(DataModelDriver driver) {
+        List<? extends StructField> all = driver.getSourceInspector().getAllStructFieldRefs();
+        List<StructField> sources = driver.getSourceFields();
+        List<PropertyDescriptor> targets = driver.getTargetProperties();
+        assert sources.size() == targets.size();
+        int[] columns = new int[sources.size()];
+        PropertyDescriptor[] properties = new PropertyDescriptor[sources.size()];
+        ColumnCopier[] copiers = new ColumnCopier[sources.size()];
+        for (int i = 0, n = sources.size(); i < n; i++) {
+            StructField source = sources.get(i);
+            PropertyDescriptor target = targets.get(i);
+            ValueDriver valueDriver = target.getDriver(source.getFieldObjectInspector());
+            ColumnCopier copier = COPIERS.get(valueDriver.getClass());
+            if (copier == null) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug(MessageFormat.format(
+                            "ORCFile vectorized reader is not available: {0}:{1} -> {2}", //$NON-NLS-1$
+                            source.getFieldName(),
+                            source.getFieldObjectInspector().getTypeName(),
+                            target.getFieldName()));
+                }
+                return null;
+            }
+            columns[i] = all.indexOf(source);
+            assert columns[i] >= 0;
+            properties[i] = target;
+            copiers[i] = copier;
+        }
+        return new ColumnVectorDriver(columns, properties, copiers);
+    }
+
+    /**
+     * Sets data model properties from the row in the given batch.
+     * @param dataModel the data model object
+     * @param batch the source batch
+     * @param row the row index in the batch
+     */
+    void set(Object dataModel, VectorizedRowBatch batch, int row) {
+        ColumnVector[] vectors = batch.cols;
+        int[] cs = columns;
+        PropertyDescriptor[] ps = properties;
+        ColumnCopier[] xs = copiers;
+        for (int i = 0; i < cs.length; i++) {
+            ColumnVector vector = vectors[cs[i]];
+            ValueOption<?> option = ps[i].extract(dataModel);
+            int index = vector.isRepeating ? 0 : row;
+            if (vector.noNulls == false && vector.isNull[index]) {
+                option.setNull();
+            } else {
+                xs[i].copy(vector, index, option);
+            }
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private enum ColumnCopier {
+
+        BOOLEAN {
+            @Override
+            void copy(ColumnVector vector, int index, ValueOption<?> target) {
+                ((BooleanOption) target).modify(((LongColumnVector) vector).vector[index] != 0L);
+            }
+        },
+
+        BYTE {
+            @Override
+            void copy(ColumnVector vector, int index, ValueOption<?> target) {
+                ((ByteOption) target).modify((byte) ((LongColumnVector) vector).vector[index]);
+            }
+        },
+
+        SHORT {
+            @Override
+            void copy(ColumnVector vector, int index, ValueOption<?> target) {
+                ((ShortOption) target).modify((short) ((LongColumnVector) vector).vector[index]);
+            }
+        },
+
+        INT {
+            @Override
+            void copy(ColumnVector vector, int index, ValueOption<?> target) {
+                ((IntOption) target).modify((int) ((LongColumnVector) vector).vector[index]);
+            }
+        },
+
+        LONG {
+            @Override
+            void copy(ColumnVector vector, int index, ValueOption<?> target) {
+                ((LongOption) target).modify(((LongColumnVector) vector).vector[index]);
+            }
+        },
+
+        FLOAT {
+            @Override
+            void copy(ColumnVector vector, int index, ValueOption<?> target) {
+                ((FloatOption) target).modify((float) ((DoubleColumnVector) vector).vector[index]);
+            }
+        },
+
+        DOUBLE {
+            @Override
+            void copy(ColumnVector vector, int index, ValueOption<?> target) {
+                ((DoubleOption) target).modify(((DoubleColumnVector) vector).vector[index]);
+            }
+        },
+
+        STRING {
+            @Override
+            void copy(ColumnVector vector, int index, ValueOption<?> target) {
+                BytesColumnVector v = (BytesColumnVector) vector;
+                ((StringOption) target).modify(v.vector[index], v.start[index], v.length[index]);
+            }
+        },
+
+        DATE {
+            @Override
+            void copy(ColumnVector vector, int index, ValueOption<?> target) {
+                long days = ((LongColumnVector) vector).vector[index];
+                ((DateOption) target).modify(TemporalUtil.toElapsedDays((int) days));
+            }
+        },
+        ;
+
+        abstract void copy(ColumnVector vector, int index, ValueOption<?> target);
+    }
+}
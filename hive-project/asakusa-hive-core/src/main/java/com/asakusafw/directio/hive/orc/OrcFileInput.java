@@ -25,9 +25,11 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.hadoop.hive.ql.io.orc.OrcFile;
 import org.apache.hadoop.hive.ql.io.orc.Reader;
 import org.apache.hadoop.hive.ql.io.orc.RecordReader;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
 import org.apache.hadoop.hive.serde2.objectinspector.StructField;
 import org.apache.hadoop.hive.serde2.objectinspector.StructObjectInspector;
 
@@ -35,12 +37,14 @@ import com.asakusafw.directio.hive.serde.DataModelDescriptor;
 import com.asakusafw.directio.hive.serde.DataModelDriver;
 import com.asakusafw.directio.hive.serde.DataModelMapping;
 import com.asakusafw.runtime.directio.Counter;
+import com.asakusafw.runtime.directio.DataPredicate;
 import com.asakusafw.runtime.io.ModelInput;
 
 /**
  * An implementation of {@link ModelInput} for reading ORCFile.
  * @param <T> the data model type
  * @since 0.7.0
+ * @version 0.9.2
  */
 public class OrcFileInput<T> implements ModelInput<T> {
 
@@ -60,12 +64,22 @@ public class OrcFileInput<T> implements ModelInput<T> {
 
     private final Counter counter;
 
+    private final DataPredicate predicate;
+
+    private final boolean vectorized;
+
     private DataModelDriver driver;
 
+    private ColumnVectorDriver vectorDriver;
+
     private RecordReader currentReader;
 
     private Object structBuffer;
 
+    private VectorizedRowBatch batchBuffer;
+
+    private int batchIndex;
+
     private long lastCount;
 
     /**
@@ -101,6 +115,30 @@ public class OrcFileInput<T> implements ModelInput<T> {
             FileSystem fileSystem, Path path,
             long offset, long fragmentSize,
             Counter counter) {
+        this(descriptor, configuration, fileSystem, path, offset, fragmentSize, counter, null, false);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param descriptor the target data model descriptor
+     * @param configuration the {@link DataModelDriver} configuration
+     * @param fileSystem the file system to open the target path
+     * @param path the path to the target file
+     * @param offset starting stream offset
+     * @param fragmentSize suggested fragment bytes count
+     * @param counter the current counter
+     * @param predicate the predicate to skip row groups, or {@code null} if it is not defined
+     * @param vectorized {@code true} to read contents in batches if it is possible, otherwise {@code false}
+     * @since 0.9.2
+     */
+    public OrcFileInput(
+            DataModelDescriptor descriptor,
+            DataModelMapping configuration,
+            FileSystem fileSystem, Path path,
+            long offset, long fragmentSize,
+            Counter counter,
+            DataPredicate predicate,
+            boolean vectorized) {
         this.descriptor = descriptor;
         this.configuration = configuration;
         this.fileSystem = fileSystem;
@@ -108,11 +146,16 @@ public class OrcFileInput<T> implements ModelInput<T> {
         this.offset = offset;
         this.fragmentSize = fragmentSize;
         this.counter = counter;
+        this.predicate = predicate;
+        this.vectorized = vectorized;
     }
 
     @Override
     public boolean readTo(T model) throws IOException {
         RecordReader reader = prepare();
+        if (vectorDriver != null) {
+            return readBatchTo(reader, model);
+        }
         if (reader.hasNext() == false) {
             return false;
         }
@@ -124,6 +167,23 @@ public class OrcFileInput<T> implements ModelInput<T> {
         return true;
     }
 
+    private boolean readBatchTo(RecordReader reader, T model) throws IOException {
+        VectorizedRowBatch batch = batchBuffer;
+        while (batch == null || batchIndex >= batch.size) {
+            if (reader.hasNext() == false) {
+                return false;
+            }
+            batch = reader.nextBatch(batch);
+            batchBuffer = batch;
+            batchIndex = 0;
+            advanceCounter((long) (fragmentSize * reader.getProgress()));
+        }
+        int row = batch.selectedInUse ? batch.selected[batchIndex] : batchIndex;
+        batchIndex++;
+        vectorDriver.set(model, batch, row);
+        return true;
+    }
+
     private RecordReader prepare() throws IOException {
         RecordReader reader = currentReader;
         if (reader == null) {
@@ -136,6 +196,9 @@ public class OrcFileInput<T> implements ModelInput<T> {
             Reader orc = OrcFile.createReader(fileSystem, path);
             StructObjectInspector sourceInspector = (StructObjectInspector) orc.getObjectInspector();
             driver = new DataModelDriver(descriptor, sourceInspector, configuration);
+            if (vectorized) {
+                vectorDriver = ColumnVectorDriver.of(driver);
+            }
             if (LOG.isInfoEnabled()) {
                 LOG.info(MessageFormat.format(
                         Messages.getString("OrcFileInput.infoLoadContents"), //$NON-NLS-1$
@@ -145,7 +208,12 @@ public class OrcFileInput<T> implements ModelInput<T> {
                         fragmentSize));
             }
             boolean[] availableColumns = computeAvailableColumns(orc);
-            reader = orc.rows(offset, fragmentSize, availableColumns);
+            SearchArgument sarg = predicate == null ? null : new SearchArgumentTranslator(driver).translate(predicate);
+            if (sarg == null) {
+                reader = orc.rows(offset, fragmentSize, availableColumns);
+            } else {
+                reader = orc.rows(offset, fragmentSize, availableColumns, sarg, computeColumnNames());
+            }
             currentReader = reader;
         }
         return reader;
@@ -173,6 +241,17 @@ public class OrcFileInput<T> implements ModelInput<T> {
         return availables;
     }
 
+    private String[] computeColumnNames() {
+        assert driver != null;
+        List<? extends StructField> all = driver.getSourceInspector().getAllStructFieldRefs();
+        // the first column must be the root type
+        String[] names = new String[all.size() + 1];
+        for (int i = 0, n = all.size(); i < n; i++) {
+            names[i + 1] = all.get(i).getFieldName();
+        }
+        return names;
+    }
+
     private void advanceCounter(long nextCount) {
         long deltaCount = nextCount - lastCount;
         if (deltaCount > 0) {
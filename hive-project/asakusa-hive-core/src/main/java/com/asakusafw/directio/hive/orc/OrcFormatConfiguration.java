@@ -24,6 +24,7 @@ import com.asakusafw.directio.hive.serde.DataModelMapping.FieldMappingStrategy;
 /**
  * Represents the ORCFile format configurations.
  * @since 0.7.0
+ * @version 0.9.2
  */
 public class OrcFormatConfiguration {
 
@@ -41,6 +42,14 @@ public class OrcFormatConfiguration {
 
     private Long stripeSize = 64L * 1024 * 1024;
 
+    private Boolean vectorizedReader = Boolean.TRUE;
+
+    private Long fileRecordLimit;
+
+    private Long fileSizeLimit;
+
+    private Integer writerThreads;
+
     /**
      * Clears all properties.
      * @return this
@@ -53,6 +62,10 @@ public class OrcFormatConfiguration {
         formatVersion = null;
         compressionKind = null;
         stripeSize = null;
+        vectorizedReader = null;
+        fileRecordLimit = null;
+        fileSizeLimit = null;
+        writerThreads = null;
         return this;
     }
 
@@ -126,6 +139,57 @@ public class OrcFormatConfiguration {
         return this;
     }
 
+    /**
+     * Sets whether or not the vectorized reader is enabled.
+     * Even if it is enabled, the reader falls back to the row-oriented one when the data model contains
+     * properties which are not supported in the vectorized reader.
+     * @param value {@code true} to enable the vectorized reader, otherwise {@code false}
+     * @return this
+     * @since 0.9.2
+     */
+    public OrcFormatConfiguration withVectorizedReader(Boolean value) {
+        this.vectorizedReader = value;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of records in each output file.
+     * If the number of records reaches this limit, the output file is rolled over into a new file.
+     * @param value the maximum number of records, or {@code null} if it is not limited
+     * @return this
+     * @since 0.9.2
+     */
+    public OrcFormatConfiguration withFileRecordLimit(Long value) {
+        this.fileRecordLimit = value;
+        return this;
+    }
+
+    /**
+     * Sets the maximum estimated uncompressed data size (in bytes) of each output file.
+     * If the estimated size reaches this limit, the output file is rolled over into a new file.
+     * @param value the maximum data size, or {@code null} if it is not limited
+     * @return this
+     * @since 0.9.2
+     */
+    public OrcFormatConfiguration withFileSizeLimit(Long value) {
+        this.fileSizeLimit = value;
+        return this;
+    }
+
+    /**
+     * Sets the number of background threads which finish rolled over output files.
+     * This is only effective if either {@link #withFileRecordLimit(Long) the record limit} or
+     * {@link #withFileSizeLimit(Long) the size limit} is set.
+     * @param value the number of threads, {@code 0} to finish them on the writer thread,
+     *     or {@code null} to use the system default value
+     * @return this
+     * @since 0.9.2
+     */
+    public OrcFormatConfiguration withWriterThreads(Integer value) {
+        this.writerThreads = value;
+        return this;
+    }
+
     /**
      * Returns the field mapping strategy.
      * @return the field mapping strategy
@@ -182,6 +246,43 @@ public class OrcFormatConfiguration {
         return stripeSize;
     }
 
+    /**
+     * Returns whether or not the vectorized reader is enabled.
+     * @return {@code true} if it is enabled, {@code false} if it is disabled,
+     *     or {@code null} if use system default value
+     * @since 0.9.2
+     */
+    public Boolean getVectorizedReader() {
+        return vectorizedReader;
+    }
+
+    /**
+     * Returns the maximum number of records in each output file.
+     * @return the maximum number of records, or {@code null} if it is not limited
+     * @since 0.9.2
+     */
+    public Long getFileRecordLimit() {
+        return fileRecordLimit;
+    }
+
+    /**
+     * Returns the maximum estimated uncompressed data size (in bytes) of each output file.
+     * @return the maximum data size, or {@code null} if it is not limited
+     * @since 0.9.2
+     */
+    public Long getFileSizeLimit() {
+        return fileSizeLimit;
+    }
+
+    /**
+     * Returns the number of background threads which finish rolled over output files.
+     * @return the number of threads, or {@code null} if use system default value
+     * @since 0.9.2
+     */
+    public Integer getWriterThreads() {
+        return writerThreads;
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
@@ -199,6 +300,14 @@ public class OrcFormatConfiguration {
         builder.append(compressionKind);
         builder.append(", stripeSize="); //$NON-NLS-1$
         builder.append(stripeSize);
+        builder.append(", vectorizedReader="); //$NON-NLS-1$
+        builder.append(vectorizedReader);
+        builder.append(", fileRecordLimit="); //$NON-NLS-1$
+        builder.append(fileRecordLimit);
+        builder.append(", fileSizeLimit="); //$NON-NLS-1$
+        builder.append(fileSizeLimit);
+        builder.append(", writerThreads="); //$NON-NLS-1$
+        builder.append(writerThreads);
         builder.append("]"); //$NON-NLS-1$
         return builder.toString();
     }
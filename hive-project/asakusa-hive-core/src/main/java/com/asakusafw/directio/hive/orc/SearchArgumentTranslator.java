@@ -0,0 +1,245 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.directio.hive.orc;
+
+import java.math.BigDecimal;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.hive.common.type.HiveDecimal;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgumentFactory;
+import org.apache.hadoop.hive.serde2.io.DateWritable;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.StructField;
+
+import com.asakusafw.directio.hive.serde.DataModelDriver;
+import com.asakusafw.directio.hive.util.TemporalUtil;
+import com.asakusafw.runtime.directio.DataPredicate;
+import com.asakusafw.runtime.value.Date;
+
+/**
+ * Translates {@link DataPredicate} into ORCFile {@link SearchArgument}.
+ * Property predicates which cannot be translated are considered as always satisfied.
+ * @since 0.9.2
+ */
+final class SearchArgumentTranslator {
+
+    static final Log LOG = LogFactory.getLog(SearchArgumentTranslator.class);
+
+    private final DataModelDriver driver;
+
+    /**
+     * Creates a new instance.
+     * @param driver the current data model driver
+     */
+    SearchArgumentTranslator(DataModelDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Translates the given predicate.
+     * @param predicate the source predicate
+     * @return the translated search argument, or {@code null} if it is not effective
+     */
+    SearchArgument translate(DataPredicate predicate) {
+        DataPredicate simplified = simplify(predicate.normalize());
+        if (simplified == null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(MessageFormat.format(
+                        "ORCFile predicate is not available: {0}", //$NON-NLS-1$
+                        predicate));
+            }
+            return null;
+        }
+        SearchArgument.Builder builder = SearchArgumentFactory.newBuilder();
+        // the builder requires a logical operator on the root
+        builder.startAnd();
+        emit(builder, simplified);
+        builder.end();
+        SearchArgument result = builder.build();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(MessageFormat.format(
+                    "ORCFile predicate: {0} -> {1}", //$NON-NLS-1$
+                    predicate,
+                    result));
+        }
+        return result;
+    }
+
+    /**
+     * Removes untranslatable property predicates from the normalized predicate.
+     * Because the predicate does not contain any negations, replacing them with "always true" just weakens it.
+     */
+    private DataPredicate simplify(DataPredicate predicate) {
+        switch (predicate.getKind()) {
+        case AND: {
+            List<DataPredicate> operands = new ArrayList<>();
+            for (DataPredicate operand : predicate.getOperands()) {
+                DataPredicate simplified = simplify(operand);
+                if (simplified != null) {
+                    operands.add(simplified);
+                }
+            }
+            if (operands.isEmpty()) {
+                return null;
+            } else if (operands.size() == 1) {
+                return operands.get(0);
+            }
+            return DataPredicate.and(operands.toArray(new DataPredicate[operands.size()]));
+        }
+        case OR: {
+            List<DataPredicate> operands = new ArrayList<>();
+            for (DataPredicate operand : predicate.getOperands()) {
+                DataPredicate simplified = simplify(operand);
+                if (simplified == null) {
+                    return null;
+                }
+                operands.add(simplified);
+            }
+            if (operands.size() == 1) {
+                return operands.get(0);
+            }
+            return DataPredicate.or(operands.toArray(new DataPredicate[operands.size()]));
+        }
+        case NOT:
+            throw new IllegalStateException(predicate.toString());
+        default:
+            return isSupported(predicate) ? predicate : null;
+        }
+    }
+
+    private boolean isSupported(DataPredicate predicate) {
+        StructField field = driver.findSourceField(predicate.getPropertyName());
+        if (field == null) {
+            return false;
+        }
+        for (Object value : predicate.getValues()) {
+            if (toLiteral(field, value) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void emit(SearchArgument.Builder builder, DataPredicate predicate) {
+        switch (predicate.getKind()) {
+        case AND:
+            builder.startAnd();
+            for (DataPredicate operand : predicate.getOperands()) {
+                emit(builder, operand);
+            }
+            builder.end();
+            break;
+        case OR:
+            builder.startOr();
+            for (DataPredicate operand : predicate.getOperands()) {
+                emit(builder, operand);
+            }
+            builder.end();
+            break;
+        default:
+            emitLeaf(builder, predicate);
+            break;
+        }
+    }
+
+    private void emitLeaf(SearchArgument.Builder builder, DataPredicate predicate) {
+        StructField field = driver.findSourceField(predicate.getPropertyName());
+        assert field != null;
+        String name = field.getFieldName();
+        List<Object> values = new ArrayList<>();
+        for (Object value : predicate.getValues()) {
+            values.add(toLiteral(field, value));
+        }
+        switch (predicate.getKind()) {
+        case EQUAL:
+            builder.equals(name, values.get(0));
+            break;
+        case NOT_EQUAL:
+            builder.startNot().equals(name, values.get(0)).end();
+            break;
+        case LESS_THAN:
+            builder.lessThan(name, values.get(0));
+            break;
+        case LESS_THAN_OR_EQUAL:
+            builder.lessThanEquals(name, values.get(0));
+            break;
+        case GREATER_THAN:
+            builder.startNot().lessThanEquals(name, values.get(0)).end();
+            break;
+        case GREATER_THAN_OR_EQUAL:
+            builder.startNot().lessThan(name, values.get(0)).end();
+            break;
+        case BETWEEN:
+            builder.between(name, values.get(0), values.get(1));
+            break;
+        case IN:
+            builder.in(name, values.toArray());
+            break;
+        case IS_NULL:
+            builder.isNull(name);
+            break;
+        case IS_NOT_NULL:
+            builder.startNot().isNull(name).end();
+            break;
+        default:
+            throw new AssertionError(predicate);
+        }
+    }
+
+    private static Object toLiteral(StructField field, Object value) {
+        ObjectInspector inspector = field.getFieldObjectInspector();
+        if ((inspector instanceof PrimitiveObjectInspector) == false) {
+            return null;
+        }
+        switch (((PrimitiveObjectInspector) inspector).getPrimitiveCategory()) {
+        case BOOLEAN:
+            return value instanceof Boolean ? value : null;
+        case BYTE:
+        case SHORT:
+        case INT:
+        case LONG:
+            return isIntegral(value) ? ((Number) value).longValue() : null;
+        case FLOAT:
+        case DOUBLE:
+            return value instanceof Float || value instanceof Double ? ((Number) value).doubleValue() : null;
+        case STRING:
+        case VARCHAR:
+            return value instanceof String ? value : null;
+        case DECIMAL:
+            return value instanceof BigDecimal ? HiveDecimal.create((BigDecimal) value) : null;
+        case DATE:
+            return value instanceof Date
+                    ? new DateWritable(TemporalUtil.getDaysSinceEpoch((Date) value))
+                    : null;
+        default:
+            // CHAR has padding semantics, and TIMESTAMP depends on the current time zone
+            return null;
+        }
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Byte
+                || value instanceof Short
+                || value instanceof Integer
+                || value instanceof Long;
+    }
+}
@@ -34,7 +34,9 @@ import com.asakusafw.directio.hive.info.TableInfo;
 import com.asakusafw.directio.hive.serde.DataModelDescriptor;
 import com.asakusafw.directio.hive.serde.DataModelMapping;
 import com.asakusafw.directio.hive.serde.PropertyDescriptor;
+import com.asakusafw.directio.hive.util.RollingModelOutput;
 import com.asakusafw.runtime.directio.Counter;
+import com.asakusafw.runtime.directio.DataPredicate;
 import com.asakusafw.runtime.directio.DirectInputFragment;
 import com.asakusafw.runtime.directio.hadoop.BlockMap;
 import com.asakusafw.runtime.directio.hadoop.HadoopFileFormat;
@@ -53,6 +55,7 @@ import parquet.hadoop.metadata.CompressionCodecName;
  * An abstract implementation of {@link HadoopFileFormat} for Parquet.
  * @param <T> the data model type
  * @since 0.7.0
+ * @version 0.9.2
  */
 public abstract class AbstractParquetFileFormat<T> extends HadoopFileFormat<T>
         implements StripedDataFormat<T>, TableInfo.Provider {
@@ -166,6 +169,16 @@ public abstract class AbstractParquetFileFormat<T> extends HadoopFileFormat<T>
             FileSystem fileSystem, Path path,
             long offset, long fragmentSize,
             Counter counter) throws IOException, InterruptedException {
+        return createInput(dataType, fileSystem, path, offset, fragmentSize, counter, null);
+    }
+
+    @Override
+    public ModelInput<T> createInput(
+            Class<? extends T> dataType,
+            FileSystem fileSystem, Path path,
+            long offset, long fragmentSize,
+            Counter counter,
+            DataPredicate predicate) throws IOException, InterruptedException {
         DataModelMapping driverConf = new DataModelMapping();
         ParquetFormatConfiguration conf = getFormatConfiguration();
         if (LOG.isDebugEnabled()) {
@@ -196,7 +209,8 @@ public abstract class AbstractParquetFileFormat<T> extends HadoopFileFormat<T>
                 driverConf,
                 getConf(), path,
                 offset, size,
-                counter);
+                counter,
+                predicate);
     }
 
     @Override
@@ -240,11 +254,28 @@ public abstract class AbstractParquetFileFormat<T> extends HadoopFileFormat<T>
         if (version != null) {
             options.setWriterVersion(version);
         }
-        return new ParquetFileOutput<>(
-                getDataModelDescriptor(),
-                getConf(), path,
-                options,
-                counter);
+        DataModelDescriptor descriptor = getDataModelDescriptor();
+        if (conf.getFileRecordLimit() == null && conf.getFileSizeLimit() == null) {
+            return new ParquetFileOutput<>(
+                    descriptor,
+                    getConf(), path,
+                    options,
+                    counter);
+        }
+        return new RollingModelOutput<>(
+                descriptor, path,
+                file -> new ParquetFileOutput<>(descriptor, getConf(), file, options, counter),
+                toLimit(conf.getFileRecordLimit()),
+                toLimit(conf.getFileSizeLimit()),
+                toThreads(conf.getWriterThreads()));
+    }
+
+    private static long toLimit(Long value) {
+        return value == null ? 0L : value;
+    }
+
+    private static int toThreads(Integer value) {
+        return value == null ? 1 : value;
     }
 
 }
@@ -0,0 +1,74 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.directio.hive.parquet;
+
+import java.nio.ByteBuffer;
+
+import com.asakusafw.runtime.value.StringOption;
+
+import parquet.io.api.Binary;
+
+/**
+ * Utilities about Parquet {@link Binary}.
+ * @since 0.9.2
+ */
+final class BinaryUtil {
+
+    private BinaryUtil() {
+        return;
+    }
+
+    /**
+     * Sets the UTF-8 contents of the given binary into {@link StringOption}.
+     * Unlike {@link Binary#getBytes()}, this does not copy the contents if the binary is backed by an array.
+     * @param target the target option
+     * @param value the source binary
+     */
+    @SuppressWarnings("deprecation")
+    static void setTo(StringOption target, Binary value) {
+        ByteBuffer buf = value.toByteBuffer();
+        if (buf.hasArray()) {
+            target.modify(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+        } else {
+            byte[] bytes = value.getBytes();
+            target.modify(bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * Decodes the given binary as an ASCII string into the buffer.
+     * @param value the source binary
+     * @param buffer the destination buffer, or {@code null} to allocate a new one
+     * @return the buffer which contains the decoded characters from the head,
+     *     or {@code null} if the binary contains any non-ASCII characters
+     */
+    static char[] decodeAscii(Binary value, char[] buffer) {
+        ByteBuffer buf = value.toByteBuffer();
+        int length = buf.remaining();
+        char[] results = buffer;
+        if (results == null || results.length < length) {
+            results = new char[length];
+        }
+        for (int i = 0, offset = buf.position(); i < length; i++) {
+            byte b = buf.get(offset + i);
+            if (b < 0) {
+                return null;
+            }
+            results[i] = (char) b;
+        }
+        return results;
+    }
+}
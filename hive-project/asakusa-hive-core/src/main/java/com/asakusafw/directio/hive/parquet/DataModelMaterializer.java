@@ -18,6 +18,7 @@ package com.asakusafw.directio.hive.parquet;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +45,7 @@ import parquet.schema.Type.Repetition;
 /**
  * An implementation of parquet record materializer for Asakusa data models.
  * @since 0.7.0
+ * @version 0.9.2
  */
 public class DataModelMaterializer extends RecordMaterializer<Object> {
 
@@ -53,6 +55,8 @@ public class DataModelMaterializer extends RecordMaterializer<Object> {
 
     private final DataModelConverter root;
 
+    private final Map<String, PrimitiveType> sourceTypes = new HashMap<>();
+
     /**
      * Creates a new instance.
      * @param descriptor the target descriptor
@@ -73,6 +77,9 @@ public class DataModelMaterializer extends RecordMaterializer<Object> {
                         mapping.source.getType(),
                         mapping.source.getPath()[0]));
                 properties.add(mapping.target);
+                if (mapping.sourceType.isPrimitive()) {
+                    sourceTypes.put(mapping.target.getFieldName(), mapping.sourceType.asPrimitiveType());
+                }
             }
         }
         this.materializeSchema = new MessageType(schema.getName(), fields);
@@ -87,6 +94,16 @@ public class DataModelMaterializer extends RecordMaterializer<Object> {
         return materializeSchema;
     }
 
+    /**
+     * Returns the source column type which will be mapped into the given data model property.
+     * @param propertyName the target property name
+     * @return the source column type, or {@code null} if the property is not mapped
+     * @since 0.9.2
+     */
+    public PrimitiveType findSourceType(String propertyName) {
+        return sourceTypes.get(propertyName);
+    }
+
     /**
      * Sets the next record.
      * @param object the next record object
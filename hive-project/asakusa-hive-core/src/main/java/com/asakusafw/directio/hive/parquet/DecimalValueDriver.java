@@ -18,6 +18,7 @@ package com.asakusafw.directio.hive.parquet;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
 import java.text.MessageFormat;
 import java.util.Arrays;
 
@@ -37,6 +38,7 @@ import parquet.schema.Types.PrimitiveBuilder;
 /**
  * {@link ParquetValueDriver} for decimals.
  * @since 0.7.2
+ * @version 0.9.2
  */
 public class DecimalValueDriver implements ParquetValueDriver {
 
@@ -179,14 +181,25 @@ public class DecimalValueDriver implements ParquetValueDriver {
         }
 
         private BigDecimal convert(int value) {
-            return new BigDecimal(BigInteger.valueOf(value), scale);
+            return BigDecimal.valueOf(value, scale);
         }
 
         private BigDecimal convert(long value) {
-            return new BigDecimal(BigInteger.valueOf(value), scale);
+            return BigDecimal.valueOf(value, scale);
         }
 
         private BigDecimal convert(Binary value) {
+            int length = value.length();
+            if (length > 0 && length <= Long.BYTES) {
+                // avoids copying the contents and building an intermediate BigInteger
+                ByteBuffer buf = value.toByteBuffer();
+                int offset = buf.position();
+                long unscaled = buf.get(offset); // sign extended
+                for (int i = 1; i < length; i++) {
+                    unscaled = (unscaled << Byte.SIZE) | (buf.get(offset + i) & 0xff);
+                }
+                return BigDecimal.valueOf(unscaled, scale);
+            }
             BigInteger unscaled = new BigInteger(value.getBytes());
             return new BigDecimal(unscaled, scale);
         }
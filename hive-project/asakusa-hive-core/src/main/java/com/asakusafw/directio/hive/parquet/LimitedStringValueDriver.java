@@ -34,6 +34,7 @@ import parquet.schema.Types;
 /**
  * {@link ParquetValueDriver} for character strings with its length limit.
  * @since 0.7.2
+ * @version 0.9.2
  */
 public class LimitedStringValueDriver implements ParquetValueDriver {
 
@@ -56,7 +57,7 @@ public class LimitedStringValueDriver implements ParquetValueDriver {
 
     @Override
     public ValueConverter getConverter() {
-        return new ToStringOption();
+        return new ToStringOption(length);
     }
 
     @Override
@@ -90,10 +91,16 @@ public class LimitedStringValueDriver implements ParquetValueDriver {
 
     static final class ToStringOption extends ValueConverter {
 
-        private Text[] dict;
+        private final int limit;
+
+        private byte[][] dict;
 
         private StringOption target;
 
+        ToStringOption(int length) {
+            this.limit = length;
+        }
+
         @Override
         public void set(ValueOption<?> value) {
             this.target = (StringOption) value;
@@ -106,41 +113,46 @@ public class LimitedStringValueDriver implements ParquetValueDriver {
 
         @Override
         public void setDictionary(Dictionary dictionary) {
-            Text[] buf = prepareDictionaryBuffer(dictionary);
+            byte[][] buf = prepareDictionaryBuffer(dictionary);
             for (int id = 0, max = dictionary.getMaxId(); id <= max; id++) {
-                Text text = new Text();
-                Binary binary = dictionary.decodeToBinary(id);
-                setBinary(text, binary);
-                buf[id] = text;
+                buf[id] = truncate(dictionary.decodeToBinary(id)).getBytes();
             }
         }
 
         @SuppressWarnings("deprecation")
         @Override
         public void addValueFromDictionary(int dictionaryId) {
-            target.modify(dict[dictionaryId]);
+            byte[] bytes = dict[dictionaryId];
+            target.modify(bytes, 0, bytes.length);
         }
 
         @Override
         public void addBinary(Binary value) {
-            target.reset();
-            setBinary(target.get(), value);
+            BinaryUtil.setTo(target, truncate(value));
         }
 
-        private Text[] prepareDictionaryBuffer(Dictionary dictionary) {
+        private Binary truncate(Binary value) {
+            // the number of code points never exceeds the number of UTF-8 bytes
+            if (value.length() <= limit) {
+                return value;
+            }
+            String string = value.toStringUsingUTF8();
+            String stripped = HiveBaseChar.enforceMaxLength(string, limit);
+            if (stripped.length() == string.length()) {
+                return value;
+            }
+            return Binary.fromString(stripped);
+        }
+
+        private byte[][] prepareDictionaryBuffer(Dictionary dictionary) {
             int size = dictionary.getMaxId() + 1;
             if (this.dict == null || this.dict.length < size) {
                 int capacity = (int) (size * 1.2) + 1;
-                this.dict = new Text[capacity];
+                this.dict = new byte[capacity][];
             } else {
                 Arrays.fill(this.dict, null);
             }
             return this.dict;
         }
-
-        private void setBinary(Text text, Binary binary) {
-            // TODO check it length?
-            text.set(binary.getBytes(), 0, binary.length());
-        }
     }
 }
@@ -30,6 +30,7 @@ import com.asakusafw.directio.hive.serde.DataModelDescriptor;
 import com.asakusafw.directio.hive.serde.DataModelDriver;
 import com.asakusafw.directio.hive.serde.DataModelMapping;
 import com.asakusafw.runtime.directio.Counter;
+import com.asakusafw.runtime.directio.DataPredicate;
 import com.asakusafw.runtime.io.ModelInput;
 
 import parquet.column.page.PageReadStore;
@@ -45,6 +46,7 @@ import parquet.io.RecordReader;
  * An implementation of {@link ModelInput} for reading Parquet files.
  * @param <T> the data model type
  * @since 0.7.0
+ * @version 0.9.2
  */
 public class ParquetFileInput<T> implements ModelInput<T> {
 
@@ -64,6 +66,8 @@ public class ParquetFileInput<T> implements ModelInput<T> {
 
     private final Counter counter;
 
+    private final DataPredicate predicate;
+
     private long rowRest = -1;
 
     private ParquetFileReader fileReader;
@@ -94,6 +98,28 @@ public class ParquetFileInput<T> implements ModelInput<T> {
             Configuration hadoopConfiguration, Path path,
             long offset, long fragmentSize,
             Counter counter) {
+        this(descriptor, mappingConfiguration, hadoopConfiguration, path, offset, fragmentSize, counter, null);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param descriptor the target data model descriptor
+     * @param mappingConfiguration the {@link DataModelDriver} configuration
+     * @param hadoopConfiguration the hadoop configuration
+     * @param path the path to the target file
+     * @param offset starting stream offset
+     * @param fragmentSize suggested fragment bytes count
+     * @param counter the current counter
+     * @param predicate the predicate to skip row groups, or {@code null} if it is not defined
+     * @since 0.9.2
+     */
+    public ParquetFileInput(
+            DataModelDescriptor descriptor,
+            DataModelMapping mappingConfiguration,
+            Configuration hadoopConfiguration, Path path,
+            long offset, long fragmentSize,
+            Counter counter,
+            DataPredicate predicate) {
         this.descriptor = descriptor;
         this.mappingConfiguration = mappingConfiguration;
         this.hadoopConfiguration = hadoopConfiguration;
@@ -101,6 +127,7 @@ public class ParquetFileInput<T> implements ModelInput<T> {
         this.offset = offset;
         this.fragmentSize = fragmentSize;
         this.counter = counter;
+        this.predicate = predicate;
     }
 
     @Override
@@ -148,7 +175,14 @@ public class ParquetFileInput<T> implements ModelInput<T> {
                         path));
             }
             ParquetMetadata footer = ParquetFileReader.readFooter(hadoopConfiguration, path);
+            DataModelMaterializer m = new DataModelMaterializer(
+                    descriptor,
+                    footer.getFileMetaData().getSchema(),
+                    mappingConfiguration);
             List<BlockMetaData> blocks = filterBlocks(footer.getBlocks());
+            if (predicate != null) {
+                blocks = filterBlocks(blocks, new StatisticsFilter(m, predicate));
+            }
             if (blocks.isEmpty()) {
                 return null;
             }
@@ -167,10 +201,7 @@ public class ParquetFileInput<T> implements ModelInput<T> {
                     path,
                     blocks,
                     footer.getFileMetaData().getSchema().getColumns());
-            this.materializer = new DataModelMaterializer(
-                    descriptor,
-                    footer.getFileMetaData().getSchema(),
-                    mappingConfiguration);
+            this.materializer = m;
             this.columnIo = new ColumnIOFactory().getColumnIO(
                     materializer.getMaterializeSchema(),
                     footer.getFileMetaData().getSchema());
@@ -235,6 +266,24 @@ public class ParquetFileInput<T> implements ModelInput<T> {
         return results;
     }
 
+    private List<BlockMetaData> filterBlocks(List<BlockMetaData> blocks, StatisticsFilter filter) {
+        List<BlockMetaData> results = new ArrayList<>();
+        for (BlockMetaData block : blocks) {
+            if (filter.accepts(block)) {
+                results.add(block);
+            } else {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug(MessageFormat.format(
+                            "Filter parquet block by predicate: {0} (rows={1}, predicate={2})", //$NON-NLS-1$
+                            path,
+                            block.getRowCount(),
+                            predicate));
+                }
+            }
+        }
+        return results;
+    }
+
     private RecordReader<Object> createRecordReader(PageReadStore store) {
         assert materializer != null;
         this.currentRecordReader = columnIo.getRecordReader(store, materializer);
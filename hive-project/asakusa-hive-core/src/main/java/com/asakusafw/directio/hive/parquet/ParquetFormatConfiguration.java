@@ -24,6 +24,7 @@ import parquet.hadoop.metadata.CompressionCodecName;
 /**
  * Represents the parquet file format configurations.
  * @since 0.7.0
+ * @version 0.9.2
  */
 public class ParquetFormatConfiguration {
 
@@ -49,6 +50,12 @@ public class ParquetFormatConfiguration {
 
     private WriterVersion writerVersion;
 
+    private Long fileRecordLimit;
+
+    private Long fileSizeLimit;
+
+    private Integer writerThreads;
+
     /**
      * Clears all properties.
      * @return this
@@ -65,6 +72,9 @@ public class ParquetFormatConfiguration {
         enableDictionary = null;
         enableValidation = null;
         writerVersion = null;
+        fileRecordLimit = null;
+        fileSizeLimit = null;
+        writerThreads = null;
         return this;
     }
 
@@ -178,6 +188,44 @@ public class ParquetFormatConfiguration {
         return this;
     }
 
+    /**
+     * Sets the maximum number of records in each output file.
+     * If the number of records reaches this limit, the output file is rolled over into a new file.
+     * @param value the maximum number of records, or {@code null} if it is not limited
+     * @return this
+     * @since 0.9.2
+     */
+    public ParquetFormatConfiguration withFileRecordLimit(Long value) {
+        this.fileRecordLimit = value;
+        return this;
+    }
+
+    /**
+     * Sets the maximum estimated uncompressed data size (in bytes) of each output file.
+     * If the estimated size reaches this limit, the output file is rolled over into a new file.
+     * @param value the maximum data size, or {@code null} if it is not limited
+     * @return this
+     * @since 0.9.2
+     */
+    public ParquetFormatConfiguration withFileSizeLimit(Long value) {
+        this.fileSizeLimit = value;
+        return this;
+    }
+
+    /**
+     * Sets the number of background threads which finish rolled over output files.
+     * This is only effective if either {@link #withFileRecordLimit(Long) the record limit} or
+     * {@link #withFileSizeLimit(Long) the size limit} is set.
+     * @param value the number of threads, {@code 0} to finish them on the writer thread,
+     *     or {@code null} to use the system default value
+     * @return this
+     * @since 0.9.2
+     */
+    public ParquetFormatConfiguration withWriterThreads(Integer value) {
+        this.writerThreads = value;
+        return this;
+    }
+
     /**
      * Returns the field mapping strategy.
      * @return the field mapping strategy
@@ -266,6 +314,33 @@ public class ParquetFormatConfiguration {
         return writerVersion;
     }
 
+    /**
+     * Returns the maximum number of records in each output file.
+     * @return the maximum number of records, or {@code null} if it is not limited
+     * @since 0.9.2
+     */
+    public Long getFileRecordLimit() {
+        return fileRecordLimit;
+    }
+
+    /**
+     * Returns the maximum estimated uncompressed data size (in bytes) of each output file.
+     * @return the maximum data size, or {@code null} if it is not limited
+     * @since 0.9.2
+     */
+    public Long getFileSizeLimit() {
+        return fileSizeLimit;
+    }
+
+    /**
+     * Returns the number of background threads which finish rolled over output files.
+     * @return the number of threads, or {@code null} if use system default value
+     * @since 0.9.2
+     */
+    public Integer getWriterThreads() {
+        return writerThreads;
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
@@ -291,6 +366,12 @@ public class ParquetFormatConfiguration {
         builder.append(enableValidation);
         builder.append(", writerVersion="); //$NON-NLS-1$
         builder.append(writerVersion);
+        builder.append(", fileRecordLimit="); //$NON-NLS-1$
+        builder.append(fileRecordLimit);
+        builder.append(", fileSizeLimit="); //$NON-NLS-1$
+        builder.append(fileSizeLimit);
+        builder.append(", writerThreads="); //$NON-NLS-1$
+        builder.append(writerThreads);
         builder.append("]"); //$NON-NLS-1$
         return builder.toString();
     }
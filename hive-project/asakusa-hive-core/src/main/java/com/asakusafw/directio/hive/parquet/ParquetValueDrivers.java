@@ -51,7 +51,7 @@ import parquet.schema.Type.Repetition;
 /**
  * Provides {@link ParquetValueDriver}.
  * @since 0.7.0
- * @version 0.7.4
+ * @version 0.9.2
  */
 public enum ParquetValueDrivers implements ParquetValueDriver {
 
@@ -470,7 +470,7 @@ public enum ParquetValueDrivers implements ParquetValueDriver {
 
         private StringOption target;
 
-        private Binary[] dict;
+        private byte[][] dict;
 
         StringOptionConverter() {
             return;
@@ -488,28 +488,30 @@ public enum ParquetValueDrivers implements ParquetValueDriver {
 
         @Override
         public void setDictionary(Dictionary dictionary) {
-            Binary[] buf = prepareDictionaryBuffer(dictionary);
+            byte[][] buf = prepareDictionaryBuffer(dictionary);
             for (int id = 0, max = dictionary.getMaxId(); id <= max; id++) {
-                buf[id] = dictionary.decodeToBinary(id);
+                // keeps UTF-8 contents as is, to set them into StringOption without any decoding
+                buf[id] = dictionary.decodeToBinary(id).getBytes();
             }
         }
 
+        @SuppressWarnings("deprecation")
         @Override
         public void addValueFromDictionary(int dictionaryId) {
-            addBinary(dict[dictionaryId]);
+            byte[] bytes = dict[dictionaryId];
+            target.modify(bytes, 0, bytes.length);
         }
 
         @Override
         public void addBinary(Binary value) {
-            target.reset();
-            target.get().set(value.getBytes(), 0, value.length());
+            BinaryUtil.setTo(target, value);
         }
 
-        private Binary[] prepareDictionaryBuffer(Dictionary dictionary) {
+        private byte[][] prepareDictionaryBuffer(Dictionary dictionary) {
             int size = dictionary.getMaxId() + 1;
             if (this.dict == null || this.dict.length < size) {
                 int capacity = (int) (size * 1.2) + 1;
-                this.dict = new Binary[capacity];
+                this.dict = new byte[capacity][];
             } else {
                 Arrays.fill(this.dict, null);
             }
@@ -0,0 +1,214 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.directio.hive.parquet;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.asakusafw.directio.hive.util.TemporalUtil;
+import com.asakusafw.runtime.directio.DataPredicate;
+import com.asakusafw.runtime.value.Date;
+
+import parquet.column.statistics.Statistics;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.schema.OriginalType;
+import parquet.schema.PrimitiveType;
+
+/**
+ * Tests whether each Parquet row group may contain rows which satisfy {@link DataPredicate}, by using
+ * the column statistics.
+ * Property predicates which cannot be evaluated are considered as always satisfied.
+ * Note that this never uses statistics of {@code BINARY} columns, because they are not reliable in files
+ * written by older Parquet libraries.
+ * @since 0.9.2
+ */
+final class StatisticsFilter {
+
+    private final DataModelMaterializer materializer;
+
+    private final DataPredicate predicate;
+
+    /**
+     * Creates a new instance.
+     * @param materializer the current materializer
+     * @param predicate the target predicate
+     */
+    StatisticsFilter(DataModelMaterializer materializer, DataPredicate predicate) {
+        this.materializer = materializer;
+        this.predicate = predicate.normalize();
+    }
+
+    /**
+     * Returns whether or not the given row group may contain rows which satisfy the predicate.
+     * @param block the target row group
+     * @return {@code true} if it may contain such rows, or {@code false} if it never contains them
+     */
+    boolean accepts(BlockMetaData block) {
+        Map<String, ColumnChunkMetaData> columns = new HashMap<>();
+        for (ColumnChunkMetaData column : block.getColumns()) {
+            String[] path = column.getPath().toArray();
+            if (path.length == 1) {
+                columns.put(path[0], column);
+            }
+        }
+        return accepts(predicate, columns);
+    }
+
+    private boolean accepts(DataPredicate p, Map<String, ColumnChunkMetaData> columns) {
+        switch (p.getKind()) {
+        case AND:
+            for (DataPredicate operand : p.getOperands()) {
+                if (accepts(operand, columns) == false) {
+                    return false;
+                }
+            }
+            return true;
+        case OR:
+            for (DataPredicate operand : p.getOperands()) {
+                if (accepts(operand, columns)) {
+                    return true;
+                }
+            }
+            return false;
+        case NOT:
+            throw new IllegalStateException(p.toString());
+        default:
+            return acceptsLeaf(p, columns);
+        }
+    }
+
+    private boolean acceptsLeaf(DataPredicate p, Map<String, ColumnChunkMetaData> columns) {
+        PrimitiveType type = materializer.findSourceType(p.getPropertyName());
+        if (type == null) {
+            return true;
+        }
+        ColumnChunkMetaData column = columns.get(type.getName());
+        if (column == null) {
+            return true;
+        }
+        Statistics<?> statistics = column.getStatistics();
+        if (statistics == null || statistics.isEmpty()) {
+            return true;
+        }
+        Comparable<?> min = normalize(statistics.genericGetMin());
+        Comparable<?> max = normalize(statistics.genericGetMax());
+        if (min == null || max == null) {
+            return true;
+        }
+        List<Object> values = p.getValues();
+        switch (p.getKind()) {
+        case EQUAL:
+            return mayContain(type, min, max, values.get(0));
+        case NOT_EQUAL: {
+            if (min instanceof Double) {
+                // NaN is not in statistics
+                return true;
+            }
+            Comparable<?> v = toComparable(type, values.get(0));
+            return v == null || compare(min, v) != 0 || compare(max, v) != 0;
+        }
+        case LESS_THAN: {
+            Comparable<?> v = toComparable(type, values.get(0));
+            return v == null || compare(min, v) < 0;
+        }
+        case LESS_THAN_OR_EQUAL: {
+            Comparable<?> v = toComparable(type, values.get(0));
+            return v == null || compare(min, v) <= 0;
+        }
+        case GREATER_THAN: {
+            Comparable<?> v = toComparable(type, values.get(0));
+            return v == null || compare(max, v) > 0;
+        }
+        case GREATER_THAN_OR_EQUAL: {
+            Comparable<?> v = toComparable(type, values.get(0));
+            return v == null || compare(max, v) >= 0;
+        }
+        case BETWEEN: {
+            Comparable<?> lower = toComparable(type, values.get(0));
+            Comparable<?> upper = toComparable(type, values.get(1));
+            return (lower == null || compare(max, lower) >= 0)
+                    && (upper == null || compare(min, upper) <= 0);
+        }
+        case IN:
+            for (Object value : values) {
+                if (mayContain(type, min, max, value)) {
+                    return true;
+                }
+            }
+            return false;
+        default:
+            // null counts are not reliable
+            return true;
+        }
+    }
+
+    private static boolean mayContain(PrimitiveType type, Comparable<?> min, Comparable<?> max, Object value) {
+        Comparable<?> v = toComparable(type, value);
+        return v == null || (compare(min, v) <= 0 && compare(max, v) >= 0);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int compare(Comparable<?> a, Comparable<?> b) {
+        return ((Comparable) a).compareTo(b);
+    }
+
+    private static Comparable<?> normalize(Comparable<?> value) {
+        if (value instanceof Float || value instanceof Double) {
+            double d = ((Number) value).doubleValue();
+            if (Double.isNaN(d)) {
+                return null;
+            }
+            // -0.0 must be equivalent to 0.0
+            return d + 0.0;
+        } else if (value instanceof Integer) {
+            return ((Integer) value).longValue();
+        } else if (value instanceof Long || value instanceof Boolean) {
+            return value;
+        }
+        return null;
+    }
+
+    private static Comparable<?> toComparable(PrimitiveType type, Object value) {
+        switch (type.getPrimitiveTypeName()) {
+        case BOOLEAN:
+            return value instanceof Boolean ? (Boolean) value : null;
+        case INT32:
+            if (type.getOriginalType() == OriginalType.DATE) {
+                return value instanceof Date ? (long) TemporalUtil.getDaysSinceEpoch((Date) value) : null;
+            }
+            return type.getOriginalType() == null && isIntegral(value) ? ((Number) value).longValue() : null;
+        case INT64:
+            return type.getOriginalType() == null && isIntegral(value) ? ((Number) value).longValue() : null;
+        case FLOAT:
+        case DOUBLE:
+            if (value instanceof Float || value instanceof Double) {
+                return normalize((Comparable<?>) value);
+            }
+            return null;
+        default:
+            return null;
+        }
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Byte
+                || value instanceof Short
+                || value instanceof Integer
+                || value instanceof Long;
+    }
+}
@@ -16,6 +16,7 @@
 package com.asakusafw.directio.hive.parquet;
 
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -39,7 +40,7 @@ import parquet.schema.Type.Repetition;
 /**
  * Converts between {@link ValueOption} and {@code string (binary)}.
  * @since 0.7.0
- * @version 0.7.2
+ * @version 0.9.2
  */
 public enum StringValueDrivers implements ParquetValueDriver {
 
@@ -142,6 +143,10 @@ public enum StringValueDrivers implements ParquetValueDriver {
 
         protected abstract T parse(String value);
 
+        protected T parse(Binary value) {
+            return parse(value.toStringUsingUTF8());
+        }
+
         protected abstract void drive(T value);
 
         @Override
@@ -153,7 +158,7 @@ public enum StringValueDrivers implements ParquetValueDriver {
         public void setDictionary(Dictionary dictionary) {
             T[] buf = prepareDictionaryBuffer(dictionary);
             for (int id = 0, max = dictionary.getMaxId(); id <= max; id++) {
-                buf[id] = parse(dictionary.decodeToBinary(id).toStringUsingUTF8());
+                buf[id] = parse(dictionary.decodeToBinary(id));
             }
         }
 
@@ -164,7 +169,7 @@ public enum StringValueDrivers implements ParquetValueDriver {
 
         @Override
         public void addBinary(Binary value) {
-            drive(parse(value.toStringUsingUTF8()));
+            drive(parse(value));
         }
 
         @SuppressWarnings("unchecked")
@@ -190,6 +195,10 @@ public enum StringValueDrivers implements ParquetValueDriver {
 
         protected abstract int parse(String value);
 
+        protected int parse(Binary value) {
+            return parse(value.toStringUsingUTF8());
+        }
+
         protected abstract void drive(int value);
 
         @Override
@@ -201,7 +210,7 @@ public enum StringValueDrivers implements ParquetValueDriver {
         public void setDictionary(Dictionary dictionary) {
             int[] buf = prepareDictionaryBuffer(dictionary);
             for (int id = 0, max = dictionary.getMaxId(); id <= max; id++) {
-                buf[id] = parse(dictionary.decodeToBinary(id).toStringUsingUTF8());
+                buf[id] = parse(dictionary.decodeToBinary(id));
             }
         }
 
@@ -212,7 +221,7 @@ public enum StringValueDrivers implements ParquetValueDriver {
 
         @Override
         public void addBinary(Binary value) {
-            drive(parse(value.toStringUsingUTF8()));
+            drive(parse(value));
         }
 
         private int[] prepareDictionaryBuffer(Dictionary dictionary) {
@@ -237,6 +246,10 @@ public enum StringValueDrivers implements ParquetValueDriver {
 
         protected abstract long parse(String value);
 
+        protected long parse(Binary value) {
+            return parse(value.toStringUsingUTF8());
+        }
+
         protected abstract void drive(long value);
 
         @Override
@@ -248,7 +261,7 @@ public enum StringValueDrivers implements ParquetValueDriver {
         public void setDictionary(Dictionary dictionary) {
             long[] buf = prepareDictionaryBuffer(dictionary);
             for (int id = 0, max = dictionary.getMaxId(); id <= max; id++) {
-                buf[id] = parse(dictionary.decodeToBinary(id).toStringUsingUTF8());
+                buf[id] = parse(dictionary.decodeToBinary(id));
             }
         }
 
@@ -259,7 +272,7 @@ public enum StringValueDrivers implements ParquetValueDriver {
 
         @Override
         public void addBinary(Binary value) {
-            drive(parse(value.toStringUsingUTF8()));
+            drive(parse(value));
         }
 
         private long[] prepareDictionaryBuffer(Dictionary dictionary) {
@@ -287,6 +300,8 @@ public enum StringValueDrivers implements ParquetValueDriver {
 
         private DecimalOption target;
 
+        private char[] buffer;
+
         @Override
         public void set(ValueOption<?> value) {
             this.target = (DecimalOption) value;
@@ -302,6 +317,16 @@ public enum StringValueDrivers implements ParquetValueDriver {
         protected BigDecimal parse(String value) {
             return new BigDecimal(value);
         }
+
+        @Override
+        protected BigDecimal parse(Binary value) {
+            char[] chars = BinaryUtil.decodeAscii(value, buffer);
+            if (chars == null) {
+                return parse(value.toStringUsingUTF8());
+            }
+            this.buffer = chars;
+            return new BigDecimal(chars, 0, value.length());
+        }
     }
 
     static final class FromDateOption extends AbstractWriter {
@@ -332,12 +357,29 @@ public enum StringValueDrivers implements ParquetValueDriver {
         protected int parse(String value) {
             int days = TemporalUtil.parseDate(value);
             if (days < 0) {
-                throw new IllegalArgumentException(MessageFormat.format(
-                        Messages.getString("StringValueDrivers.errorInvalidDateString"), //$NON-NLS-1$
-                        value));
+                throw invalid(value);
             }
             return days;
         }
+
+        @Override
+        protected int parse(Binary value) {
+            ByteBuffer buf = value.toByteBuffer();
+            if (buf.hasArray() == false) {
+                return parse(value.toStringUsingUTF8());
+            }
+            int days = TemporalUtil.parseDate(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+            if (days < 0) {
+                throw invalid(value.toStringUsingUTF8());
+            }
+            return days;
+        }
+
+        private static IllegalArgumentException invalid(String value) {
+            return new IllegalArgumentException(MessageFormat.format(
+                    Messages.getString("StringValueDrivers.errorInvalidDateString"), //$NON-NLS-1$
+                    value));
+        }
     }
 
     static final class FromDateTimeOption extends AbstractWriter {
@@ -368,11 +410,29 @@ public enum StringValueDrivers implements ParquetValueDriver {
         protected long parse(String value) {
             long seconds = TemporalUtil.parseTimestamp(value);
             if (seconds < 0) {
-                throw new IllegalArgumentException(MessageFormat.format(
-                        Messages.getString("StringValueDrivers.errorInvalidTimestampString"), //$NON-NLS-1$
-                        value));
+                throw invalid(value);
+            }
+            return seconds;
+        }
+
+        @Override
+        protected long parse(Binary value) {
+            ByteBuffer buf = value.toByteBuffer();
+            if (buf.hasArray() == false) {
+                return parse(value.toStringUsingUTF8());
+            }
+            long seconds = TemporalUtil.parseTimestamp(
+                    buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+            if (seconds < 0) {
+                throw invalid(value.toStringUsingUTF8());
             }
             return seconds;
         }
+
+        private static IllegalArgumentException invalid(String value) {
+            return new IllegalArgumentException(MessageFormat.format(
+                    Messages.getString("StringValueDrivers.errorInvalidTimestampString"), //$NON-NLS-1$
+                    value));
+        }
     }
 }
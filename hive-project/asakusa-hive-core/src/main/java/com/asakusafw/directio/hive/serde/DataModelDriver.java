@@ -36,6 +36,7 @@ import com.asakusafw.runtime.value.ValueOption;
 /**
  * Drives a value into an Asakusa data model.
  * @since 0.7.0
+ * @version 0.9.2
  */
 public class DataModelDriver {
 
@@ -232,6 +233,32 @@ public class DataModelDriver {
         return results;
     }
 
+    /**
+     * Returns the target properties, which are corresponded to {@link #getSourceFields()}.
+     * @return target properties
+     * @since 0.9.2
+     */
+    public List<PropertyDescriptor> getTargetProperties() {
+        List<PropertyDescriptor> results = new ArrayList<>();
+        Collections.addAll(results, this.targetProperties);
+        return results;
+    }
+
+    /**
+     * Returns the source field reference which will be mapped into the given data model property.
+     * @param propertyName the target property name
+     * @return the source field reference, or {@code null} if the property is not mapped
+     * @since 0.9.2
+     */
+    public StructField findSourceField(String propertyName) {
+        for (int i = 0; i < targetProperties.length; i++) {
+            if (targetProperties[i].getFieldName().equals(propertyName)) {
+                return sourceFields[i];
+            }
+        }
+        return null;
+    }
+
     /**
      * Sets data model properties from the source object.
      * @param dataModel the data model object
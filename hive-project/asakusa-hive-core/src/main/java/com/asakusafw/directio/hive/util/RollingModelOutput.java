@@ -0,0 +1,293 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.directio.hive.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.Path;
+
+import com.asakusafw.directio.hive.serde.DataModelDescriptor;
+import com.asakusafw.directio.hive.serde.PropertyDescriptor;
+import com.asakusafw.runtime.io.ModelOutput;
+import com.asakusafw.runtime.value.BooleanOption;
+import com.asakusafw.runtime.value.ByteOption;
+import com.asakusafw.runtime.value.DateOption;
+import com.asakusafw.runtime.value.FloatOption;
+import com.asakusafw.runtime.value.IntOption;
+import com.asakusafw.runtime.value.ShortOption;
+import com.asakusafw.runtime.value.StringOption;
+import com.asakusafw.runtime.value.ValueOption;
+
+/**
+ * An implementation of {@link ModelOutput} which splits its contents into multiple files.
+ * The current file is rolled over when the number of records or the estimated data size reaches the limit,
+ * and then the rolled over files are finished on background threads while the next file is being written.
+ * The first file is placed onto the original path, and the {@code n}-th rolled over file is placed onto
+ * {@code <base-name>-<n>.<extension>} in the same directory.
+ * @param <T> the data model type
+ * @since 0.9.2
+ */
+public class RollingModelOutput<T> implements ModelOutput<T> {
+
+    static final Log LOG = LogFactory.getLog(RollingModelOutput.class);
+
+    static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final ThreadFactory DAEMON_THREAD_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            t.setName(String.format("DirectIO-FILE-WRITER-%d", THREAD_COUNTER.incrementAndGet())); //$NON-NLS-1$
+            return t;
+        }
+    };
+
+    private static final int STRING_OVERHEAD = 4;
+
+    private final DataModelDescriptor descriptor;
+
+    private final Path path;
+
+    private final Factory<T> factory;
+
+    private final long recordLimit;
+
+    private final long sizeLimit;
+
+    private final int threads;
+
+    private final Deque<Future<?>> running = new ArrayDeque<>();
+
+    private ExecutorService executor;
+
+    private ModelOutput<T> current;
+
+    private int fileCount;
+
+    private long currentRecords;
+
+    private long currentSize;
+
+    /**
+     * Creates a new instance.
+     * @param descriptor the target data model descriptor
+     * @param path the path to the first file
+     * @param factory the factory of individual file outputs
+     * @param recordLimit the maximum number of records in each file, or {@code 0} if it is not limited
+     * @param sizeLimit the maximum estimated data size in bytes of each file, or {@code 0} if it is not limited
+     * @param threads the number of background threads to finish rolled over files,
+     *     or {@code 0} to finish them on the caller thread
+     */
+    public RollingModelOutput(
+            DataModelDescriptor descriptor,
+            Path path,
+            Factory<T> factory,
+            long recordLimit, long sizeLimit, int threads) {
+        if (recordLimit < 0) {
+            throw new IllegalArgumentException("recordLimit must not be negative"); //$NON-NLS-1$
+        }
+        if (sizeLimit < 0) {
+            throw new IllegalArgumentException("sizeLimit must not be negative"); //$NON-NLS-1$
+        }
+        if (threads < 0) {
+            throw new IllegalArgumentException("threads must not be negative"); //$NON-NLS-1$
+        }
+        this.descriptor = descriptor;
+        this.path = path;
+        this.factory = factory;
+        this.recordLimit = recordLimit;
+        this.sizeLimit = sizeLimit;
+        this.threads = threads;
+    }
+
+    /**
+     * Returns the path of the file for the given index.
+     * @param path the path to the first file
+     * @param index the file index (0-origin)
+     * @return the corresponded path
+     */
+    public static Path getFilePath(Path path, int index) {
+        if (index == 0) {
+            return path;
+        }
+        String name = path.getName();
+        int extension = name.lastIndexOf('.');
+        String rolled;
+        if (extension > 0) {
+            rolled = String.format("%s-%d%s", //$NON-NLS-1$
+                    name.substring(0, extension),
+                    index,
+                    name.substring(extension));
+        } else {
+            rolled = String.format("%s-%d", name, index); //$NON-NLS-1$
+        }
+        return new Path(path.getParent(), rolled);
+    }
+
+    @Override
+    public void write(T model) throws IOException {
+        ModelOutput<T> output = current;
+        if (output == null) {
+            output = open();
+        }
+        output.write(model);
+        currentRecords++;
+        if (sizeLimit > 0) {
+            currentSize += estimateSize(model);
+        }
+        if ((recordLimit > 0 && currentRecords >= recordLimit)
+                || (sizeLimit > 0 && currentSize >= sizeLimit)) {
+            roll();
+        }
+    }
+
+    private ModelOutput<T> open() throws IOException {
+        checkRunning(false);
+        Path file = getFilePath(path, fileCount++);
+        ModelOutput<T> output = factory.create(file);
+        current = output;
+        currentRecords = 0;
+        currentSize = 0;
+        return output;
+    }
+
+    private void roll() throws IOException {
+        ModelOutput<T> output = current;
+        current = null;
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(MessageFormat.format(
+                    "Rolling over output file ({0}): path={1}, index={2}, records={3}, size={4}", //$NON-NLS-1$
+                    descriptor.getDataModelClass().getSimpleName(),
+                    path,
+                    fileCount - 1,
+                    currentRecords,
+                    currentSize));
+        }
+        if (threads == 0) {
+            output.close();
+            return;
+        }
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(threads, DAEMON_THREAD_FACTORY);
+        }
+        // keeps the number of unfinished files in memory
+        while (running.size() >= threads) {
+            await(running.removeFirst());
+        }
+        running.addLast(executor.submit(() -> {
+            output.close();
+            return null;
+        }));
+    }
+
+    private void checkRunning(boolean all) throws IOException {
+        while (running.isEmpty() == false && (all || running.peekFirst().isDone())) {
+            await(running.removeFirst());
+        }
+    }
+
+    private static void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            throw (IOException) new InterruptedIOException().initCause(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private long estimateSize(T model) {
+        long result = 0;
+        List<? extends PropertyDescriptor> properties = descriptor.getPropertyDescriptors();
+        for (int i = 0, n = properties.size(); i < n; i++) {
+            result += estimateSize(properties.get(i).extract(model));
+        }
+        return result;
+    }
+
+    private static long estimateSize(ValueOption<?> option) {
+        if (option.isNull()) {
+            return 0;
+        } else if (option instanceof StringOption) {
+            return ((StringOption) option).get().getLength() + STRING_OVERHEAD;
+        } else if (option instanceof BooleanOption || option instanceof ByteOption) {
+            return 1;
+        } else if (option instanceof ShortOption) {
+            return 2;
+        } else if (option instanceof IntOption || option instanceof FloatOption || option instanceof DateOption) {
+            return 4;
+        } else {
+            // long, double, date-time, and decimal
+            return 8;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (current != null) {
+                ModelOutput<T> output = current;
+                current = null;
+                output.close();
+            }
+            checkRunning(true);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+    }
+
+    /**
+     * Creates {@link ModelOutput} for individual files.
+     * @param <T> the data model type
+     * @since 0.9.2
+     */
+    @FunctionalInterface
+    public interface Factory<T> {
+
+        /**
+         * Creates a new {@link ModelOutput} for the given file.
+         * @param file the target file path
+         * @return the created output
+         * @throws IOException if failed to create the output
+         */
+        ModelOutput<T> create(Path file) throws IOException;
+    }
+}
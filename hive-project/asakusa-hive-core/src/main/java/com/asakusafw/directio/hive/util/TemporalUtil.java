@@ -15,6 +15,7 @@
  */
 package com.asakusafw.directio.hive.util;
 
+import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
 import java.text.MessageFormat;
 import java.text.ParseException;
@@ -30,7 +31,7 @@ import com.asakusafw.runtime.value.DateUtil;
 /**
  * date and date-time utilities.
  * @since 0.7.0
- * @version 0.7.4
+ * @version 0.9.2
  */
 public final class TemporalUtil {
 
@@ -105,7 +106,63 @@ public final class TemporalUtil {
      * @return the days for {@link Date} object
      */
     public static int parseDate(String value) {
-        int length = value.length();
+        int days = parseCanonicalDate(value::charAt, value.length());
+        if (days >= 0) {
+            return days;
+        }
+        return parseDateWithFormat(value);
+    }
+
+    /**
+     * Parses a {@code timestamp} value.
+     * @param value the timestamp value
+     * @return the seconds for {@link DateTime} object
+     */
+    public static long parseTimestamp(String value) {
+        long seconds = parseCanonicalTimestamp(value::charAt, value.length());
+        if (seconds >= 0) {
+            return seconds;
+        }
+        return parseTimestampWithFormat(value);
+    }
+
+    /**
+     * Parses a {@code date} value in UTF-8.
+     * This is equivalent to {@link #parseDate(String)}, but does not decode the bytes if they are
+     * in the canonical form.
+     * @param utf8 the date value bytes
+     * @param offset the offset in bytes
+     * @param length the length in bytes
+     * @return the days for {@link Date} object
+     * @since 0.9.2
+     */
+    public static int parseDate(byte[] utf8, int offset, int length) {
+        int days = parseCanonicalDate(index -> utf8[offset + index], length);
+        if (days >= 0) {
+            return days;
+        }
+        return parseDateWithFormat(new String(utf8, offset, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a {@code timestamp} value in UTF-8.
+     * This is equivalent to {@link #parseTimestamp(String)}, but does not decode the bytes if they are
+     * in the canonical form.
+     * @param utf8 the timestamp value bytes
+     * @param offset the offset in bytes
+     * @param length the length in bytes
+     * @return the seconds for {@link DateTime} object
+     * @since 0.9.2
+     */
+    public static long parseTimestamp(byte[] utf8, int offset, int length) {
+        long seconds = parseCanonicalTimestamp(index -> utf8[offset + index], length);
+        if (seconds >= 0) {
+            return seconds;
+        }
+        return parseTimestampWithFormat(new String(utf8, offset, length, StandardCharsets.UTF_8));
+    }
+
+    private static int parseCanonicalDate(CharAccessor value, int length) {
         if (length >= COL_DAY_END
                 && isSeparator(value, COL_YEAR_END)
                 && isSeparator(value, COL_MONTH_END)
@@ -117,21 +174,10 @@ public final class TemporalUtil {
                 return DateUtil.getDayFromDate(year, month, day);
             }
         }
-        try {
-            java.util.Date date = DATE_FORMAT_CACHE.get().parse(value);
-            return DateUtil.getDayFromDate(date);
-        } catch (ParseException e) {
-            return -1;
-        }
+        return -1;
     }
 
-    /**
-     * Parses a {@code timestamp} value.
-     * @param value the timestamp value
-     * @return the seconds for {@link DateTime} object
-     */
-    public static long parseTimestamp(String value) {
-        int length = value.length();
+    private static long parseCanonicalTimestamp(CharAccessor value, int length) {
         if (length >= COL_SECOND_END
                 && isSeparator(value, COL_YEAR_END)
                 && isSeparator(value, COL_MONTH_END)
@@ -152,6 +198,19 @@ public final class TemporalUtil {
                 return result;
             }
         }
+        return -1;
+    }
+
+    private static int parseDateWithFormat(String value) {
+        try {
+            java.util.Date date = DATE_FORMAT_CACHE.get().parse(value);
+            return DateUtil.getDayFromDate(date);
+        } catch (ParseException e) {
+            return -1;
+        }
+    }
+
+    private static long parseTimestampWithFormat(String value) {
         try {
             java.util.Date date = TIMESTAMP_FORMAT_CACHE.get().parse(value);
             return DateUtil.getSecondFromDate(date);
@@ -160,15 +219,16 @@ public final class TemporalUtil {
         }
     }
 
-    private static boolean isSeparator(String string, int column) {
-        char c = string.charAt(column);
-        return SEPARATOR_CHAR.get(c);
+    private static boolean isSeparator(CharAccessor value, int index) {
+        int c = value.get(index);
+        // multi-byte UTF-8 sequences are never separators
+        return c >= 0 && SEPARATOR_CHAR.get(c);
     }
 
-    private static int parse(String string, int begin, int end) {
+    private static int parse(CharAccessor value, int begin, int end) {
         int result = 0;
         for (int i = begin; i < end; i++) {
-            char c = string.charAt(i);
+            int c = value.get(i);
             if (c < '0' || '9' < c) {
                 return -1;
             }
@@ -303,4 +363,14 @@ public final class TemporalUtil {
     public static int toElapsedDays(int daysSinceEpoch) {
         return daysSinceEpoch + DATE_EPOCH_OFFSET;
     }
+
+    /**
+     * Provides characters of date or timestamp representations.
+     * Non-ASCII characters may be represented as negative values.
+     */
+    @FunctionalInterface
+    private interface CharAccessor {
+
+        int get(int index);
+    }
 }
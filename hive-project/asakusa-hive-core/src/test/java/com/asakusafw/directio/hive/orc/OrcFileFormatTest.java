@@ -20,6 +20,7 @@ import static org.junit.Assert.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -46,11 +47,20 @@ import com.asakusafw.directio.hive.serde.DataModelMapping.FieldMappingStrategy;
 import com.asakusafw.directio.hive.serde.FieldPropertyDescriptor;
 import com.asakusafw.directio.hive.serde.ValueSerde;
 import com.asakusafw.directio.hive.serde.mock.MockSimple;
+import com.asakusafw.directio.hive.serde.mock.MockTypes;
+import com.asakusafw.directio.hive.util.RollingModelOutput;
 import com.asakusafw.runtime.directio.Counter;
+import com.asakusafw.runtime.directio.DataPredicate;
 import com.asakusafw.runtime.directio.DirectInputFragment;
+import com.asakusafw.runtime.directio.OutputAttemptContext;
+import com.asakusafw.runtime.directio.SimpleDataDefinition;
+import com.asakusafw.runtime.directio.hadoop.HadoopDataSourceCore;
+import com.asakusafw.runtime.directio.hadoop.HadoopDataSourceProfile;
 import com.asakusafw.runtime.directio.hadoop.StripedDataFormat;
 import com.asakusafw.runtime.io.ModelInput;
 import com.asakusafw.runtime.io.ModelOutput;
+import com.asakusafw.runtime.value.Date;
+import com.asakusafw.runtime.value.DateTime;
 import com.asakusafw.runtime.value.IntOption;
 import com.asakusafw.runtime.value.StringOption;
 import com.asakusafw.runtime.windows.WindowsSupport;
@@ -216,6 +226,105 @@ public class OrcFileFormatTest {
     }
 
 
+    /**
+     * I/O with predicate.
+     * @throws Exception if failed
+     */
+    @Test
+    public void io_predicate() throws Exception {
+        OrcFileFormat<MockSimple> format = format(MockSimple.class);
+        List<MockSimple> values = new ArrayList<>();
+        for (int i = 0; i < 30000; i++) {
+            values.add(new MockSimple(i, String.valueOf(i)));
+        }
+        File file = save(format, values);
+
+        // the default row index stride is 10000
+        List<MockSimple> restored = load(format, file, DataPredicate.greaterThanOrEqual("number", 25000));
+        assertThat(restored, hasSize(10000));
+        assertThat(restored.get(0).number, is(new IntOption(20000)));
+
+        List<MockSimple> negated = load(format, file, DataPredicate.not(DataPredicate.lessThan("number", 15000)));
+        assertThat(negated, hasSize(20000));
+        assertThat(negated.get(0).number, is(new IntOption(10000)));
+
+        List<MockSimple> unknown = load(format, file, DataPredicate.or(
+                DataPredicate.lessThan("number", 5000),
+                DataPredicate.equal("missing", 1)));
+        assertThat(unknown, hasSize(30000));
+
+        List<MockSimple> empty = load(format, file, DataPredicate.between("number", 40000, 50000));
+        assertThat(empty, hasSize(0));
+    }
+
+    /**
+     * I/O with vectorized reader.
+     * @throws Exception if failed
+     */
+    @SuppressWarnings("deprecation")
+    @Test
+    public void io_vectorized() throws Exception {
+        OrcFileFormat<MockTypes> format = format(MockTypes.class, "dateTimeOption", "decimalOption");
+        List<MockTypes> values = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            MockTypes v = new MockTypes();
+            if (i % 7 != 0) {
+                v.booleanOption.modify(i % 2 == 0);
+                v.byteOption.modify((byte) i);
+                v.shortOption.modify((short) i);
+                v.intOption.modify(i);
+                v.longOption.modify(i * 100_000_000L);
+                v.floatOption.modify(i / 4f);
+                v.doubleOption.modify(i / 8d);
+                v.dateOption.modify(new Date(2017, 1, 1 + i % 28));
+                v.stringOption.modify(i % 3 == 0 ? "" : "s" + i % 10);
+            }
+            values.add(v);
+        }
+        File file = save(format, values);
+
+        format.getFormatConfiguration().withVectorizedReader(true);
+        List<MockTypes> vectorized = load(format, file);
+        format.getFormatConfiguration().withVectorizedReader(false);
+        List<MockTypes> rows = load(format, file);
+
+        assertThat(vectorized, hasSize(values.size()));
+        assertThat(rows, hasSize(values.size()));
+        for (int i = 0; i < values.size(); i++) {
+            MockTypes expected = values.get(i);
+            for (MockTypes actual : Arrays.asList(vectorized.get(i), rows.get(i))) {
+                assertThat(actual.booleanOption, is(expected.booleanOption));
+                assertThat(actual.byteOption, is(expected.byteOption));
+                assertThat(actual.shortOption, is(expected.shortOption));
+                assertThat(actual.intOption, is(expected.intOption));
+                assertThat(actual.longOption, is(expected.longOption));
+                assertThat(actual.floatOption, is(expected.floatOption));
+                assertThat(actual.doubleOption, is(expected.doubleOption));
+                assertThat(actual.dateOption, is(expected.dateOption));
+                assertThat(actual.stringOption, is(expected.stringOption));
+            }
+        }
+    }
+
+    /**
+     * I/O with vectorized reader, but it contains unsupported properties.
+     * @throws Exception if failed
+     */
+    @SuppressWarnings("deprecation")
+    @Test
+    public void io_vectorized_fallback() throws Exception {
+        OrcFileFormat<MockTypes> format = format(MockTypes.class);
+        format.getFormatConfiguration().withVectorizedReader(true);
+        MockTypes in = new MockTypes();
+        in.intOption.modify(100);
+        in.dateTimeOption.modify(new DateTime(2017, 1, 2, 3, 4, 5));
+        in.decimalOption.modify(new BigDecimal("3.14"));
+        MockTypes out = restore(format, in);
+        assertThat(out.intOption, is(in.intOption));
+        assertThat(out.dateTimeOption, is(in.dateTimeOption));
+        assertThat(out.decimalOption, is(in.decimalOption));
+    }
+
     /**
      * I/O with {@code 0.11}.
      * @throws Exception if failed
@@ -230,6 +339,112 @@ public class OrcFileFormatTest {
         assertThat(out.string, is(in.string));
     }
 
+    /**
+     * I/O with rolling over files by the number of records.
+     * @throws Exception if failed
+     */
+    @Test
+    public void io_rolling() throws Exception {
+        OrcFileFormat<MockSimple> format = format(MockSimple.class);
+        format.getFormatConfiguration()
+            .withFileRecordLimit(100L)
+            .withWriterThreads(2);
+        List<MockSimple> values = new ArrayList<>();
+        for (int i = 0; i < 1050; i++) {
+            values.add(new MockSimple(i, "s" + i));
+        }
+        List<File> files = saveRolling(format, values);
+        assertThat(files, hasSize(11));
+
+        List<MockSimple> results = new ArrayList<>();
+        for (File file : files) {
+            results.addAll(load(format, file));
+        }
+        assertThat(results, hasSize(values.size()));
+        for (int i = 0; i < values.size(); i++) {
+            assertThat(results.get(i).number, is(values.get(i).number));
+            assertThat(results.get(i).string, is(values.get(i).string));
+        }
+    }
+
+    /**
+     * I/O with rolling over files by the estimated data size.
+     * @throws Exception if failed
+     */
+    @Test
+    public void io_rolling_size() throws Exception {
+        OrcFileFormat<MockSimple> format = format(MockSimple.class);
+        format.getFormatConfiguration()
+            .withFileSizeLimit(1000L)
+            .withWriterThreads(0);
+        List<MockSimple> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(new MockSimple(i, "s" + i));
+        }
+        List<File> files = saveRolling(format, values);
+        assertThat(files.size(), greaterThan(1));
+
+        List<MockSimple> results = new ArrayList<>();
+        for (File file : files) {
+            results.addAll(load(format, file));
+        }
+        assertThat(results, hasSize(values.size()));
+        for (int i = 0; i < values.size(); i++) {
+            assertThat(results.get(i).number, is(values.get(i).number));
+        }
+    }
+
+    /**
+     * rolling over files on direct output.
+     * @throws Exception if failed
+     */
+    @Test
+    public void io_rolling_direct() throws Exception {
+        OrcFileFormat<MockSimple> format = format(MockSimple.class);
+        format.getFormatConfiguration()
+            .withFileRecordLimit(100L)
+            .withWriterThreads(0);
+        File mapping = folder.newFolder();
+        HadoopDataSourceProfile profile = new HadoopDataSourceProfile(
+                format.getConf(),
+                "testing",
+                "testing",
+                new Path(mapping.toURI()),
+                new Path(folder.newFolder().toURI()));
+        profile.setOutputDirect(true);
+        HadoopDataSourceCore core = new HadoopDataSourceCore(profile);
+        OutputAttemptContext context = new OutputAttemptContext("tx", "atmpt", profile.getId(), new Counter());
+        core.setupTransactionOutput(context.getTransactionContext());
+        core.setupAttemptOutput(context);
+        try (ModelOutput<MockSimple> output = core.openOutput(
+                context,
+                SimpleDataDefinition.newInstance(MockSimple.class, format),
+                "output",
+                "data.orc",
+                new Counter())) {
+            for (int i = 0; i < 250; i++) {
+                output.write(new MockSimple(i, "s" + i));
+            }
+        }
+        core.commitAttemptOutput(context);
+        core.cleanupAttemptOutput(context);
+        core.commitTransactionOutput(context.getTransactionContext());
+        core.cleanupTransactionOutput(context.getTransactionContext());
+
+        File directory = new File(mapping, "output");
+        Path path = new Path(new File(directory, "data.orc").toURI());
+        List<MockSimple> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            File file = new File(RollingModelOutput.getFilePath(path, i).toUri());
+            assertThat(file.getName(), file.exists(), is(true));
+            results.addAll(load(format, file));
+        }
+        assertThat(results, hasSize(250));
+        assertThat(new File(RollingModelOutput.getFilePath(path, 3).toUri()).exists(), is(false));
+        File[] temporaries = directory.listFiles(f -> f.getName().startsWith(".directio-"));
+        assertThat(temporaries, arrayWithSize(0));
+    }
+
     private <T> T restore(OrcFileFormat<T> format, T value) throws IOException, InterruptedException {
         List<T> in = new ArrayList<>();
         in.add(value);
@@ -259,13 +474,46 @@ public class OrcFileFormatTest {
         return file;
     }
 
+    private <T> List<File> saveRolling(
+            OrcFileFormat<T> format, List<T> values) throws IOException, InterruptedException {
+        File directory = folder.newFolder();
+        Path path = new Path(new File(directory, "data.orc").toURI());
+        LocalFileSystem fs = FileSystem.getLocal(format.getConf());
+        try (ModelOutput<T> output = format.createOutput(
+                format.getSupportedType(),
+                fs, path,
+                new Counter())) {
+            for (T value : values) {
+                output.write(value);
+            }
+        }
+        List<File> results = new ArrayList<>();
+        for (int i = 0;; i++) {
+            File file = new File(RollingModelOutput.getFilePath(path, i).toUri());
+            if (file.exists() == false) {
+                break;
+            }
+            results.add(file);
+        }
+        File[] all = directory.listFiles(f -> f.getName().startsWith(".") == false);
+        assertThat(all, arrayWithSize(results.size()));
+        return results;
+    }
+
     private <T> List<T> load(OrcFileFormat<T> format, File file) throws IOException, InterruptedException {
+        return load(format, file, null);
+    }
+
+    private <T> List<T> load(
+            OrcFileFormat<T> format, File file,
+            DataPredicate predicate) throws IOException, InterruptedException {
         LocalFileSystem fs = FileSystem.getLocal(format.getConf());
         try (ModelInput<T> input = format.createInput(
                 format.getSupportedType(),
                 fs, new Path(file.toURI()),
                 0, file.length(),
-                new Counter())) {
+                new Counter(),
+                predicate)) {
             List<T> results = new ArrayList<>();
             while (true) {
                 @SuppressWarnings("unchecked")
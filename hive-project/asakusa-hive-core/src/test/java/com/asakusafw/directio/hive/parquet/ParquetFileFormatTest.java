@@ -66,7 +66,9 @@ import com.asakusafw.directio.hive.serde.ValueSerde;
 import com.asakusafw.directio.hive.serde.ValueSerdeFactory;
 import com.asakusafw.directio.hive.serde.mock.MockSimple;
 import com.asakusafw.directio.hive.serde.mock.MockTypes;
+import com.asakusafw.directio.hive.util.RollingModelOutput;
 import com.asakusafw.runtime.directio.Counter;
+import com.asakusafw.runtime.directio.DataPredicate;
 import com.asakusafw.runtime.directio.DirectInputFragment;
 import com.asakusafw.runtime.directio.hadoop.StripedDataFormat;
 import com.asakusafw.runtime.io.ModelInput;
@@ -715,6 +717,124 @@ public class ParquetFileFormatTest {
         assertThat(count, is(0));
     }
 
+    /**
+     * loading varchar which exceeds its length limit.
+     * @throws Exception if failed
+     */
+    @SuppressWarnings("deprecation")
+    @Test
+    public void io_varchar_truncate() throws Exception {
+        ParquetFileFormat<WithString> string = format(WithString.class);
+        Map<String, ValueSerde> edits = new HashMap<>();
+        edits.put("value", ValueSerdeFactory.getVarchar(3));
+        ParquetFileFormat<WithString> varchar = format(WithString.class, edits);
+
+        String[] values = { "ABCDE", "\u3042\u3044\u3046", "\u3042\u3044\u3046\u3048", "AB" };
+        String[] expects = { "ABC", "\u3042\u3044\u3046", "\u3042\u3044\u3046", "AB" };
+        for (int count : new int[] { values.length, 1000 }) {
+            List<WithString> inputs = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                WithString in = new WithString();
+                in.value.modify(values[i % values.length]);
+                inputs.add(in);
+            }
+            List<WithString> outputs = load(varchar, save(string, inputs));
+            assertThat(outputs, hasSize(count));
+            for (int i = 0; i < count; i++) {
+                assertThat(outputs.get(i).value, is(new StringOption(expects[i % expects.length])));
+            }
+        }
+    }
+
+    /**
+     * using low cardinality strings with dictionary.
+     * @throws Exception if failed
+     */
+    @SuppressWarnings("deprecation")
+    @Test
+    public void io_string_dict_values() throws Exception {
+        ParquetFileFormat<WithString> format = format(WithString.class);
+
+        String[] values = { "A", "BB", "\u3042\u3044\u3046", "", null };
+        int count = 1000;
+        List<WithString> inputs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            WithString in = new WithString();
+            in.value.modify(values[i % values.length]);
+            inputs.add(in);
+        }
+        List<WithString> outputs = restore(format, inputs);
+        assertThat(outputs, hasSize(count));
+        for (int i = 0; i < count; i++) {
+            assertThat(outputs.get(i).value, is(new StringOption(values[i % values.length])));
+        }
+    }
+
+    /**
+     * using various strings for non-string types.
+     * @throws Exception if failed
+     */
+    @SuppressWarnings("deprecation")
+    @Test
+    public void io_string_values() throws Exception {
+        Map<String, ValueSerde> edits = new HashMap<>();
+        edits.put("decimal", StringValueSerdeFactory.DECIMAL);
+        edits.put("date", StringValueSerdeFactory.DATE);
+        edits.put("datetime", StringValueSerdeFactory.DATETIME);
+        ParquetFileFormat<WithStringSupports> format = format(WithStringSupports.class, edits);
+
+        int count = 1000;
+        List<WithStringSupports> inputs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            WithStringSupports object = new WithStringSupports();
+            object.decimal.modify(BigDecimal.valueOf(i * 12345L - 1000000L, i % 5));
+            object.date.modify(new Date(1900 + i, i % 12 + 1, i % 28 + 1));
+            object.datetime.modify(new DateTime(1900 + i, i % 12 + 1, i % 28 + 1, i % 24, i % 60, i % 59));
+            inputs.add(object);
+        }
+        List<WithStringSupports> outputs = restore(format, inputs);
+        assertThat(outputs, hasSize(count));
+        for (int i = 0; i < count; i++) {
+            WithStringSupports in = inputs.get(i);
+            WithStringSupports out = outputs.get(i);
+            assertThat(out.decimal, is(in.decimal));
+            assertThat(out.date, is(in.date));
+            assertThat(out.datetime, is(in.datetime));
+        }
+    }
+
+    /**
+     * I/O with decimals which fit into {@code long}.
+     * @throws Exception if failed
+     */
+    @SuppressWarnings("deprecation")
+    @Test
+    public void io_decimals_binary_values() throws Exception {
+        Map<String, ValueSerde> edits = new HashMap<>();
+        edits.put("decimalOption", ValueSerdeFactory.getDecimal(18, 2));
+
+        BigDecimal[] values = {
+                new BigDecimal("0.00"),
+                new BigDecimal("-0.01"),
+                new BigDecimal("1.28"),
+                new BigDecimal("-1.29"),
+                new BigDecimal("9999999999999999.99"),
+                new BigDecimal("-9999999999999999.99"),
+        };
+        ParquetFileFormat<MockTypes> format = format(MockTypes.class, edits);
+        List<MockTypes> inputs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            MockTypes in = new MockTypes();
+            in.decimalOption.modify(values[i % values.length]);
+            inputs.add(in);
+        }
+        List<MockTypes> outputs = restore(format, inputs);
+        assertThat(outputs, hasSize(inputs.size()));
+        for (int i = 0; i < inputs.size(); i++) {
+            assertThat(outputs.get(i).decimalOption, is(inputs.get(i).decimalOption));
+        }
+    }
+
     /**
      * loading char type which generated by hive.
      * @throws Exception if failed
@@ -837,6 +957,40 @@ public class ParquetFileFormatTest {
         assertThat(buf.value, is(new DateOption(expected)));
     }
 
+    /**
+     * I/O with predicate.
+     * @throws Exception if failed
+     */
+    @Test
+    public void io_predicate() throws Exception {
+        ParquetFileFormat<MockSimple> format = format(MockSimple.class);
+        format.getFormatConfiguration().withBlockSize(1024);
+        List<MockSimple> values = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            values.add(new MockSimple(i, String.valueOf(i)));
+        }
+        File file = save(format, values);
+
+        List<MockSimple> all = load(format, file);
+        assertThat(all, hasSize(10000));
+
+        List<MockSimple> restored = load(format, file, DataPredicate.greaterThanOrEqual("number", 9000));
+        assertThat(restored, hasSize(lessThan(10000)));
+        assertThat(restored, hasSize(greaterThanOrEqualTo(1000)));
+        assertThat(restored.get(restored.size() - 1000).number, is(new IntOption(9000)));
+
+        List<MockSimple> in = load(format, file, DataPredicate.in("number", 1, 9999));
+        assertThat(in, hasSize(lessThan(10000)));
+        assertThat(in.get(1).number, is(new IntOption(1)));
+        assertThat(in.get(in.size() - 1).number, is(new IntOption(9999)));
+
+        List<MockSimple> unknown = load(format, file, DataPredicate.equal("string", "1"));
+        assertThat(unknown, hasSize(10000));
+
+        List<MockSimple> empty = load(format, file, DataPredicate.lessThan("number", 0));
+        assertThat(empty, hasSize(0));
+    }
+
     private <T> ModelInput<T> load(Class<T> modelType, String name) throws IOException, InterruptedException {
         ParquetFileFormat<T> format = format(modelType);
         return load(format, name);
@@ -856,6 +1010,61 @@ public class ParquetFileFormatTest {
                 new Counter());
     }
 
+    /**
+     * I/O with rolling over files by the number of records.
+     * @throws Exception if failed
+     */
+    @Test
+    public void io_rolling() throws Exception {
+        ParquetFileFormat<MockSimple> format = format(MockSimple.class);
+        format.getFormatConfiguration()
+            .withFileRecordLimit(100L)
+            .withWriterThreads(2);
+        List<MockSimple> values = new ArrayList<>();
+        for (int i = 0; i < 1050; i++) {
+            values.add(new MockSimple(i, "s" + i));
+        }
+        List<File> files = saveRolling(format, values);
+        assertThat(files, hasSize(11));
+
+        List<MockSimple> results = new ArrayList<>();
+        for (File file : files) {
+            results.addAll(load(format, file));
+        }
+        assertThat(results, hasSize(values.size()));
+        for (int i = 0; i < values.size(); i++) {
+            assertThat(results.get(i).number, is(values.get(i).number));
+            assertThat(results.get(i).string, is(values.get(i).string));
+        }
+    }
+
+    /**
+     * I/O with rolling over files by the estimated data size.
+     * @throws Exception if failed
+     */
+    @Test
+    public void io_rolling_size() throws Exception {
+        ParquetFileFormat<MockSimple> format = format(MockSimple.class);
+        format.getFormatConfiguration()
+            .withFileSizeLimit(1000L)
+            .withWriterThreads(0);
+        List<MockSimple> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(new MockSimple(i, "s" + i));
+        }
+        List<File> files = saveRolling(format, values);
+        assertThat(files.size(), greaterThan(1));
+
+        List<MockSimple> results = new ArrayList<>();
+        for (File file : files) {
+            results.addAll(load(format, file));
+        }
+        assertThat(results, hasSize(values.size()));
+        for (int i = 0; i < values.size(); i++) {
+            assertThat(results.get(i).number, is(values.get(i).number));
+        }
+    }
+
     private <T> T restore(ParquetFileFormat<T> format, T value) throws IOException, InterruptedException {
         List<T> in = new ArrayList<>();
         in.add(value);
@@ -885,13 +1094,46 @@ public class ParquetFileFormatTest {
         return file;
     }
 
+    private <T> List<File> saveRolling(
+            ParquetFileFormat<T> format, List<T> values) throws IOException, InterruptedException {
+        File directory = folder.newFolder();
+        Path path = new Path(new File(directory, "data.parquet").toURI());
+        LocalFileSystem fs = FileSystem.getLocal(format.getConf());
+        try (ModelOutput<T> output = format.createOutput(
+                format.getSupportedType(),
+                fs, path,
+                new Counter())) {
+            for (T value : values) {
+                output.write(value);
+            }
+        }
+        List<File> results = new ArrayList<>();
+        for (int i = 0;; i++) {
+            File file = new File(RollingModelOutput.getFilePath(path, i).toUri());
+            if (file.exists() == false) {
+                break;
+            }
+            results.add(file);
+        }
+        File[] all = directory.listFiles(f -> f.getName().startsWith(".") == false);
+        assertThat(all, arrayWithSize(results.size()));
+        return results;
+    }
+
     private <T> List<T> load(ParquetFileFormat<T> format, File file) throws IOException, InterruptedException {
+        return load(format, file, null);
+    }
+
+    private <T> List<T> load(
+            ParquetFileFormat<T> format, File file,
+            DataPredicate predicate) throws IOException, InterruptedException {
         LocalFileSystem fs = FileSystem.getLocal(format.getConf());
         try (ModelInput<T> input = format.createInput(
                 format.getSupportedType(),
                 fs, new Path(file.toURI()),
                 0, file.length(),
-                new Counter())) {
+                new Counter(),
+                predicate)) {
             List<T> results = new ArrayList<>();
             while (true) {
                 @SuppressWarnings("unchecked")
@@ -257,6 +257,21 @@ public class OrcFileEmitter extends JavaDataModelDriver {
                     .method("withStripeSize", Models.toLiteral(f, (long) conf.getStripeSize())) //$NON-NLS-1$
                     .toStatement());
             }
+            if (conf.getFileRecordLimit() != null) {
+                statements.add(new ExpressionBuilder(f, result)
+                    .method("withFileRecordLimit", Models.toLiteral(f, (long) conf.getFileRecordLimit())) //$NON-NLS-1$
+                    .toStatement());
+            }
+            if (conf.getFileSizeLimit() != null) {
+                statements.add(new ExpressionBuilder(f, result)
+                    .method("withFileSizeLimit", Models.toLiteral(f, (long) conf.getFileSizeLimit())) //$NON-NLS-1$
+                    .toStatement());
+            }
+            if (conf.getWriterThreads() != null) {
+                statements.add(new ExpressionBuilder(f, result)
+                    .method("withWriterThreads", Models.toLiteral(f, (int) conf.getWriterThreads())) //$NON-NLS-1$
+                    .toStatement());
+            }
             statements.add(new ExpressionBuilder(f, result).toReturnStatement());
             return f.newMethodDeclaration(
                     null,
@@ -56,12 +56,16 @@ The attributed declaration can have:
 <li> with {@code dictionary_page_size=integer} as dictionary page size (default: system default) </li>
 <li> with {@code enable_dictionary=boolean} as dictionary on/off (default: system default) </li>
 <li> with {@code enable_validation=boolean} as validation on/off (default: system default) </li>
+<li> with {@code file_record_limit=integer} as the maximum number of records in each file (default: unlimited) </li>
+<li> with {@code file_size_limit=integer} as the maximum estimated data size in each file (default: unlimited) </li>
+<li> with {@code writer_threads=integer} as the number of threads to finish rolled over files (default: 1) </li>
 <li> with {@code field_mappping=[string-literal]}  (default: {@code "position"}) </li>
 <li> with {@code missing_source=[string-literal]}  (default: {@code "logging"}) </li>
 <li> with {@code missing_target=[string-literal]}  (default: {@code "logging"}) </li>
 <li> with {@code incompatible_type=[string-literal]}  (default: {@code "fail"}) </li>
 </ul>
  * @since 0.7.0
+ * @version 0.9.2
  */
 public class ParquetFileDriver extends ModelAttributeDriver {
 
@@ -130,6 +134,24 @@ public class ParquetFileDriver extends ModelAttributeDriver {
      */
     public static final String ELEMENT_INCOMPATIBLE_TYPE = "on_incompatible_type"; //$NON-NLS-1$
 
+    /**
+     * The element name of the maximum number of records in each file.
+     * @since 0.9.2
+     */
+    public static final String ELEMENT_FILE_RECORD_LIMIT = "file_record_limit"; //$NON-NLS-1$
+
+    /**
+     * The element name of the maximum estimated data size in each file.
+     * @since 0.9.2
+     */
+    public static final String ELEMENT_FILE_SIZE_LIMIT = "file_size_limit"; //$NON-NLS-1$
+
+    /**
+     * The element name of the number of threads to finish rolled over files.
+     * @since 0.9.2
+     */
+    public static final String ELEMENT_WRITER_THREADS = "writer_threads"; //$NON-NLS-1$
+
     static final long MIN_PAGE_SIZE = 64L * 1024;
 
     static final long MIN_BLOCK_SIZE = 1L * 1024 * 1024;
@@ -195,6 +217,10 @@ public class ParquetFileDriver extends ModelAttributeDriver {
         consumeMissingTarget(environment, attribute, elements, result);
         consumeIncompatibleType(environment, attribute, elements, result);
 
+        consumeFileRecordLimit(environment, attribute, elements, result);
+        consumeFileSizeLimit(environment, attribute, elements, result);
+        consumeWriterThreads(environment, attribute, elements, result);
+
         environment.reportAll(AttributeUtil.reportInvalidElements(attribute, elements.values()));
 
         return result;
@@ -386,6 +412,45 @@ public class ParquetFileDriver extends ModelAttributeDriver {
         }
     }
 
+    private void consumeFileRecordLimit(
+            DmdlSemantics environment, AstAttribute attribute,
+            Map<String, AstAttributeElement> elements, ParquetFileTrait result) {
+        AstLiteral literal = take(environment, attribute, elements, ELEMENT_FILE_RECORD_LIMIT, LiteralKind.INTEGER);
+        if (literal != null) {
+            String label = label(ELEMENT_FILE_RECORD_LIMIT);
+            BigInteger value = literal.toIntegerValue();
+            if (AttributeUtil.checkRange(environment, literal, label, value, 1L, Long.MAX_VALUE)) {
+                result.configuration().withFileRecordLimit(value.longValue());
+            }
+        }
+    }
+
+    private void consumeFileSizeLimit(
+            DmdlSemantics environment, AstAttribute attribute,
+            Map<String, AstAttributeElement> elements, ParquetFileTrait result) {
+        AstLiteral literal = take(environment, attribute, elements, ELEMENT_FILE_SIZE_LIMIT, LiteralKind.INTEGER);
+        if (literal != null) {
+            String label = label(ELEMENT_FILE_SIZE_LIMIT);
+            BigInteger value = literal.toIntegerValue();
+            if (AttributeUtil.checkRange(environment, literal, label, value, 1L, Long.MAX_VALUE)) {
+                result.configuration().withFileSizeLimit(value.longValue());
+            }
+        }
+    }
+
+    private void consumeWriterThreads(
+            DmdlSemantics environment, AstAttribute attribute,
+            Map<String, AstAttributeElement> elements, ParquetFileTrait result) {
+        AstLiteral literal = take(environment, attribute, elements, ELEMENT_WRITER_THREADS, LiteralKind.INTEGER);
+        if (literal != null) {
+            String label = label(ELEMENT_WRITER_THREADS);
+            BigInteger value = literal.toIntegerValue();
+            if (AttributeUtil.checkRange(environment, literal, label, value, 0L, (long) Integer.MAX_VALUE)) {
+                result.configuration().withWriterThreads(value.intValue());
+            }
+        }
+    }
+
     private AstLiteral take(
             DmdlSemantics environment,
             AstAttribute attribute,
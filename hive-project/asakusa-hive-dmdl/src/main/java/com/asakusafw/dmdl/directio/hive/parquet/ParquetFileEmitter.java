@@ -55,6 +55,7 @@ import parquet.hadoop.metadata.CompressionCodecName;
 /**
  * Emits a {@link DataFormat} class for parquet files.
  * @since 0.7.0
+ * @version 0.9.2
  */
 public class ParquetFileEmitter extends JavaDataModelDriver {
 
@@ -278,6 +279,21 @@ public class ParquetFileEmitter extends JavaDataModelDriver {
                                 .toExpression())
                     .toStatement());
             }
+            if (conf.getFileRecordLimit() != null) {
+                statements.add(new ExpressionBuilder(f, result)
+                    .method("withFileRecordLimit", Models.toLiteral(f, (long) conf.getFileRecordLimit())) //$NON-NLS-1$
+                    .toStatement());
+            }
+            if (conf.getFileSizeLimit() != null) {
+                statements.add(new ExpressionBuilder(f, result)
+                    .method("withFileSizeLimit", Models.toLiteral(f, (long) conf.getFileSizeLimit())) //$NON-NLS-1$
+                    .toStatement());
+            }
+            if (conf.getWriterThreads() != null) {
+                statements.add(new ExpressionBuilder(f, result)
+                    .method("withWriterThreads", Models.toLiteral(f, (int) conf.getWriterThreads())) //$NON-NLS-1$
+                    .toStatement());
+            }
             statements.add(new ExpressionBuilder(f, result).toReturnStatement());
             return f.newMethodDeclaration(
                     null,
@@ -74,6 +74,9 @@ public class OrcFileDriverTest extends GeneratorTesterRoot {
                 "  format_version = '0.11',",
                 "  compression = 'zlib',",
                 "  stripe_size = 123456789,",
+                "  file_record_limit = 100000,",
+                "  file_size_limit = 1000000000,",
+                "  writer_threads = 2,",
                 ")",
                 "model = { simple : INT; };"
         }).findModelDeclaration("model");
@@ -89,6 +92,9 @@ public class OrcFileDriverTest extends GeneratorTesterRoot {
         assertThat(trait.configuration().getFormatVersion(), is(OrcFile.Version.V_0_11));
         assertThat(trait.configuration().getCompressionKind(), is(CompressionKind.ZLIB));
         assertThat(trait.configuration().getStripeSize(), is(123456789L));
+        assertThat(trait.configuration().getFileRecordLimit(), is(100000L));
+        assertThat(trait.configuration().getFileSizeLimit(), is(1000000000L));
+        assertThat(trait.configuration().getWriterThreads(), is(2));
     }
 
     /**
@@ -156,4 +162,26 @@ public class OrcFileDriverTest extends GeneratorTesterRoot {
                 "model = { simple : INT; };"
         });
     }
+
+    /**
+     * file record limit is too small.
+     */
+    @Test
+    public void invalid_file_record_limit_too_small() {
+        shouldSemanticError(new String[] {
+                "@directio.hive.orc(file_record_limit = 0)",
+                "model = { simple : INT; };"
+        });
+    }
+
+    /**
+     * writer threads is too large.
+     */
+    @Test
+    public void invalid_writer_threads_too_large() {
+        shouldSemanticError(new String[] {
+                "@directio.hive.orc(writer_threads = " + ((long) Integer.MAX_VALUE + 1) + ")",
+                "model = { simple : INT; };"
+        });
+    }
 }
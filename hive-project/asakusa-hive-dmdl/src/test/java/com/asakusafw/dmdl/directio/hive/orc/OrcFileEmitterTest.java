@@ -92,6 +92,9 @@ public class OrcFileEmitterTest extends GeneratorTesterRoot {
                 "  format_version = '0.11',",
                 "  compression = 'zlib',",
                 "  stripe_size = 123456789,",
+                "  file_record_limit = 100000,",
+                "  file_size_limit = 1000000000,",
+                "  writer_threads = 2,",
                 ")",
                 "model = { simple : INT; };"
         });
@@ -107,6 +110,9 @@ public class OrcFileEmitterTest extends GeneratorTesterRoot {
         assertThat(conf.getFormatVersion(), is(OrcFile.Version.V_0_11));
         assertThat(conf.getCompressionKind(), is(CompressionKind.ZLIB));
         assertThat(conf.getStripeSize(), is(123456789L));
+        assertThat(conf.getFileRecordLimit(), is(100000L));
+        assertThat(conf.getFileSizeLimit(), is(1000000000L));
+        assertThat(conf.getWriterThreads(), is(2));
     }
 
     private AbstractOrcFileFormat<?> load(ModelLoader loader, String simpleName) {
@@ -81,6 +81,9 @@ public class ParquetFileDriverTest extends GeneratorTesterRoot {
                 "  dictionary_page_size = 1000002,",
                 "  enable_dictionary = FALSE,",
                 "  enable_validation = TRUE,",
+                "  file_record_limit = 100000,",
+                "  file_size_limit = 1000000000,",
+                "  writer_threads = 2,",
                 ")",
                 "model = { simple : INT; };"
         }).findModelDeclaration("model");
@@ -101,6 +104,9 @@ public class ParquetFileDriverTest extends GeneratorTesterRoot {
         assertThat(trait.configuration().getEnableDictionary(), is(false));
         assertThat(trait.configuration().getEnableValidation(), is(true));
         assertThat(trait.configuration().getWriterVersion(), is(WriterVersion.PARQUET_2_0));
+        assertThat(trait.configuration().getFileRecordLimit(), is(100000L));
+        assertThat(trait.configuration().getFileSizeLimit(), is(1000000000L));
+        assertThat(trait.configuration().getWriterThreads(), is(2));
     }
 
     /**
@@ -144,4 +150,26 @@ public class ParquetFileDriverTest extends GeneratorTesterRoot {
                 "model = { simple : INT; };"
         });
     }
+
+    /**
+     * file record limit is too small.
+     */
+    @Test
+    public void invalid_file_record_limit_too_small() {
+        shouldSemanticError(new String[] {
+                "@directio.hive.parquet(file_record_limit = 0)",
+                "model = { simple : INT; };"
+        });
+    }
+
+    /**
+     * writer threads is too large.
+     */
+    @Test
+    public void invalid_writer_threads_too_large() {
+        shouldSemanticError(new String[] {
+                "@directio.hive.parquet(writer_threads = " + ((long) Integer.MAX_VALUE + 1) + ")",
+                "model = { simple : INT; };"
+        });
+    }
 }
@@ -101,6 +101,9 @@ public class ParquetFileEmitterTest extends GeneratorTesterRoot {
                 "  dictionary_page_size = 1000002,",
                 "  enable_dictionary = FALSE,",
                 "  enable_validation = TRUE,",
+                "  file_record_limit = 100000,",
+                "  file_size_limit = 1000000000,",
+                "  writer_threads = 2,",
                 ")",
                 "model = { simple : INT; };"
         });
@@ -120,6 +123,9 @@ public class ParquetFileEmitterTest extends GeneratorTesterRoot {
         assertThat(conf.getEnableDictionary(), is(false));
         assertThat(conf.getEnableValidation(), is(true));
         assertThat(conf.getWriterVersion(), is(WriterVersion.PARQUET_2_0));
+        assertThat(conf.getFileRecordLimit(), is(100000L));
+        assertThat(conf.getFileSizeLimit(), is(1000000000L));
+        assertThat(conf.getWriterThreads(), is(2));
     }
 
     private AbstractParquetFileFormat<?> load(ModelLoader loader, String simpleName) {
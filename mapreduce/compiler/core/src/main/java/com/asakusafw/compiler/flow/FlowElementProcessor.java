@@ -29,6 +29,7 @@ import com.asakusafw.runtime.core.Result;
 import com.asakusafw.runtime.flow.ArrayListBuffer;
 import com.asakusafw.runtime.flow.FileMapListBuffer;
 import com.asakusafw.runtime.flow.ListBuffer;
+import com.asakusafw.runtime.flow.OffHeapListBuffer;
 import com.asakusafw.utils.java.model.syntax.Expression;
 import com.asakusafw.utils.java.model.syntax.FieldDeclaration;
 import com.asakusafw.utils.java.model.syntax.ModelFactory;
@@ -40,6 +41,7 @@ import com.asakusafw.utils.java.model.util.ExpressionBuilder;
 import com.asakusafw.utils.java.model.util.ImportBuilder;
 import com.asakusafw.utils.java.model.util.Models;
 import com.asakusafw.utils.java.model.util.TypeBuilder;
+import com.asakusafw.vocabulary.attribute.BufferType;
 import com.asakusafw.vocabulary.flow.graph.FlowElementAttribute;
 import com.asakusafw.vocabulary.flow.graph.FlowElementAttributeProvider;
 import com.asakusafw.vocabulary.flow.graph.FlowElementDescription;
@@ -74,7 +76,7 @@ public interface FlowElementProcessor extends FlowCompilingEnvironment.Initializ
     /**
      * The abstract implementation of context objects for {@link FlowElementProcessor}.
      * @since 0.1.0
-     * @version 0.9.1
+     * @version 0.9.2
      */
     abstract class AbstractProcessorContext implements FlowElementAttributeProvider {
 
@@ -338,8 +340,30 @@ public interface FlowElementProcessor extends FlowCompilingEnvironment.Initializ
         public ListBufferMirror createListBuffer(java.lang.reflect.Type type, InputBuffer bufferKind) {
             Precondition.checkMustNotBeNull(type, "type"); //$NON-NLS-1$
             Precondition.checkMustNotBeNull(bufferKind, "bufferKind"); //$NON-NLS-1$
+            return createListBuffer(type, inputBufferTypeFromKind(bufferKind));
+        }
+
+        /**
+         * Returns a new {@link ListBuffer} object mirror.
+         * @param type the element type of the {@link ListBuffer}
+         * @param bufferKind the input buffer kind of the operator
+         * @param bufferType the buffer type of the individual input port (nullable)
+         * @return the generated expression
+         * @throws IllegalArgumentException if the parameters are {@code null}
+         * @since 0.9.2
+         */
+        public ListBufferMirror createListBuffer(
+                java.lang.reflect.Type type, InputBuffer bufferKind, BufferType bufferType) {
+            Precondition.checkMustNotBeNull(type, "type"); //$NON-NLS-1$
+            Precondition.checkMustNotBeNull(bufferKind, "bufferKind"); //$NON-NLS-1$
+            if (bufferType == BufferType.OFFHEAP) {
+                return createListBuffer(type, OffHeapListBuffer.class);
+            }
+            return createListBuffer(type, inputBufferTypeFromKind(bufferKind));
+        }
+
+        private ListBufferMirror createListBuffer(java.lang.reflect.Type type, Class<?> bufferType) {
             Type elementType = importer.toType(type);
-            Class<?> bufferType = inputBufferTypeFromKind(bufferKind);
             Type listType = importer.resolve(factory.newParameterizedType(
                     Models.toType(factory, bufferType),
                     Collections.singletonList(elementType)));
@@ -19,7 +19,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,9 +29,12 @@ import org.slf4j.LoggerFactory;
 import com.asakusafw.compiler.common.Precondition;
 import com.asakusafw.compiler.flow.DataClass;
 import com.asakusafw.compiler.flow.DataClass.Property;
+import com.asakusafw.compiler.flow.FlowCompilerOptions.GenericOptionValue;
 import com.asakusafw.compiler.flow.FlowCompilingEnvironment;
 import com.asakusafw.runtime.flow.join.JoinResource;
 import com.asakusafw.runtime.flow.join.LookUpKey;
+import com.asakusafw.runtime.flow.join.LookUpTable;
+import com.asakusafw.runtime.flow.join.OffHeapLookUpTable;
 import com.asakusafw.utils.java.model.syntax.ClassDeclaration;
 import com.asakusafw.utils.java.model.syntax.CompilationUnit;
 import com.asakusafw.utils.java.model.syntax.Expression;
@@ -54,6 +59,23 @@ public final class JoinResourceEmitter {
 
     static final Logger LOG = LoggerFactory.getLogger(JoinResourceEmitter.class);
 
+    /**
+     * The compiler option name whether or not all side-data join tables are placed on the off-heap memory.
+     * @see OffHeapLookUpTable
+     * @since 0.9.2
+     */
+    public static final String KEY_OFF_HEAP_TABLE = "offHeapJoinTable"; //$NON-NLS-1$
+
+    /**
+     * The compiler option name of comma separated flow input names,
+     * whose side-data join tables are placed on the off-heap memory.
+     * @see OffHeapLookUpTable
+     * @since 0.9.2
+     */
+    public static final String KEY_OFF_HEAP_TABLE_INPUTS = "offHeapJoinTable.inputs"; //$NON-NLS-1$
+
+    static final GenericOptionValue DEFAULT_OFF_HEAP_TABLE = GenericOptionValue.DISABLED;
+
     private final FlowCompilingEnvironment environment;
 
     private final ModelFactory factory;
@@ -140,9 +162,52 @@ public final class JoinResourceEmitter {
         results.add(createCreateValueObject());
         results.add(createBuildLeftKey());
         results.add(createBuildRightKey());
+        if (isOffHeapTable()) {
+            results.add(createCreateLookUpTable());
+        }
         return results;
     }
 
+    private boolean isOffHeapTable() {
+        GenericOptionValue option = environment.getOptions().getGenericExtraAttribute(
+                KEY_OFF_HEAP_TABLE,
+                DEFAULT_OFF_HEAP_TABLE);
+        if (option == GenericOptionValue.ENABLED) {
+            return true;
+        }
+        String inputs = environment.getOptions().getExtraAttribute(KEY_OFF_HEAP_TABLE_INPUTS);
+        if (inputs == null) {
+            return false;
+        }
+        Set<String> names = new HashSet<>();
+        for (String name : inputs.split(",")) { //$NON-NLS-1$
+            names.add(name.trim());
+        }
+        return names.contains(resource.getCacheName());
+    }
+
+    private MethodDeclaration createCreateLookUpTable() {
+        LOG.debug("using off-heap join table: {}", resource); //$NON-NLS-1$
+        java.lang.reflect.Type masterType = resource.getMasterDataClass().getType();
+        Expression result = new TypeBuilder(factory, importer.toType(OffHeapLookUpTable.Builder.class))
+            .parameterize(importer.toType(masterType))
+            .newObject(factory.newClassLiteral(importer.toType(masterType)))
+            .toExpression();
+        return factory.newMethodDeclaration(
+                null,
+                new AttributeBuilder(factory)
+                    .annotation(importer.toType(Override.class))
+                    .Protected()
+                    .toAttributes(),
+                new TypeBuilder(factory, importer.toType(LookUpTable.Builder.class))
+                    .parameterize(importer.toType(masterType))
+                    .toType(),
+                factory.newSimpleName("createLookUpTable"), //$NON-NLS-1$
+                Collections.emptyList(),
+                Collections.singletonList(new ExpressionBuilder(factory, result)
+                    .toReturnStatement()));
+    }
+
     private MethodDeclaration createGetCacheName() {
         Expression result = Models.toLiteral(factory, resource.getCacheName());
         return factory.newMethodDeclaration(
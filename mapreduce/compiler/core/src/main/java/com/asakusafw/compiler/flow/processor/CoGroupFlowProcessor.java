@@ -24,6 +24,7 @@ import com.asakusafw.utils.java.model.syntax.Expression;
 import com.asakusafw.utils.java.model.syntax.ModelFactory;
 import com.asakusafw.utils.java.model.util.ExpressionBuilder;
 import com.asakusafw.utils.java.model.util.Models;
+import com.asakusafw.vocabulary.attribute.BufferType;
 import com.asakusafw.vocabulary.flow.graph.FlowElementPortDescription;
 import com.asakusafw.vocabulary.flow.graph.OperatorDescription;
 import com.asakusafw.vocabulary.flow.processor.InputBuffer;
@@ -45,7 +46,8 @@ public class CoGroupFlowProcessor extends RendezvousProcessor {
         List<Expression> arguments = new ArrayList<>();
         List<ListBufferMirror> buffers = new ArrayList<>();
         for (FlowElementPortDescription input : desc.getInputPorts()) {
-            ListBufferMirror list = context.createListBuffer(input.getDataType(), bufferKind);
+            ListBufferMirror list = context.createListBuffer(
+                    input.getDataType(), bufferKind, input.getAttribute(BufferType.class));
             buffers.add(list);
 
             context.addBegin(list.createBegin());
@@ -18,12 +18,21 @@ package com.asakusafw.compiler.flow.stage;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import com.asakusafw.compiler.common.Naming;
+import com.asakusafw.compiler.flow.FlowCompilerOptions.GenericOptionValue;
+import com.asakusafw.compiler.flow.FlowCompilingEnvironment;
 import com.asakusafw.compiler.flow.stage.ShuffleModel.Arrangement;
 import com.asakusafw.compiler.flow.stage.ShuffleModel.Segment;
 import com.asakusafw.compiler.flow.stage.ShuffleModel.Term;
+import com.asakusafw.runtime.flow.ShuffleKeyPrefix;
+import com.asakusafw.runtime.value.DateOption;
+import com.asakusafw.runtime.value.IntOption;
+import com.asakusafw.runtime.value.LongOption;
+import com.asakusafw.runtime.value.StringOption;
 import com.asakusafw.utils.java.model.syntax.BasicTypeKind;
 import com.asakusafw.utils.java.model.syntax.FormalParameterDeclaration;
 import com.asakusafw.utils.java.model.syntax.InfixOperator;
@@ -50,6 +59,25 @@ final class ShuffleEmiterUtil {
      */
     public static final String PORT_TO_ELEMENT = "portIdToElementId"; //$NON-NLS-1$
 
+    /**
+     * The compiler option name whether or not shuffle keys have {@link ShuffleKeyPrefix normalized prefix}.
+     * This is disabled by default.
+     * @since 0.9.2
+     */
+    public static final String KEY_SORT_PREFIX = "shuffleSortPrefix"; //$NON-NLS-1$
+
+    static final GenericOptionValue DEFAULT_SORT_PREFIX = GenericOptionValue.DISABLED;
+
+    private static final Set<Class<?>> PREFIX_TYPES;
+    static {
+        Set<Class<?>> set = new HashSet<>();
+        set.add(IntOption.class);
+        set.add(LongOption.class);
+        set.add(DateOption.class);
+        set.add(StringOption.class);
+        PREFIX_TYPES = set;
+    }
+
     public static List<List<Segment>> groupByElement(ShuffleModel model) {
         List<List<Segment>> results = new ArrayList<>();
         List<Segment> lastSegment = Collections.emptyList();
@@ -86,6 +114,51 @@ final class ShuffleEmiterUtil {
         return name;
     }
 
+    /**
+     * Returns whether or not the shuffle keys of the target model have normalized prefix.
+     * @param environment the current environment
+     * @param model the target shuffle model
+     * @return {@code true} if the shuffle keys have normalized prefix, otherwise {@code false}
+     * @see ShuffleKeyPrefix
+     */
+    public static boolean isSortPrefixEnabled(FlowCompilingEnvironment environment, ShuffleModel model) {
+        GenericOptionValue option = environment.getOptions().getGenericExtraAttribute(
+                KEY_SORT_PREFIX,
+                DEFAULT_SORT_PREFIX);
+        if (option == GenericOptionValue.DISABLED) {
+            return false;
+        }
+        for (Segment segment : model.getSegments()) {
+            if (segment.getElementId() < 0 || segment.getElementId() > ShuffleKeyPrefix.MAX_ELEMENT_ID) {
+                return false;
+            }
+        }
+        if (option == GenericOptionValue.ENABLED) {
+            return true;
+        }
+        for (Segment segment : model.getSegments()) {
+            if (getSortPrefixTerm(segment) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the leading grouping term which can be encoded into the normalized prefix.
+     * @param segment the target segment
+     * @return the leading grouping term, or {@code null} if it is not supported
+     * @see ShuffleKeyPrefix
+     */
+    public static Term getSortPrefixTerm(Segment segment) {
+        for (Term term : segment.getTerms()) {
+            if (term.getArrangement() == Arrangement.GROUPING) {
+                return PREFIX_TYPES.contains(term.getSource().getType()) ? term : null;
+            }
+        }
+        return null;
+    }
+
     public static MethodDeclaration createCompareInts(
             ModelFactory factory) {
         SimpleName a = factory.newSimpleName("a"); //$NON-NLS-1$
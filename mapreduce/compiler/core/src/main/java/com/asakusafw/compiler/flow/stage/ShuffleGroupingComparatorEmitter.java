@@ -33,6 +33,7 @@ import com.asakusafw.compiler.flow.stage.ShuffleModel.Arrangement;
 import com.asakusafw.compiler.flow.stage.ShuffleModel.Segment;
 import com.asakusafw.compiler.flow.stage.ShuffleModel.Term;
 import com.asakusafw.runtime.flow.SegmentedWritable;
+import com.asakusafw.runtime.flow.ShuffleKeyPrefix;
 import com.asakusafw.utils.java.model.syntax.CompilationUnit;
 import com.asakusafw.utils.java.model.syntax.Expression;
 import com.asakusafw.utils.java.model.syntax.FormalParameterDeclaration;
@@ -107,6 +108,8 @@ public class ShuffleGroupingComparatorEmitter {
 
         private final Type keyType;
 
+        private final boolean sortPrefix;
+
         Engine(
                 FlowCompilingEnvironment environment,
                 ShuffleModel model,
@@ -122,6 +125,7 @@ public class ShuffleGroupingComparatorEmitter {
                     factory.newPackageDeclaration(packageName),
                     ImportBuilder.Strategy.TOP_LEVEL);
             this.keyType = importer.resolve(factory.newNamedType(keyTypeName));
+            this.sortPrefix = ShuffleEmiterUtil.isSortPrefixEnabled(environment, model);
         }
 
         public CompilationUnit generate() {
@@ -185,14 +189,25 @@ public class ShuffleGroupingComparatorEmitter {
                             .toExpression())
                 .toLocalVariableDeclaration(t(int.class), diff));
             statements.add(createDiffBranch(diff));
+            if (sortPrefix) {
+                statements.add(new ExpressionBuilder(factory, diff)
+                    .assignFrom(new TypeBuilder(factory, t(ShuffleKeyPrefix.class))
+                        .method("compareBytes", //$NON-NLS-1$
+                                b1, factory.newInfixExpression(s1, InfixOperator.PLUS, v(4)),
+                                b2, factory.newInfixExpression(s2, InfixOperator.PLUS, v(4)))
+                        .toExpression())
+                    .toStatement());
+                statements.add(createDiffBranch(diff));
+            }
+            int offset = sortPrefix ? 4 + ShuffleKeyPrefix.BYTES : 4;
 
             SimpleName o1 = factory.newSimpleName("o1"); //$NON-NLS-1$
             SimpleName o2 = factory.newSimpleName("o2"); //$NON-NLS-1$
             SimpleName size1 = factory.newSimpleName("size1"); //$NON-NLS-1$
             SimpleName size2 = factory.newSimpleName("size2"); //$NON-NLS-1$
-            statements.add(new ExpressionBuilder(factory, v(4))
+            statements.add(new ExpressionBuilder(factory, v(offset))
                 .toLocalVariableDeclaration(t(int.class), o1));
-            statements.add(new ExpressionBuilder(factory, v(4))
+            statements.add(new ExpressionBuilder(factory, v(offset))
                 .toLocalVariableDeclaration(t(int.class), o2));
             statements.add(new ExpressionBuilder(factory, v(-1))
                 .toLocalVariableDeclaration(t(int.class), size1));
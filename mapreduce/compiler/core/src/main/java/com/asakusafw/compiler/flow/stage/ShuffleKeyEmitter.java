@@ -34,6 +34,7 @@ import com.asakusafw.compiler.flow.stage.ShuffleModel.Arrangement;
 import com.asakusafw.compiler.flow.stage.ShuffleModel.Segment;
 import com.asakusafw.compiler.flow.stage.ShuffleModel.Term;
 import com.asakusafw.runtime.flow.SegmentedWritable;
+import com.asakusafw.runtime.flow.ShuffleKeyPrefix;
 import com.asakusafw.utils.java.model.syntax.CompilationUnit;
 import com.asakusafw.utils.java.model.syntax.Expression;
 import com.asakusafw.utils.java.model.syntax.FieldDeclaration;
@@ -103,11 +104,14 @@ public class ShuffleKeyEmitter {
 
         private final ImportBuilder importer;
 
+        private final boolean sortPrefix;
+
         Engine(FlowCompilingEnvironment environment, ShuffleModel model) {
             assert environment != null;
             assert model != null;
             this.model = model;
             this.factory = environment.getModelFactory();
+            this.sortPrefix = ShuffleEmiterUtil.isSortPrefixEnabled(environment, model);
             Name packageName = environment.getStagePackageName(model.getStageBlock().getStageNumber());
             this.importer = new ImportBuilder(
                     factory,
@@ -362,6 +366,11 @@ public class ShuffleKeyEmitter {
                 cases.add(new ExpressionBuilder(factory, out)
                     .method("writeInt", v(segment.getPortId())) //$NON-NLS-1$
                     .toStatement());
+                if (sortPrefix) {
+                    cases.add(new ExpressionBuilder(factory, out)
+                        .method("writeLong", createSortPrefix(segment)) //$NON-NLS-1$
+                        .toStatement());
+                }
                 for (Term term : segment.getTerms()) {
                     String fieldName = ShuffleEmiterUtil.getPropertyName(segment, term);
                     cases.add(term.getSource().createWriter(
@@ -397,6 +406,22 @@ public class ShuffleKeyEmitter {
                     factory.newBlock(statements));
         }
 
+        private Expression createSortPrefix(Segment segment) {
+            Term term = ShuffleEmiterUtil.getSortPrefixTerm(segment);
+            if (term == null) {
+                return new TypeBuilder(factory, t(ShuffleKeyPrefix.class))
+                    .method("of", v(segment.getElementId())) //$NON-NLS-1$
+                    .toExpression();
+            }
+            return new TypeBuilder(factory, t(ShuffleKeyPrefix.class))
+                .method("of", //$NON-NLS-1$
+                        v(segment.getElementId()),
+                        new ExpressionBuilder(factory, factory.newThis())
+                            .field(ShuffleEmiterUtil.getPropertyName(segment, term))
+                            .toExpression())
+                .toExpression();
+        }
+
         private MethodDeclaration createReadFieldsMethod() {
             SimpleName in = factory.newSimpleName("in"); //$NON-NLS-1$
 
@@ -410,6 +435,12 @@ public class ShuffleKeyEmitter {
                     .method("readInt") //$NON-NLS-1$
                     .toExpression())
                 .toStatement());
+            if (sortPrefix) {
+                // the prefix is only for comparators
+                statements.add(new ExpressionBuilder(factory, in)
+                    .method("readLong") //$NON-NLS-1$
+                    .toStatement());
+            }
 
             List<Statement> cases = new ArrayList<>();
             for (Segment segment : model.getSegments()) {
@@ -33,6 +33,7 @@ import com.asakusafw.compiler.flow.stage.ShuffleModel.Arrangement;
 import com.asakusafw.compiler.flow.stage.ShuffleModel.Segment;
 import com.asakusafw.compiler.flow.stage.ShuffleModel.Term;
 import com.asakusafw.runtime.flow.SegmentedWritable;
+import com.asakusafw.runtime.flow.ShuffleKeyPrefix;
 import com.asakusafw.utils.java.model.syntax.CompilationUnit;
 import com.asakusafw.utils.java.model.syntax.Expression;
 import com.asakusafw.utils.java.model.syntax.FormalParameterDeclaration;
@@ -109,6 +110,8 @@ public class ShuffleSortComparatorEmitter {
 
         private final Type keyType;
 
+        private final boolean sortPrefix;
+
         Engine(
                 FlowCompilingEnvironment environment,
                 ShuffleModel model,
@@ -124,6 +127,7 @@ public class ShuffleSortComparatorEmitter {
                     factory.newPackageDeclaration(packageName),
                     ImportBuilder.Strategy.TOP_LEVEL);
             this.keyType = importer.resolve(factory.newNamedType(keyTypeName));
+            this.sortPrefix = ShuffleEmiterUtil.isSortPrefixEnabled(environment, model);
         }
 
         public CompilationUnit generate() {
@@ -188,13 +192,24 @@ public class ShuffleSortComparatorEmitter {
                             .toExpression())
                 .toLocalVariableDeclaration(t(int.class), diff));
             statements.add(createDiff(diff));
+            if (sortPrefix) {
+                statements.add(new ExpressionBuilder(factory, diff)
+                    .assignFrom(new TypeBuilder(factory, t(ShuffleKeyPrefix.class))
+                        .method("compareBytes", //$NON-NLS-1$
+                                b1, factory.newInfixExpression(s1, InfixOperator.PLUS, v(4)),
+                                b2, factory.newInfixExpression(s2, InfixOperator.PLUS, v(4)))
+                        .toExpression())
+                    .toStatement());
+                statements.add(createDiff(diff));
+            }
+            int offset = sortPrefix ? 4 + ShuffleKeyPrefix.BYTES : 4;
 
             SimpleName o1 = factory.newSimpleName("o1"); //$NON-NLS-1$
             SimpleName o2 = factory.newSimpleName("o2"); //$NON-NLS-1$
             SimpleName lim1 = factory.newSimpleName("lim1"); //$NON-NLS-1$
             SimpleName lim2 = factory.newSimpleName("lim2"); //$NON-NLS-1$
-            statements.add(new ExpressionBuilder(factory, v(4)).toLocalVariableDeclaration(t(int.class), o1));
-            statements.add(new ExpressionBuilder(factory, v(4)).toLocalVariableDeclaration(t(int.class), o2));
+            statements.add(new ExpressionBuilder(factory, v(offset)).toLocalVariableDeclaration(t(int.class), o1));
+            statements.add(new ExpressionBuilder(factory, v(offset)).toLocalVariableDeclaration(t(int.class), o2));
             statements.add(new ExpressionBuilder(factory, v(-1)).toLocalVariableDeclaration(t(int.class), lim1));
             statements.add(new ExpressionBuilder(factory, v(-1)).toLocalVariableDeclaration(t(int.class), lim2));
 
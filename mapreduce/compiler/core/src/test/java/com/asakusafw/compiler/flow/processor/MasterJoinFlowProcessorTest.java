@@ -25,6 +25,7 @@ import org.junit.ClassRule;
 import org.junit.Rule;
 import org.junit.Test;
 
+import com.asakusafw.compiler.flow.join.JoinResourceEmitter;
 import com.asakusafw.compiler.flow.processor.flow.MasterJoinFlowRenameKey;
 import com.asakusafw.compiler.flow.processor.flow.MasterJoinFlowSelection;
 import com.asakusafw.compiler.flow.processor.flow.MasterJoinFlowTrivial;
@@ -73,6 +74,16 @@ public class MasterJoinFlowProcessorTest {
         runEquality(DataSize.TINY);
     }
 
+    /**
+     * w/ TINY input on off-heap join table.
+     * @throws Exception if exception was occurred
+     */
+    @Test
+    public void tiny_offheap() throws Exception {
+        tester.options().putExtraAttribute(JoinResourceEmitter.KEY_OFF_HEAP_TABLE_INPUTS, "Ex1");
+        runEquality(DataSize.TINY);
+    }
+
     private void runEquality(DataSize dataSize) throws IOException {
         TestInput<Ex1> in1 = tester.input(Ex1.class, "Ex1", dataSize);
         TestInput<Ex2> in2 = tester.input(Ex2.class, "ex2");
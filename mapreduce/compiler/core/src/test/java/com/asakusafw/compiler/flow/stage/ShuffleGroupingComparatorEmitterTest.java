@@ -25,6 +25,7 @@ import org.apache.hadoop.io.RawComparator;
 import org.apache.hadoop.io.Writable;
 import org.junit.Test;
 
+import com.asakusafw.compiler.flow.FlowCompilerOptions.GenericOptionValue;
 import com.asakusafw.compiler.flow.JobflowCompilerTestRoot;
 import com.asakusafw.compiler.flow.example.CoGroupStage;
 import com.asakusafw.compiler.flow.plan.StageBlock;
@@ -104,6 +105,18 @@ public class ShuffleGroupingComparatorEmitterTest extends JobflowCompilerTestRoo
         assertThat(cmp.compare(k1, k2), not(0));
     }
 
+    /**
+     * w/ normalized prefix.
+     * @throws Exception if error was occurred while output
+     */
+    @Test
+    public void prefix() throws Exception {
+        environment.getOptions().putExtraAttribute(
+                ShuffleEmiterUtil.KEY_SORT_PREFIX,
+                GenericOptionValue.ENABLED.getSymbol());
+        simple();
+    }
+
     private ShuffleModel shuffle(Class<? extends FlowDescription> aClass) {
         StageGraph graph = jfToStageGraph(aClass);
         assertThat(graph.getStages().size(), is(1));
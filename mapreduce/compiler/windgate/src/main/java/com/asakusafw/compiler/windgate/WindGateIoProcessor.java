@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,10 +57,12 @@ import com.asakusafw.windgate.core.DriverScript;
 import com.asakusafw.windgate.core.GateScript;
 import com.asakusafw.windgate.core.ProcessScript;
 import com.asakusafw.windgate.core.vocabulary.FileProcess;
+import com.asakusafw.windgate.core.vocabulary.JdbcProcess;
 
 /**
  * Processes WindGate vocabularies.
  * @since 0.2.2
+ * @version 0.9.2
  */
 public class WindGateIoProcessor extends ExternalIoDescriptionProcessor {
 
@@ -78,6 +81,8 @@ public class WindGateIoProcessor extends ExternalIoDescriptionProcessor {
 
     private static final String OPT_EXPORT = "export"; //$NON-NLS-1$
 
+    private static final String SPLIT_FILE_PREFIX = "part"; //$NON-NLS-1$
+
     private static final String PATTERN_SCRIPT_LOCATION = "META-INF/windgate/{0}-{1}.properties"; //$NON-NLS-1$
 
     static final String OPT_BEGIN = "begin"; //$NON-NLS-1$
@@ -166,7 +171,11 @@ public class WindGateIoProcessor extends ExternalIoDescriptionProcessor {
 
     @Override
     public SourceInfo getInputInfo(InputDescription description) {
-        Set<Location> locations = Collections.singleton(getInputLocation(description));
+        Location location = getInputLocation(description);
+        if (getSplitCount(extract(description)) > 1) {
+            location = location.append(SPLIT_FILE_PREFIX).asPrefix();
+        }
+        Set<Location> locations = Collections.singleton(location);
         return new SourceInfo(locations, TemporaryInputFormat.class);
     }
 
@@ -251,6 +260,10 @@ public class WindGateIoProcessor extends ExternalIoDescriptionProcessor {
                 getEnvironment().getFlowId());
         Map<String, GateScript> importers = toImporterScripts(context.getInputs());
         Map<String, GateScript> exporters = toExporterScripts(context.getOutputs());
+        for (String profileName : getIncrementalProfiles(context.getInputs())) {
+            // the epilogue must complete the session of incremental importers even if there are no exporters
+            exporters.putIfAbsent(profileName, new GateScript(profileName, Collections.emptyList()));
+        }
 
         for (Map.Entry<String, GateScript> entry : importers.entrySet()) {
             String script = getScriptLocation(true, entry.getKey());
@@ -285,8 +298,9 @@ public class WindGateIoProcessor extends ExternalIoDescriptionProcessor {
         Map<String, List<ProcessScript<?>>> processes = new HashMap<>();
         for (Input input : inputs) {
             String profileName = extract(input.getDescription()).getProfileName();
-            ProcessScript<?> process = toProcessScript(input);
-            Maps.addToList(processes, profileName, process);
+            for (ProcessScript<?> process : toProcessScripts(input)) {
+                Maps.addToList(processes, profileName, process);
+            }
         }
         return toGateScripts(processes);
     }
@@ -302,19 +316,80 @@ public class WindGateIoProcessor extends ExternalIoDescriptionProcessor {
         return toGateScripts(processes);
     }
 
-    private ProcessScript<?> toProcessScript(Input input) {
+    private List<ProcessScript<?>> toProcessScripts(Input input) {
         assert input != null;
         WindGateImporterDescription desc = extract(input.getDescription());
-        String location = getInputLocation(input.getDescription()).toPath('/');
+        Location location = getInputLocation(input.getDescription());
         DriverScript source = desc.getDriverScript();
-        DriverScript drain = new DriverScript(
-                Constants.HADOOP_FILE_RESOURCE_NAME,
-                Collections.singletonMap(FileProcess.FILE.key(), location));
-        return createProcessScript(
-                input.getDescription().getName(),
-                desc.getModelType(),
-                source,
-                drain);
+        int splitCount = getSplitCount(desc);
+        if (splitCount <= 1) {
+            DriverScript drain = new DriverScript(
+                    Constants.HADOOP_FILE_RESOURCE_NAME,
+                    Collections.singletonMap(FileProcess.FILE.key(), location.toPath('/')));
+            return Collections.singletonList(createProcessScript(
+                    input.getDescription().getName(),
+                    desc.getModelType(),
+                    source,
+                    drain));
+        }
+        // each partition is transferred in its own process, so that they run in parallel
+        List<ProcessScript<?>> results = new ArrayList<>();
+        for (int index = 0; index < splitCount; index++) {
+            Map<String, String> sourceConf = new HashMap<>(source.getConfiguration());
+            sourceConf.put(JdbcProcess.SPLIT_INDEX.key(), String.valueOf(index));
+            DriverScript partSource = new DriverScript(
+                    source.getResourceName(),
+                    sourceConf,
+                    source.getParameterNames());
+            String partLocation = location.append(String.format("%s-%d", SPLIT_FILE_PREFIX, index)) //$NON-NLS-1$
+                    .toPath('/');
+            DriverScript drain = new DriverScript(
+                    Constants.HADOOP_FILE_RESOURCE_NAME,
+                    Collections.singletonMap(FileProcess.FILE.key(), partLocation));
+            results.add(createProcessScript(
+                    String.format("%s-%d", input.getDescription().getName(), index), //$NON-NLS-1$
+                    desc.getModelType(),
+                    partSource,
+                    drain));
+        }
+        return results;
+    }
+
+    private Set<String> getIncrementalProfiles(Collection<Input> inputs) {
+        Set<String> results = new TreeSet<>();
+        for (Input input : inputs) {
+            WindGateImporterDescription desc = extract(input.getDescription());
+            if (isIncremental(desc)) {
+                results.add(desc.getProfileName());
+            }
+        }
+        return results;
+    }
+
+    private static boolean isIncremental(WindGateImporterDescription desc) {
+        DriverScript source = desc.getDriverScript();
+        if (source.getResourceName().equals(Constants.JDBC_RESOURCE_NAME) == false) {
+            return false;
+        }
+        String value = source.getConfiguration().get(JdbcProcess.WATERMARK_COLUMN.key());
+        return value != null && value.trim().isEmpty() == false;
+    }
+
+    private static int getSplitCount(WindGateImporterDescription desc) {
+        DriverScript source = desc.getDriverScript();
+        if (source.getResourceName().equals(Constants.JDBC_RESOURCE_NAME) == false) {
+            return 1;
+        }
+        String value = source.getConfiguration().get(JdbcProcess.SPLIT_COUNT.key());
+        if (value == null) {
+            return 1;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            LOG.debug("Invalid split count: {}", value, e); //$NON-NLS-1$
+            return 1;
+        }
     }
 
     private ProcessScript<?> toProcessScript(Output output) {
@@ -396,11 +471,15 @@ public class WindGateIoProcessor extends ExternalIoDescriptionProcessor {
             WindGateExporterDescription desc = extract(output.getDescription());
             add(exporters, desc.getProfileName(), output);
         }
+        Set<String> sessions = new TreeSet<>(importers.keySet());
+        sessions.retainAll(exporters.keySet());
+        sessions.addAll(getIncrementalProfiles(context.getInputs()));
         return new CommandProvider(
                 getEnvironment().getBatchId(),
                 getEnvironment().getFlowId(),
                 build(importers),
-                build(exporters));
+                build(exporters),
+                sessions);
     }
 
     private void add(Map<String, IoContextBuilder> targets, String target, Input input) {
@@ -461,16 +540,22 @@ public class WindGateIoProcessor extends ExternalIoDescriptionProcessor {
 
         private final Map<String, IoContext> exporters;
 
+        private final Set<String> sessions;
+
         CommandProvider(
-                String batchId, String flowId, Map<String, IoContext> importers, Map<String, IoContext> exporters) {
+                String batchId, String flowId,
+                Map<String, IoContext> importers, Map<String, IoContext> exporters,
+                Set<String> sessions) {
             assert batchId != null;
             assert flowId != null;
             assert importers != null;
             assert exporters != null;
+            assert sessions != null;
             this.batchId = batchId;
             this.flowId = flowId;
             this.importers = new TreeMap<>(importers);
             this.exporters = new TreeMap<>(exporters);
+            this.sessions = new TreeSet<>(sessions);
         }
 
         @Override
@@ -486,7 +571,7 @@ public class WindGateIoProcessor extends ExternalIoDescriptionProcessor {
                 List<String> commands = new ArrayList<>();
                 commands.add(context.getHomePathPrefix() + CMD_PROCESS);
                 commands.add(profile);
-                if (exporters.containsKey(profile)) {
+                if (sessions.contains(profile)) {
                     commands.add(OPT_BEGIN);
                 } else {
                     commands.add(OPT_ONESHOT);
@@ -509,13 +594,18 @@ public class WindGateIoProcessor extends ExternalIoDescriptionProcessor {
 
         @Override
         public List<Command> getExportCommand(CommandContext context) {
+            Map<String, IoContext> targets = new TreeMap<>(exporters);
+            for (String profile : sessions) {
+                // completes the session of incremental importers, which commits their watermarks
+                targets.putIfAbsent(profile, new IoContextBuilder().build());
+            }
             List<Command> results = new ArrayList<>();
-            for (Map.Entry<String, IoContext> entry : exporters.entrySet()) {
+            for (Map.Entry<String, IoContext> entry : targets.entrySet()) {
                 String profile = entry.getKey();
                 List<String> commands = new ArrayList<>();
                 commands.add(context.getHomePathPrefix() + CMD_PROCESS);
                 commands.add(profile);
-                if (importers.containsKey(profile)) {
+                if (sessions.contains(profile)) {
                     commands.add(OPT_END);
                 } else {
                     commands.add(OPT_ONESHOT);
@@ -22,7 +22,9 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -46,6 +48,7 @@ import com.asakusafw.windgate.core.DriverScript;
 import com.asakusafw.windgate.core.GateScript;
 import com.asakusafw.windgate.core.ProcessScript;
 import com.asakusafw.windgate.core.vocabulary.FileProcess;
+import com.asakusafw.windgate.core.vocabulary.JdbcProcess;
 
 /**
  * Test for {@link WindGateIoProcessor} with running Hadoop.
@@ -116,6 +119,48 @@ public class WindGateIoProcessorRunTest {
         assertThat(results.get(2).getValueAsString(), is("Hello3, world!"));
     }
 
+    /**
+     * split importer.
+     * @throws Exception if failed
+     */
+    @Test
+    public void split_importer() throws Exception {
+        Map<String, String> conf = new HashMap<>();
+        conf.put(JdbcProcess.SPLIT_COLUMN.key(), "VALUE");
+        conf.put(JdbcProcess.SPLIT_COUNT.key(), "2");
+        DriverScript source = new DriverScript(Constants.JDBC_RESOURCE_NAME, conf);
+        In<Simple> in = tester.input("in1", new Import(Simple.class, "testing", source));
+        Out<Simple> out = tester.output("out1", new Export(Simple.class, "testing", dummy("dummy")));
+
+        JobflowInfo info = tester.compileFlow(new IdentityFlow<>(in, out));
+
+        GateScript importerScript = loadScript(info, "testing", true);
+        assertThat(importerScript.getProcesses().size(), is(2));
+        for (int i = 0; i < 2; i++) {
+            ProcessScript<?> importer = getProcess(importerScript, "in1-" + i);
+            Map<String, String> sourceConf = importer.getSourceScript().getConfiguration();
+            assertThat(sourceConf.get(JdbcProcess.SPLIT_INDEX.key()), is(String.valueOf(i)));
+            String importerPath = importer.getDrainScript().getConfiguration().get(FileProcess.FILE.key());
+            try (ModelOutput<Simple> output = tester.openOutput(Simple.class, Location.fromPath(importerPath, '/'))) {
+                Simple model = new Simple();
+                model.setValueAsString("Hello" + i);
+                output.write(model);
+            }
+        }
+
+        GateScript exporterScript = loadScript(info, "testing", false);
+        ProcessScript<?> exporter = getProcess(exporterScript, "out1");
+        String exporterPath = exporter.getSourceScript().getConfiguration().get(FileProcess.FILE.key());
+
+        assertThat(tester.runStages(info), is(true));
+
+        List<Simple> results = tester.getList(Simple.class, Location.fromPath(exporterPath, '/'));
+        assertThat(results.size(), is(2));
+        Collections.sort(results, (o1, o2) -> o1.getValueOption().compareTo(o2.getValueOption()));
+        assertThat(results.get(0).getValueAsString(), is("Hello0"));
+        assertThat(results.get(1).getValueAsString(), is("Hello1"));
+    }
+
     private GateScript loadScript(JobflowInfo info, String profile, boolean importer) throws IOException {
         File file = info.getPackageFile();
         try (ZipFile zip = new ZipFile(file)) {
@@ -21,6 +21,7 @@ import static org.junit.Assert.*;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.zip.ZipFile;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -38,9 +39,11 @@ import com.asakusafw.compiler.windgate.testing.model.Simple;
 import com.asakusafw.vocabulary.flow.FlowDescription;
 import com.asakusafw.vocabulary.flow.In;
 import com.asakusafw.vocabulary.flow.Out;
+import com.asakusafw.vocabulary.windgate.Constants;
 import com.asakusafw.vocabulary.windgate.WindGateExporterDescription;
 import com.asakusafw.vocabulary.windgate.WindGateImporterDescription;
 import com.asakusafw.windgate.core.DriverScript;
+import com.asakusafw.windgate.core.vocabulary.JdbcProcess;
 
 /**
  * Test for {@link WindGateIoProcessor}.
@@ -114,6 +117,42 @@ public class WindGateIoProcessorTest {
         assertThat(find(finalizer, "other"), is(notNullValue()));
     }
 
+    /**
+     * Incremental importer without exporters in the same profile.
+     * @throws Exception if failed
+     */
+    @Test
+    public void incremental_importer() throws Exception {
+        FlowDescriptionDriver flow = new FlowDescriptionDriver();
+        In<Simple> in = flow.createIn("in1", new Import(Simple.class, "testing", incremental()));
+        Out<Simple> out = flow.createOut("out1", new Export(Simple.class, "other", dummy()));
+
+        FlowDescription desc = new IdentityFlow<>(in, out);
+
+        JobflowInfo info = compile(flow, desc);
+        assertThat(info, not(nullValue()));
+        List<ExternalIoCommandProvider> commands = info.getCommandProviders();
+        ExternalIoCommandProvider provider = WindGateIoProcessor.findRelated(commands);
+        assertThat(provider, not(nullValue()));
+
+        CommandContext context = new CommandContext("home", "id", "");
+        List<Command> importer = provider.getImportCommand(context);
+        List<Command> exporter = provider.getExportCommand(context);
+        List<Command> finalizer = provider.getFinalizeCommand(context);
+        assertThat(importer.size(), is(1));
+        assertThat(exporter.size(), is(2));
+        assertThat(finalizer.size(), is(2));
+
+        // the watermark must be committed in the epilogue, not just after the prologue
+        assertThat(mode(importer, "testing"), is(WindGateIoProcessor.OPT_BEGIN));
+        assertThat(mode(exporter, "testing"), is(WindGateIoProcessor.OPT_END));
+        assertThat(mode(exporter, "other"), is(WindGateIoProcessor.OPT_ONESHOT));
+        assertThat(info.getPackageFile(), is(notNullValue()));
+        try (ZipFile zip = new ZipFile(info.getPackageFile())) {
+            assertThat(zip.getEntry(WindGateIoProcessor.getScriptLocation(false, "testing")), is(notNullValue()));
+        }
+    }
+
     /**
      * Multiple I/O with same profile.
      * @throws Exception if failed
@@ -385,6 +424,12 @@ public class WindGateIoProcessorTest {
         return new DriverScript("example", Collections.emptyMap());
     }
 
+    private DriverScript incremental() {
+        return new DriverScript(
+                Constants.JDBC_RESOURCE_NAME,
+                Collections.singletonMap(JdbcProcess.WATERMARK_COLUMN.key(), "VALUE"));
+    }
+
     static final class Import extends WindGateImporterDescription {
 
         private final Class<?> modelType;
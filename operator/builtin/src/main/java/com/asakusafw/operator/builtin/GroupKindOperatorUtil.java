@@ -29,6 +29,9 @@ final class GroupKindOperatorUtil {
 
     static final ClassDescription TYPE_SPILL = new ClassDescription("com.asakusafw.vocabulary.model.Spill"); //$NON-NLS-1$
 
+    static final ClassDescription TYPE_OFF_HEAP =
+            new ClassDescription("com.asakusafw.vocabulary.model.OffHeap"); //$NON-NLS-1$
+
     private static final ClassDescription TYPE_INPUT_BUFFER =
             new ClassDescription("com.asakusafw.vocabulary.flow.processor.InputBuffer"); //$NON-NLS-1$
 
@@ -47,6 +50,9 @@ final class GroupKindOperatorUtil {
     private static final EnumConstantDescription BUFFER_TYPE_VOLATILE =
             new EnumConstantDescription(TYPE_BUFFER_TYPE, "VOLATILE"); //$NON-NLS-1$
 
+    private static final EnumConstantDescription BUFFER_TYPE_OFFHEAP =
+            new EnumConstantDescription(TYPE_BUFFER_TYPE, "OFFHEAP"); //$NON-NLS-1$
+
     private GroupKindOperatorUtil() {
         return;
     }
@@ -62,11 +68,15 @@ final class GroupKindOperatorUtil {
          *   -        (Once) : VOLATILE
          *   -       (Spill) : SPILL
          *   - (Once, Spill) : VOLATILE
+         *   -     (OffHeap) : OFFHEAP
          * - inputBuffer = ESCAPE
          *   -            () : SPILL
          *   -        (Once) : VOLATILE
          *   -       (Spill) : SPILL
          *   - (Once, Spill) : VOLATILE
+         *   -     (OffHeap) : OFFHEAP
+         * - (Once, OffHeap) : VOLATILE
+         * - (Spill, OffHeap) : OFFHEAP
          */
         TypeRef type = parameter.type();
         AnnotationRef once = parameter.annotation(TYPE_ONCE);
@@ -78,6 +88,10 @@ final class GroupKindOperatorUtil {
                 return BUFFER_TYPE_VOLATILE;
             }
         }
+        AnnotationRef offHeap = parameter.annotation(TYPE_OFF_HEAP);
+        if (offHeap != null) {
+            return BUFFER_TYPE_OFFHEAP;
+        }
         AnnotationRef spill = parameter.annotation(TYPE_SPILL);
         if (spill != null || parent.equals(INPUT_BUFFER_ESCAPE)) {
             return BUFFER_TYPE_SPILL;
@@ -361,6 +361,32 @@ public class CoGroupOperatorDriverTest extends OperatorDriverTestRoot {
         });
     }
 
+    /**
+     * w/ off-heap buffer types.
+     */
+    @Test
+    public void with_buffer_type_offheap() {
+        compile(new Action("com.example.WithBufferTypeOffHeap") {
+            @Override
+            protected void perform(OperatorElement target) {
+                OperatorDescription description = target.getDescription();
+                assertThat(description.getInputs().size(), is(3));
+
+                Node in0 = description.getInputs().get(0);
+                assertThat(in0.getName(), is("in0"));
+                assertThat(in0.getAttributes(), hasItem(Descriptions.valueOf(BufferType.OFFHEAP)));
+
+                Node in1 = description.getInputs().get(1);
+                assertThat(in1.getName(), is("in1"));
+                assertThat(in1.getAttributes(), hasItem(Descriptions.valueOf(BufferType.OFFHEAP)));
+
+                Node in2 = description.getInputs().get(2);
+                assertThat(in2.getName(), is("in2"));
+                assertThat(in2.getAttributes(), hasItem(Descriptions.valueOf(BufferType.VOLATILE)));
+            }
+        });
+    }
+
     /**
      * violates method is not abstract.
      */
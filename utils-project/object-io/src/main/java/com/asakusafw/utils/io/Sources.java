@@ -15,7 +15,6 @@
  */
 package com.asakusafw.utils.io;
 
-import java.io.Closeable;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -26,7 +25,7 @@ import java.util.NoSuchElementException;
 /**
  * Utilities about {@link Source}.
  * @since 0.6.0
- * @version 0.7.1
+ * @version 0.9.2
  */
 public final class Sources {
 
@@ -205,109 +204,120 @@ public final class Sources {
             Source<T> source = (Source<T>) sortedSources.get(0);
             return source;
         }
-        return new HeapSource<>(sortedSources, comparator);
+        return new LoserTreeSource<>(sortedSources, comparator);
     }
 
-    private static final class HeapSource<T> implements Source<T> {
+    /**
+     * Merges sorted sources using a tournament tree of losers.
+     * Each step requires only one comparison per tree level.
+     * @param <T> the element type
+     */
+    private static final class LoserTreeSource<T> implements Source<T> {
+
+        private final Source<? extends T>[] sources;
 
-        private final HeapElement<T>[] heap;
+        private final Object[] values;
+
+        // tree[0] - the current winner, tree[1..] - the losers of each match
+        private final int[] tree;
 
         private final Comparator<? super T> comparator;
 
         private boolean firstTime = true;
 
         @SuppressWarnings("unchecked")
-        HeapSource(
+        LoserTreeSource(
                 List<? extends Source<? extends T>> sortedSources,
                 Comparator<? super T> comparator) {
             assert sortedSources.isEmpty() == false;
-            this.heap = new HeapElement[sortedSources.size()];
+            this.sources = sortedSources.toArray(new Source[sortedSources.size()]);
+            this.values = new Object[sources.length];
+            this.tree = new int[sources.length];
             this.comparator = comparator;
-            for (int i = 0; i < heap.length; i++) {
-                this.heap[i] = new HeapElement<>(sortedSources.get(i));
-            }
         }
 
         @Override
         public boolean next() throws IOException, InterruptedException {
-            HeapElement<T>[] h = heap;
+            int[] t = tree;
             if (firstTime) {
                 firstTime = false;
-                for (int i = 0; i < h.length; i++) {
-                    h[i].fill();
+                int size = sources.length;
+                for (int i = 0; i < size; i++) {
+                    fill(i);
                 }
-                for (int i = h.length / 2; i >= 0; i--) {
-                    shiftDown(i);
+                // the virtual entry "size" always wins until it is replaced by the actual entries
+                Arrays.fill(t, size);
+                for (int i = size - 1; i >= 0; i--) {
+                    replay(i);
                 }
             } else {
-                h[0].fill();
-                shiftDown(0);
+                int winner = t[0];
+                fill(winner);
+                replay(winner);
             }
-            return h[0].value != null;
+            return values[t[0]] != null;
         }
 
-        private void shiftDown(int i) {
-            HeapElement<T>[] h = heap;
-            int length = h.length;
-            int current = i;
-            while (true) {
-                int left = (current << 1) + 1;
-                int right = left + 1;
-                if (left < length && isViolate(h[current], h[left])) {
-                    if (right < length && isViolate(h[left], h[right])) {
-                        swap(current, right);
-                        current = right;
-                    } else {
-                        swap(current, left);
-                        current = left;
-                    }
-                } else {
-                    if (right < length && isViolate(h[current], h[right])) {
-                        swap(current, right);
-                        current = right;
-                    } else {
-                        break;
-                    }
-                }
+        private void fill(int index) throws IOException, InterruptedException {
+            Source<? extends T> source = sources[index];
+            if (source.next()) {
+                values[index] = source.get();
+            } else {
+                values[index] = null;
             }
         }
 
-        private boolean isViolate(HeapElement<T> parent, HeapElement<T> node) {
-            T v1 = parent.value;
-            T v2 = node.value;
-            if (v1 == null) {
-                if (v2 == null) {
-                    return false;
+        private void replay(int index) {
+            int[] t = tree;
+            int winner = index;
+            for (int node = (index + t.length) >> 1; node > 0; node >>= 1) {
+                int other = t[node];
+                if (wins(other, winner)) {
+                    t[node] = winner;
+                    winner = other;
                 }
-                return true;
-            } else if (v2 == null) {
-                return false;
             }
-            return comparator.compare(v1, v2) > 0;
+            t[0] = winner;
         }
 
-        private void swap(int i, int j) {
-            HeapElement<T>[] h = heap;
-            HeapElement<T> t = h[i];
-            h[i] = h[j];
-            h[j] = t;
+        @SuppressWarnings("unchecked")
+        private boolean wins(int a, int b) {
+            int size = sources.length;
+            if (a == size) {
+                return true;
+            } else if (b == size) {
+                return false;
+            }
+            Object v1 = values[a];
+            Object v2 = values[b];
+            if (v1 == null) {
+                return false;
+            } else if (v2 == null) {
+                return true;
+            }
+            int diff = comparator.compare((T) v1, (T) v2);
+            return diff < 0 || (diff == 0 && a < b);
         }
 
+        @SuppressWarnings("unchecked")
         @Override
         public T get() {
-            HeapElement<T> top = heap[0];
-            if (firstTime || top.value == null) {
+            if (firstTime) {
                 throw new NoSuchElementException();
             }
-            return top.value;
+            Object top = values[tree[0]];
+            if (top == null) {
+                throw new NoSuchElementException();
+            }
+            return (T) top;
         }
 
         @Override
         public void close() throws IOException {
             IOException firstException = null;
-            for (HeapElement<T> element : heap) {
+            for (Source<? extends T> source : sources) {
                 try {
-                    element.close();
+                    source.close();
                 } catch (IOException e) {
                     if (firstException == null) {
                         firstException = e;
@@ -321,36 +331,7 @@ public final class Sources {
 
         @Override
         public String toString() {
-            return Arrays.toString(heap);
-        }
-    }
-
-    private static final class HeapElement<T> implements Closeable {
-
-        private final Source<? extends T> source;
-
-        T value;
-
-        HeapElement(Source<? extends T> source) {
-            this.source = source;
-        }
-
-        void fill() throws IOException, InterruptedException {
-            if (source.next()) {
-                value = source.get();
-            } else {
-                value = null;
-            }
-        }
-
-        @Override
-        public void close() throws IOException {
-            source.close();
-        }
-
-        @Override
-        public String toString() {
-            return String.valueOf(value);
+            return Arrays.toString(values);
         }
     }
 }
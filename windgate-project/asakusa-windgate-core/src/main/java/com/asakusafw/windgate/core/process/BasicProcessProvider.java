@@ -16,6 +16,7 @@
 package com.asakusafw.windgate.core.process;
 
 import java.io.IOException;
+import java.text.MessageFormat;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,10 +34,11 @@ import com.asakusafw.windgate.core.util.SafeCloser;
 
 /**
  * A plain implementation of {@link ProcessProvider}.
- * This provider ignores any configurations specified in profile,
- * and performs as a default gate process.
+ * This provider performs as a default gate process.
+ * If {@link #KEY_PIPELINE_BUFFER_SIZE} is specified in profile, this reads objects from the source and writes them
+ * into the drain on individual threads.
  * @since 0.2.2
- * @version 0.4.0
+ * @version 0.9.2
  */
 @SimulationSupport
 public class BasicProcessProvider extends ProcessProvider {
@@ -45,9 +47,47 @@ public class BasicProcessProvider extends ProcessProvider {
 
     static final Logger LOG = LoggerFactory.getLogger(BasicProcessProvider.class);
 
+    /**
+     * The profile key name of the number of buffered objects between the source and the drain.
+     * If this is positive, the source and the drain are processed on individual threads.
+     * This is only available for the data model classes which implement
+     * {@link com.asakusafw.runtime.model.DataModel}.
+     * @since 0.9.2
+     */
+    public static final String KEY_PIPELINE_BUFFER_SIZE = "pipelineBufferSize";
+
+    /**
+     * The default value of {@link #KEY_PIPELINE_BUFFER_SIZE} (pipelined transfer is disabled).
+     * @since 0.9.2
+     */
+    public static final int DEFAULT_PIPELINE_BUFFER_SIZE = 0;
+
+    private int pipelineBufferSize = DEFAULT_PIPELINE_BUFFER_SIZE;
+
     @Override
     protected void configure(ProcessProfile profile) {
-        return;
+        String value = profile.getConfiguration().get(KEY_PIPELINE_BUFFER_SIZE);
+        if (value == null) {
+            return;
+        }
+        int size;
+        try {
+            size = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            size = -1;
+        }
+        if (size < 0) {
+            WGLOG.error("E05005",
+                    profile.getName(),
+                    KEY_PIPELINE_BUFFER_SIZE,
+                    value);
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "Invalid process profile: key={1}, value={2} (process={0})",
+                    profile.getName(),
+                    KEY_PIPELINE_BUFFER_SIZE,
+                    value));
+        }
+        this.pipelineBufferSize = size;
     }
 
     @Override
@@ -144,6 +184,17 @@ public class BasicProcessProvider extends ProcessProvider {
         });
         long count = 0;
         if (RuntimeContext.get().canExecute(source) && RuntimeContext.get().canExecute(drain)) {
+            if (pipelineBufferSize > 0) {
+                if (PipelinedTransfer.isSupported(script.getDataClass())) {
+                    LOG.debug("Starting pipelined transfer (buffer={}) in process \"{}\"", //$NON-NLS-1$
+                            pipelineBufferSize,
+                            script.getName());
+                    return new PipelinedTransfer<>(script, pipelineBufferSize).transfer(source, drain);
+                }
+                WGLOG.warn("W05001",
+                        script.getName(),
+                        script.getDataClass().getName());
+            }
             while (source.next()) {
                 T obj = source.get();
                 drain.put(obj);
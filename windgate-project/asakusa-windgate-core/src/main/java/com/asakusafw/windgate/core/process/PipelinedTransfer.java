@@ -0,0 +1,204 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.windgate.core.process;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.asakusafw.runtime.model.DataModel;
+import com.asakusafw.windgate.core.ProcessScript;
+import com.asakusafw.windgate.core.WindGateCoreLogger;
+import com.asakusafw.windgate.core.WindGateLogger;
+import com.asakusafw.windgate.core.resource.DrainDriver;
+import com.asakusafw.windgate.core.resource.SourceDriver;
+import com.asakusafw.windgate.core.util.ProcessUtil;
+
+/**
+ * Transfers objects from a source driver to a drain driver using a reader thread and a writer thread.
+ * The objects are copied into a bounded ring of pre-allocated data model objects, and then they are passed to
+ * the writer thread.
+ * @param <T> the data model type
+ * @since 0.9.2
+ */
+final class PipelinedTransfer<T> {
+
+    static final WindGateLogger WGLOG = new WindGateCoreLogger(PipelinedTransfer.class);
+
+    static final Logger LOG = LoggerFactory.getLogger(PipelinedTransfer.class);
+
+    private static final Object END_OF_DATA = new Object();
+
+    private final ProcessScript<T> script;
+
+    private final BlockingQueue<Object> free;
+
+    private final BlockingQueue<Object> filled;
+
+    private final AtomicReference<Throwable> sourceFailure = new AtomicReference<>();
+
+    private volatile long sourceCount;
+
+    private volatile long sourceStallNanos;
+
+    private long drainCount;
+
+    private long drainStallNanos;
+
+    /**
+     * Creates a new instance.
+     * @param script the target process script
+     * @param bufferSize the number of pre-allocated data model objects
+     * @throws IOException if failed to create data model objects
+     */
+    PipelinedTransfer(ProcessScript<T> script, int bufferSize) throws IOException {
+        assert script != null;
+        assert bufferSize > 0;
+        this.script = script;
+        this.free = new ArrayBlockingQueue<>(bufferSize);
+        this.filled = new ArrayBlockingQueue<>(bufferSize + 1);
+        for (int i = 0; i < bufferSize; i++) {
+            free.add(ProcessUtil.newDataModel(script.getSourceScript().getResourceName(), script));
+        }
+    }
+
+    /**
+     * Returns whether or not the pipelined transfer supports the given data model type.
+     * @param dataClass the data model type
+     * @return {@code true} if it is supported, otherwise {@code false}
+     */
+    static boolean isSupported(Class<?> dataClass) {
+        return DataModel.class.isAssignableFrom(dataClass);
+    }
+
+    /**
+     * Transfers all objects from the source into the drain.
+     * @param source the source driver
+     * @param drain the drain driver
+     * @return the number of transferred objects
+     * @throws IOException if failed to transfer objects
+     */
+    long transfer(SourceDriver<T> source, DrainDriver<T> drain) throws IOException {
+        long start = System.nanoTime();
+        Thread reader = new Thread(
+                () -> read(source),
+                String.format("WindGate-%s-reader", script.getName())); //$NON-NLS-1$
+        reader.setDaemon(true);
+        reader.start();
+        boolean succeeded = false;
+        try {
+            write(drain);
+            succeeded = true;
+        } finally {
+            if (succeeded == false) {
+                reader.interrupt();
+            }
+            join(reader);
+        }
+        long elapsed = System.nanoTime() - start;
+        WGLOG.info("I05002",
+                script.getName(),
+                script.getSourceScript().getResourceName(),
+                script.getDrainScript().getResourceName(),
+                throughput(sourceCount, elapsed - sourceStallNanos),
+                TimeUnit.NANOSECONDS.toMillis(sourceStallNanos),
+                throughput(drainCount, elapsed - drainStallNanos),
+                TimeUnit.NANOSECONDS.toMillis(drainStallNanos));
+        return drainCount;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void read(SourceDriver<T> source) {
+        try {
+            long stall = 0;
+            long count = 0;
+            while (source.next()) {
+                T object = source.get();
+                long begin = System.nanoTime();
+                Object slot = free.take();
+                stall += System.nanoTime() - begin;
+                ((DataModel) slot).copyFrom((DataModel) object);
+                filled.put(slot);
+                count++;
+                sourceCount = count;
+                sourceStallNanos = stall;
+            }
+        } catch (InterruptedException e) {
+            LOG.debug("Pipelined transfer reader was interrupted: {}", script.getName(), e); //$NON-NLS-1$
+            sourceFailure.compareAndSet(null, e);
+        } catch (Throwable e) {
+            sourceFailure.compareAndSet(null, e);
+        } finally {
+            // filled queue has an extra room for the end marker
+            filled.add(END_OF_DATA);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void write(DrainDriver<T> drain) throws IOException {
+        try {
+            while (true) {
+                long begin = System.nanoTime();
+                Object slot = filled.take();
+                drainStallNanos += System.nanoTime() - begin;
+                if (slot == END_OF_DATA) {
+                    break;
+                }
+                drain.put((T) slot);
+                drainCount++;
+                free.put(slot);
+            }
+        } catch (InterruptedException e) {
+            throw (IOException) new InterruptedIOException().initCause(e);
+        }
+        Throwable failure = sourceFailure.get();
+        if (failure != null) {
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            } else if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            } else if (failure instanceof InterruptedException) {
+                throw (IOException) new InterruptedIOException().initCause(failure);
+            } else {
+                throw new IOException(failure);
+            }
+        }
+    }
+
+    private static void join(Thread thread) throws IOException {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            thread.interrupt();
+            throw (IOException) new InterruptedIOException().initCause(e);
+        }
+    }
+
+    private static long throughput(long count, long nanos) {
+        if (nanos <= 0) {
+            return count;
+        }
+        return (long) (count / (nanos / (double) TimeUnit.SECONDS.toNanos(1)));
+    }
+}
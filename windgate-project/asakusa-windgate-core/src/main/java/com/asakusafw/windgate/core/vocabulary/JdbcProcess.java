@@ -18,7 +18,7 @@ package com.asakusafw.windgate.core.vocabulary;
 /**
  * WindGate database resource configuration.
  * @since 0.2.2
- * @version 0.9.0
+ * @version 0.9.2
  */
 public enum JdbcProcess implements ConfigurationItem {
 
@@ -83,6 +83,58 @@ public enum JdbcProcess implements ConfigurationItem {
             "operation",
             "Target operation kind"
     ),
+
+    /**
+     * The script key of the column name or expression to split the source (for sources).
+     * The column must not be modified while the source is being read.
+     * @see #SPLIT_COUNT
+     * @since 0.9.2
+     */
+    SPLIT_COLUMN(
+            "splitColumn", //$NON-NLS-1$
+            "The column name or expression to split the source"
+    ),
+
+    /**
+     * The script key of the number of splits (for sources).
+     * Splitting is disabled if this is not specified or less than {@code 2}.
+     * @since 0.9.2
+     */
+    SPLIT_COUNT(
+            "splitCount", //$NON-NLS-1$
+            "The number of splits"
+    ),
+
+    /**
+     * The script key of the split kind (for sources).
+     * @see SplitKind
+     * @since 0.9.2
+     */
+    SPLIT_KIND(
+            "splitKind", //$NON-NLS-1$
+            "The split kind"
+    ),
+
+    /**
+     * The script key of the split index in the source (for sources).
+     * If this is not specified, the source is not split even if {@link #SPLIT_COUNT} is specified.
+     * @since 0.9.2
+     */
+    SPLIT_INDEX(
+            "splitIndex", //$NON-NLS-1$
+            "The split index (0-origin)"
+    ),
+
+    /**
+     * The script key of the watermark column (for sources).
+     * If this is specified, the source only fetches rows whose column value is greater than
+     * the last imported value.
+     * @since 0.9.2
+     */
+    WATERMARK_COLUMN(
+            "watermarkColumn", //$NON-NLS-1$
+            "The watermark column for incremental import"
+    ),
     ;
 
     private final String key;
@@ -171,4 +223,49 @@ public enum JdbcProcess implements ConfigurationItem {
             }
         }
     }
+
+    /**
+     * The source split kinds.
+     * @since 0.9.2
+     */
+    public enum SplitKind {
+
+        /**
+         * Splits the source into contiguous ranges between the minimum and maximum value of the split column.
+         * The split column must be a numeric or temporal type.
+         */
+        RANGE,
+
+        /**
+         * Splits the source by the remainder of the split column divided by the number of splits.
+         * The split column must be an integral expression.
+         */
+        MODULO,
+        ;
+
+        /**
+         * Returns the value representation of this kind.
+         * @return the value representation of this
+         */
+        public String value() {
+            return name().toLowerCase();
+        }
+
+        /**
+         * Returns the corresponded kind to the value representation.
+         * @param value target representation
+         * @return the corresponded kind, or {@code null} if not found
+         * @throws IllegalArgumentException if some parameters were {@code null}
+         */
+        public static SplitKind find(String value) {
+            if (value == null) {
+                throw new IllegalArgumentException("value must not be null"); //$NON-NLS-1$
+            }
+            try {
+                return SplitKind.valueOf(value.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
 }
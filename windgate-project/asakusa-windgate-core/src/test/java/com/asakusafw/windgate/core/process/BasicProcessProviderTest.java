@@ -19,9 +19,13 @@ import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -29,6 +33,7 @@ import org.junit.Test;
 import com.asakusafw.runtime.core.context.RuntimeContext;
 import com.asakusafw.runtime.core.context.RuntimeContext.ExecutionMode;
 import com.asakusafw.runtime.core.context.RuntimeContextKeeper;
+import com.asakusafw.runtime.model.DataModel;
 import com.asakusafw.windgate.core.DriverScript;
 import com.asakusafw.windgate.core.ProcessScript;
 import com.asakusafw.windgate.core.ProfileContext;
@@ -172,7 +177,162 @@ public class BasicProcessProviderTest {
         provider.execute(factory, script); // no exceptions
     }
 
+    /**
+     * pipelined transfer.
+     * @throws IOException if failed
+     */
+    @Test
+    public void execute_pipelined() throws IOException {
+        BasicProcessProvider pipelined = pipelined("4");
+        MockDriverFactory factory = new MockDriverFactory();
+        MockSourceDriver<Value> source = factory.add("testing", new MockSourceDriver<Value>("source"));
+        List<String> results = new ArrayList<>();
+        factory.add("testing", new MockDrainDriver<Value>("drain") {
+            @Override
+            public void put(Value object) throws IOException {
+                results.add(object.value);
+            }
+        });
+        ProcessScript<Value> script = new ProcessScript<>(
+                "testing", "plain", Value.class, driver("source"), driver("drain"));
+
+        List<String> data = IntStream.range(0, 1000)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.toList());
+        source.setIterable(reuse(data));
+        pipelined.execute(factory, script);
+
+        assertThat(results, is(data));
+    }
+
+    /**
+     * pipelined transfer w/ unsupported data model type.
+     * @throws IOException if failed
+     */
+    @Test
+    public void execute_pipelined_unsupported() throws IOException {
+        BasicProcessProvider pipelined = pipelined("4");
+        MockDriverFactory factory = new MockDriverFactory();
+        MockSourceDriver<String> source = factory.add("testing", new MockSourceDriver<String>("source"));
+        MockDrainDriver<String> drain = factory.add("testing", new MockDrainDriver<String>("drain"));
+        ProcessScript<String> script = new ProcessScript<>(
+                "testing", "plain", String.class, driver("source"), driver("drain"));
+
+        List<String> data = Arrays.asList("Hello", "world", "!");
+        source.setIterable(data);
+        pipelined.execute(factory, script);
+
+        assertThat(drain.getResults(), is(data));
+    }
+
+    /**
+     * pipelined transfer w/ broken source.
+     * @throws IOException expected
+     */
+    @Test(expected = IOException.class)
+    public void execute_pipelined_source_failed() throws IOException {
+        BasicProcessProvider pipelined = pipelined("2");
+        MockDriverFactory factory = new MockDriverFactory();
+        factory.add("testing", new MockSourceDriver<Value>("source") {
+            int count = 0;
+            @Override
+            public boolean next() throws IOException {
+                if (count++ >= 10) {
+                    throw new IOException();
+                }
+                return true;
+            }
+            @Override
+            public Value get() throws IOException {
+                return new Value();
+            }
+        });
+        factory.add("testing", new MockDrainDriver<Value>("drain"));
+        ProcessScript<Value> script = new ProcessScript<>(
+                "testing", "plain", Value.class, driver("source"), driver("drain"));
+
+        pipelined.execute(factory, script);
+    }
+
+    /**
+     * pipelined transfer w/ broken drain.
+     * @throws IOException expected
+     */
+    @Test(expected = IOException.class)
+    public void execute_pipelined_drain_failed() throws IOException {
+        BasicProcessProvider pipelined = pipelined("2");
+        MockDriverFactory factory = new MockDriverFactory();
+        MockSourceDriver<Value> source = factory.add("testing", new MockSourceDriver<Value>("source"));
+        factory.add("testing", new MockDrainDriver<Value>("drain") {
+            @Override
+            public void put(Value object) throws IOException {
+                throw new IOException();
+            }
+        });
+        ProcessScript<Value> script = new ProcessScript<>(
+                "testing", "plain", Value.class, driver("source"), driver("drain"));
+
+        source.setIterable(reuse(IntStream.range(0, 1000)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.toList())));
+        pipelined.execute(factory, script);
+    }
+
+    /**
+     * invalid pipeline buffer size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void configure_invalid_pipeline() {
+        pipelined("?");
+    }
+
+    private static BasicProcessProvider pipelined(String bufferSize) {
+        BasicProcessProvider result = new BasicProcessProvider();
+        result.configure(new ProcessProfile(
+                "plain",
+                BasicProcessProvider.class,
+                ProfileContext.system(BasicProcessProvider.class.getClassLoader()),
+                Collections.singletonMap(BasicProcessProvider.KEY_PIPELINE_BUFFER_SIZE, bufferSize)));
+        return result;
+    }
+
+    private static Iterable<Value> reuse(List<String> values) {
+        return () -> {
+            Iterator<String> iter = values.iterator();
+            Value buffer = new Value();
+            return new Iterator<Value>() {
+                @Override
+                public boolean hasNext() {
+                    return iter.hasNext();
+                }
+                @Override
+                public Value next() {
+                    buffer.value = iter.next();
+                    return buffer;
+                }
+            };
+        };
+    }
+
     private DriverScript driver(String name) {
         return new DriverScript(name, Collections.emptyMap());
     }
+
+    /**
+     * A data model for testing.
+     */
+    public static final class Value implements DataModel<Value> {
+
+        String value;
+
+        @Override
+        public void reset() {
+            value = null;
+        }
+
+        @Override
+        public void copyFrom(Value other) {
+            value = other.value;
+        }
+    }
 }
@@ -23,7 +23,9 @@ import java.io.OutputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.hadoop.conf.Configuration;
@@ -53,7 +55,10 @@ import com.asakusafw.windgate.hadoopfs.temporary.ModelOutputDrainDriver;
 /**
  * An abstract implementation of {@link ResourceMirror} using Hadoop File System via SSH connection.
  * @since 0.2.2
+ * @version 0.9.2
  * @see FileProcess
+ * @see SshProfile#getTransferCompression()
+ * @see SshProfile#getTransferChannels()
  */
 public abstract class AbstractSshHadoopFsMirror extends ResourceMirror {
 
@@ -121,26 +126,61 @@ public abstract class AbstractSshHadoopFsMirror extends ResourceMirror {
                 script.getName());
         List<String> path = getPath(script, DriverScript.Kind.SOURCE);
         T value = newDataModel(script);
-        SshConnection connection = openGet(path);
+        int channels = profile.getTransferChannels();
+        List<SshConnection> connections = new ArrayList<>();
         boolean succeeded = false;
         try {
-            InputStream output = connection.openStandardOutput();
-            connection.connect();
-            FileList.Reader fileList = FileList.createReader(output);
-            ModelInputProvider<T> provider = new FileListModelInputProvider<>(
-                    configuration, fileList, script.getDataClass());
-            ModelInputSourceDriver<T> result = new SshSourceDriver<>(provider, value, script, connection, path);
+            for (int i = 0; i < channels; i++) {
+                connections.add(openGet(path, i, channels));
+            }
+            List<InputStream> outputs = new ArrayList<>();
+            for (SshConnection connection : connections) {
+                outputs.add(connection.openStandardOutput());
+                connection.connect();
+            }
+            List<FileList.Reader> fileLists = new ArrayList<>();
+            for (InputStream output : outputs) {
+                fileLists.add(FileList.createReader(output));
+            }
+            ModelInputProvider<T> provider;
+            if (channels == 1) {
+                provider = new FileListModelInputProvider<>(configuration, fileLists.get(0), script.getDataClass());
+            } else {
+                for (int i = 0; i < channels; i++) {
+                    FileList.Reader fileList = fileLists.get(i);
+                    if (fileList.getPartitionIndex() != i || fileList.getPartitionCount() != channels) {
+                        WGLOG.error("E13002",
+                                profile.getResourceName(),
+                                script.getName(),
+                                path);
+                        throw new IOException(MessageFormat.format(
+                                "Remote command does not support multiplexed transfer: {2} (resource={0}, process={1})",
+                                profile.getResourceName(),
+                                script.getName(),
+                                path));
+                    }
+                }
+                LOG.debug("Receiving files via {} connections (resource={}, process={})", new Object[] {
+                        channels,
+                        getName(),
+                        script.getName(),
+                });
+                provider = new ParallelFileListModelInputProvider<>(configuration, fileLists, script.getDataClass());
+            }
+            ModelInputSourceDriver<T> result = new SshSourceDriver<>(provider, value, script, connections, path);
             succeeded = true;
             return result;
         } finally {
             if (succeeded == false) {
-                try {
-                    connection.close();
-                } catch (IOException e) {
-                    WGLOG.warn(e, "W13001",
-                            profile.getResourceName(),
-                            script.getName(),
-                            path);
+                for (SshConnection connection : connections) {
+                    try {
+                        connection.close();
+                    } catch (IOException e) {
+                        WGLOG.warn(e, "W13001",
+                                profile.getResourceName(),
+                                script.getName(),
+                                path);
+                    }
                 }
             }
         }
@@ -160,7 +200,10 @@ public abstract class AbstractSshHadoopFsMirror extends ResourceMirror {
         try {
             OutputStream input = connection.openStandardInput();
             connection.connect();
-            FileList.Writer fileList = FileList.createWriter(input);
+            FileList.Compression compression = profile.getTransferCompression();
+            FileList.Writer fileList = compression == FileList.Compression.NONE
+                    ? FileList.createWriter(input)
+                    : FileList.createWriter(input, compression);
             ModelOutput<T> output = TemporaryStorage.openOutput(
                     configuration,
                     script.getDataClass(),
@@ -182,12 +225,20 @@ public abstract class AbstractSshHadoopFsMirror extends ResourceMirror {
         }
     }
 
-    private SshConnection openGet(List<String> paths) throws IOException {
+    private SshConnection openGet(List<String> paths, int partitionIndex, int partitionCount) throws IOException {
         assert paths != null;
         List<String> tokens = new ArrayList<>();
         tokens.add(profile.getGetCommand());
         tokens.addAll(paths);
-        SshConnection connection = openConnection(profile, tokens);
+        Map<String, String> options = new LinkedHashMap<>();
+        if (profile.getTransferCompression() != FileList.Compression.NONE) {
+            options.put(WindGateHadoopGet.ENV_COMPRESSION, profile.getTransferCompression().getSymbol());
+        }
+        if (partitionCount > 1) {
+            options.put(WindGateHadoopGet.ENV_PARTITION, partitionIndex + "/" + partitionCount); //$NON-NLS-1$
+        }
+        SshProfile target = options.isEmpty() ? profile : profile.withEnvironmentVariables(options);
+        SshConnection connection = openConnection(target, tokens);
         boolean succeed = false;
         try {
             connection.openStandardInput().close();
@@ -330,7 +381,7 @@ public abstract class AbstractSshHadoopFsMirror extends ResourceMirror {
 
         private final ProcessScript<T> script;
 
-        private final SshConnection connection;
+        private final List<SshConnection> connections;
 
         private final List<String> path;
 
@@ -338,11 +389,11 @@ public abstract class AbstractSshHadoopFsMirror extends ResourceMirror {
                 ModelInputProvider<T> provider,
                 T value,
                 ProcessScript<T> script,
-                SshConnection connection,
+                List<SshConnection> connections,
                 List<String> path) {
             super(provider, value);
             this.script = script;
-            this.connection = connection;
+            this.connections = connections;
             this.path = path;
         }
 
@@ -353,16 +404,18 @@ public abstract class AbstractSshHadoopFsMirror extends ResourceMirror {
                         getName(),
                         script.getName());
                 super.close();
-                int exit = connection.waitForExit(TimeUnit.SECONDS.toMillis(30));
-                if (exit != 0) {
-                    WGLOG.error("E13001",
-                            profile.getResourceName(),
-                            script.getName(),
-                            path);
-                    throw new IOException(MessageFormat.format(
-                            "SSH connection returns unexpected exit code: (code={0}, process={1}:source)",
-                            String.valueOf(exit),
-                            script.getName()));
+                for (SshConnection connection : connections) {
+                    int exit = connection.waitForExit(TimeUnit.SECONDS.toMillis(30));
+                    if (exit != 0) {
+                        WGLOG.error("E13001",
+                                profile.getResourceName(),
+                                script.getName(),
+                                path);
+                        throw new IOException(MessageFormat.format(
+                                "SSH connection returns unexpected exit code: (code={0}, process={1}:source)",
+                                String.valueOf(exit),
+                                script.getName()));
+                    }
                 }
             } catch (InterruptedException e) {
                 WGLOG.error(e, "E13001",
@@ -372,13 +425,15 @@ public abstract class AbstractSshHadoopFsMirror extends ResourceMirror {
                 Thread.currentThread().interrupt();
                 throw new IOException("Failed to exit remote process", e);
             } finally {
-                try {
-                    connection.close();
-                } catch (IOException e) {
-                    WGLOG.warn(e, "W13001",
-                            profile.getResourceName(),
-                            script.getName(),
-                            path);
+                for (SshConnection connection : connections) {
+                    try {
+                        connection.close();
+                    } catch (IOException e) {
+                        WGLOG.warn(e, "W13001",
+                                profile.getResourceName(),
+                                script.getName(),
+                                path);
+                    }
                 }
             }
         }
@@ -16,12 +16,16 @@
 package com.asakusafw.windgate.hadoopfs.ssh;
 
 import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.PushbackInputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
+import java.util.Arrays;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -30,14 +34,19 @@ import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xerial.snappy.SnappyFramedInputStream;
+import org.xerial.snappy.SnappyFramedOutputStream;
 
 import com.asakusafw.windgate.core.WindGateLogger;
 import com.asakusafw.windgate.hadoopfs.HadoopFsLogger;
 
 /**
  * A file list transfer protocol.
+ * Since {@code 0.9.2}, a file list can have an optional header just after its preamble, which describes
+ * the {@link Compression compression} of the following contents and the partition of the transferred files.
+ * Readers accept both file lists with and without the header.
  * @since 0.2.2
- * @version 0.7.4
+ * @version 0.9.2
  */
 public final class FileList {
 
@@ -53,6 +62,8 @@ public final class FileList {
 
     static final Charset PATH_ENCODING = StandardCharsets.UTF_8;
 
+    static final byte[] HEADER_MAGIC = "WGFL".getBytes(StandardCharsets.US_ASCII); //$NON-NLS-1$
+
     /**
      * Creates a simple {@link FileStatus}.
      * @param path the target path
@@ -84,7 +95,45 @@ public final class FileList {
         if (dropped.length >= 1) {
             WGLOG.warn("W19002", new String(dropped, Charset.defaultCharset()));
         }
-        return new Reader(input);
+        PushbackInputStream source = new PushbackInputStream(input, HEADER_MAGIC.length);
+        if (hasHeader(source) == false) {
+            return new Reader(source);
+        }
+        DataInputStream header = new DataInputStream(source);
+        String symbol = header.readUTF();
+        int partitionIndex = header.readInt();
+        int partitionCount = header.readInt();
+        Compression compression = Compression.find(symbol);
+        if (compression == null || partitionCount <= 0 || partitionIndex < 0 || partitionIndex >= partitionCount) {
+            throw new IOException(MessageFormat.format(
+                    "file list header is broken: compression={0}, partition={1}/{2}",
+                    symbol,
+                    partitionIndex,
+                    partitionCount));
+        }
+        LOG.debug("File list header: compression={}, partition={}/{}", new Object[] {
+                compression,
+                partitionIndex,
+                partitionCount,
+        });
+        return new Reader(source, compression, partitionIndex, partitionCount);
+    }
+
+    private static boolean hasHeader(PushbackInputStream input) throws IOException {
+        byte[] buf = new byte[HEADER_MAGIC.length];
+        int length = 0;
+        while (length < buf.length) {
+            int read = input.read(buf, length, buf.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+        }
+        if (length == buf.length && Arrays.equals(buf, HEADER_MAGIC)) {
+            return true;
+        }
+        input.unread(buf, 0, length);
+        return false;
     }
 
     /**
@@ -103,6 +152,63 @@ public final class FileList {
         return new Writer(output);
     }
 
+    /**
+     * Creates a new writer with a file list header.
+     * Note that the file list written by this writer can be read only from readers of {@code 0.9.2} or later.
+     * @param output the output stream to write a file list
+     * @param compression the compression of the file list contents
+     * @return the created writer
+     * @throws IOException if failed to prepare a file list
+     * @throws IllegalArgumentException if some parameters were {@code null}
+     * @since 0.9.2
+     */
+    public static FileList.Writer createWriter(OutputStream output, Compression compression) throws IOException {
+        return createWriter(output, compression, 0, 1);
+    }
+
+    /**
+     * Creates a new writer with a file list header.
+     * Note that the file list written by this writer can be read only from readers of {@code 0.9.2} or later.
+     * @param output the output stream to write a file list
+     * @param compression the compression of the file list contents
+     * @param partitionIndex the partition index of the transferring files (0-origin)
+     * @param partitionCount the number of partitions
+     * @return the created writer
+     * @throws IOException if failed to prepare a file list
+     * @throws IllegalArgumentException if some parameters were {@code null}, or the partition is not valid
+     * @since 0.9.2
+     */
+    public static FileList.Writer createWriter(
+            OutputStream output,
+            Compression compression,
+            int partitionIndex, int partitionCount) throws IOException {
+        if (output == null) {
+            throw new IllegalArgumentException("output must not be null"); //$NON-NLS-1$
+        }
+        if (compression == null) {
+            throw new IllegalArgumentException("compression must not be null"); //$NON-NLS-1$
+        }
+        if (partitionCount <= 0 || partitionIndex < 0 || partitionIndex >= partitionCount) {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "invalid partition: {0}/{1}", //$NON-NLS-1$
+                    partitionIndex,
+                    partitionCount));
+        }
+        LOG.debug("Creating a new file list writer: compression={}, partition={}/{}", new Object[] {
+                compression,
+                partitionIndex,
+                partitionCount,
+        });
+        FileListUtil.putPreamble(output);
+        DataOutputStream header = new DataOutputStream(output);
+        header.write(HEADER_MAGIC);
+        header.writeUTF(compression.getSymbol());
+        header.writeInt(partitionIndex);
+        header.writeInt(partitionCount);
+        header.flush();
+        return new Writer(compression.wrap(output));
+    }
+
     private FileList() {
         return;
     }
@@ -110,7 +216,7 @@ public final class FileList {
     /**
      * A {@link FileList} read protocol.
      * @since 0.2.2
-     * @version 0.7.4
+     * @version 0.9.2
      */
     public static class Reader implements Closeable {
 
@@ -118,6 +224,12 @@ public final class FileList {
 
         private final ZipInputStream input;
 
+        private final Compression compression;
+
+        private final int partitionIndex;
+
+        private final int partitionCount;
+
         private Path currentPath;
 
         private boolean sawNext;
@@ -125,9 +237,17 @@ public final class FileList {
         private boolean sawEof;
 
         Reader(InputStream input) throws IOException {
+            this(input, Compression.NONE, 0, 1);
+        }
+
+        Reader(InputStream input, Compression compression, int partitionIndex, int partitionCount) throws IOException {
             assert input != null;
+            assert compression != null;
             this.original = input;
-            this.input = new ZipInputStream(input);
+            this.compression = compression;
+            this.partitionIndex = partitionIndex;
+            this.partitionCount = partitionCount;
+            this.input = new ZipInputStream(compression.wrap(input));
             ZipEntry first = this.input.getNextEntry();
             if (first == null || first.getName().equals(FIRST_ENTRY_NAME) == false) {
                 throw new IOException("file list is broken");
@@ -234,6 +354,33 @@ public final class FileList {
             return new ZipEntryInputStream(input);
         }
 
+        /**
+         * Returns the compression of this file list contents.
+         * @return the compression
+         * @since 0.9.2
+         */
+        public Compression getCompression() {
+            return compression;
+        }
+
+        /**
+         * Returns the partition index of the files in this file list.
+         * @return the partition index (0-origin), or {@code 0} if the file list is not partitioned
+         * @since 0.9.2
+         */
+        public int getPartitionIndex() {
+            return partitionIndex;
+        }
+
+        /**
+         * Returns the number of partitions which the file list belongs to.
+         * @return the number of partitions, or {@code 1} if the file list is not partitioned
+         * @since 0.9.2
+         */
+        public int getPartitionCount() {
+            return partitionCount;
+        }
+
         private void checkCurrent() throws IOException {
             if (sawNext == false) {
                 throw new IOException("current content is not prepared");
@@ -324,4 +471,74 @@ public final class FileList {
             closed = true;
         }
     }
+
+    /**
+     * The compression of {@link FileList} contents.
+     * @since 0.9.2
+     */
+    public enum Compression {
+
+        /**
+         * Does not compress the contents.
+         */
+        NONE("none"), //$NON-NLS-1$
+
+        /**
+         * Compresses the contents with framed Snappy format.
+         */
+        SNAPPY("snappy") { //$NON-NLS-1$
+
+            @Override
+            InputStream wrap(InputStream input) throws IOException {
+                return new SnappyFramedInputStream(input);
+            }
+
+            @Override
+            OutputStream wrap(OutputStream output) throws IOException {
+                return new SnappyFramedOutputStream(output);
+            }
+        },
+        ;
+
+        private final String symbol;
+
+        Compression(String symbol) {
+            assert symbol != null;
+            this.symbol = symbol;
+        }
+
+        /**
+         * Returns the symbol of this compression.
+         * @return the symbol
+         */
+        public String getSymbol() {
+            return symbol;
+        }
+
+        InputStream wrap(InputStream input) throws IOException {
+            return input;
+        }
+
+        OutputStream wrap(OutputStream output) throws IOException {
+            return output;
+        }
+
+        /**
+         * Returns the compression for the symbol.
+         * @param symbol the target symbol
+         * @return the corresponded compression, or {@code null} if it is not found
+         * @throws IllegalArgumentException if some parameters were {@code null}
+         */
+        public static Compression find(String symbol) {
+            if (symbol == null) {
+                throw new IllegalArgumentException("symbol must not be null"); //$NON-NLS-1$
+            }
+            for (Compression compression : values()) {
+                if (compression.symbol.equalsIgnoreCase(symbol.trim())) {
+                    return compression;
+                }
+            }
+            return null;
+        }
+    }
 }
@@ -0,0 +1,303 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.windgate.hadoopfs.ssh;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.asakusafw.runtime.io.ModelInput;
+import com.asakusafw.runtime.stage.temporary.TemporaryStorage;
+import com.asakusafw.windgate.hadoopfs.temporary.ModelInputProvider;
+
+/**
+ * An implementation of {@link ModelInputProvider} which receives multiple {@link FileList}s concurrently.
+ * Each file list is received by its own thread, and its files are spooled into the local temporary directory
+ * so that the all file lists are transferred in parallel even if this provider is consumed sequentially.
+ * <p>
+ * The spool directory is created in {@code hadoop.tmp.dir} of the given configuration
+ * (or {@code java.io.tmpdir} if it is not defined).
+ * Each file list has its own bounded queue of spooled files, and this provider consumes the queues in turn.
+ * Each spooled file is deleted as soon as it has been consumed, but this provider requires extra local disk space
+ * for up to three files per file list (one being received, and two waiting to be consumed),
+ * and the file being consumed.
+ * </p>
+ * @param <T> target data model type
+ * @since 0.9.2
+ */
+public class ParallelFileListModelInputProvider<T> implements ModelInputProvider<T> {
+
+    static final Logger LOG = LoggerFactory.getLogger(ParallelFileListModelInputProvider.class);
+
+    static final String KEY_LOCAL_TEMPDIR = "hadoop.tmp.dir"; //$NON-NLS-1$
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private static final int QUEUE_CAPACITY = 2;
+
+    private final Configuration configuration;
+
+    private final Class<T> dataModelClass;
+
+    private final List<FileList.Reader> fileLists;
+
+    private final File spoolDirectory;
+
+    private final List<BlockingQueue<Entry>> queues;
+
+    private final ExecutorService executor;
+
+    private int nextQueue;
+
+    private Entry current;
+
+    /**
+     * Creates a new instance.
+     * @param conf the configuration
+     * @param fileLists target file lists
+     * @param dataModelClass target data model class
+     * @throws IOException if failed to prepare the spool directory
+     * @throws IllegalArgumentException if some parameters were {@code null}
+     */
+    public ParallelFileListModelInputProvider(
+            Configuration conf,
+            List<FileList.Reader> fileLists,
+            Class<T> dataModelClass) throws IOException {
+        if (conf == null) {
+            throw new IllegalArgumentException("conf must not be null"); //$NON-NLS-1$
+        }
+        if (fileLists == null) {
+            throw new IllegalArgumentException("fileLists must not be null"); //$NON-NLS-1$
+        }
+        if (dataModelClass == null) {
+            throw new IllegalArgumentException("dataModelClass must not be null"); //$NON-NLS-1$
+        }
+        this.configuration = conf;
+        this.dataModelClass = dataModelClass;
+        this.fileLists = new ArrayList<>(fileLists);
+        this.spoolDirectory = createSpoolDirectory(conf);
+        this.queues = new ArrayList<>();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(fileLists.size(), 1), r -> {
+            Thread t = new Thread(r, String.format("FileListReceiver-%d", counter.incrementAndGet())); //$NON-NLS-1$
+            t.setDaemon(true);
+            return t;
+        });
+        for (FileList.Reader fileList : this.fileLists) {
+            BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+            queues.add(queue);
+            executor.execute(() -> receive(fileList, queue));
+        }
+    }
+
+    private static File createSpoolDirectory(Configuration conf) throws IOException {
+        String base = conf.get(KEY_LOCAL_TEMPDIR);
+        if (base == null) {
+            return Files.createTempDirectory("windgate-ssh-").toFile(); //$NON-NLS-1$
+        }
+        java.nio.file.Path parent = Paths.get(base);
+        Files.createDirectories(parent);
+        return Files.createTempDirectory(parent, "windgate-ssh-").toFile(); //$NON-NLS-1$
+    }
+
+    private void receive(FileList.Reader fileList, BlockingQueue<Entry> queue) {
+        try {
+            while (fileList.next()) {
+                Path path = fileList.getCurrentPath();
+                File file = File.createTempFile("spool-", ".bin", spoolDirectory); //$NON-NLS-1$ //$NON-NLS-2$
+                boolean succeed = false;
+                try {
+                    LOG.debug("Spooling file: {} -> {}", path, file);
+                    try (InputStream input = fileList.openContent();
+                            OutputStream output = new FileOutputStream(file)) {
+                        byte[] buf = new byte[BUFFER_SIZE];
+                        while (true) {
+                            int read = input.read(buf);
+                            if (read < 0) {
+                                break;
+                            }
+                            output.write(buf, 0, read);
+                        }
+                    }
+                    queue.put(new Entry(path, file, null));
+                    succeed = true;
+                } finally {
+                    if (succeed == false) {
+                        delete(file);
+                    }
+                }
+            }
+            queue.put(new Entry(null, null, null));
+        } catch (InterruptedException e) {
+            LOG.debug("Interrupted while receiving file list", e);
+        } catch (Throwable e) {
+            try {
+                queue.put(new Entry(null, null, e));
+            } catch (InterruptedException suppressed) {
+                e.addSuppressed(suppressed);
+                LOG.debug("Interrupted while reporting an error", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean next() throws IOException {
+        if (current != null) {
+            if (current.opened == false) {
+                delete(current.file);
+            }
+            current = null;
+        }
+        while (queues.isEmpty() == false) {
+            int index = nextQueue % queues.size();
+            Entry next;
+            try {
+                next = queues.get(index).take();
+            } catch (InterruptedException e) {
+                throw (IOException) new InterruptedIOException("interrupted while receiving file list").initCause(e);
+            }
+            if (next.error != null) {
+                throw new IOException("Failed to receive file list", next.error);
+            } else if (next.file == null) {
+                queues.remove(index);
+                nextQueue = index;
+            } else {
+                nextQueue = index + 1;
+                current = next;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public ModelInput<T> open() throws IOException {
+        if (current == null || current.opened) {
+            throw new IOException("current content is not prepared");
+        }
+        Entry entry = current;
+        entry.opened = true;
+        LOG.debug("Opening next spooled file: {} ({})", entry.path, entry.file);
+        InputStream content = new FilterInputStream(new FileInputStream(entry.file)) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    delete(entry.file);
+                }
+            }
+        };
+        boolean succeeded = false;
+        try {
+            FileStatus status = new FileStatus(
+                    entry.file.length(), false, 1, entry.file.length(), entry.file.lastModified(),
+                    new Path(entry.file.toURI()));
+            ModelInput<T> input = TemporaryStorage.openInput(configuration, dataModelClass, status, content);
+            succeeded = true;
+            return input;
+        } finally {
+            if (succeeded == false) {
+                content.close();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        LOG.debug("Closing temporary file lists");
+        executor.shutdownNow();
+        IOException occurred = null;
+        for (FileList.Reader fileList : fileLists) {
+            try {
+                fileList.close();
+            } catch (IOException e) {
+                if (occurred == null) {
+                    occurred = e;
+                } else {
+                    occurred.addSuppressed(e);
+                }
+            }
+        }
+        try {
+            // wait for receivers which will fail because their file lists were closed
+            if (executor.awaitTermination(10, TimeUnit.SECONDS) == false) {
+                LOG.debug("File list receivers are still running");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        current = null;
+        queues.forEach(BlockingQueue::clear);
+        File[] rest = spoolDirectory.listFiles();
+        if (rest != null) {
+            for (File file : rest) {
+                delete(file);
+            }
+        }
+        delete(spoolDirectory);
+        if (occurred != null) {
+            throw occurred;
+        }
+    }
+
+    static void delete(File file) {
+        if (file.exists() && file.delete() == false) {
+            LOG.warn(MessageFormat.format(
+                    "Failed to delete a spool file: {0}",
+                    file));
+        }
+    }
+
+    private static final class Entry {
+
+        final Path path;
+
+        final File file;
+
+        final Throwable error;
+
+        boolean opened;
+
+        Entry(Path path, File file, Throwable error) {
+            this.path = path;
+            this.file = file;
+            this.error = error;
+        }
+    }
+}
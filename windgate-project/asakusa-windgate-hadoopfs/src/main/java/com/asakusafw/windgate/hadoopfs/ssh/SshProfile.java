@@ -16,9 +16,11 @@
 package com.asakusafw.windgate.hadoopfs.ssh;
 
 import java.text.MessageFormat;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.compress.CompressionCodec;
@@ -33,7 +35,7 @@ import com.asakusafw.windgate.hadoopfs.HadoopFsLogger;
 /**
  * A structured profile for {@link AbstractSshHadoopFsMirror}.
  * @since 0.2.2
- * @version 0.7.0
+ * @version 0.9.2
  */
 public class SshProfile {
 
@@ -98,6 +100,19 @@ public class SshProfile {
      */
     public static final String KEY_COMPRESSION = "compression";
 
+    /**
+     * The key of the compression of transferring file lists.
+     * This must be one of {@link FileList.Compression#getSymbol() compression symbols}.
+     * @since 0.9.2
+     */
+    public static final String KEY_TRANSFER_COMPRESSION = "transfer.compression";
+
+    /**
+     * The key of the number of SSH connections to get files concurrently.
+     * @since 0.9.2
+     */
+    public static final String KEY_TRANSFER_CHANNELS = "transfer.channels";
+
     /**
      * The key prefix of additional remote environment variables.
      * @since 0.4.0
@@ -120,6 +135,10 @@ public class SshProfile {
 
     private final Map<String, String> environmentVariables;
 
+    private FileList.Compression transferCompression = FileList.Compression.NONE;
+
+    private int transferChannels = 1;
+
     /**
      * Creates a new instance.
      * @param name the resource name
@@ -224,6 +243,8 @@ public class SshProfile {
         String passPhrase = extractPassPhrase(profile);
         extractCompressionCodec(configuration, profile);
         Map<String, String> env = extractEnv(profile);
+        FileList.Compression transferCompression = extractTransferCompression(profile);
+        int transferChannels = extractTransferChannels(profile);
         if (target == null) {
             String home = env.get("ASAKUSA_HOME");
             if (home == null || home.isEmpty()) {
@@ -242,7 +263,7 @@ public class SshProfile {
             target = home + PATH_BASE_TARGET;
         }
 
-        return new SshProfile(
+        SshProfile result = new SshProfile(
                 name,
                 target,
                 user,
@@ -251,6 +272,9 @@ public class SshProfile {
                 privateKey,
                 passPhrase,
                 env);
+        result.setTransferCompression(transferCompression);
+        result.setTransferChannels(transferChannels);
+        return result;
     }
 
     private static String extract(ResourceProfile profile, String configKey, boolean mandatory) {
@@ -311,6 +335,55 @@ public class SshProfile {
         }
     }
 
+    private static FileList.Compression extractTransferCompression(ResourceProfile profile) {
+        assert profile != null;
+        String symbol = extract(profile, KEY_TRANSFER_COMPRESSION, false);
+        if (symbol == null || symbol.isEmpty()) {
+            return FileList.Compression.NONE;
+        }
+        FileList.Compression compression = FileList.Compression.find(symbol);
+        if (compression == null) {
+            WGLOG.error("E10001",
+                    profile.getName(),
+                    KEY_TRANSFER_COMPRESSION,
+                    symbol);
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "The \"{1}\" must be one of {3}: {2} (resource={0})",
+                    profile.getName(),
+                    KEY_TRANSFER_COMPRESSION,
+                    symbol,
+                    Arrays.stream(FileList.Compression.values())
+                            .map(FileList.Compression::getSymbol)
+                            .collect(Collectors.toList())));
+        }
+        return compression;
+    }
+
+    private static int extractTransferChannels(ResourceProfile profile) {
+        assert profile != null;
+        String channelsString = extract(profile, KEY_TRANSFER_CHANNELS, false);
+        if (channelsString == null || channelsString.isEmpty()) {
+            return 1;
+        }
+        try {
+            int channels = Integer.parseInt(channelsString);
+            if (channels >= 1) {
+                return channels;
+            }
+        } catch (NumberFormatException e) {
+            LOG.trace("invalid number of channels", e);
+        }
+        WGLOG.error("E10001",
+                profile.getName(),
+                KEY_TRANSFER_CHANNELS,
+                channelsString);
+        throw new IllegalArgumentException(MessageFormat.format(
+                "The \"{1}\" must be a positive integer: {2} (resource={0})",
+                profile.getName(),
+                KEY_TRANSFER_CHANNELS,
+                channelsString));
+    }
+
     private static Map<String, String> extractEnv(ResourceProfile profile) {
         assert profile != null;
         Map<String, String> map = PropertiesUtil.createPrefixMap(profile.getConfiguration(), PREFIX_ENV);
@@ -442,6 +515,70 @@ public class SshProfile {
         return environmentVariables;
     }
 
+    /**
+     * Returns the compression of transferring file lists.
+     * @return the compression
+     * @since 0.9.2
+     */
+    public FileList.Compression getTransferCompression() {
+        return transferCompression;
+    }
+
+    /**
+     * Sets the compression of transferring file lists.
+     * Note that the remote WindGate SSH installation must be {@code 0.9.2} or later
+     * if the compression is not {@link FileList.Compression#NONE}.
+     * @param compression the compression
+     * @throws IllegalArgumentException if the parameter is {@code null}
+     * @since 0.9.2
+     */
+    public void setTransferCompression(FileList.Compression compression) {
+        if (compression == null) {
+            throw new IllegalArgumentException("compression must not be null"); //$NON-NLS-1$
+        }
+        this.transferCompression = compression;
+    }
+
+    /**
+     * Returns the number of SSH connections to get files concurrently.
+     * @return the number of connections
+     * @since 0.9.2
+     */
+    public int getTransferChannels() {
+        return transferChannels;
+    }
+
+    /**
+     * Sets the number of SSH connections to get files concurrently.
+     * Each connection transfers a disjoint subset of the source files.
+     * Note that the remote WindGate SSH installation must be {@code 0.9.2} or later
+     * if the number of connections is greater than {@code 1}.
+     * @param channels the number of connections
+     * @throws IllegalArgumentException if the number is not positive
+     * @since 0.9.2
+     */
+    public void setTransferChannels(int channels) {
+        if (channels <= 0) {
+            throw new IllegalArgumentException("channels must be positive"); //$NON-NLS-1$
+        }
+        this.transferChannels = channels;
+    }
+
+    /**
+     * Returns a copy of this profile with additional remote environment variables.
+     * @param additions the additional environment variables
+     * @return the copy
+     */
+    SshProfile withEnvironmentVariables(Map<String, String> additions) {
+        assert additions != null;
+        Map<String, String> env = new HashMap<>(environmentVariables);
+        env.putAll(additions);
+        SshProfile result = new SshProfile(resourceName, target, user, host, port, privateKey, passPhrase, env);
+        result.setTransferCompression(transferCompression);
+        result.setTransferChannels(transferChannels);
+        return result;
+    }
+
     /**
      * Returns the compression codec of putting sequence files.
      * @return the compression codec, or {@code null} if does not compress
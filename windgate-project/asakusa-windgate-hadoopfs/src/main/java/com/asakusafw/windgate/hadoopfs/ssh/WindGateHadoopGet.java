@@ -22,7 +22,9 @@ import java.io.OutputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -46,8 +48,13 @@ import com.asakusafw.windgate.hadoopfs.ssh.FileList.Writer;
 
 /**
  * Gets files from Hadoop File System and write them as {@link FileList} to the standard output.
+ * This accepts the following environment variables:
+ * <ul>
+ * <li> {@link #ENV_COMPRESSION} - the {@link FileList.Compression#getSymbol() compression} of the file list </li>
+ * <li> {@link #ENV_PARTITION} - the partition of the target files in form of {@code "<index>/<count>"} </li>
+ * </ul>
  * @since 0.2.2
- * @version 0.4.0
+ * @version 0.9.2
  */
 public class WindGateHadoopGet extends WindGateHadoopBase {
 
@@ -57,6 +64,19 @@ public class WindGateHadoopGet extends WindGateHadoopBase {
 
     static final int BUFFER_SIZE = 1024 * 1024;
 
+    /**
+     * The environment variable name of the file list compression.
+     * @since 0.9.2
+     */
+    public static final String ENV_COMPRESSION = "WINDGATE_SSH_COMPRESSION"; //$NON-NLS-1$
+
+    /**
+     * The environment variable name of the target partition.
+     * If this is set, this only transfers the files which belong to the partition.
+     * @since 0.9.2
+     */
+    public static final String ENV_PARTITION = "WINDGATE_SSH_PARTITION"; //$NON-NLS-1$
+
     final Configuration conf;
 
     /**
@@ -83,13 +103,18 @@ public class WindGateHadoopGet extends WindGateHadoopBase {
         WGLOG.info("I20000");
         long start = System.currentTimeMillis();
         Configuration conf = new Configuration();
-        int result = new WindGateHadoopGet(conf).execute(StdioHelper.getOriginalStdout(), args);
+        int result = new WindGateHadoopGet(conf).execute(StdioHelper.getOriginalStdout(), System.getenv(), args);
         long end = System.currentTimeMillis();
         WGLOG.info("I20999", result, end - start);
         System.exit(result);
     }
 
     int execute(OutputStream out, String... args) {
+        return execute(out, Collections.emptyMap(), args);
+    }
+
+    int execute(OutputStream out, Map<String, String> env, String... args) {
+        assert env != null;
         assert args != null;
         if (args.length == 0) {
             WGLOG.error("E20001",
@@ -104,8 +129,35 @@ public class WindGateHadoopGet extends WindGateHadoopBase {
         }
         WGLOG.info("I20001",
                 paths);
-        try (FileList.Writer writer = FileList.createWriter(new BufferedOutputStream(out, BUFFER_SIZE))) {
-            doGet(paths, writer);
+        String compressionString = env.get(ENV_COMPRESSION);
+        String partitionString = env.get(ENV_PARTITION);
+        FileList.Compression compression = compressionString == null
+                ? FileList.Compression.NONE : FileList.Compression.find(compressionString);
+        if (compression == null) {
+            WGLOG.error("E20004",
+                    ENV_COMPRESSION,
+                    compressionString);
+            return 1;
+        }
+        int[] partition = partitionString == null ? new int[] { 0, 1 } : parsePartition(partitionString);
+        if (partition == null) {
+            WGLOG.error("E20004",
+                    ENV_PARTITION,
+                    partitionString);
+            return 1;
+        }
+        boolean header = compressionString != null || partitionString != null;
+        if (header) {
+            WGLOG.info("I20006",
+                    compression.getSymbol(),
+                    partition[0],
+                    partition[1]);
+        }
+        OutputStream output = new BufferedOutputStream(out, BUFFER_SIZE);
+        try (FileList.Writer writer = header
+                ? FileList.createWriter(output, compression, partition[0], partition[1])
+                : FileList.createWriter(output)) {
+            doGet(paths, partition[0], partition[1], writer);
             WGLOG.info("I20002",
                     paths);
             writer.close();
@@ -121,7 +173,31 @@ public class WindGateHadoopGet extends WindGateHadoopBase {
         }
     }
 
+    private static int[] parsePartition(String value) {
+        String[] fields = value.trim().split("/"); //$NON-NLS-1$
+        if (fields.length != 2) {
+            return null;
+        }
+        try {
+            int index = Integer.parseInt(fields[0].trim());
+            int count = Integer.parseInt(fields[1].trim());
+            if (count <= 0 || index < 0 || index >= count) {
+                return null;
+            }
+            return new int[] { index, count };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     void doGet(List<Path> paths, FileList.Writer drain) throws IOException, InterruptedException {
+        doGet(paths, 0, 1, drain);
+    }
+
+    void doGet(
+            List<Path> paths,
+            int partitionIndex, int partitionCount,
+            FileList.Writer drain) throws IOException, InterruptedException {
         assert paths != null;
         assert drain != null;
         BlockingQueue<Pair> queue = new SynchronousQueue<>();
@@ -133,7 +209,7 @@ public class WindGateHadoopGet extends WindGateHadoopBase {
         });
         try {
             Future<Void> fetcher = executor.submit(() -> {
-                fetch(fs, paths, queue);
+                fetch(fs, paths, partitionIndex, partitionCount, queue);
                 queue.put(Pair.eof());
                 return null;
             });
@@ -186,7 +262,10 @@ public class WindGateHadoopGet extends WindGateHadoopBase {
         }
     }
 
-    void fetch(FileSystem fs, List<Path> paths, BlockingQueue<Pair> queue) throws IOException, InterruptedException {
+    void fetch(
+            FileSystem fs, List<Path> paths,
+            int partitionIndex, int partitionCount,
+            BlockingQueue<Pair> queue) throws IOException, InterruptedException {
         assert fs != null;
         assert paths != null;
         assert queue != null;
@@ -202,6 +281,9 @@ public class WindGateHadoopGet extends WindGateHadoopBase {
                         continue;
                     }
                     found = true;
+                    if (getPartition(status.getPath(), partitionCount) != partitionIndex) {
+                        continue;
+                    }
                     InputStream in = getInput(fs, status);
                     boolean succeed = false;
                     try {
@@ -222,6 +304,20 @@ public class WindGateHadoopGet extends WindGateHadoopBase {
         }
     }
 
+    /**
+     * Returns the partition index of the file.
+     * This must be stable between the individual processes which transfer each partition.
+     * @param path the file path
+     * @param partitionCount the number of partitions
+     * @return the partition index
+     */
+    static int getPartition(Path path, int partitionCount) {
+        if (partitionCount <= 1) {
+            return 0;
+        }
+        return (path.toString().hashCode() & Integer.MAX_VALUE) % partitionCount;
+    }
+
     private InputStream getInput(FileSystem fs, FileStatus status) throws IOException {
         if (RuntimeContext.get().isSimulation()) {
             return new VoidInputStream();
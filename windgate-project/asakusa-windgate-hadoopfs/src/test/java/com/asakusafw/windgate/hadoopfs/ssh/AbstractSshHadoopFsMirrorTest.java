@@ -602,6 +602,110 @@ public class AbstractSshHadoopFsMirrorTest {
         assertThat(results, is(Arrays.asList("Hello, world!")));
     }
 
+    /**
+     * Drain with compression.
+     * @throws Exception if failed
+     */
+    @Test
+    public void drain_compressed() throws Exception {
+        stdIn = folder.newFile("stdin");
+        stdOut = folder.newFile("stdout");
+        exit = 0;
+        profile.setTransferCompression(FileList.Compression.SNAPPY);
+
+        try (MockSshHadoopFsMirror resource = new MockSshHadoopFsMirror(new Configuration(), profile, new ParameterList())) {
+            ProcessScript<Text> proc = p("p", "INVALID", "", "dummy", "testing");
+            resource.prepare(script(proc));
+            try (DrainDriver<Text> driver = resource.createDrain(proc)) {
+                driver.prepare();
+                driver.put(new Text("Hello, world!"));
+            }
+        }
+
+        assertThat(lastCommand, is(Arrays.asList("put")));
+        try (FileInputStream in = new FileInputStream(stdIn);
+                FileList.Reader reader = FileList.createReader(in)) {
+            assertThat(reader.getCompression(), is(FileList.Compression.SNAPPY));
+        }
+        Map<String, List<String>> results = read(stdIn);
+        assertThat(results.size(), is(1));
+        assertThat(results.get("testing"), is(Arrays.asList("Hello, world!")));
+    }
+
+    /**
+     * Source via multiple compressed connections, using local processes instead of SSH.
+     * @throws Exception if failed
+     */
+    @Test
+    public void source_channels() throws Exception {
+        File base = folder.newFolder("remote");
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Configuration conf = new Configuration();
+            String content = "Hello" + i + ", world!";
+            File file = new File(base, "part-" + i);
+            try (ModelOutput<Text> output = TemporaryStorage.openOutput(conf, Text.class, new Path(file.toURI()))) {
+                output.write(new Text(content));
+            }
+            expected.add(content);
+        }
+        Collections.sort(expected);
+        profile.setTransferCompression(FileList.Compression.SNAPPY);
+        profile.setTransferChannels(3);
+
+        List<String> results = new ArrayList<>();
+        List<Map<String, String>> environments = Collections.synchronizedList(new ArrayList<>());
+        try (ProcessSshHadoopFsMirror resource = new ProcessSshHadoopFsMirror(
+                new Configuration(), profile, new ParameterList(), environments)) {
+            String path = new File(base, "part-*").toURI().toString();
+            ProcessScript<Text> proc = p("p", "dummy", path, "INVALID", "");
+            resource.prepare(script(proc));
+            try (SourceDriver<Text> driver = resource.createSource(proc)) {
+                driver.prepare();
+                while (driver.next()) {
+                    results.add(driver.get().toString());
+                }
+            }
+        }
+        Collections.sort(results);
+
+        assertThat(results, is(expected));
+        List<String> partitions = new ArrayList<>();
+        for (Map<String, String> env : environments) {
+            assertThat(env.get(WindGateHadoopGet.ENV_COMPRESSION), is("snappy"));
+            partitions.add(env.get(WindGateHadoopGet.ENV_PARTITION));
+        }
+        assertThat(partitions, containsInAnyOrder("0/3", "1/3", "2/3"));
+    }
+
+    /**
+     * Source via multiple connections, but the remote command does not support it.
+     * @throws Exception if failed
+     */
+    @Test
+    public void source_channels_unsupported() throws Exception {
+        stdIn = folder.newFile("stdin");
+        stdOut = folder.newFile("stdout");
+        exit = 0;
+        profile.setTransferChannels(2);
+
+        try (FileOutputStream output = new FileOutputStream(stdOut);
+                FileList.Writer writer = FileList.createWriter(output)) {
+            put(writer, "testing-1", "Hello, world!");
+        }
+
+        try (MockSshHadoopFsMirror resource = new MockSshHadoopFsMirror(new Configuration(), profile, new ParameterList())) {
+            ProcessScript<Text> proc = p("p", "dummy", "testing-1", "INVALID", "");
+            resource.prepare(script(proc));
+            try (SourceDriver<Text> driver = resource.createSource(proc)) {
+                // do nothing
+            }
+            fail();
+        } catch (IOException e) {
+            // ok.
+        }
+    }
+
     private void put(FileList.Writer writer, String path, String... contents) throws IOException {
         Configuration conf = new Configuration();
         File temp = folder.newFile(path);
@@ -728,4 +832,26 @@ public class AbstractSshHadoopFsMirrorTest {
             };
         }
     }
+
+    private static class ProcessSshHadoopFsMirror extends AbstractSshHadoopFsMirror {
+
+        private final List<Map<String, String>> environments;
+
+        ProcessSshHadoopFsMirror(
+                Configuration configuration, SshProfile profile, ParameterList arguments,
+                List<Map<String, String>> environments) {
+            super(configuration, profile, arguments);
+            this.environments = environments;
+        }
+
+        @Override
+        protected SshConnection openConnection(SshProfile sshProfile, List<String> command) throws IOException {
+            assertThat(command.get(0), is("get"));
+            environments.add(sshProfile.getEnvironmentVariables());
+            return new ProcessSshConnection(
+                    sshProfile.getEnvironmentVariables(),
+                    WindGateHadoopGet.class,
+                    command.subList(1, command.size()));
+        }
+    }
 }
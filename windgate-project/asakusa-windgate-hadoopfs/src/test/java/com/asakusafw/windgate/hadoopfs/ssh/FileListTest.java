@@ -100,6 +100,87 @@ public class FileListTest {
         }
     }
 
+    /**
+     * file list without header.
+     * @throws Exception if failed
+     */
+    @Test
+    public void legacy() throws Exception {
+        File file = folder.newFile("testing.filelist");
+        try (FileOutputStream output = new FileOutputStream(file);
+                FileList.Writer writer = FileList.createWriter(output)) {
+            write(writer, "example.txt", "Hello, world!");
+        }
+        try (FileInputStream input = new FileInputStream(file);
+                FileList.Reader reader = FileList.createReader(input)) {
+            assertThat(reader.getCompression(), is(FileList.Compression.NONE));
+            assertThat(reader.getPartitionIndex(), is(0));
+            assertThat(reader.getPartitionCount(), is(1));
+            read(reader, "example.txt", "Hello, world!");
+            assertThat(reader.next(), is(false));
+        }
+    }
+
+    /**
+     * compressed file list.
+     * @throws Exception if failed
+     */
+    @Test
+    public void compressed() throws Exception {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            buf.append("Hello, world!");
+        }
+        String content = buf.toString();
+        File file = folder.newFile("testing.filelist");
+        try (FileOutputStream output = new FileOutputStream(file);
+                FileList.Writer writer = FileList.createWriter(output, FileList.Compression.SNAPPY)) {
+            write(writer, "example1.txt", content);
+            write(writer, "example2.txt", "Hello2, world!");
+        }
+        assertThat(file.length(), is(lessThan((long) content.length() / 2)));
+        try (FileInputStream input = new FileInputStream(file);
+                FileList.Reader reader = FileList.createReader(input)) {
+            assertThat(reader.getCompression(), is(FileList.Compression.SNAPPY));
+            read(reader, "example1.txt", content);
+            read(reader, "example2.txt", "Hello2, world!");
+            assertThat(reader.next(), is(false));
+        }
+    }
+
+    /**
+     * partitioned file list.
+     * @throws Exception if failed
+     */
+    @Test
+    public void partitioned() throws Exception {
+        File file = folder.newFile("testing.filelist");
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write("Hello, world!".getBytes(StandardCharsets.UTF_8));
+            try (FileList.Writer writer = FileList.createWriter(output, FileList.Compression.NONE, 1, 3)) {
+                write(writer, "example.txt", "Hello, world!");
+            }
+        }
+        try (FileInputStream input = new FileInputStream(file);
+                FileList.Reader reader = FileList.createReader(input)) {
+            assertThat(reader.getCompression(), is(FileList.Compression.NONE));
+            assertThat(reader.getPartitionIndex(), is(1));
+            assertThat(reader.getPartitionCount(), is(3));
+            read(reader, "example.txt", "Hello, world!");
+            assertThat(reader.next(), is(false));
+        }
+    }
+
+    /**
+     * compression symbols.
+     */
+    @Test
+    public void compression_symbol() {
+        assertThat(FileList.Compression.find("none"), is(FileList.Compression.NONE));
+        assertThat(FileList.Compression.find("Snappy"), is(FileList.Compression.SNAPPY));
+        assertThat(FileList.Compression.find("unknown"), is(nullValue()));
+    }
+
     /**
      * Unexpected messages before transfer.
      * @throws Exception if failed
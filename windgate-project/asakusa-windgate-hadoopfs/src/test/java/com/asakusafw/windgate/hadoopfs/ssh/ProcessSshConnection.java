@@ -0,0 +1,89 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.windgate.hadoopfs.ssh;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A local stand-in of {@link SshConnection}, which launches the remote command as a local Java process.
+ */
+public class ProcessSshConnection implements SshConnection {
+
+    private final Process process;
+
+    /**
+     * Creates a new instance and starts the process.
+     * @param environmentVariables the environment variables
+     * @param mainClass the main class of the remote command
+     * @param arguments the command arguments
+     * @throws IOException if failed to start the process
+     */
+    public ProcessSshConnection(
+            Map<String, String> environmentVariables,
+            Class<?> mainClass, List<String> arguments) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+        command.add("-classpath");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StdoutEscapeMain.class.getName());
+        command.add(mainClass.getName());
+        command.addAll(arguments);
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.environment().putAll(environmentVariables);
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        this.process = builder.start();
+    }
+
+    @Override
+    public void connect() throws IOException {
+        return;
+    }
+
+    @Override
+    public OutputStream openStandardInput() throws IOException {
+        return process.getOutputStream();
+    }
+
+    @Override
+    public InputStream openStandardOutput() throws IOException {
+        return process.getInputStream();
+    }
+
+    @Override
+    public void redirectStandardOutput(OutputStream output, boolean dontClose) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int waitForExit(long timeout) throws IOException, InterruptedException {
+        if (process.waitFor(timeout, TimeUnit.MILLISECONDS) == false) {
+            throw new IOException("process was timeout");
+        }
+        return process.exitValue();
+    }
+
+    @Override
+    public void close() throws IOException {
+        process.destroy();
+    }
+}
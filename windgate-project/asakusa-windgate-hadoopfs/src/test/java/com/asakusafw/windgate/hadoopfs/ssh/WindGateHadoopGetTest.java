@@ -23,6 +23,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -163,6 +164,75 @@ public class WindGateHadoopGetTest {
         assertThat(contents.get("testing-3"), is("Hello3, world!"));
     }
 
+    /**
+     * Gets files with compression.
+     * @throws Exception if failed
+     */
+    @Test
+    public void compressed() throws Exception {
+        Path testing = new Path(PREFIX, "testing");
+        put(testing, "Hello, world!");
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        int result = new WindGateHadoopGet(conf).execute(
+                buffer,
+                Collections.singletonMap(WindGateHadoopGet.ENV_COMPRESSION, "snappy"),
+                testing.toString());
+        assertThat(result, is(0));
+
+        Map<String, String> contents = get(buffer.toByteArray());
+        assertThat(contents.size(), is(1));
+        assertThat(contents.get("testing"), is("Hello, world!"));
+    }
+
+    /**
+     * Gets each partition of files.
+     * @throws Exception if failed
+     */
+    @Test
+    public void partitioned() throws Exception {
+        Map<String, String> expected = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            put(new Path(PREFIX, "testing-" + i), "Hello" + i + ", world!");
+            expected.put("testing-" + i, "Hello" + i + ", world!");
+        }
+        Map<String, String> total = new HashMap<>();
+        for (int i = 0; i < 3; i++) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            int result = new WindGateHadoopGet(conf).execute(
+                    buffer,
+                    Collections.singletonMap(WindGateHadoopGet.ENV_PARTITION, i + "/3"),
+                    new Path(PREFIX, "testing-*").toString());
+            assertThat(result, is(0));
+
+            Map<String, String> contents = get(buffer.toByteArray());
+            for (String name : contents.keySet()) {
+                assertThat(total.keySet(), not(hasItem(name)));
+            }
+            total.putAll(contents);
+        }
+        assertThat(total, is(expected));
+    }
+
+    /**
+     * Invalid transfer options.
+     * @throws Exception if failed
+     */
+    @Test
+    public void invalid_options() throws Exception {
+        Path testing = new Path(PREFIX, "testing");
+        put(testing, "Hello, world!");
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        WindGateHadoopGet get = new WindGateHadoopGet(conf);
+        assertThat(get.execute(buffer,
+                Collections.singletonMap(WindGateHadoopGet.ENV_COMPRESSION, "unknown"),
+                testing.toString()), is(not(0)));
+        assertThat(get.execute(buffer,
+                Collections.singletonMap(WindGateHadoopGet.ENV_PARTITION, "3/3"),
+                testing.toString()), is(not(0)));
+    }
+
     /**
      * OK even if missing files.
      * @throws Exception if failed
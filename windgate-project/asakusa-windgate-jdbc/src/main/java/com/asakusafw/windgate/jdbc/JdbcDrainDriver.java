@@ -16,12 +16,20 @@
 package com.asakusafw.windgate.jdbc;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,9 +41,11 @@ import com.asakusafw.windgate.core.vocabulary.DataModelJdbcSupport.DataModelPrep
 
 /**
  * An implementation of {@link DrainDriver} using JDBC.
+ * If {@link JdbcProfile#getBatchPutConnections()} is greater than {@code 1}, this opens extra connections
+ * and executes each batch through them in turn.
  * @param <T> the type of data model object
  * @since 0.2.2
- * @version 0.9.0
+ * @version 0.9.2
  */
 public class JdbcDrainDriver<T> implements DrainDriver<T> {
 
@@ -53,15 +63,17 @@ public class JdbcDrainDriver<T> implements DrainDriver<T> {
 
     private final long batchPutUnit;
 
-    private long putLimitRest;
+    private final List<Channel> channels = new ArrayList<>();
 
-    private long putCount;
+    private ExecutorService executor;
 
-    private PreparedStatement statement;
+    private Channel current;
 
-    private DataModelPreparedStatement<? super T> support;
+    private long putLimitRest;
 
-    private boolean sawError;
+    private long putCount;
+
+    private volatile boolean sawError;
 
     /**
      * Creates a new instance.
@@ -115,8 +127,20 @@ public class JdbcDrainDriver<T> implements DrainDriver<T> {
                     script.getTableName(),
                     script.getColumnNames()), e);
         }
+        int connections = profile.getBatchPutConnections();
         try {
-            this.statement = prepareStatement();
+            channels.add(new Channel(0, connection));
+            if (connections > 1) {
+                WGLOG.info("I04005",
+                        profile.getResourceName(),
+                        script.getName(),
+                        script.getTableName(),
+                        connections);
+                for (int i = 1; i < connections; i++) {
+                    channels.add(new Channel(i, profile.openConnection()));
+                }
+                executor = createExecutor(connections);
+            }
         } catch (SQLException e) {
             sawError = true;
             for (SQLException ex = e; ex != null; ex = ex.getNextException()) {
@@ -131,14 +155,27 @@ public class JdbcDrainDriver<T> implements DrainDriver<T> {
                     profile.getResourceName(),
                     script.getTableName(),
                     script.getColumnNames()), e);
+        } catch (IOException e) {
+            sawError = true;
+            throw e;
         }
-        LOG.debug("Creating PreparedStatement support {} for {}",
-                script.getSupport().getClass().getName(),
-                script.getColumnNames());
-        support = script.getSupport().createPreparedStatementSupport(statement, script.getColumnNames());
+        current = channels.get(0);
         putLimitRest = batchPutUnit;
     }
 
+    private ExecutorService createExecutor(int threads) {
+        String name = MessageFormat.format(
+                "windgate-jdbc-{0}-{1}", //$NON-NLS-1$
+                profile.getResourceName(),
+                script.getName());
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, name + "-" + counter.incrementAndGet()); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     private void truncate() throws SQLException {
         String sql;
         if (script.getCustomTruncate() == null) {
@@ -159,15 +196,10 @@ public class JdbcDrainDriver<T> implements DrainDriver<T> {
         }
     }
 
-    private PreparedStatement prepareStatement() throws SQLException {
-        String sql = createSql();
-        LOG.debug("Preparing SQL: {}", sql);
-        return connection.prepareStatement(sql);
-    }
-
-    private String createSql() {
+    private String createSql(int rows) {
         assert script.getColumnNames().isEmpty() == false;
         assert script.getCondition() == null;
+        assert rows > 0;
         StringBuilder buf = new StringBuilder();
         buf.append("INSERT ");
         if (isOptimizationEnabled(JdbcProcess.OptionSymbols.ORACLE_DIRPATH)) {
@@ -179,9 +211,16 @@ public class JdbcDrainDriver<T> implements DrainDriver<T> {
         buf.append(String.join(",", script.getColumnNames())); //$NON-NLS-1$
         buf.append(") ");
         buf.append("VALUES ");
-        buf.append("(");
-        buf.append(String.join(",", Collections.nCopies(script.getColumnNames().size(), "?"))); //$NON-NLS-1$ //$NON-NLS-2$
-        buf.append(")");
+        String row = String.join(",", //$NON-NLS-1$
+                Collections.nCopies(script.getColumnNames().size(), "?")); //$NON-NLS-1$
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                buf.append(",");
+            }
+            buf.append("(");
+            buf.append(row);
+            buf.append(")");
+        }
         return buf.toString();
     }
 
@@ -192,8 +231,7 @@ public class JdbcDrainDriver<T> implements DrainDriver<T> {
     @Override
     public void put(T object) throws IOException {
         try {
-            support.setParameters(object);
-            statement.addBatch();
+            current.put(object);
         } catch (SQLException e) {
             sawError = true;
             for (SQLException ex = e; ex != null; ex = ex.getNextException()) {
@@ -218,27 +256,20 @@ public class JdbcDrainDriver<T> implements DrainDriver<T> {
 
     private void flush() throws IOException {
         assert putLimitRest != batchPutUnit;
-        try {
-            LOG.debug("Flushing {} rows into {}",
-                    batchPutUnit - putLimitRest,
-                    script.getTableName());
-            statement.executeBatch();
-            connection.commit();
-            putCount += batchPutUnit - putLimitRest;
-            putLimitRest = batchPutUnit;
-        } catch (SQLException e) {
-            sawError = true;
-            for (SQLException ex = e; ex != null; ex = ex.getNextException()) {
-                WGLOG.error(ex, "E04004",
-                        profile.getResourceName(),
-                        script.getName(),
-                        script.getTableName(),
-                        script.getColumnNames());
-            }
-            throw new IOException(MessageFormat.format(
-                    "Failed to flush table into JDBC drain (resource={0}, table={1})",
-                    profile.getResourceName(),
-                    script.getTableName()), e);
+        long rows = batchPutUnit - putLimitRest;
+        putCount += rows;
+        putLimitRest = batchPutUnit;
+        if (executor == null) {
+            current.execute(rows);
+        } else {
+            // executes the current batch in background, and then switches to the next (idle) channel
+            Channel channel = current;
+            channel.running = executor.submit(() -> {
+                channel.execute(rows);
+                return null;
+            });
+            current = channels.get((channel.index + 1) % channels.size());
+            current.await();
         }
     }
 
@@ -248,37 +279,176 @@ public class JdbcDrainDriver<T> implements DrainDriver<T> {
                 profile.getResourceName(),
                 script.getTableName());
         IOException occurred = null;
-        if (statement != null) {
-            if (sawError == false && putLimitRest != batchPutUnit) {
-                try {
-                    flush();
-                } catch (IOException e) {
+        if (current != null && sawError == false && putLimitRest != batchPutUnit) {
+            try {
+                flush();
+            } catch (IOException e) {
+                occurred = e;
+            }
+        }
+        for (Channel channel : channels) {
+            try {
+                channel.await();
+            } catch (IOException e) {
+                if (occurred == null) {
                     occurred = e;
                 }
             }
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        for (Channel channel : channels) {
+            channel.close();
+        }
+        if (channels.isEmpty()) {
+            closeConnection(connection);
+        }
+        LOG.debug("Closed JDBC resource drain ({} rows): {}",
+                putCount,
+                script.getTableName());
+        if (occurred != null) {
+            throw occurred;
+        }
+    }
+
+    private void closeConnection(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            for (SQLException ex = e; ex != null; ex = ex.getNextException()) {
+                WGLOG.warn(ex, "W02001",
+                        profile.getResourceName(),
+                        script.getName());
+            }
+        }
+    }
+
+    /**
+     * A connection and its batch.
+     */
+    private final class Channel {
+
+        final int index;
+
+        final Connection channelConnection;
+
+        private final PreparedStatement statement;
+
+        private final MultiRowInsert multiRow;
+
+        private final DataModelPreparedStatement<? super T> support;
+
+        volatile Future<?> running;
+
+        Channel(int index, Connection channelConnection) throws SQLException {
+            this.index = index;
+            this.channelConnection = channelConnection;
+            int rowsPerStatement = profile.getBatchPutRowsPerStatement();
+            boolean succeed = false;
+            try {
+                PreparedStatement target;
+                if (rowsPerStatement > 1) {
+                    this.statement = null;
+                    this.multiRow = new MultiRowInsert(
+                            channelConnection,
+                            JdbcDrainDriver.this::createSql,
+                            script.getColumnNames().size(),
+                            rowsPerStatement);
+                    target = multiRow.getParameterTarget();
+                } else {
+                    String sql = createSql(1);
+                    LOG.debug("Preparing SQL: {}", sql);
+                    this.statement = channelConnection.prepareStatement(sql);
+                    this.multiRow = null;
+                    target = statement;
+                }
+                LOG.debug("Creating PreparedStatement support {} for {}",
+                        script.getSupport().getClass().getName(),
+                        script.getColumnNames());
+                this.support = script.getSupport().createPreparedStatementSupport(target, script.getColumnNames());
+                succeed = true;
+            } finally {
+                if (succeed == false && index > 0) {
+                    closeConnection(channelConnection);
+                }
+            }
+        }
+
+        void put(T object) throws SQLException {
+            support.setParameters(object);
+            if (multiRow != null) {
+                multiRow.addBatch();
+            } else {
+                statement.addBatch();
+            }
+        }
+
+        void execute(long rows) throws IOException {
             try {
-                statement.close();
+                LOG.debug("Flushing {} rows into {}",
+                        rows,
+                        script.getTableName());
+                if (multiRow != null) {
+                    multiRow.executeBatch();
+                } else {
+                    statement.executeBatch();
+                }
+                channelConnection.commit();
             } catch (SQLException e) {
+                sawError = true;
                 for (SQLException ex = e; ex != null; ex = ex.getNextException()) {
-                    WGLOG.warn(ex, "W04001",
+                    WGLOG.error(ex, "E04004",
                             profile.getResourceName(),
                             script.getName(),
                             script.getTableName(),
                             script.getColumnNames());
                 }
+                throw new IOException(MessageFormat.format(
+                        "Failed to flush table into JDBC drain (resource={0}, table={1})",
+                        profile.getResourceName(),
+                        script.getTableName()), e);
             }
         }
-        try {
-            connection.close();
-        } catch (SQLException e) {
-            for (SQLException ex = e; ex != null; ex = ex.getNextException()) {
-                WGLOG.warn(ex, "W02001",
-                        profile.getResourceName(),
-                        script.getName());
+
+        void await() throws IOException {
+            Future<?> future = running;
+            if (future == null) {
+                return;
+            }
+            running = null;
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                sawError = true;
+                throw (IOException) new InterruptedIOException().initCause(e);
+            } catch (ExecutionException e) {
+                sawError = true;
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new IOException(cause);
             }
         }
-        if (occurred != null) {
-            throw occurred;
+
+        void close() {
+            try {
+                if (multiRow != null) {
+                    multiRow.close();
+                } else {
+                    statement.close();
+                }
+            } catch (SQLException e) {
+                for (SQLException ex = e; ex != null; ex = ex.getNextException()) {
+                    WGLOG.warn(ex, "W04001",
+                            profile.getResourceName(),
+                            script.getName(),
+                            script.getTableName(),
+                            script.getColumnNames());
+                }
+            }
+            closeConnection(channelConnection);
         }
     }
 }
@@ -15,6 +15,7 @@
  */
 package com.asakusafw.windgate.jdbc;
 
+import java.io.File;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.Driver;
@@ -41,7 +42,7 @@ import com.asakusafw.windgate.core.util.PropertiesUtil;
 /**
  * A structured profile for {@link JdbcResourceMirror}.
  * @since 0.2.2
- * @since 0.9.0
+ * @version 0.9.2
  */
 public class JdbcProfile {
 
@@ -110,6 +111,25 @@ public class JdbcProfile {
      */
     public static final String KEY_OPTIMIZATIONS = "optimizations";
 
+    /**
+     * The profile key of {@link #getBatchPutConnections()}.
+     * @since 0.9.2
+     */
+    public static final String KEY_BATCH_PUT_CONNECTIONS = "batchPutConnections";
+
+    /**
+     * The profile key of {@link #getBatchPutRowsPerStatement()}.
+     * @since 0.9.2
+     */
+    public static final String KEY_BATCH_PUT_ROWS_PER_STATEMENT = "batchPutRowsPerStatement";
+
+    /**
+     * The profile key of {@link #getWatermarkDirectory()}.
+     * This value can includes environment variables in form of <code>${VARIABLE-NAME}</code>.
+     * @since 0.9.2
+     */
+    public static final String KEY_WATERMARK_DIRECTORY = "watermarkDirectory";
+
     /**
      * The default value of {@link #KEY_BATCH_GET_UNIT}.
      * @since 0.2.4
@@ -122,6 +142,18 @@ public class JdbcProfile {
      */
     public static final long DEFAULT_BATCH_PUT_UNIT = Long.MAX_VALUE;
 
+    /**
+     * The default value of {@link #KEY_BATCH_PUT_CONNECTIONS}.
+     * @since 0.9.2
+     */
+    public static final int DEFAULT_BATCH_PUT_CONNECTIONS = 1;
+
+    /**
+     * The default value of {@link #KEY_BATCH_PUT_ROWS_PER_STATEMENT}.
+     * @since 0.9.2
+     */
+    public static final int DEFAULT_BATCH_PUT_ROWS_PER_STATEMENT = 1;
+
     /**
      * The default value of {@link #KEY_CONNECT_RETRY_COUNT}.
      * @since 0.2.4
@@ -160,12 +192,18 @@ public class JdbcProfile {
 
     private volatile long batchPutUnit = DEFAULT_BATCH_PUT_UNIT;
 
+    private volatile int batchPutConnections = DEFAULT_BATCH_PUT_CONNECTIONS;
+
+    private volatile int batchPutRowsPerStatement = DEFAULT_BATCH_PUT_ROWS_PER_STATEMENT;
+
     private volatile int connectRetryCount = DEFAULT_CONNECT_RETRY_COUNT;
 
     private volatile int connectRetryInterval = DEFAULT_CONNECT_RETRY_INTERVAL;
 
     private volatile String truncateStatement = DEFAULT_TRUNCATE_STATEMENT;
 
+    private volatile File watermarkDirectory;
+
     /**
      * Creates a new instance.
      * @param resourceName the target resource name
@@ -253,6 +291,9 @@ public class JdbcProfile {
 
         int batchGetUnit = extractInt(profile, KEY_BATCH_GET_UNIT, 0, DEFAULT_BATCH_GET_UNIT);
         long batchPutUnit = extractLong(profile, KEY_BATCH_PUT_UNIT, 1, DEFAULT_BATCH_PUT_UNIT);
+        int batchPutConnections = extractInt(profile, KEY_BATCH_PUT_CONNECTIONS, 1, DEFAULT_BATCH_PUT_CONNECTIONS);
+        int batchPutRowsPerStatement = extractInt(profile, KEY_BATCH_PUT_ROWS_PER_STATEMENT,
+                1, DEFAULT_BATCH_PUT_ROWS_PER_STATEMENT);
         int connectRetryCount = extractInt(profile, KEY_CONNECT_RETRY_COUNT, 0, DEFAULT_CONNECT_RETRY_COUNT);
         int connectRetryInterval = extractInt(profile, KEY_CONNECT_RETRY_INTERVAL, 1, DEFAULT_CONNECT_RETRY_INTERVAL);
         String truncateStatement = extract(profile, KEY_TRUNCATE_STATEMENT, false);
@@ -260,6 +301,7 @@ public class JdbcProfile {
             truncateStatement = DEFAULT_TRUNCATE_STATEMENT;
         }
         Set<String> optimizations = extractSet(profile, KEY_OPTIMIZATIONS);
+        String watermarkDirectory = extract(profile, KEY_WATERMARK_DIRECTORY, false);
         try {
             MessageFormat.format(truncateStatement, "dummy");
         } catch (IllegalArgumentException e) {
@@ -276,10 +318,15 @@ public class JdbcProfile {
 
         result.setBatchGetUnit(batchGetUnit);
         result.setBatchPutUnit(batchPutUnit);
+        result.setBatchPutConnections(batchPutConnections);
+        result.setBatchPutRowsPerStatement(batchPutRowsPerStatement);
         result.setConnectRetryCount(connectRetryCount);
         result.setConnectRetryInterval(connectRetryInterval);
         result.setTruncateStatement(truncateStatement);
         result.setOptimizations(optimizations);
+        if (watermarkDirectory != null && watermarkDirectory.isEmpty() == false) {
+            result.setWatermarkDirectory(new File(watermarkDirectory));
+        }
         return result;
     }
 
@@ -587,6 +634,55 @@ public class JdbcProfile {
         this.batchPutUnit = value;
     }
 
+    /**
+     * Returns the number of connections for batch insertion.
+     * If this is greater than {@code 1}, each batch is executed through the connections in turn,
+     * and the batches are executed in parallel.
+     * Note that each connection commits its own transaction.
+     * @return the number of connections for batch insertion
+     * @since 0.9.2
+     */
+    public int getBatchPutConnections() {
+        return batchPutConnections;
+    }
+
+    /**
+     * Configures {@link #KEY_BATCH_PUT_CONNECTIONS}.
+     * @param value to set
+     * @throws IllegalArgumentException if {@code <= 0}
+     * @since 0.9.2
+     */
+    public void setBatchPutConnections(int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("batchPutConnections must be > 0"); //$NON-NLS-1$
+        }
+        this.batchPutConnections = value;
+    }
+
+    /**
+     * Returns the number of rows in each {@code INSERT} statement.
+     * If this is greater than {@code 1}, the rows are inserted with multi-row {@code VALUES} clauses,
+     * so that the target database must support them.
+     * @return the number of rows in each {@code INSERT} statement
+     * @since 0.9.2
+     */
+    public int getBatchPutRowsPerStatement() {
+        return batchPutRowsPerStatement;
+    }
+
+    /**
+     * Configures {@link #KEY_BATCH_PUT_ROWS_PER_STATEMENT}.
+     * @param value to set
+     * @throws IllegalArgumentException if {@code <= 0}
+     * @since 0.9.2
+     */
+    public void setBatchPutRowsPerStatement(int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("batchPutRowsPerStatement must be > 0"); //$NON-NLS-1$
+        }
+        this.batchPutRowsPerStatement = value;
+    }
+
     /**
      * Returns the retry count on create connection.
      * @return the retry count, or {@code 0} for no retry
@@ -673,4 +769,22 @@ public class JdbcProfile {
     public void setOptimizations(Collection<String> optimizations) {
         this.optimizations = Collections.unmodifiableSet(new LinkedHashSet<>(optimizations));
     }
+
+    /**
+     * Returns the directory which keeps the watermarks of incremental imports.
+     * @return the watermark directory, or {@code null} if incremental imports are not available
+     * @since 0.9.2
+     */
+    public File getWatermarkDirectory() {
+        return watermarkDirectory;
+    }
+
+    /**
+     * Configures {@link #KEY_WATERMARK_DIRECTORY}.
+     * @param directory the watermark directory, or {@code null} to disable incremental imports
+     * @since 0.9.2
+     */
+    public void setWatermarkDirectory(File directory) {
+        this.watermarkDirectory = directory;
+    }
 }
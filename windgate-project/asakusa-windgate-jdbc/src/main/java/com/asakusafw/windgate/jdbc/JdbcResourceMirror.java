@@ -17,11 +17,20 @@ package com.asakusafw.windgate.jdbc;
 
 import java.io.IOException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.asakusafw.runtime.core.context.RuntimeContext;
 import com.asakusafw.runtime.core.context.SimulationSupport;
 import com.asakusafw.windgate.core.DriverScript;
 import com.asakusafw.windgate.core.GateScript;
@@ -36,7 +45,7 @@ import com.asakusafw.windgate.core.util.ProcessUtil;
 /**
  * An implementation of {@link ResourceMirror} using JDBC.
  * @since 0.2.2
- * @version 0.4.0
+ * @version 0.9.2
  */
 @SimulationSupport
 public class JdbcResourceMirror extends ResourceMirror {
@@ -49,6 +58,12 @@ public class JdbcResourceMirror extends ResourceMirror {
 
     private final ParameterList arguments;
 
+    private final String sessionId;
+
+    private final Map<List<String>, Object[]> splitRanges = new HashMap<>();
+
+    private final Map<List<String>, JdbcWatermark> watermarks = new HashMap<>();
+
     /**
      * Creates a new instance.
      * @param profile the profile of this resource
@@ -56,6 +71,18 @@ public class JdbcResourceMirror extends ResourceMirror {
      * @throws IllegalArgumentException if some parameters were {@code null}
      */
     public JdbcResourceMirror(JdbcProfile profile, ParameterList arguments) {
+        this(profile, arguments, null);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param profile the profile of this resource
+     * @param arguments the runtime arguments
+     * @param sessionId the current session ID, or {@code null} if incremental imports are not available
+     * @throws IllegalArgumentException if some parameters were {@code null}
+     * @since 0.9.2
+     */
+    public JdbcResourceMirror(JdbcProfile profile, ParameterList arguments, String sessionId) {
         if (profile == null) {
             throw new IllegalArgumentException("profile must not be null"); //$NON-NLS-1$
         }
@@ -64,6 +91,7 @@ public class JdbcResourceMirror extends ResourceMirror {
         }
         this.profile = profile;
         this.arguments = arguments;
+        this.sessionId = sessionId;
     }
 
     @Override
@@ -71,6 +99,36 @@ public class JdbcResourceMirror extends ResourceMirror {
         return profile.getResourceName();
     }
 
+    @Override
+    public void onSessionCompleting() throws IOException {
+        JdbcWatermarkStore store = getWatermarkStore();
+        if (store == null || sessionId == null || RuntimeContext.get().isSimulation()) {
+            return;
+        }
+        WGLOG.info("I02002",
+                getName(),
+                sessionId);
+        try {
+            int count = store.commit(sessionId);
+            WGLOG.info("I02003",
+                    getName(),
+                    sessionId,
+                    count);
+        } catch (IOException e) {
+            WGLOG.error(e, "E02001",
+                    getName(),
+                    sessionId);
+            throw e;
+        }
+    }
+
+    private JdbcWatermarkStore getWatermarkStore() {
+        if (profile.getWatermarkDirectory() == null) {
+            return null;
+        }
+        return new JdbcWatermarkStore(profile.getWatermarkDirectory());
+    }
+
     @Override
     public void prepare(GateScript script) throws IOException {
         if (script == null) {
@@ -98,6 +156,15 @@ public class JdbcResourceMirror extends ResourceMirror {
                 getName(),
                 script.getName());
         JdbcScript<T> jdbcScript = JdbcResourceUtil.convert(profile, script, arguments, DriverScript.Kind.SOURCE);
+        JdbcWatermark watermark = jdbcScript.getWatermark();
+        if (watermark != null && watermark.isRangeRequired() && RuntimeContext.get().isSimulation() == false) {
+            jdbcScript.withWatermark(getWatermark(jdbcScript, watermark));
+        }
+        JdbcSplit split = jdbcScript.getSplit();
+        if (split != null && split.isRangeRequired() && RuntimeContext.get().isSimulation() == false) {
+            Object[] range = getSplitRange(jdbcScript, split);
+            jdbcScript.withSplit(split.withRange(range[0], range[1]));
+        }
         T object = ProcessUtil.newDataModel(profile.getResourceName(), script);
         WGLOG.info("I02001",
                 getName(),
@@ -126,6 +193,197 @@ public class JdbcResourceMirror extends ResourceMirror {
         }
     }
 
+    /**
+     * Returns the range of the split column.
+     * This is computed only once for each source, so that all partitions share the same boundaries.
+     * The partitions are not read in the same transaction, so that the split column must not be modified
+     * during the import; otherwise, some rows may be duplicated or missed.
+     */
+    private synchronized Object[] getSplitRange(JdbcScript<?> script, JdbcSplit split) throws IOException {
+        List<String> key = Arrays.asList(script.getTableName(), split.getColumn(), script.getCondition());
+        Object[] cached = splitRanges.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        String sql = createAggregateSql(script, script.getWatermark(), MessageFormat.format(
+                "MIN({0}), MAX({0})",
+                split.getColumn()));
+        WGLOG.info("I03003",
+                getName(),
+                script.getName(),
+                script.getTableName(),
+                split.getColumn());
+        Object[] range;
+        try (Connection connection = profile.openConnection();
+                PreparedStatement statement = prepareAggregate(connection, script.getWatermark(), sql)) {
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    range = new Object[] { rs.getObject(1), rs.getObject(2) };
+                } else {
+                    range = new Object[2];
+                }
+            }
+        } catch (SQLException e) {
+            for (SQLException ex = e; ex != null; ex = ex.getNextException()) {
+                WGLOG.error(ex, "E03002",
+                        getName(),
+                        script.getName(),
+                        script.getTableName(),
+                        split.getColumn());
+            }
+            throw new IOException(MessageFormat.format(
+                    "Failed to compute split range (resource={0}, table={1}, column={2})",
+                    getName(),
+                    script.getTableName(),
+                    split.getColumn()), e);
+        }
+        try {
+            split.withRange(range[0], range[1]);
+        } catch (IllegalArgumentException e) {
+            WGLOG.error(e, "E03002",
+                    getName(),
+                    script.getName(),
+                    script.getTableName(),
+                    split.getColumn());
+            throw new IOException(MessageFormat.format(
+                    "Split column must be numeric or temporal (resource={0}, table={1}, column={2})",
+                    getName(),
+                    script.getTableName(),
+                    split.getColumn()), e);
+        }
+        WGLOG.info("I03004",
+                getName(),
+                script.getName(),
+                script.getTableName(),
+                split.getColumn(),
+                range[0],
+                range[1]);
+        splitRanges.put(key, range);
+        return range;
+    }
+
+    /**
+     * Returns the resolved watermark, and puts the next value as pending for the current session.
+     * This is computed only once for each source, so that all partitions share the same range.
+     */
+    private synchronized JdbcWatermark getWatermark(JdbcScript<?> script, JdbcWatermark watermark) throws IOException {
+        // the next value is computed with the resolved condition, so that it also must be a part of the key
+        String condition = script.getCondition();
+        List<String> key = Arrays.asList(script.getTableName(), watermark.getColumn(), condition);
+        JdbcWatermark cached = watermarks.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        JdbcWatermarkStore store = getWatermarkStore();
+        if (store == null || sessionId == null) {
+            WGLOG.error("E03003",
+                    getName(),
+                    script.getName(),
+                    script.getTableName(),
+                    watermark.getColumn());
+            throw new IOException(MessageFormat.format(
+                    "Resource \"{0}\" requires profile \"{3}\" for incremental import (table={1}, column={2})",
+                    getName(),
+                    script.getTableName(),
+                    watermark.getColumn(),
+                    JdbcProfile.KEY_WATERMARK_DIRECTORY));
+        }
+        WGLOG.info("I03005",
+                getName(),
+                script.getName(),
+                script.getTableName(),
+                watermark.getColumn());
+        String sql = createAggregateSql(script, null, MessageFormat.format(
+                "MAX({0})",
+                watermark.getColumn()));
+        JdbcWatermark resolved;
+        try {
+            Object last = store.load(getName(), script.getTableName(), watermark.getColumn(), condition);
+            Object current;
+            try (Connection connection = profile.openConnection();
+                    PreparedStatement statement = prepareAggregate(connection, null, sql);
+                    ResultSet rs = statement.executeQuery()) {
+                current = rs.next() ? rs.getObject(1) : null;
+            }
+            resolved = watermark.withRange(last, current);
+            if (resolved.isAdvanced()) {
+                store.put(sessionId,
+                        getName(), script.getTableName(), watermark.getColumn(), condition,
+                        resolved.getNext());
+            }
+        } catch (SQLException e) {
+            for (SQLException ex = e; ex != null; ex = ex.getNextException()) {
+                WGLOG.error(ex, "E03003",
+                        getName(),
+                        script.getName(),
+                        script.getTableName(),
+                        watermark.getColumn());
+            }
+            throw new IOException(MessageFormat.format(
+                    "Failed to compute watermark (resource={0}, table={1}, column={2})",
+                    getName(),
+                    script.getTableName(),
+                    watermark.getColumn()), e);
+        } catch (IOException | IllegalArgumentException e) {
+            WGLOG.error(e, "E03003",
+                    getName(),
+                    script.getName(),
+                    script.getTableName(),
+                    watermark.getColumn());
+            throw new IOException(MessageFormat.format(
+                    "Failed to compute watermark (resource={0}, table={1}, column={2})",
+                    getName(),
+                    script.getTableName(),
+                    watermark.getColumn()), e);
+        }
+        WGLOG.info("I03006",
+                getName(),
+                script.getName(),
+                script.getTableName(),
+                watermark.getColumn(),
+                resolved.getLast(),
+                resolved.getNext());
+        watermarks.put(key, resolved);
+        return resolved;
+    }
+
+    private static String createAggregateSql(JdbcScript<?> script, JdbcWatermark watermark, String aggregation) {
+        String where = JdbcResourceUtil.where(
+                script.getCondition(),
+                watermark == null ? null : watermark.getCondition());
+        if (where == null) {
+            return MessageFormat.format(
+                    "SELECT {1} FROM {0}",
+                    script.getTableName(),
+                    aggregation);
+        } else {
+            return MessageFormat.format(
+                    "SELECT {1} FROM {0} WHERE {2}",
+                    script.getTableName(),
+                    aggregation,
+                    where);
+        }
+    }
+
+    private static PreparedStatement prepareAggregate(
+            Connection connection, JdbcWatermark watermark, String sql) throws SQLException {
+        List<Object> parameters = watermark == null ? Collections.emptyList() : watermark.getParameters();
+        LOG.debug("Executing SQL: {} {}", sql, parameters);
+        PreparedStatement statement = connection.prepareStatement(sql);
+        boolean succeed = false;
+        try {
+            for (int i = 0, n = parameters.size(); i < n; i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            succeed = true;
+            return statement;
+        } finally {
+            if (succeed == false) {
+                statement.close();
+            }
+        }
+    }
+
     @Override
     public <T> DrainDriver<T> createDrain(ProcessScript<T> script) throws IOException {
         if (script == null) {
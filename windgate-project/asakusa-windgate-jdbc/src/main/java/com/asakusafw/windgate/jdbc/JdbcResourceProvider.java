@@ -30,6 +30,7 @@ import com.asakusafw.windgate.core.resource.ResourceProvider;
 /**
  * An implementation of {@link ResourceProvider} using JDBC.
  * @since 0.2.2
+ * @version 0.9.2
  */
 public class JdbcResourceProvider extends ResourceProvider {
 
@@ -55,7 +56,26 @@ public class JdbcResourceProvider extends ResourceProvider {
         LOG.debug("Creating JDBC resource {} for session {}",
                 jdbcProfile.getResourceName(),
                 sessionId);
-        return new JdbcResourceMirror(jdbcProfile, arguments);
+        return new JdbcResourceMirror(jdbcProfile, arguments, sessionId);
+    }
+
+    @Override
+    public void abort(String sessionId) throws IOException {
+        if (jdbcProfile.getWatermarkDirectory() != null) {
+            LOG.debug("Discarding watermarks of JDBC resource {} for session {}",
+                    jdbcProfile.getResourceName(),
+                    sessionId);
+            new JdbcWatermarkStore(jdbcProfile.getWatermarkDirectory()).abort(sessionId);
+        }
+    }
+
+    @Override
+    public void abortAll() throws IOException {
+        if (jdbcProfile.getWatermarkDirectory() != null) {
+            LOG.debug("Discarding watermarks of JDBC resource {}",
+                    jdbcProfile.getResourceName());
+            new JdbcWatermarkStore(jdbcProfile.getWatermarkDirectory()).abortAll();
+        }
     }
 
     @Override
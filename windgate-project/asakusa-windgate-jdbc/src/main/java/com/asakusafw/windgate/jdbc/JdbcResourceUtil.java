@@ -17,6 +17,7 @@ package com.asakusafw.windgate.jdbc;
 
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -36,11 +37,12 @@ import com.asakusafw.windgate.core.WindGateLogger;
 import com.asakusafw.windgate.core.vocabulary.DataModelJdbcSupport;
 import com.asakusafw.windgate.core.vocabulary.JdbcProcess;
 import com.asakusafw.windgate.core.vocabulary.JdbcProcess.OperationKind;
+import com.asakusafw.windgate.core.vocabulary.JdbcProcess.SplitKind;
 
 /**
  * Common utility classes for this package.
  * @since 0.2.2
- * @version 0.7.3
+ * @version 0.9.2
  */
 final class JdbcResourceUtil {
 
@@ -65,6 +67,41 @@ final class JdbcResourceUtil {
         return buf.toString();
     }
 
+    /**
+     * Returns the conjunction of the source condition and the additional conditions.
+     * @param condition the source condition, or {@code null} if it is not specified
+     * @param extras the additional conditions, which may contain {@code null} for missing conditions
+     * @return the conjunction, or {@code null} if there are no conditions
+     */
+    static String where(String condition, String... extras) {
+        List<String> conditions = new ArrayList<>();
+        if (condition != null) {
+            conditions.add(condition);
+        }
+        for (String extra : extras) {
+            if (extra != null) {
+                conditions.add(extra);
+            }
+        }
+        if (conditions.isEmpty()) {
+            return null;
+        } else if (conditions.size() == 1) {
+            return conditions.get(0);
+        }
+        StringBuilder buf = new StringBuilder();
+        if (condition != null) {
+            // the source condition may contain lower precedence operators
+            buf.append('(').append(condition).append(')');
+        }
+        for (String extra : conditions.subList(condition == null ? 0 : 1, conditions.size())) {
+            if (buf.length() > 0) {
+                buf.append(" AND "); //$NON-NLS-1$
+            }
+            buf.append(extra);
+        }
+        return buf.toString();
+    }
+
     static <T> JdbcScript<T> convert(
             JdbcProfile profile,
             ProcessScript<T> process,
@@ -180,9 +217,100 @@ final class JdbcResourceUtil {
                 .withCondition(condition)
                 .withCustomTruncate(customTruncate)
                 .withOptions(options);
+        if (kind == DriverScript.Kind.SOURCE) {
+            script.withSplit(extractSplit(profile, process, kind));
+            String watermarkColumn = extract(profile, process, kind, JdbcProcess.WATERMARK_COLUMN, false);
+            if (watermarkColumn != null && watermarkColumn.isEmpty() == false) {
+                script.withWatermark(new JdbcWatermark(watermarkColumn));
+            }
+        }
         return script;
     }
 
+    private static JdbcSplit extractSplit(
+            JdbcProfile profile,
+            ProcessScript<?> process,
+            DriverScript.Kind kind) throws IOException {
+        assert profile != null;
+        assert process != null;
+        assert kind != null;
+        String indexString = extract(profile, process, kind, JdbcProcess.SPLIT_INDEX, false);
+        if (indexString == null || indexString.isEmpty()) {
+            return null;
+        }
+        String column = extract(profile, process, kind, JdbcProcess.SPLIT_COLUMN, true);
+        int count = extractInt(profile, process, kind, JdbcProcess.SPLIT_COUNT, 1);
+        int index = extractInt(profile, process, kind, JdbcProcess.SPLIT_INDEX, 0);
+        if (index >= count) {
+            WGLOG.error("E01001",
+                    profile.getResourceName(),
+                    process.getName(),
+                    kind.prefix,
+                    JdbcProcess.SPLIT_INDEX.key(),
+                    indexString);
+            throw new IOException(MessageFormat.format(
+                    "\"{3}\" must be less than {4}: {5} (resource={0}, process={1}, kind={2})",
+                    profile.getResourceName(),
+                    process.getName(),
+                    kind,
+                    JdbcProcess.SPLIT_INDEX.key(),
+                    count,
+                    indexString));
+        }
+        String kindString = extract(profile, process, kind, JdbcProcess.SPLIT_KIND, false);
+        SplitKind splitKind = SplitKind.RANGE;
+        if (kindString != null && kindString.isEmpty() == false) {
+            splitKind = SplitKind.find(kindString);
+            if (splitKind == null) {
+                WGLOG.error("E01001",
+                        profile.getResourceName(),
+                        process.getName(),
+                        kind.prefix,
+                        JdbcProcess.SPLIT_KIND.key(),
+                        kindString);
+                throw new IOException(MessageFormat.format(
+                        "Unknown split kind in \"{3}\": \"{4}\" (resource={0}, process={1}, kind={2})",
+                        profile.getResourceName(),
+                        process.getName(),
+                        kind,
+                        JdbcProcess.SPLIT_KIND.key(),
+                        kindString));
+            }
+        }
+        return new JdbcSplit(column, splitKind, count, index);
+    }
+
+    private static int extractInt(
+            JdbcProfile profile,
+            ProcessScript<?> process,
+            DriverScript.Kind kind,
+            JdbcProcess item,
+            int minimum) throws IOException {
+        String value = extract(profile, process, kind, item, true);
+        try {
+            int result = Integer.parseInt(value);
+            if (result >= minimum) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            LOG.debug("Invalid integer value: {}", value, e);
+        }
+        WGLOG.error("E01001",
+                profile.getResourceName(),
+                process.getName(),
+                kind.prefix,
+                item.key(),
+                value);
+        throw new IOException(MessageFormat.format(
+                "\"{3}\" must be an integer (>= {4}): \"{5}\" (resource={0}, process={1}, kind={2})",
+                profile.getResourceName(),
+                process.getName(),
+                kind,
+                item.key(),
+                minimum,
+                value));
+    }
+
     private static String extract(
             JdbcProfile profile,
             ProcessScript<?> process,
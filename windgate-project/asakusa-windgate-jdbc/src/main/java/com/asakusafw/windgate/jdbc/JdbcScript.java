@@ -28,7 +28,7 @@ import com.asakusafw.windgate.core.vocabulary.DataModelJdbcSupport;
  * A structured gate script fragment for JDBC.
  * @param <T> the type of target data model
  * @since 0.2.2
- * @version 0.9.0
+ * @version 0.9.2
  */
 public class JdbcScript<T> {
 
@@ -46,6 +46,10 @@ public class JdbcScript<T> {
 
     private volatile Set<String> options = Collections.emptySet();
 
+    private volatile JdbcSplit split;
+
+    private volatile JdbcWatermark watermark;
+
     /**
      * Creates a new instance.
      * @param name the name of original process
@@ -231,4 +235,44 @@ public class JdbcScript<T> {
         this.options = Collections.unmodifiableSet(new LinkedHashSet<>(values));
         return this;
     }
+
+    /**
+     * Returns the partition of the source.
+     * @return the partition, or {@code null} if the source is not split
+     * @since 0.9.2
+     */
+    public JdbcSplit getSplit() {
+        return split;
+    }
+
+    /**
+     * Sets the partition of the source.
+     * @param value the partition, or {@code null} if the source is not split
+     * @return this
+     * @since 0.9.2
+     */
+    public JdbcScript<T> withSplit(JdbcSplit value) {
+        this.split = value;
+        return this;
+    }
+
+    /**
+     * Returns the watermark of the incremental source.
+     * @return the watermark, or {@code null} if the source always fetches all rows
+     * @since 0.9.2
+     */
+    public JdbcWatermark getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Sets the watermark of the incremental source.
+     * @param value the watermark, or {@code null} if the source always fetches all rows
+     * @return this
+     * @since 0.9.2
+     */
+    public JdbcScript<T> withWatermark(JdbcWatermark value) {
+        this.watermark = value;
+        return this;
+    }
 }
@@ -17,10 +17,13 @@ package com.asakusafw.windgate.jdbc;
 
 import java.io.IOException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,6 +36,7 @@ import com.asakusafw.windgate.core.vocabulary.DataModelJdbcSupport.DataModelResu
  * An implementation of {@link SourceDriver} using JDBC.
  * @param <T> the type of data model object
  * @since 0.2.2
+ * @version 0.9.2
  */
 public class JdbcSourceDriver<T> implements SourceDriver<T> {
 
@@ -116,7 +120,14 @@ public class JdbcSourceDriver<T> implements SourceDriver<T> {
 
     private ResultSet prepareResultSet() throws SQLException {
         String sql = createSql();
-        statement = connection.createStatement();
+        List<Object> parameters = getParameters();
+        PreparedStatement prepared = null;
+        if (parameters.isEmpty()) {
+            statement = connection.createStatement();
+        } else {
+            prepared = connection.prepareStatement(sql);
+            statement = prepared;
+        }
         boolean succeed = false;
         try {
             WGLOG.info("I03001",
@@ -127,8 +138,17 @@ public class JdbcSourceDriver<T> implements SourceDriver<T> {
             if (profile.getBatchGetUnit() != 0) {
                 statement.setFetchSize(profile.getBatchGetUnit());
             }
-            LOG.debug("Executing SQL: {}", sql);
-            ResultSet result = statement.executeQuery(sql);
+            ResultSet result;
+            if (prepared == null) {
+                LOG.debug("Executing SQL: {}", sql);
+                result = statement.executeQuery(sql);
+            } else {
+                LOG.debug("Executing SQL: {} {}", sql, parameters);
+                for (int i = 0, n = parameters.size(); i < n; i++) {
+                    prepared.setObject(i + 1, parameters.get(i));
+                }
+                result = prepared.executeQuery();
+            }
             LOG.debug("Executed SQL: {}", sql);
             WGLOG.info("I03002",
                     profile.getResourceName(),
@@ -156,13 +176,16 @@ public class JdbcSourceDriver<T> implements SourceDriver<T> {
 
     private String createSql() {
         assert script.getColumnNames().isEmpty() == false;
-        if (script.getCondition() != null) {
-            assert script.getCondition().isEmpty() == false;
+        String where = JdbcResourceUtil.where(
+                script.getCondition(),
+                script.getWatermark() == null ? null : script.getWatermark().getCondition(),
+                script.getSplit() == null ? null : script.getSplit().getCondition());
+        if (where != null) {
             return MessageFormat.format(
                     "SELECT {1} FROM {0} WHERE {2}",
                     script.getTableName(),
                     JdbcResourceUtil.join(script.getColumnNames()),
-                    script.getCondition());
+                    where);
         } else {
             return MessageFormat.format(
                     "SELECT {1} FROM {0}",
@@ -171,6 +194,17 @@ public class JdbcSourceDriver<T> implements SourceDriver<T> {
         }
     }
 
+    private List<Object> getParameters() {
+        List<Object> results = new ArrayList<>();
+        if (script.getWatermark() != null) {
+            results.addAll(script.getWatermark().getParameters());
+        }
+        if (script.getSplit() != null) {
+            results.addAll(script.getSplit().getParameters());
+        }
+        return results;
+    }
+
     @Override
     public boolean next() throws IOException {
         try {
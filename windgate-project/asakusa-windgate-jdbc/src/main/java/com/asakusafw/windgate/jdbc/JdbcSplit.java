@@ -0,0 +1,271 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.windgate.jdbc;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.asakusafw.windgate.core.vocabulary.JdbcProcess.SplitKind;
+
+/**
+ * A partition of JDBC source.
+ * {@link SplitKind#RANGE} partitions require the range of the split column,
+ * which must be {@link #withRange(Object, Object) resolved} before building their conditions.
+ * @since 0.9.2
+ */
+public class JdbcSplit {
+
+    private static final int EXTRA_SCALE = 10;
+
+    private final String column;
+
+    private final SplitKind kind;
+
+    private final int count;
+
+    private final int index;
+
+    private final boolean resolved;
+
+    private final Object lower;
+
+    private final Object upper;
+
+    /**
+     * Creates a new instance.
+     * @param column the split column name or expression
+     * @param kind the split kind
+     * @param count the number of partitions
+     * @param index the partition index (0-origin)
+     * @throws IllegalArgumentException if some parameters were {@code null} or out of range
+     */
+    public JdbcSplit(String column, SplitKind kind, int count, int index) {
+        this(column, kind, count, index, kind == SplitKind.MODULO, null, null);
+    }
+
+    private JdbcSplit(
+            String column, SplitKind kind, int count, int index,
+            boolean resolved, Object lower, Object upper) {
+        if (column == null || column.trim().isEmpty()) {
+            throw new IllegalArgumentException("column must not be empty"); //$NON-NLS-1$
+        }
+        if (kind == null) {
+            throw new IllegalArgumentException("kind must not be null"); //$NON-NLS-1$
+        }
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive"); //$NON-NLS-1$
+        }
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("index must be in [0, count)"); //$NON-NLS-1$
+        }
+        this.column = column;
+        this.kind = kind;
+        this.count = count;
+        this.index = index;
+        this.resolved = resolved;
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * Returns the split column name or expression.
+     * @return the split column
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Returns the split kind.
+     * @return the split kind
+     */
+    public SplitKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the number of partitions.
+     * @return the number of partitions
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the index of this partition.
+     * @return the partition index (0-origin)
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns whether or not the range of the split column is required to build the condition.
+     * @return {@code true} if it is required, otherwise {@code false}
+     */
+    public boolean isRangeRequired() {
+        return resolved == false;
+    }
+
+    /**
+     * Returns a copy of this partition with the range of the split column.
+     * The conditions of partitions which are resolved with the same range are disjoint,
+     * and together they cover every value of the split column (including {@code NULL}).
+     * Note that each partition is read in its own transaction, so that a row may be read twice or missed
+     * if its split column is modified while the partitions are being read.
+     * @param minimum the minimum value of the split column, or {@code null} if there are no such values
+     * @param maximum the maximum value of the split column, or {@code null} if there are no such values
+     * @return the resolved partition
+     * @throws IllegalArgumentException if the values are not numeric nor temporal
+     */
+    public JdbcSplit withRange(Object minimum, Object maximum) {
+        if (kind != SplitKind.RANGE) {
+            return this;
+        }
+        if (minimum == null || maximum == null) {
+            return new JdbcSplit(column, kind, count, index, true, null, null);
+        }
+        Object lowerBound = index == 0 ? null : boundary(minimum, maximum, index, count);
+        Object upperBound = index == count - 1 ? null : boundary(minimum, maximum, index + 1, count);
+        return new JdbcSplit(column, kind, count, index, true, lowerBound, upperBound);
+    }
+
+    /**
+     * Returns the condition expression of this partition.
+     * The expression may contain placeholders ({@code ?}) for {@link #getParameters() the parameters}.
+     * @return the condition expression, or {@code null} if this partition contains all rows
+     * @throws IllegalStateException if {@link #isRangeRequired() the range is not resolved}
+     */
+    public String getCondition() {
+        if (isRangeRequired()) {
+            throw new IllegalStateException();
+        }
+        switch (kind) {
+        case MODULO:
+            if (index == 0) {
+                return MessageFormat.format("({0} IS NULL OR MOD({0}, {1}) = 0)", //$NON-NLS-1$
+                        column, String.valueOf(count));
+            } else {
+                return MessageFormat.format("ABS(MOD({0}, {1})) = {2}", //$NON-NLS-1$
+                        column, String.valueOf(count), String.valueOf(index));
+            }
+        case RANGE:
+            if (count == 1) {
+                return null;
+            } else if (lower == null && upper == null) {
+                // no values in range: the first partition takes all rows
+                return index == 0 ? null : "1 = 0"; //$NON-NLS-1$
+            } else if (lower == null) {
+                return MessageFormat.format("({0} IS NULL OR {0} < ?)", column); //$NON-NLS-1$
+            } else if (upper == null) {
+                return MessageFormat.format("{0} >= ?", column); //$NON-NLS-1$
+            } else {
+                return MessageFormat.format("({0} >= ? AND {0} < ?)", column); //$NON-NLS-1$
+            }
+        default:
+            throw new AssertionError(kind);
+        }
+    }
+
+    /**
+     * Returns the parameters for {@link #getCondition() the condition expression}.
+     * @return the parameters
+     * @throws IllegalStateException if {@link #isRangeRequired() the range is not resolved}
+     */
+    public List<Object> getParameters() {
+        if (isRangeRequired()) {
+            throw new IllegalStateException();
+        }
+        List<Object> results = new ArrayList<>();
+        if (lower != null) {
+            results.add(lower);
+        }
+        if (upper != null) {
+            results.add(upper);
+        }
+        return Collections.unmodifiableList(results);
+    }
+
+    static Object boundary(Object minimum, Object maximum, int position, int count) {
+        assert minimum != null;
+        assert maximum != null;
+        assert count > 0;
+        if (minimum instanceof Number && maximum instanceof Number) {
+            BigDecimal min = toDecimal((Number) minimum);
+            BigDecimal max = toDecimal((Number) maximum);
+            int scale = isIntegral(min) && isIntegral(max) ? 0 : Math.max(min.scale(), max.scale()) + EXTRA_SCALE;
+            return interpolate(min, max, position, count, scale);
+        } else if (minimum instanceof java.util.Date && maximum instanceof java.util.Date) {
+            BigDecimal min = BigDecimal.valueOf(((java.util.Date) minimum).getTime());
+            BigDecimal max = BigDecimal.valueOf(((java.util.Date) maximum).getTime());
+            long value = interpolate(min, max, position, count, 0).longValueExact();
+            if (minimum instanceof Timestamp) {
+                return new Timestamp(value);
+            } else if (minimum instanceof java.sql.Date) {
+                return new java.sql.Date(value);
+            } else if (minimum instanceof Time) {
+                return new Time(value);
+            } else {
+                return new Timestamp(value);
+            }
+        } else {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "split column must be numeric or temporal: {0} - {1}",
+                    minimum,
+                    maximum));
+        }
+    }
+
+    private static BigDecimal interpolate(BigDecimal min, BigDecimal max, int position, int count, int scale) {
+        BigDecimal delta = max.subtract(min).multiply(BigDecimal.valueOf(position));
+        return min.add(delta.divide(BigDecimal.valueOf(count), scale, RoundingMode.FLOOR));
+    }
+
+    private static BigDecimal toDecimal(Number value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(value.doubleValue());
+        } else {
+            return BigDecimal.valueOf(value.longValue());
+        }
+    }
+
+    private static boolean isIntegral(BigDecimal value) {
+        return value.scale() <= 0;
+    }
+
+    @Override
+    public String toString() {
+        return MessageFormat.format(
+                "JdbcSplit(column={0}, kind={1}, index={2}/{3}, range={4}..{5})", //$NON-NLS-1$
+                column,
+                kind,
+                index,
+                count,
+                lower,
+                upper);
+    }
+}
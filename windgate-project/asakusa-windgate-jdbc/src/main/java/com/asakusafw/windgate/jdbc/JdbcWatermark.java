@@ -0,0 +1,205 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.windgate.jdbc;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A watermark of incremental JDBC source.
+ * The source only fetches rows whose watermark column value is in {@code (last, current]},
+ * where {@code last} is the value which was imported in the last successful session,
+ * and {@code current} is the largest value of the column at the beginning of the current session.
+ * These values must be {@link #withRange(Object, Object) resolved} before building the condition.
+ * @since 0.9.2
+ */
+public class JdbcWatermark {
+
+    private final String column;
+
+    private final boolean resolved;
+
+    private final Object last;
+
+    private final Object current;
+
+    /**
+     * Creates a new instance.
+     * @param column the watermark column name
+     * @throws IllegalArgumentException if the column is {@code null} or empty
+     */
+    public JdbcWatermark(String column) {
+        this(column, false, null, null);
+    }
+
+    private JdbcWatermark(String column, boolean resolved, Object last, Object current) {
+        if (column == null || column.trim().isEmpty()) {
+            throw new IllegalArgumentException("column must not be empty"); //$NON-NLS-1$
+        }
+        this.column = column;
+        this.resolved = resolved;
+        this.last = last;
+        this.current = current;
+    }
+
+    /**
+     * Returns the watermark column name.
+     * @return the watermark column
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Returns whether or not the watermark values are required to build the condition.
+     * @return {@code true} if they are required, otherwise {@code false}
+     */
+    public boolean isRangeRequired() {
+        return resolved == false;
+    }
+
+    /**
+     * Returns a copy of this watermark with the range of the watermark column.
+     * @param lastValue the last imported value, or {@code null} if this is the first import
+     * @param currentValue the current maximum value, or {@code null} if there are no such values
+     * @return the resolved watermark
+     * @throws IllegalArgumentException if the values are not comparable
+     */
+    public JdbcWatermark withRange(Object lastValue, Object currentValue) {
+        Object l = normalize(lastValue);
+        Object c = normalize(currentValue);
+        if (l != null && c != null) {
+            compare(l, c);
+        }
+        return new JdbcWatermark(column, true, l, c);
+    }
+
+    /**
+     * Returns the last imported value.
+     * @return the last imported value, or {@code null} if this is the first import
+     * @throws IllegalStateException if {@link #isRangeRequired() the range is not resolved}
+     */
+    public Object getLast() {
+        if (isRangeRequired()) {
+            throw new IllegalStateException();
+        }
+        return last;
+    }
+
+    /**
+     * Returns the value to be kept after the current import was completed.
+     * This never goes back from {@link #getLast() the last value}.
+     * @return the next value, or {@code null} if nothing has been imported yet
+     * @throws IllegalStateException if {@link #isRangeRequired() the range is not resolved}
+     */
+    public Object getNext() {
+        if (isRangeRequired()) {
+            throw new IllegalStateException();
+        }
+        if (current == null) {
+            return last;
+        }
+        if (last == null || compare(last, current) < 0) {
+            return current;
+        }
+        return last;
+    }
+
+    /**
+     * Returns whether or not {@link #getNext() the next value} is different from {@link #getLast() the last one}.
+     * @return {@code true} if the watermark is advanced, otherwise {@code false}
+     * @throws IllegalStateException if {@link #isRangeRequired() the range is not resolved}
+     */
+    public boolean isAdvanced() {
+        return getNext() != last;
+    }
+
+    /**
+     * Returns the condition expression of this watermark.
+     * The expression may contain placeholders ({@code ?}) for {@link #getParameters() the parameters}.
+     * @return the condition expression
+     * @throws IllegalStateException if {@link #isRangeRequired() the range is not resolved}
+     */
+    public String getCondition() {
+        if (isRangeRequired()) {
+            throw new IllegalStateException();
+        }
+        if (current == null) {
+            // no rows have the watermark column
+            return "1 = 0"; //$NON-NLS-1$
+        } else if (last == null) {
+            return MessageFormat.format("{0} <= ?", column); //$NON-NLS-1$
+        } else {
+            return MessageFormat.format("({0} > ? AND {0} <= ?)", column); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Returns the parameters for {@link #getCondition() the condition expression}.
+     * @return the parameters
+     * @throws IllegalStateException if {@link #isRangeRequired() the range is not resolved}
+     */
+    public List<Object> getParameters() {
+        if (isRangeRequired()) {
+            throw new IllegalStateException();
+        }
+        List<Object> results = new ArrayList<>();
+        if (current != null) {
+            if (last != null) {
+                results.add(last);
+            }
+            results.add(current);
+        }
+        return Collections.unmodifiableList(results);
+    }
+
+    private static Object normalize(Object value) {
+        if (value instanceof BigDecimal) {
+            return value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        return value;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int compare(Object a, Object b) {
+        if (a instanceof Comparable && a.getClass() == b.getClass()) {
+            return ((Comparable) a).compareTo(b);
+        }
+        throw new IllegalArgumentException(MessageFormat.format(
+                "watermark values must be comparable: {0} - {1}",
+                a,
+                b));
+    }
+
+    @Override
+    public String toString() {
+        return MessageFormat.format(
+                "JdbcWatermark(column={0}, range=({1}, {2}])", //$NON-NLS-1$
+                column,
+                last,
+                current);
+    }
+}
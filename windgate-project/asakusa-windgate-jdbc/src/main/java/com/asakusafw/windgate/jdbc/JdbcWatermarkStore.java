@@ -0,0 +1,360 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.windgate.jdbc;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps watermarks of incremental JDBC sources on the local file system.
+ * Each session first puts the new watermarks as pending, and then they are committed only if the session was
+ * completed successfully.
+ * Watermarks are keyed by the resource name, the table, the column, and the resolved source condition,
+ * because each distinct condition selects a different set of rows and has its own maximum value.
+ * @since 0.9.2
+ */
+final class JdbcWatermarkStore {
+
+    static final Logger LOG = LoggerFactory.getLogger(JdbcWatermarkStore.class);
+
+    private static final String PENDING_DIRECTORY = ".pending"; //$NON-NLS-1$
+
+    private static final String TEMPORARY_PREFIX = ".tmp-"; //$NON-NLS-1$
+
+    private static final String EXTENSION = ".properties"; //$NON-NLS-1$
+
+    private static final String KEY_SEPARATOR = "@"; //$NON-NLS-1$
+
+    private static final String KEY_RESOURCE = "resource"; //$NON-NLS-1$
+
+    private static final String KEY_TABLE = "table"; //$NON-NLS-1$
+
+    private static final String KEY_COLUMN = "column"; //$NON-NLS-1$
+
+    private static final String KEY_CONDITION = "condition"; //$NON-NLS-1$
+
+    private static final String KEY_TYPE = "type"; //$NON-NLS-1$
+
+    private static final String KEY_VALUE = "value"; //$NON-NLS-1$
+
+    private final File directory;
+
+    /**
+     * Creates a new instance.
+     * @param directory the base directory
+     */
+    JdbcWatermarkStore(File directory) {
+        assert directory != null;
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the last committed watermark value.
+     * @param resource the resource name
+     * @param table the target table name
+     * @param column the watermark column name
+     * @param condition the resolved source condition, or {@code null} if it is not specified
+     * @return the watermark value, or {@code null} if it has not been committed yet
+     * @throws IOException if failed to load the watermark
+     */
+    Object load(String resource, String table, String column, String condition) throws IOException {
+        File file = new File(directory, toFileName(resource, table, column, condition));
+        if (file.isFile() == false) {
+            LOG.debug("Watermark is not found: {}", file);
+            return null;
+        }
+        LOG.debug("Loading watermark: {}", file);
+        Properties properties = new Properties();
+        try (InputStream input = new FileInputStream(file)) {
+            properties.load(input);
+        }
+        return decode(file, properties.getProperty(KEY_TYPE), properties.getProperty(KEY_VALUE));
+    }
+
+    /**
+     * Puts a pending watermark value for the session.
+     * @param sessionId the current session ID
+     * @param resource the resource name
+     * @param table the target table name
+     * @param column the watermark column name
+     * @param condition the resolved source condition, or {@code null} if it is not specified
+     * @param value the watermark value
+     * @throws IOException if failed to put the watermark
+     * @throws IllegalArgumentException if the value type is not supported
+     */
+    void put(
+            String sessionId,
+            String resource, String table, String column, String condition,
+            Object value) throws IOException {
+        assert value != null;
+        File pending = getPendingDirectory(sessionId);
+        if (pending.isDirectory() == false && pending.mkdirs() == false && pending.isDirectory() == false) {
+            throw new IOException(MessageFormat.format(
+                    "Failed to create watermark directory: {0}",
+                    pending));
+        }
+        Properties properties = new Properties();
+        properties.setProperty(KEY_RESOURCE, resource);
+        properties.setProperty(KEY_TABLE, table);
+        properties.setProperty(KEY_COLUMN, column);
+        if (condition != null) {
+            properties.setProperty(KEY_CONDITION, condition);
+        }
+        encode(properties, value);
+        File file = new File(pending, toFileName(resource, table, column, condition));
+        LOG.debug("Putting pending watermark: {} ({})", file, value);
+        File temporary = File.createTempFile(TEMPORARY_PREFIX, EXTENSION, pending);
+        boolean succeed = false;
+        try {
+            try (OutputStream output = new FileOutputStream(temporary)) {
+                properties.store(output, null);
+            }
+            move(temporary, file);
+            succeed = true;
+        } finally {
+            if (succeed == false && temporary.delete() == false) {
+                LOG.debug("Failed to delete temporary file: {}", temporary);
+            }
+        }
+    }
+
+    /**
+     * Commits the pending watermarks of the session.
+     * @param sessionId the target session ID
+     * @return the number of committed watermarks
+     * @throws IOException if failed to commit the watermarks
+     */
+    int commit(String sessionId) throws IOException {
+        File pending = getPendingDirectory(sessionId);
+        int count = 0;
+        for (File file : list(pending)) {
+            if (file.getName().startsWith(TEMPORARY_PREFIX)) {
+                continue;
+            }
+            File target = new File(directory, file.getName());
+            LOG.debug("Committing watermark: {} -> {}", file, target);
+            move(file, target);
+            count++;
+        }
+        delete(pending);
+        return count;
+    }
+
+    /**
+     * Discards the pending watermarks of the session.
+     * @param sessionId the target session ID
+     * @throws IOException if failed to discard the watermarks
+     */
+    void abort(String sessionId) throws IOException {
+        delete(getPendingDirectory(sessionId));
+    }
+
+    /**
+     * Discards the pending watermarks of all sessions.
+     * @throws IOException if failed to discard the watermarks
+     */
+    void abortAll() throws IOException {
+        for (File file : list(new File(directory, PENDING_DIRECTORY))) {
+            delete(file);
+        }
+    }
+
+    private File getPendingDirectory(String sessionId) {
+        assert sessionId != null;
+        return new File(new File(directory, PENDING_DIRECTORY), sessionId);
+    }
+
+    private static void move(File source, File destination) throws IOException {
+        Files.move(source.toPath(), destination.toPath(),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void delete(File file) throws IOException {
+        for (File child : list(file)) {
+            delete(child);
+        }
+        if (file.exists()) {
+            LOG.debug("Deleting: {}", file);
+            Files.delete(file.toPath());
+        }
+    }
+
+    private static List<File> list(File file) {
+        return Optional.ofNullable(file.listFiles())
+                .map(Arrays::asList)
+                .orElse(Collections.emptyList());
+    }
+
+    static String toFileName(String resource, String table, String column, String condition) {
+        StringBuilder buf = new StringBuilder();
+        buf.append(escape(resource));
+        buf.append(KEY_SEPARATOR);
+        buf.append(escape(table));
+        buf.append(KEY_SEPARATOR);
+        buf.append(escape(column));
+        if (condition != null) {
+            buf.append(KEY_SEPARATOR);
+            buf.append(digest(condition));
+        }
+        buf.append(EXTENSION);
+        return buf.toString();
+    }
+
+    private static String escape(String name) {
+        try {
+            return URLEncoder.encode(name, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String digest(String value) {
+        try {
+            byte[] bytes = MessageDigest.getInstance("SHA-1") //$NON-NLS-1$
+                    .digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder buf = new StringBuilder();
+            for (byte b : bytes) {
+                buf.append(String.format("%02x", b & 0xff)); //$NON-NLS-1$
+            }
+            return buf.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void encode(Properties properties, Object value) {
+        ValueType type = ValueType.of(value);
+        if (type == null) {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "unsupported watermark value: {0} ({1})",
+                    value,
+                    value.getClass().getName()));
+        }
+        properties.setProperty(KEY_TYPE, type.name().toLowerCase(Locale.ENGLISH));
+        properties.setProperty(KEY_VALUE, type.format(value));
+    }
+
+    private static Object decode(File file, String typeName, String value) throws IOException {
+        if (typeName != null && value != null) {
+            for (ValueType type : ValueType.values()) {
+                if (type.name().equalsIgnoreCase(typeName)) {
+                    try {
+                        return type.parse(value);
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException(MessageFormat.format(
+                                "Invalid watermark value: {1} ({0})",
+                                file,
+                                value), e);
+                    }
+                }
+            }
+        }
+        throw new IOException(MessageFormat.format(
+                "Invalid watermark: type={1}, value={2} ({0})",
+                file,
+                typeName,
+                value));
+    }
+
+    private enum ValueType {
+
+        DECIMAL {
+            @Override
+            Object parse(String value) {
+                return new BigDecimal(value);
+            }
+            @Override
+            String format(Object value) {
+                return ((BigDecimal) value).toPlainString();
+            }
+        },
+
+        TIMESTAMP {
+            @Override
+            Object parse(String value) {
+                return Timestamp.valueOf(value);
+            }
+        },
+
+        DATE {
+            @Override
+            Object parse(String value) {
+                return java.sql.Date.valueOf(value);
+            }
+        },
+
+        TIME {
+            @Override
+            Object parse(String value) {
+                return Time.valueOf(value);
+            }
+        },
+
+        STRING {
+            @Override
+            Object parse(String value) {
+                return value;
+            }
+        },
+        ;
+
+        static ValueType of(Object value) {
+            if (value instanceof BigDecimal) {
+                return DECIMAL;
+            } else if (value instanceof Timestamp) {
+                return TIMESTAMP;
+            } else if (value instanceof java.sql.Date) {
+                return DATE;
+            } else if (value instanceof Time) {
+                return TIME;
+            } else if (value instanceof String) {
+                return STRING;
+            }
+            return null;
+        }
+
+        abstract Object parse(String value);
+
+        String format(Object value) {
+            return value.toString();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.windgate.jdbc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Inserts rows through multi-row {@code INSERT ... VALUES (...), (...)} statements.
+ * Parameters of each row are recorded through {@link #getParameterTarget()}, and then they are bound into
+ * a statement which contains multiple rows at once.
+ * @since 0.9.2
+ */
+final class MultiRowInsert implements AutoCloseable {
+
+    static final Logger LOG = LoggerFactory.getLogger(MultiRowInsert.class);
+
+    private final Connection connection;
+
+    private final IntFunction<String> sqlBuilder;
+
+    private final int columnCount;
+
+    private final int rowsPerStatement;
+
+    private final PreparedStatement parameterTarget;
+
+    private final List<List<Invocation>> pendingRows = new ArrayList<>();
+
+    private List<Invocation> currentRow = new ArrayList<>();
+
+    private PreparedStatement statement;
+
+    private boolean sawBatch;
+
+    /**
+     * Creates a new instance.
+     * @param connection the current connection
+     * @param sqlBuilder builds an {@code INSERT} statement for the given number of rows
+     * @param columnCount the number of columns in each row
+     * @param rowsPerStatement the maximum number of rows in each statement
+     */
+    MultiRowInsert(Connection connection, IntFunction<String> sqlBuilder, int columnCount, int rowsPerStatement) {
+        assert connection != null;
+        assert sqlBuilder != null;
+        assert columnCount > 0;
+        assert rowsPerStatement > 0;
+        this.connection = connection;
+        this.sqlBuilder = sqlBuilder;
+        this.columnCount = columnCount;
+        this.rowsPerStatement = rowsPerStatement;
+        this.parameterTarget = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                (proxy, method, args) -> record(method, args));
+    }
+
+    /**
+     * Returns a statement object which accepts parameters of the current row.
+     * It only supports the parameter setters declared on {@link PreparedStatement}
+     * ({@code set*(int parameterIndex, ...)}) and {@code clearParameters()}.
+     * @return the parameter target
+     */
+    PreparedStatement getParameterTarget() {
+        return parameterTarget;
+    }
+
+    private Object record(Method method, Object[] args) throws SQLException {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        // Statement also declares setFetchSize(int) etc., which are not parameter setters
+        if (method.getDeclaringClass() == PreparedStatement.class
+                && method.getName().startsWith("set") //$NON-NLS-1$
+                && parameterTypes.length >= 2
+                && parameterTypes[0] == int.class) {
+            currentRow.add(new Invocation(method, args));
+            return null;
+        } else if (method.getName().equals("clearParameters") && parameterTypes.length == 0) { //$NON-NLS-1$
+            currentRow.clear();
+            return null;
+        } else if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+            case "equals": //$NON-NLS-1$
+                return parameterTarget == args[0];
+            case "hashCode": //$NON-NLS-1$
+                return System.identityHashCode(parameterTarget);
+            default:
+                return MultiRowInsert.class.getSimpleName();
+            }
+        }
+        throw new SQLFeatureNotSupportedException(method.toString());
+    }
+
+    /**
+     * Adds the current row into this batch.
+     * @throws SQLException if failed to add the row
+     */
+    void addBatch() throws SQLException {
+        pendingRows.add(currentRow);
+        currentRow = new ArrayList<>();
+        if (pendingRows.size() >= rowsPerStatement) {
+            if (statement == null) {
+                String sql = sqlBuilder.apply(rowsPerStatement);
+                LOG.debug("Preparing SQL: {}", sql);
+                statement = connection.prepareStatement(sql);
+            }
+            bind(statement);
+            statement.addBatch();
+            sawBatch = true;
+        }
+    }
+
+    /**
+     * Executes the added rows.
+     * @throws SQLException if failed to execute the rows
+     */
+    void executeBatch() throws SQLException {
+        if (sawBatch) {
+            statement.executeBatch();
+            sawBatch = false;
+        }
+        if (pendingRows.isEmpty() == false) {
+            String sql = sqlBuilder.apply(pendingRows.size());
+            LOG.debug("Preparing SQL: {}", sql);
+            try (PreparedStatement rest = connection.prepareStatement(sql)) {
+                bind(rest);
+                rest.executeUpdate();
+            }
+        }
+    }
+
+    private void bind(PreparedStatement target) throws SQLException {
+        for (int i = 0, n = pendingRows.size(); i < n; i++) {
+            int offset = i * columnCount;
+            for (Invocation invocation : pendingRows.get(i)) {
+                invocation.apply(target, offset);
+            }
+        }
+        pendingRows.clear();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        pendingRows.clear();
+        currentRow.clear();
+        if (statement != null) {
+            statement.close();
+            statement = null;
+        }
+    }
+
+    private static final class Invocation {
+
+        private final Method method;
+
+        private final Object[] arguments;
+
+        Invocation(Method method, Object[] arguments) {
+            this.method = method;
+            this.arguments = arguments;
+        }
+
+        void apply(PreparedStatement target, int offset) throws SQLException {
+            Object[] args = arguments.clone();
+            args[0] = (Integer) args[0] + offset;
+            try {
+                method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException) {
+                    throw (SQLException) cause;
+                }
+                throw new SQLException(cause);
+            } catch (IllegalAccessException e) {
+                throw new SQLException(e);
+            }
+        }
+    }
+}
@@ -138,6 +138,66 @@ public class JdbcDrainDriverTest {
         }
     }
 
+    /**
+     * w/ multiple connections.
+     * @throws Exception if failed
+     */
+    @Test
+    public void multiple_connections() throws Exception {
+        JdbcProfile profile = profile();
+        profile.setBatchPutConnections(3);
+        test(profile, 3333);
+    }
+
+    /**
+     * w/ multi-row insert.
+     * @throws Exception if failed
+     */
+    @Test
+    public void multi_row_insert() throws Exception {
+        JdbcProfile profile = profile();
+        profile.setBatchPutRowsPerStatement(7);
+        test(profile, 3333);
+    }
+
+    /**
+     * w/ multi-row insert, which contains null values.
+     * @throws Exception if failed
+     */
+    @Test
+    public void multi_row_insert_null() throws Exception {
+        JdbcProfile profile = profile();
+        profile.setBatchPutRowsPerStatement(3);
+        try (Connection conn = h2.open()) {
+            JdbcScript<Pair> script = new JdbcScript<>(
+                    "testing",
+                    new PairSupport(),
+                    "PAIR",
+                    Arrays.asList("KEY", "VALUE"),
+                    null);
+            try (JdbcDrainDriver<Pair> driver = new JdbcDrainDriver<>(profile, script, conn, true)) {
+                driver.prepare();
+                driver.put(new Pair(1, "A"));
+                driver.put(new Pair(2, null));
+                driver.put(new Pair(3, "C"));
+                driver.put(new Pair(4, null));
+            }
+            test("A", null, "C", null);
+        }
+    }
+
+    /**
+     * w/ multiple connections and multi-row insert.
+     * @throws Exception if failed
+     */
+    @Test
+    public void multiple_connections_multi_row_insert() throws Exception {
+        JdbcProfile profile = profile();
+        profile.setBatchPutConnections(4);
+        profile.setBatchPutRowsPerStatement(16);
+        test(profile, 5000);
+    }
+
     /**
      * do truncate before put.
      * @throws Exception if failed
@@ -310,6 +370,31 @@ public class JdbcDrainDriverTest {
         }
     }
 
+    private void test(JdbcProfile profile, int count) throws Exception {
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (0, 'Hello, world!')");
+        try (Connection conn = h2.open()) {
+            JdbcScript<Pair> script = new JdbcScript<>(
+                    "testing",
+                    new PairSupport(),
+                    "PAIR",
+                    Arrays.asList("KEY", "VALUE"),
+                    null);
+            String[] expected = new String[count];
+            try (JdbcDrainDriver<Pair> driver = new JdbcDrainDriver<>(profile, script, conn, true)) {
+                driver.prepare();
+                Pair buffer = new Pair();
+                for (int i = 1; i <= expected.length; i++) {
+                    String value = "Hello" + i;
+                    expected[i - 1] = value;
+                    buffer.key = i;
+                    buffer.value = value;
+                    driver.put(buffer);
+                }
+            }
+            test(expected);
+        }
+    }
+
     private void test(String... expected) {
         List<List<Object>> results = h2.query("SELECT VALUE FROM PAIR ORDER BY KEY ASC");
         List<String> actual = new ArrayList<>();
@@ -18,6 +18,7 @@ package com.asakusafw.windgate.jdbc;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
+import java.io.File;
 import java.sql.Connection;
 import java.sql.Statement;
 import java.util.Collections;
@@ -62,6 +63,8 @@ public class JdbcProfileTest {
         JdbcProfile profile = JdbcProfile.convert(rp);
         assertThat(profile.getResourceName(), is(rp.getName()));
         assertThat(profile.getBatchPutUnit(), greaterThan(0L));
+        assertThat(profile.getBatchPutConnections(), is(1));
+        assertThat(profile.getBatchPutRowsPerStatement(), is(1));
         try (Connection conn = profile.openConnection();
                 Statement stmt = conn.createStatement()) {
             stmt.execute("INSERT INTO SIMPLE (VALUE) VALUES ('Hello, world!')");
@@ -83,6 +86,8 @@ public class JdbcProfileTest {
         map.put(JdbcProfile.KEY_PASSWORD, "");
         map.put(JdbcProfile.KEY_BATCH_GET_UNIT, "5000");
         map.put(JdbcProfile.KEY_BATCH_PUT_UNIT, "10000");
+        map.put(JdbcProfile.KEY_BATCH_PUT_CONNECTIONS, "4");
+        map.put(JdbcProfile.KEY_BATCH_PUT_ROWS_PER_STATEMENT, "50");
         map.put(JdbcProfile.KEY_CONNECT_RETRY_COUNT, "3");
         map.put(JdbcProfile.KEY_CONNECT_RETRY_INTERVAL, "10");
         map.put(JdbcProfile.KEY_TRUNCATE_STATEMENT, "DELETE FROM {0}");
@@ -90,11 +95,15 @@ public class JdbcProfileTest {
         map.put(JdbcProfile.KEY_PREFIX_PROPERTIES + "hello2", "world2");
         map.put(JdbcProfile.KEY_PREFIX_PROPERTIES + "hello3", "world3");
         map.put(JdbcProfile.KEY_OPTIMIZATIONS, " O,p, t");
+        map.put(JdbcProfile.KEY_WATERMARK_DIRECTORY, "watermark");
 
         JdbcProfile profile = JdbcProfile.convert(toProfile(map));
         assertThat(profile.getBatchGetUnit(), is(5000));
         assertThat(profile.getBatchPutUnit(), is(10000L));
+        assertThat(profile.getBatchPutConnections(), is(4));
+        assertThat(profile.getBatchPutRowsPerStatement(), is(50));
         assertThat(profile.getOptimizations(), containsInAnyOrder("O", "p", "t"));
+        assertThat(profile.getWatermarkDirectory(), is(new File("watermark")));
 
         Map<String, String> extra = new HashMap<>();
         extra.put("hello1", "world1");
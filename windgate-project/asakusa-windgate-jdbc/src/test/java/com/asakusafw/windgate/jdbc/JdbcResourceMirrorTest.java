@@ -18,6 +18,7 @@ package com.asakusafw.windgate.jdbc;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -28,6 +29,7 @@ import java.util.Map;
 
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import com.asakusafw.runtime.core.context.RuntimeContext;
 import com.asakusafw.runtime.core.context.RuntimeContext.ExecutionMode;
@@ -51,6 +53,12 @@ public class JdbcResourceMirrorTest {
     @Rule
     public final RuntimeContextKeeper rc = new RuntimeContextKeeper();
 
+    /**
+     * Temporary folder.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
     /**
      * Test database.
      */
@@ -175,6 +183,346 @@ public class JdbcResourceMirrorTest {
         }
     }
 
+    /**
+     * Source with splits.
+     * @throws Exception if failed
+     */
+    @Test
+    public void source_split() throws Exception {
+        List<ProcessScript<Pair>> processes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Map<String, String> conf = new HashMap<>();
+            conf.put(JdbcProcess.TABLE.key(), "PAIR");
+            conf.put(JdbcProcess.COLUMNS.key(), "KEY,VALUE");
+            conf.put(JdbcProcess.JDBC_SUPPORT.key(), PairSupport.class.getName());
+            conf.put(JdbcProcess.CONDITION.key(), "KEY > 1");
+            conf.put(JdbcProcess.SPLIT_COLUMN.key(), "KEY");
+            conf.put(JdbcProcess.SPLIT_COUNT.key(), "3");
+            conf.put(JdbcProcess.SPLIT_INDEX.key(), String.valueOf(i));
+            processes.add(new ProcessScript<>(
+                    "testing-" + i, "dummy", Pair.class, new DriverScript("jdbc", conf), dummy()));
+        }
+        GateScript script = new GateScript("testing", processes);
+        for (int i = 1; i <= 10; i++) {
+            h2.execute(String.format("INSERT INTO PAIR (KEY, VALUE) VALUES (%d, 'Hello%d')", i, i));
+        }
+        try (JdbcResourceMirror resource = new JdbcResourceMirror(profile(), new ParameterList())) {
+            resource.prepare(script);
+            try (SourceDriver<Pair> source = resource.createSource(processes.get(0))) {
+                source.prepare();
+                test(source, "Hello2", "Hello3");
+            }
+            // the range must not be changed after computed
+            h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (100, 'Hello100')");
+            try (SourceDriver<Pair> source = resource.createSource(processes.get(1))) {
+                source.prepare();
+                test(source, "Hello4", "Hello5", "Hello6");
+            }
+            try (SourceDriver<Pair> source = resource.createSource(processes.get(2))) {
+                source.prepare();
+                test(source, "Hello7", "Hello8", "Hello9", "Hello10", "Hello100");
+            }
+        }
+    }
+
+    /**
+     * Source with invalid split index.
+     * @throws Exception if failed
+     */
+    @Test(expected = IOException.class)
+    public void source_split_invalid_index() throws Exception {
+        Map<String, String> conf = new HashMap<>();
+        conf.put(JdbcProcess.TABLE.key(), "PAIR");
+        conf.put(JdbcProcess.COLUMNS.key(), "KEY,VALUE");
+        conf.put(JdbcProcess.JDBC_SUPPORT.key(), PairSupport.class.getName());
+        conf.put(JdbcProcess.SPLIT_COLUMN.key(), "KEY");
+        conf.put(JdbcProcess.SPLIT_COUNT.key(), "3");
+        conf.put(JdbcProcess.SPLIT_INDEX.key(), "3");
+
+        ProcessScript<Pair> process = process(new DriverScript("jdbc", conf), dummy());
+        GateScript script = script(process);
+        try (JdbcResourceMirror resource = new JdbcResourceMirror(profile(), new ParameterList())) {
+            resource.prepare(script);
+        }
+    }
+
+    /**
+     * Source with watermark.
+     * @throws Exception if failed
+     */
+    @Test
+    public void source_watermark() throws Exception {
+        Map<String, String> conf = new HashMap<>();
+        conf.put(JdbcProcess.TABLE.key(), "PAIR");
+        conf.put(JdbcProcess.COLUMNS.key(), "KEY,VALUE");
+        conf.put(JdbcProcess.JDBC_SUPPORT.key(), PairSupport.class.getName());
+        conf.put(JdbcProcess.WATERMARK_COLUMN.key(), "KEY");
+
+        ProcessScript<Pair> process = process(new DriverScript("jdbc", conf), dummy());
+        GateScript script = script(process);
+        JdbcProfile profile = profile();
+        profile.setWatermarkDirectory(folder.newFolder());
+
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (1, 'Hello1')");
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (2, 'Hello2')");
+        try (JdbcResourceMirror resource = new JdbcResourceMirror(profile, new ParameterList(), "s1")) {
+            resource.prepare(script);
+            try (SourceDriver<Pair> source = resource.createSource(process)) {
+                source.prepare();
+                test(source, "Hello1", "Hello2");
+            }
+            resource.onSessionCompleting();
+        }
+
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (3, 'Hello3')");
+        try (JdbcResourceMirror resource = new JdbcResourceMirror(profile, new ParameterList(), "s2")) {
+            resource.prepare(script);
+            try (SourceDriver<Pair> source = resource.createSource(process)) {
+                source.prepare();
+                test(source, "Hello3");
+            }
+            // aborted
+        }
+
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (4, 'Hello4')");
+        try (JdbcResourceMirror resource = new JdbcResourceMirror(profile, new ParameterList(), "s3")) {
+            resource.prepare(script);
+            try (SourceDriver<Pair> source = resource.createSource(process)) {
+                source.prepare();
+                test(source, "Hello3", "Hello4");
+            }
+            resource.onSessionCompleting();
+        }
+
+        try (JdbcResourceMirror resource = new JdbcResourceMirror(profile, new ParameterList(), "s4")) {
+            resource.prepare(script);
+            try (SourceDriver<Pair> source = resource.createSource(process)) {
+                source.prepare();
+                test(source);
+            }
+            resource.onSessionCompleting();
+        }
+    }
+
+    /**
+     * Source with watermark and condition.
+     * @throws Exception if failed
+     */
+    @Test
+    public void source_watermark_condition() throws Exception {
+        Map<String, String> conf = new HashMap<>();
+        conf.put(JdbcProcess.TABLE.key(), "PAIR");
+        conf.put(JdbcProcess.COLUMNS.key(), "KEY,VALUE");
+        conf.put(JdbcProcess.JDBC_SUPPORT.key(), PairSupport.class.getName());
+        conf.put(JdbcProcess.CONDITION.key(), "KEY < 10 OR KEY > 20");
+        conf.put(JdbcProcess.WATERMARK_COLUMN.key(), "KEY");
+
+        ProcessScript<Pair> process = process(new DriverScript("jdbc", conf), dummy());
+        GateScript script = script(process);
+        JdbcProfile profile = profile();
+        profile.setWatermarkDirectory(folder.newFolder());
+
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (1, 'Hello1')");
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (15, 'Hello15')");
+        try (JdbcResourceMirror resource = new JdbcResourceMirror(profile, new ParameterList(), "s1")) {
+            resource.prepare(script);
+            try (SourceDriver<Pair> source = resource.createSource(process)) {
+                source.prepare();
+                test(source, "Hello1");
+            }
+            resource.onSessionCompleting();
+        }
+
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (2, 'Hello2')");
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (16, 'Hello16')");
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (21, 'Hello21')");
+        try (JdbcResourceMirror resource = new JdbcResourceMirror(profile, new ParameterList(), "s2")) {
+            resource.prepare(script);
+            try (SourceDriver<Pair> source = resource.createSource(process)) {
+                source.prepare();
+                test(source, "Hello2", "Hello21");
+            }
+            resource.onSessionCompleting();
+        }
+    }
+
+    /**
+     * Source with watermark and parameterized condition.
+     * @throws Exception if failed
+     */
+    @Test
+    public void source_watermark_condition_parameterized() throws Exception {
+        Map<String, String> conf = new HashMap<>();
+        conf.put(JdbcProcess.TABLE.key(), "PAIR");
+        conf.put(JdbcProcess.COLUMNS.key(), "KEY,VALUE");
+        conf.put(JdbcProcess.JDBC_SUPPORT.key(), PairSupport.class.getName());
+        conf.put(JdbcProcess.CONDITION.key(), "VALUE <> '${skip}'");
+        conf.put(JdbcProcess.WATERMARK_COLUMN.key(), "KEY");
+
+        ProcessScript<Pair> process = process(new DriverScript("jdbc", conf), dummy());
+        GateScript script = script(process);
+        JdbcProfile profile = profile();
+        profile.setWatermarkDirectory(folder.newFolder());
+
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (1, 'Hello1')");
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (2, 'Hello2')");
+        try (JdbcResourceMirror resource = new JdbcResourceMirror(
+                profile,
+                new ParameterList(Collections.singletonMap("skip", "a")),
+                "s1")) {
+            resource.prepare(script);
+            try (SourceDriver<Pair> source = resource.createSource(process)) {
+                source.prepare();
+                test(source, "Hello1", "Hello2");
+            }
+            resource.onSessionCompleting();
+        }
+
+        // different arguments make a different incremental stream
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (3, 'Hello3')");
+        try (JdbcResourceMirror resource = new JdbcResourceMirror(
+                profile,
+                new ParameterList(Collections.singletonMap("skip", "b")),
+                "s2")) {
+            resource.prepare(script);
+            try (SourceDriver<Pair> source = resource.createSource(process)) {
+                source.prepare();
+                test(source, "Hello1", "Hello2", "Hello3");
+            }
+            resource.onSessionCompleting();
+        }
+
+        // the original arguments continue from their own watermark
+        try (JdbcResourceMirror resource = new JdbcResourceMirror(
+                profile,
+                new ParameterList(Collections.singletonMap("skip", "a")),
+                "s3")) {
+            resource.prepare(script);
+            try (SourceDriver<Pair> source = resource.createSource(process)) {
+                source.prepare();
+                test(source, "Hello3");
+            }
+            resource.onSessionCompleting();
+        }
+    }
+
+    /**
+     * Sources with watermark on different resources which share the watermark directory.
+     * @throws Exception if failed
+     */
+    @Test
+    public void source_watermark_resources() throws Exception {
+        File directory = folder.newFolder();
+        JdbcProfile profile = profile();
+        profile.setWatermarkDirectory(directory);
+        JdbcProfile other = new JdbcProfile(
+                "other",
+                null,
+                org.h2.Driver.class.getName(),
+                h2.getJdbcUrl(),
+                null,
+                null,
+                100);
+        other.setWatermarkDirectory(directory);
+
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (1, 'Hello1')");
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (2, 'Hello2')");
+        for (JdbcProfile p : new JdbcProfile[] { profile, other }) {
+            Map<String, String> conf = new HashMap<>();
+            conf.put(JdbcProcess.TABLE.key(), "PAIR");
+            conf.put(JdbcProcess.COLUMNS.key(), "KEY,VALUE");
+            conf.put(JdbcProcess.JDBC_SUPPORT.key(), PairSupport.class.getName());
+            conf.put(JdbcProcess.WATERMARK_COLUMN.key(), "KEY");
+            ProcessScript<Pair> process = process(new DriverScript(p.getResourceName(), conf), dummy());
+            try (JdbcResourceMirror resource = new JdbcResourceMirror(p, new ParameterList(), "s1")) {
+                resource.prepare(script(process));
+                try (SourceDriver<Pair> source = resource.createSource(process)) {
+                    source.prepare();
+                    test(source, "Hello1", "Hello2");
+                }
+                resource.onSessionCompleting();
+            }
+        }
+    }
+
+    /**
+     * Source with watermark and split.
+     * @throws Exception if failed
+     */
+    @Test
+    public void source_watermark_split() throws Exception {
+        List<ProcessScript<Pair>> processes = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Map<String, String> conf = new HashMap<>();
+            conf.put(JdbcProcess.TABLE.key(), "PAIR");
+            conf.put(JdbcProcess.COLUMNS.key(), "KEY,VALUE");
+            conf.put(JdbcProcess.JDBC_SUPPORT.key(), PairSupport.class.getName());
+            conf.put(JdbcProcess.WATERMARK_COLUMN.key(), "KEY");
+            conf.put(JdbcProcess.SPLIT_COLUMN.key(), "KEY");
+            conf.put(JdbcProcess.SPLIT_COUNT.key(), "2");
+            conf.put(JdbcProcess.SPLIT_INDEX.key(), String.valueOf(i));
+            processes.add(new ProcessScript<>(
+                    "testing-" + i, "dummy", Pair.class, new DriverScript("jdbc", conf), dummy()));
+        }
+        GateScript script = new GateScript("testing", processes);
+        JdbcProfile profile = profile();
+        profile.setWatermarkDirectory(folder.newFolder());
+
+        for (int i = 1; i <= 4; i++) {
+            h2.execute(String.format("INSERT INTO PAIR (KEY, VALUE) VALUES (%d, 'Hello%d')", i, i));
+        }
+        try (JdbcResourceMirror resource = new JdbcResourceMirror(profile, new ParameterList(), "s1")) {
+            resource.prepare(script);
+            try (SourceDriver<Pair> source = resource.createSource(processes.get(0))) {
+                source.prepare();
+                test(source, "Hello1");
+            }
+            try (SourceDriver<Pair> source = resource.createSource(processes.get(1))) {
+                source.prepare();
+                test(source, "Hello2", "Hello3", "Hello4");
+            }
+            resource.onSessionCompleting();
+        }
+
+        for (int i = 5; i <= 8; i++) {
+            h2.execute(String.format("INSERT INTO PAIR (KEY, VALUE) VALUES (%d, 'Hello%d')", i, i));
+        }
+        try (JdbcResourceMirror resource = new JdbcResourceMirror(profile, new ParameterList(), "s2")) {
+            resource.prepare(script);
+            try (SourceDriver<Pair> source = resource.createSource(processes.get(0))) {
+                source.prepare();
+                test(source, "Hello5");
+            }
+            // rows added after the watermark was computed must be imported in the next session
+            h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (9, 'Hello9')");
+            try (SourceDriver<Pair> source = resource.createSource(processes.get(1))) {
+                source.prepare();
+                test(source, "Hello6", "Hello7", "Hello8");
+            }
+            resource.onSessionCompleting();
+        }
+    }
+
+    /**
+     * Source with watermark, but the watermark directory is not configured.
+     * @throws Exception if failed
+     */
+    @Test(expected = IOException.class)
+    public void source_watermark_no_directory() throws Exception {
+        Map<String, String> conf = new HashMap<>();
+        conf.put(JdbcProcess.TABLE.key(), "PAIR");
+        conf.put(JdbcProcess.COLUMNS.key(), "KEY,VALUE");
+        conf.put(JdbcProcess.JDBC_SUPPORT.key(), PairSupport.class.getName());
+        conf.put(JdbcProcess.WATERMARK_COLUMN.key(), "KEY");
+
+        ProcessScript<Pair> process = process(new DriverScript("jdbc", conf), dummy());
+        GateScript script = script(process);
+        try (JdbcResourceMirror resource = new JdbcResourceMirror(profile(), new ParameterList(), "s1")) {
+            resource.prepare(script);
+            resource.createSource(process).close();
+        }
+    }
+
     /**
      * source test in simulated.
      * @throws Exception if failed
@@ -29,6 +29,8 @@ import java.util.List;
 import org.junit.Rule;
 import org.junit.Test;
 
+import com.asakusafw.windgate.core.vocabulary.JdbcProcess.SplitKind;
+
 /**
  * Test for {@link JdbcSourceDriver}.
  */
@@ -150,6 +152,68 @@ public class JdbcSourceDriverTest {
         }
     }
 
+    /**
+     * split by range.
+     * @throws Exception if failed
+     */
+    @Test
+    public void split_range() throws Exception {
+        List<String> answer = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            answer.add(insert(i * 3 - 50));
+        }
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (NULL, 'null')");
+        answer.add("null");
+        List<String> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            JdbcSplit split = new JdbcSplit("KEY", SplitKind.RANGE, 4, i).withRange(-50, 247);
+            List<String> values = values(split, "KEY IS NULL OR KEY <> 1");
+            assertThat(values.size(), is(greaterThan(20)));
+            results.addAll(values);
+        }
+        answer.remove("Hello1");
+        Collections.sort(answer);
+        Collections.sort(results);
+        assertThat(results, is(answer));
+    }
+
+    /**
+     * split by modulo.
+     * @throws Exception if failed
+     */
+    @Test
+    public void split_modulo() throws Exception {
+        List<String> answer = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            answer.add(insert(i - 10));
+        }
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (NULL, 'null')");
+        answer.add("null");
+        List<String> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            JdbcSplit split = new JdbcSplit("KEY", SplitKind.MODULO, 3, i);
+            List<String> values = values(split, null);
+            assertThat(values.size(), is(greaterThan(5)));
+            results.addAll(values);
+        }
+        Collections.sort(answer);
+        Collections.sort(results);
+        assertThat(results, is(answer));
+    }
+
+    /**
+     * split by range, but the range is empty.
+     * @throws Exception if failed
+     */
+    @Test
+    public void split_range_empty() throws Exception {
+        h2.execute("INSERT INTO PAIR (KEY, VALUE) VALUES (NULL, 'null')");
+        assertThat(values(new JdbcSplit("KEY", SplitKind.RANGE, 2, 0).withRange(null, null), null),
+                contains("null"));
+        assertThat(values(new JdbcSplit("KEY", SplitKind.RANGE, 2, 1).withRange(null, null), null),
+                hasSize(0));
+    }
+
     /**
      * Whether close method suppresses error if driver is already wrong.
      * @throws Exception if failed
@@ -177,6 +241,31 @@ public class JdbcSourceDriverTest {
         }
     }
 
+    private String insert(int key) {
+        String value = "Hello" + key;
+        h2.execute(MessageFormat.format(
+                "INSERT INTO PAIR (KEY, VALUE) VALUES ({0}, ''{1}'')",
+                String.valueOf(key),
+                value));
+        return value;
+    }
+
+    private List<String> values(JdbcSplit split, String condition) throws Exception {
+        try (Connection conn = h2.open()) {
+            JdbcScript<Pair> script = new JdbcScript<Pair>(
+                    "testing",
+                    new PairSupport(),
+                    "PAIR",
+                    Arrays.asList("KEY", "VALUE"))
+                    .withCondition(condition)
+                    .withSplit(split);
+            try (JdbcSourceDriver<Pair> driver = new JdbcSourceDriver<>(profile(), script, conn, new Pair())) {
+                driver.prepare();
+                return values(driver);
+            }
+        }
+    }
+
     private List<String> values(JdbcSourceDriver<Pair> driver) throws IOException {
         List<Pair> results = new ArrayList<>();
         while (driver.next()) {
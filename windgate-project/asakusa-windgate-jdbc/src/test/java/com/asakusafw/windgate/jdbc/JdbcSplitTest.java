@@ -0,0 +1,104 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.windgate.jdbc;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+import org.junit.Test;
+
+import com.asakusafw.windgate.core.vocabulary.JdbcProcess.SplitKind;
+
+/**
+ * Test for {@link JdbcSplit}.
+ */
+public class JdbcSplitTest {
+
+    /**
+     * integral boundaries.
+     */
+    @Test
+    public void boundary_integral() {
+        assertThat(JdbcSplit.boundary(0, 100, 1, 4), is((Object) new BigDecimal(25)));
+        assertThat(JdbcSplit.boundary(0L, 10L, 1, 3), is((Object) new BigDecimal(3)));
+        assertThat(JdbcSplit.boundary(-10, -1, 1, 2), is((Object) new BigDecimal(-6)));
+    }
+
+    /**
+     * decimal boundaries.
+     */
+    @Test
+    public void boundary_decimal() {
+        Object value = JdbcSplit.boundary(new BigDecimal("0.0"), new BigDecimal("1.0"), 1, 3);
+        assertThat(value, is(instanceOf(BigDecimal.class)));
+        assertThat(((BigDecimal) value).doubleValue(), is(closeTo(0.333, 0.001)));
+    }
+
+    /**
+     * temporal boundaries.
+     */
+    @Test
+    public void boundary_temporal() {
+        Object value = JdbcSplit.boundary(new Timestamp(1000), new Timestamp(3000), 1, 2);
+        assertThat(value, is((Object) new Timestamp(2000)));
+    }
+
+    /**
+     * unsupported boundaries.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void boundary_unsupported() {
+        JdbcSplit.boundary("a", "z", 1, 2);
+    }
+
+    /**
+     * range conditions.
+     */
+    @Test
+    public void range() {
+        JdbcSplit first = new JdbcSplit("K", SplitKind.RANGE, 3, 0);
+        assertThat(first.isRangeRequired(), is(true));
+        first = first.withRange(0, 30);
+        assertThat(first.isRangeRequired(), is(false));
+        assertThat(first.getCondition(), is("(K IS NULL OR K < ?)"));
+        assertThat(first.getParameters(), contains(new BigDecimal(10)));
+
+        JdbcSplit middle = new JdbcSplit("K", SplitKind.RANGE, 3, 1).withRange(0, 30);
+        assertThat(middle.getCondition(), is("(K >= ? AND K < ?)"));
+        assertThat(middle.getParameters(), contains(new BigDecimal(10), new BigDecimal(20)));
+
+        JdbcSplit last = new JdbcSplit("K", SplitKind.RANGE, 3, 2).withRange(0, 30);
+        assertThat(last.getCondition(), is("K >= ?"));
+        assertThat(last.getParameters(), contains(new BigDecimal(20)));
+    }
+
+    /**
+     * modulo conditions.
+     */
+    @Test
+    public void modulo() {
+        JdbcSplit first = new JdbcSplit("K", SplitKind.MODULO, 3, 0);
+        assertThat(first.isRangeRequired(), is(false));
+        assertThat(first.getCondition(), is("(K IS NULL OR MOD(K, 3) = 0)"));
+        assertThat(first.getParameters(), hasSize(0));
+
+        JdbcSplit last = new JdbcSplit("K", SplitKind.MODULO, 3, 2);
+        assertThat(last.getCondition(), is("ABS(MOD(K, 3)) = 2"));
+    }
+}
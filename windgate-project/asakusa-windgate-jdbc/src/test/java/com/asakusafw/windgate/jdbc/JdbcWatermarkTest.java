@@ -0,0 +1,115 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.windgate.jdbc;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link JdbcWatermark}.
+ */
+public class JdbcWatermarkTest {
+
+    /**
+     * first import.
+     */
+    @Test
+    public void first() {
+        JdbcWatermark watermark = new JdbcWatermark("K");
+        assertThat(watermark.isRangeRequired(), is(true));
+        watermark = watermark.withRange(null, 10);
+        assertThat(watermark.isRangeRequired(), is(false));
+        assertThat(watermark.getCondition(), is("K <= ?"));
+        assertThat(watermark.getParameters(), contains(new BigDecimal(10)));
+        assertThat(watermark.isAdvanced(), is(true));
+        assertThat(watermark.getNext(), is((Object) new BigDecimal(10)));
+    }
+
+    /**
+     * incremental import.
+     */
+    @Test
+    public void incremental() {
+        JdbcWatermark watermark = new JdbcWatermark("K").withRange(new BigDecimal(10), 20L);
+        assertThat(watermark.getCondition(), is("(K > ? AND K <= ?)"));
+        assertThat(watermark.getParameters(), contains(new BigDecimal(10), new BigDecimal(20)));
+        assertThat(watermark.isAdvanced(), is(true));
+        assertThat(watermark.getNext(), is((Object) new BigDecimal(20)));
+    }
+
+    /**
+     * no new rows.
+     */
+    @Test
+    public void stay() {
+        JdbcWatermark watermark = new JdbcWatermark("K").withRange(new BigDecimal(10), 10);
+        assertThat(watermark.isAdvanced(), is(false));
+        assertThat(watermark.getNext(), is((Object) new BigDecimal(10)));
+    }
+
+    /**
+     * the watermark never goes back.
+     */
+    @Test
+    public void backward() {
+        JdbcWatermark watermark = new JdbcWatermark("K").withRange(new BigDecimal(10), 5);
+        assertThat(watermark.isAdvanced(), is(false));
+        assertThat(watermark.getNext(), is((Object) new BigDecimal(10)));
+    }
+
+    /**
+     * empty table.
+     */
+    @Test
+    public void empty() {
+        JdbcWatermark watermark = new JdbcWatermark("K").withRange(null, null);
+        assertThat(watermark.getCondition(), is("1 = 0"));
+        assertThat(watermark.getParameters(), hasSize(0));
+        assertThat(watermark.isAdvanced(), is(false));
+        assertThat(watermark.getNext(), is(nullValue()));
+    }
+
+    /**
+     * temporal watermark.
+     */
+    @Test
+    public void temporal() {
+        JdbcWatermark watermark = new JdbcWatermark("K").withRange(new Timestamp(1000), new Timestamp(2000));
+        assertThat(watermark.getParameters(), contains(new Timestamp(1000), new Timestamp(2000)));
+        assertThat(watermark.getNext(), is((Object) new Timestamp(2000)));
+    }
+
+    /**
+     * incompatible values.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void incompatible() {
+        new JdbcWatermark("K").withRange(new Timestamp(1000), 10);
+    }
+
+    /**
+     * unresolved.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void unresolved() {
+        new JdbcWatermark("K").getCondition();
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright 2011-2017 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.windgate.jdbc;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Test for {@link MultiRowInsert}.
+ */
+public class MultiRowInsertTest {
+
+    /**
+     * Test database.
+     */
+    @Rule
+    public H2Resource h2 = new H2Resource("testing") {
+        @Override
+        protected void before() throws Exception {
+            executeFile("pair.sql");
+        }
+    };
+
+    /**
+     * simple case.
+     * @throws Exception if failed
+     */
+    @Test
+    public void simple() throws Exception {
+        try (Connection conn = h2.open();
+                MultiRowInsert insert = new MultiRowInsert(conn, MultiRowInsertTest::sql, 2, 2)) {
+            PreparedStatement target = insert.getParameterTarget();
+            for (int i = 1; i <= 5; i++) {
+                target.setInt(1, i);
+                if (i == 3) {
+                    target.setNull(2, Types.VARCHAR);
+                } else {
+                    target.setString(2, "Hello" + i);
+                }
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        List<List<Object>> results = h2.query("SELECT KEY, VALUE FROM PAIR ORDER BY KEY ASC");
+        assertThat(results, is(Arrays.asList(
+                Arrays.asList(1, "Hello1"),
+                Arrays.asList(2, "Hello2"),
+                Arrays.asList(3, null),
+                Arrays.asList(4, "Hello4"),
+                Arrays.asList(5, "Hello5"))));
+    }
+
+    /**
+     * statement setters which are not for parameters must be rejected.
+     * @throws Exception if failed
+     */
+    @Test
+    public void reject_statement_setters() throws Exception {
+        try (Connection conn = h2.open();
+                MultiRowInsert insert = new MultiRowInsert(conn, MultiRowInsertTest::sql, 2, 2)) {
+            PreparedStatement target = insert.getParameterTarget();
+            try {
+                target.setFetchSize(100);
+                fail();
+            } catch (SQLFeatureNotSupportedException e) {
+                // ok.
+            }
+            try {
+                target.setMaxRows(100);
+                fail();
+            } catch (SQLFeatureNotSupportedException e) {
+                // ok.
+            }
+            try {
+                target.setQueryTimeout(100);
+                fail();
+            } catch (SQLFeatureNotSupportedException e) {
+                // ok.
+            }
+            target.setInt(1, 1);
+            target.setString(2, "Hello1");
+            insert.addBatch();
+            insert.executeBatch();
+        }
+        assertThat(h2.count("PAIR"), is(1));
+    }
+
+    private static String sql(int rows) {
+        return IntStream.range(0, rows)
+                .mapToObj(i -> "(?, ?)")
+                .collect(Collectors.joining(", ", "INSERT INTO PAIR (KEY, VALUE) VALUES ", ""));
+    }
+}
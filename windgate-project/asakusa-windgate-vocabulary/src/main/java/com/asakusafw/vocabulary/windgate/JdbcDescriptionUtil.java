@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.function.Predicate;
 
 import com.asakusafw.windgate.core.vocabulary.DataModelJdbcSupport;
+import com.asakusafw.windgate.core.vocabulary.JdbcProcess.SplitKind;
 
 final class JdbcDescriptionUtil {
 
@@ -37,6 +38,28 @@ final class JdbcDescriptionUtil {
         checkOptions(descriptionClass, options);
     }
 
+    static void checkSplit(String descriptionClass, String column, int count, SplitKind kind) {
+        if (count <= 0) {
+            throw new IllegalStateException(MessageFormat.format(
+                    Messages.getString("JdbcDescriptionUtil.errorNotPositiveProperty"), //$NON-NLS-1$
+                    descriptionClass,
+                    "getSplitCount()", //$NON-NLS-1$
+                    count));
+        }
+        if (count > 1 && isEmpty(column)) {
+            throw new IllegalStateException(MessageFormat.format(
+                    Messages.getString("JdbcDescriptionUtil.errorEmptyProperty"), //$NON-NLS-1$
+                    descriptionClass,
+                    "getSplitColumn()")); //$NON-NLS-1$
+        }
+        if (kind == null) {
+            throw new IllegalStateException(MessageFormat.format(
+                    Messages.getString("JdbcDescriptionUtil.errorNullProperty"), //$NON-NLS-1$
+                    descriptionClass,
+                    "getSplitKind()")); //$NON-NLS-1$
+        }
+    }
+
     private static void checkTable(String descriptionClass, String table) {
         if (isEmpty(table)) {
             throw new IllegalStateException(MessageFormat.format(
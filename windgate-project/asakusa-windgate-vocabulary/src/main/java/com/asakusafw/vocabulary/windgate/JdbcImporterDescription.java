@@ -27,6 +27,7 @@ import com.asakusafw.runtime.util.VariableTable;
 import com.asakusafw.windgate.core.DriverScript;
 import com.asakusafw.windgate.core.vocabulary.DataModelJdbcSupport;
 import com.asakusafw.windgate.core.vocabulary.JdbcProcess;
+import com.asakusafw.windgate.core.vocabulary.JdbcProcess.SplitKind;
 
 /**
  * An abstract super class that describes importer process using JDBC/WindGate.
@@ -38,7 +39,7 @@ import com.asakusafw.windgate.core.vocabulary.JdbcProcess;
  * <li> not declared any explicit constructors </li>
  * </ul>
  * @since 0.2.2
- * @version 0.9.0
+ * @version 0.9.2
  */
 public abstract class JdbcImporterDescription extends WindGateImporterDescription {
 
@@ -80,6 +81,63 @@ public abstract class JdbcImporterDescription extends WindGateImporterDescriptio
         return Collections.emptySet();
     }
 
+    /**
+     * Returns the column name (or SQL expression) to split the import into {@link #getSplitCount() partitions}.
+     * Each partition is fetched through its own JDBC connection, and they are transferred in parallel.
+     * <p>
+     * Partitions are not fetched in a single consistent snapshot of the table.
+     * The split column must not be modified while the import is running,
+     * or some rows may be imported twice or may not be imported at all.
+     * </p>
+     * @return the split column, or {@code null} if the import is not split
+     * @see #getSplitKind()
+     * @since 0.9.2
+     */
+    public String getSplitColumn() {
+        return null;
+    }
+
+    /**
+     * Returns the number of partitions of the import.
+     * This is only effective if {@link #getSplitColumn() the split column} is specified.
+     * @return the number of partitions, must be positive
+     * @since 0.9.2
+     */
+    public int getSplitCount() {
+        return 1;
+    }
+
+    /**
+     * Returns how the import is split by the {@link #getSplitColumn() split column}.
+     * <ul>
+     * <li> {@link SplitKind#RANGE} - the split column must be a numeric or temporal type </li>
+     * <li> {@link SplitKind#MODULO} - the split column must be an integral expression </li>
+     * </ul>
+     * @return the split kind
+     * @since 0.9.2
+     */
+    public SplitKind getSplitKind() {
+        return SplitKind.RANGE;
+    }
+
+    /**
+     * Returns the column name to import rows incrementally.
+     * The column must be monotonically increasing for new rows (e.g. a sequence number or an update timestamp).
+     * WindGate remembers the largest value of the column which was imported in the last successful session,
+     * and then the subsequent imports only fetch rows whose column value is greater than it.
+     * The new value is committed only after the jobflow was completed successfully,
+     * so that a failed jobflow imports the same rows again on retry.
+     * The watermark is kept for each combination of the resource, the table, and
+     * {@link #getCondition() the condition} after its batch arguments are resolved;
+     * that is, a condition with different batch arguments is an individual incremental stream.
+     * Note that the target JDBC resource must be configured its watermark directory to use this feature.
+     * @return the watermark column, or {@code null} if the import always fetches all rows
+     * @since 0.9.2
+     */
+    public String getWatermarkColumn() {
+        return null;
+    }
+
     @Override
     public final DriverScript getDriverScript() {
         String descriptionClass = getClass().getName();
@@ -90,7 +148,13 @@ public abstract class JdbcImporterDescription extends WindGateImporterDescriptio
         String condition = getCondition();
         Collection<? extends JdbcAttribute> options = getOptions();
 
+        String splitColumn = getSplitColumn();
+        int splitCount = getSplitCount();
+        SplitKind splitKind = getSplitKind();
+        String watermarkColumn = getWatermarkColumn();
+
         JdbcDescriptionUtil.checkCommonConfig(descriptionClass, modelType, supportClass, table, columns, options);
+        JdbcDescriptionUtil.checkSplit(descriptionClass, splitColumn, splitCount, splitKind);
 
         Map<String, String> configuration = new HashMap<>();
         configuration.put(JdbcProcess.TABLE.key(), table);
@@ -104,6 +168,14 @@ public abstract class JdbcImporterDescription extends WindGateImporterDescriptio
                     .map(JdbcAttribute::getSymbol)
                     .collect(Collectors.toList())));
         }
+        if (JdbcDescriptionUtil.isEmpty(splitColumn) == false && splitCount > 1) {
+            configuration.put(JdbcProcess.SPLIT_COLUMN.key(), splitColumn);
+            configuration.put(JdbcProcess.SPLIT_COUNT.key(), String.valueOf(splitCount));
+            configuration.put(JdbcProcess.SPLIT_KIND.key(), splitKind.value());
+        }
+        if (JdbcDescriptionUtil.isEmpty(watermarkColumn) == false) {
+            configuration.put(JdbcProcess.WATERMARK_COLUMN.key(), watermarkColumn.trim());
+        }
 
         Set<String> parameters = VariableTable.collectVariableNames(condition);
         return new DriverScript(Constants.JDBC_RESOURCE_NAME, configuration, parameters);
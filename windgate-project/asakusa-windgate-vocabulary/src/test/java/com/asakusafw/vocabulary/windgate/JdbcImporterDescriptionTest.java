@@ -34,6 +34,7 @@ import org.junit.Test;
 import com.asakusafw.windgate.core.DriverScript;
 import com.asakusafw.windgate.core.vocabulary.DataModelJdbcSupport;
 import com.asakusafw.windgate.core.vocabulary.JdbcProcess;
+import com.asakusafw.windgate.core.vocabulary.JdbcProcess.SplitKind;
 
 /**
  * Test for {@link JdbcImporterDescription}.
@@ -124,6 +125,67 @@ public class JdbcImporterDescriptionTest {
         assertThat(script.getParameterNames(), containsInAnyOrder("var"));
     }
 
+    /**
+     * w/ split.
+     */
+    @Test
+    public void split() {
+        Mock mock = new Mock(String.class, "testing", StringSupport.class, "TESTING", null, "VALUE")
+                .withSplit("VALUE", 4, SplitKind.MODULO);
+        DriverScript script = mock.getDriverScript();
+        Map<String, String> conf = script.getConfiguration();
+        assertThat(conf.keySet(), hasSize(6));
+        assertThat(conf, hasEntry(JdbcProcess.SPLIT_COLUMN.key(), "VALUE"));
+        assertThat(conf, hasEntry(JdbcProcess.SPLIT_COUNT.key(), "4"));
+        assertThat(conf, hasEntry(JdbcProcess.SPLIT_KIND.key(), SplitKind.MODULO.value()));
+    }
+
+    /**
+     * w/ split but only one partition.
+     */
+    @Test
+    public void split_single() {
+        Mock mock = new Mock(String.class, "testing", StringSupport.class, "TESTING", null, "VALUE")
+                .withSplit("VALUE", 1, SplitKind.RANGE);
+        DriverScript script = mock.getDriverScript();
+        Map<String, String> conf = script.getConfiguration();
+        assertThat(conf.keySet(), hasSize(3));
+        assertThat(conf, not(hasKey(JdbcProcess.SPLIT_COLUMN.key())));
+    }
+
+    /**
+     * split column is not specified.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void split_no_column() {
+        Mock mock = new Mock(String.class, "testing", StringSupport.class, "TESTING", null, "VALUE")
+                .withSplit(null, 2, SplitKind.RANGE);
+        mock.getDriverScript();
+    }
+
+    /**
+     * split count is not positive.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void split_invalid_count() {
+        Mock mock = new Mock(String.class, "testing", StringSupport.class, "TESTING", null, "VALUE")
+                .withSplit("VALUE", 0, SplitKind.RANGE);
+        mock.getDriverScript();
+    }
+
+    /**
+     * w/ watermark.
+     */
+    @Test
+    public void watermark() {
+        Mock mock = new Mock(String.class, "testing", StringSupport.class, "TESTING", null, "VALUE")
+                .withWatermark("VALUE");
+        DriverScript script = mock.getDriverScript();
+        Map<String, String> conf = script.getConfiguration();
+        assertThat(conf.keySet(), hasSize(4));
+        assertThat(conf, hasEntry(JdbcProcess.WATERMARK_COLUMN.key(), "VALUE"));
+    }
+
     /**
      * Table not specified.
      */
@@ -307,6 +369,10 @@ public class JdbcImporterDescriptionTest {
         private final String condition;
         private final List<String> columnNames;
         private List<JdbcAttribute> options;
+        private String splitColumn;
+        private int splitCount = 1;
+        private SplitKind splitKind = SplitKind.RANGE;
+        private String watermarkColumn;
 
         Mock(
                 Class<?> modelType,
@@ -365,9 +431,41 @@ public class JdbcImporterDescriptionTest {
             return options;
         }
 
+        @Override
+        public String getSplitColumn() {
+            return splitColumn;
+        }
+
+        @Override
+        public int getSplitCount() {
+            return splitCount;
+        }
+
+        @Override
+        public SplitKind getSplitKind() {
+            return splitKind;
+        }
+
+        @Override
+        public String getWatermarkColumn() {
+            return watermarkColumn;
+        }
+
         public Mock withOptions(JdbcAttribute... elements) {
             this.options = Arrays.asList(elements);
             return this;
         }
+
+        public Mock withSplit(String column, int count, SplitKind kind) {
+            this.splitColumn = column;
+            this.splitCount = count;
+            this.splitKind = kind;
+            return this;
+        }
+
+        public Mock withWatermark(String column) {
+            this.watermarkColumn = column;
+            return this;
+        }
     }
 }